@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+
+SOURCE=${BASH_SOURCE[0]}
+while [ -L "$SOURCE" ]; do # resolve $SOURCE until the file is no longer a symlink
+  DIR=$( cd -P "$( dirname "$SOURCE" )" >/dev/null 2>&1 && pwd )
+  SOURCE=$(readlink "$SOURCE")
+  [[ $SOURCE != /* ]] && SOURCE=$DIR/$SOURCE # if $SOURCE was a relative symlink, we need to resolve it relative to the path where the symlink file was located
+done
+DIR=$( cd -P "$( dirname "$SOURCE" )" >/dev/null 2>&1 && pwd )
+
+# Runs every tests/*.tbc on the tVM once for each of MODES and compares its output with the .expected file next to it.
+# OlaV1.tbc is a version 1 file saved by the old compiler, it checks those still load and print the same.
+# GlobalNil, UnprovenNil and DivideByZero fault in code the verifier did or didn't prove, -no-quicken runs them checked.
+# JitArgumentTypes calls compiled functions with arguments of other types and JitDeepRecursion overflows the JVM stack
+# in compiled code, -jit-threshold=1 compiles every function on its first call so both have to go back to the interpreter.
+# Every tests/*.sol with an .expected file is also compiled with -O2 and has to print the same, Peephole has jumps into
+# the blocks the optimizer rewrites. -registers runs the register form of each program, it has to print what the stack
+# code prints and fail with the same errors.
+ROOT=$( cd -P "$DIR/.." >/dev/null 2>&1 && pwd )
+CLASSES=${SOL_CLASSES:-$ROOT/out/}
+MODES=("" "-no-quicken" "-jit-threshold=1" "-registers")
+FAILED=0
+
+# The compiler names its output after the part of the path before the first dot, so the directory can't have one
+BUILD=$(mktemp -d /tmp/soltestsXXXXXX)
+trap 'rm -rf "$BUILD"' EXIT
+
+# Runs a .tbc in every mode, arguments are the program, its .expected file and the name failures are reported with
+check() {
+  for MODE in "${MODES[@]}"; do
+    if ! java -classpath $CLASSES:$ROOT/antlr-4.13.1-complete.jar tVM.tVM $MODE $1 2>&1 | diff -q - $2 > /dev/null; then
+      echo "FAILED $3 $MODE"
+      FAILED=1
+    fi
+  done
+}
+
+for PROGRAM in $ROOT/tests/*.tbc; do
+  EXPECTED=${PROGRAM%.tbc}.expected
+  [ -f "$EXPECTED" ] || continue
+
+  check $PROGRAM $EXPECTED $(basename $PROGRAM)
+done
+
+for PROGRAM in $ROOT/tests/*.sol; do
+  EXPECTED=${PROGRAM%.sol}.expected
+  [ -f "$EXPECTED" ] || continue
+
+  NAME=$(basename ${PROGRAM%.sol})
+  cp $PROGRAM $BUILD/
+  java -classpath $CLASSES:$ROOT/antlr-4.13.1-complete.jar Compiler.solCompiler -O2 $BUILD/$NAME.sol > /dev/null 2>&1
+
+  check $BUILD/$NAME.tbc $EXPECTED "$NAME.sol -O2"
+done
+
+exit $FAILED
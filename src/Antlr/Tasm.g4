@@ -47,7 +47,7 @@ allocation: alloc=(GALLOC | GLOAD | GSTORE) INT
           | alloc=(LALLOC | LLOAD | LSTORE) INT                                                    #Local
           ;
 
-call: CALL TAG
+call: op=(CALL | TCALL) TAG
     ;
 
 return: ret=(RET | RETVAL) INT
@@ -132,6 +132,7 @@ LLOAD:'lload';
 LSTORE:'lstore';
 POP:'pop';
 CALL:'call';
+TCALL:'tcall';
 RETVAL:'retval';
 RET:'ret';
 
@@ -24,8 +24,8 @@ public class TasmLexer extends Lexer {
 		DLT=33, DLEQ=34, DTOS=35, SCONST=36, SPRINT=37, SADD=38, SEQ=39, SNEQ=40, 
 		TCONST=41, FCONST=42, BPRINT=43, BEQ=44, BNEQ=45, AND=46, OR=47, NOT=48, 
 		BTOS=49, JUMP=50, JUMPT=51, JUMPF=52, GALLOC=53, GLOAD=54, GSTORE=55, 
-		LALLOC=56, LLOAD=57, LSTORE=58, POP=59, CALL=60, RETVAL=61, RET=62, TAG=63, 
-		WS=64;
+		LALLOC=56, LLOAD=57, LSTORE=58, POP=59, CALL=60, TCALL=61, RETVAL=62, 
+		RET=63, TAG=64, WS=65;
 	public static String[] channelNames = {
 		"DEFAULT_TOKEN_CHANNEL", "HIDDEN"
 	};
@@ -43,7 +43,7 @@ public class TasmLexer extends Lexer {
 			"SCONST", "SPRINT", "SADD", "SEQ", "SNEQ", "TCONST", "FCONST", "BPRINT", 
 			"BEQ", "BNEQ", "AND", "OR", "NOT", "BTOS", "JUMP", "JUMPT", "JUMPF", 
 			"GALLOC", "GLOAD", "GSTORE", "LALLOC", "LLOAD", "LSTORE", "POP", "CALL", 
-			"RETVAL", "RET", "TAG", "WS"
+			"TCALL", "RETVAL", "RET", "TAG", "WS"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
@@ -58,7 +58,7 @@ public class TasmLexer extends Lexer {
 			"'seq'", "'sneq'", "'tconst'", "'fconst'", "'bprint'", "'beq'", "'bneq'", 
 			"'and'", "'or'", "'not'", "'btos'", "'jump'", "'jumpt'", "'jumpf'", "'galloc'", 
 			"'gload'", "'gstore'", "'lalloc'", "'lload'", "'lstore'", "'pop'", "'call'", 
-			"'retval'", "'ret'"
+			"'tcall'", "'retval'", "'ret'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
@@ -71,7 +71,7 @@ public class TasmLexer extends Lexer {
 			"SCONST", "SPRINT", "SADD", "SEQ", "SNEQ", "TCONST", "FCONST", "BPRINT", 
 			"BEQ", "BNEQ", "AND", "OR", "NOT", "BTOS", "JUMP", "JUMPT", "JUMPF", 
 			"GALLOC", "GLOAD", "GSTORE", "LALLOC", "LLOAD", "LSTORE", "POP", "CALL", 
-			"RETVAL", "RET", "TAG", "WS"
+			"TCALL", "RETVAL", "RET", "TAG", "WS"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -133,7 +133,7 @@ public class TasmLexer extends Lexer {
 	public ATN getATN() { return _ATN; }
 
 	public static final String _serializedATN =
-		"\u0004\u0000@\u01f1\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002\u0001"+
+		"\u0004\u0000A\u01f9\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002\u0001"+
 		"\u0007\u0001\u0002\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004"+
 		"\u0007\u0004\u0002\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007"+
 		"\u0007\u0007\u0002\b\u0007\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002\u000b"+
@@ -150,286 +150,291 @@ public class TasmLexer extends Lexer {
 		"0\u00021\u00071\u00022\u00072\u00023\u00073\u00024\u00074\u00025\u0007"+
 		"5\u00026\u00076\u00027\u00077\u00028\u00078\u00029\u00079\u0002:\u0007"+
 		":\u0002;\u0007;\u0002<\u0007<\u0002=\u0007=\u0002>\u0007>\u0002?\u0007"+
-		"?\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0002\u0001\u0002"+
-		"\u0001\u0003\u0001\u0003\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
-		"\u0001\u0004\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005"+
-		"\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0003\u0005\u0098\b\u0005"+
-		"\u0001\u0006\u0004\u0006\u009b\b\u0006\u000b\u0006\f\u0006\u009c\u0001"+
-		"\u0006\u0001\u0006\u0004\u0006\u00a1\b\u0006\u000b\u0006\f\u0006\u00a2"+
-		"\u0003\u0006\u00a5\b\u0006\u0001\u0007\u0004\u0007\u00a8\b\u0007\u000b"+
-		"\u0007\f\u0007\u00a9\u0001\u0007\u0001\u0007\u0004\u0007\u00ae\b\u0007"+
-		"\u000b\u0007\f\u0007\u00af\u0003\u0007\u00b2\b\u0007\u0001\b\u0001\b\u0001"+
-		"\b\u0001\b\u0005\b\u00b8\b\b\n\b\f\b\u00bb\t\b\u0001\b\u0001\b\u0001\t"+
-		"\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001\n\u0001\n\u0001"+
-		"\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\u000b\u0001\u000b\u0001\u000b"+
-		"\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\f\u0001"+
-		"\f\u0001\f\u0001\f\u0001\f\u0001\r\u0001\r\u0001\r\u0001\r\u0001\r\u0001"+
-		"\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001"+
-		"\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u0010\u0001"+
-		"\u0010\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0011\u0001\u0011\u0001"+
-		"\u0011\u0001\u0011\u0001\u0012\u0001\u0012\u0001\u0012\u0001\u0012\u0001"+
-		"\u0012\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0014\u0001"+
-		"\u0014\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0015\u0001\u0015\u0001"+
-		"\u0015\u0001\u0015\u0001\u0015\u0001\u0016\u0001\u0016\u0001\u0016\u0001"+
-		"\u0016\u0001\u0016\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017\u0001"+
-		"\u0017\u0001\u0017\u0001\u0017\u0001\u0018\u0001\u0018\u0001\u0018\u0001"+
-		"\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0019\u0001\u0019\u0001"+
-		"\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001"+
-		"\u001a\u0001\u001a\u0001\u001a\u0001\u001a\u0001\u001a\u0001\u001b\u0001"+
-		"\u001b\u0001\u001b\u0001\u001b\u0001\u001b\u0001\u001c\u0001\u001c\u0001"+
-		"\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001d\u0001\u001d\u0001"+
-		"\u001d\u0001\u001d\u0001\u001d\u0001\u001e\u0001\u001e\u0001\u001e\u0001"+
-		"\u001e\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001"+
-		" \u0001 \u0001 \u0001 \u0001!\u0001!\u0001!\u0001!\u0001!\u0001\"\u0001"+
-		"\"\u0001\"\u0001\"\u0001\"\u0001#\u0001#\u0001#\u0001#\u0001#\u0001#\u0001"+
-		"#\u0001$\u0001$\u0001$\u0001$\u0001$\u0001$\u0001$\u0001%\u0001%\u0001"+
-		"%\u0001%\u0001%\u0001&\u0001&\u0001&\u0001&\u0001\'\u0001\'\u0001\'\u0001"+
-		"\'\u0001\'\u0001(\u0001(\u0001(\u0001(\u0001(\u0001(\u0001(\u0001)\u0001"+
-		")\u0001)\u0001)\u0001)\u0001)\u0001)\u0001*\u0001*\u0001*\u0001*\u0001"+
-		"*\u0001*\u0001*\u0001+\u0001+\u0001+\u0001+\u0001,\u0001,\u0001,\u0001"+
-		",\u0001,\u0001-\u0001-\u0001-\u0001-\u0001.\u0001.\u0001.\u0001/\u0001"+
-		"/\u0001/\u0001/\u00010\u00010\u00010\u00010\u00010\u00011\u00011\u0001"+
-		"1\u00011\u00011\u00012\u00012\u00012\u00012\u00012\u00012\u00013\u0001"+
-		"3\u00013\u00013\u00013\u00013\u00014\u00014\u00014\u00014\u00014\u0001"+
-		"4\u00014\u00015\u00015\u00015\u00015\u00015\u00015\u00016\u00016\u0001"+
-		"6\u00016\u00016\u00016\u00016\u00017\u00017\u00017\u00017\u00017\u0001"+
-		"7\u00017\u00018\u00018\u00018\u00018\u00018\u00018\u00019\u00019\u0001"+
-		"9\u00019\u00019\u00019\u00019\u0001:\u0001:\u0001:\u0001:\u0001;\u0001"+
-		";\u0001;\u0001;\u0001;\u0001<\u0001<\u0001<\u0001<\u0001<\u0001<\u0001"+
-		"<\u0001=\u0001=\u0001=\u0001=\u0001>\u0001>\u0005>\u01e6\b>\n>\f>\u01e9"+
-		"\t>\u0001?\u0004?\u01ec\b?\u000b?\f?\u01ed\u0001?\u0001?\u0001\u00b9\u0000"+
-		"@\u0001\u0001\u0003\u0002\u0005\u0003\u0007\u0004\t\u0005\u000b\u0006"+
+		"?\u0002@\u0007@\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001"+
+		"\u0002\u0001\u0002\u0001\u0003\u0001\u0003\u0001\u0004\u0001\u0004\u0001"+
+		"\u0004\u0001\u0004\u0001\u0004\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0003"+
+		"\u0005\u009a\b\u0005\u0001\u0006\u0004\u0006\u009d\b\u0006\u000b\u0006"+
+		"\f\u0006\u009e\u0001\u0006\u0001\u0006\u0004\u0006\u00a3\b\u0006\u000b"+
+		"\u0006\f\u0006\u00a4\u0003\u0006\u00a7\b\u0006\u0001\u0007\u0004\u0007"+
+		"\u00aa\b\u0007\u000b\u0007\f\u0007\u00ab\u0001\u0007\u0001\u0007\u0004"+
+		"\u0007\u00b0\b\u0007\u000b\u0007\f\u0007\u00b1\u0003\u0007\u00b4\b\u0007"+
+		"\u0001\b\u0001\b\u0001\b\u0001\b\u0005\b\u00ba\b\b\n\b\f\b\u00bd\t\b\u0001"+
+		"\b\u0001\b\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001"+
+		"\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\u000b\u0001\u000b"+
+		"\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b"+
+		"\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\r\u0001\r\u0001\r\u0001"+
+		"\r\u0001\r\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e"+
+		"\u0001\u000e\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
+		"\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0011"+
+		"\u0001\u0011\u0001\u0011\u0001\u0011\u0001\u0012\u0001\u0012\u0001\u0012"+
+		"\u0001\u0012\u0001\u0012\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013"+
+		"\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0015"+
+		"\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0016\u0001\u0016"+
+		"\u0001\u0016\u0001\u0016\u0001\u0016\u0001\u0017\u0001\u0017\u0001\u0017"+
+		"\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0018\u0001\u0018"+
+		"\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u001a\u0001\u001a\u0001\u001a\u0001\u001a\u0001\u001a"+
+		"\u0001\u001b\u0001\u001b\u0001\u001b\u0001\u001b\u0001\u001b\u0001\u001c"+
+		"\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001d"+
+		"\u0001\u001d\u0001\u001d\u0001\u001d\u0001\u001d\u0001\u001e\u0001\u001e"+
+		"\u0001\u001e\u0001\u001e\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f"+
+		"\u0001\u001f\u0001 \u0001 \u0001 \u0001 \u0001!\u0001!\u0001!\u0001!\u0001"+
+		"!\u0001\"\u0001\"\u0001\"\u0001\"\u0001\"\u0001#\u0001#\u0001#\u0001#"+
+		"\u0001#\u0001#\u0001#\u0001$\u0001$\u0001$\u0001$\u0001$\u0001$\u0001"+
+		"$\u0001%\u0001%\u0001%\u0001%\u0001%\u0001&\u0001&\u0001&\u0001&\u0001"+
+		"\'\u0001\'\u0001\'\u0001\'\u0001\'\u0001(\u0001(\u0001(\u0001(\u0001("+
+		"\u0001(\u0001(\u0001)\u0001)\u0001)\u0001)\u0001)\u0001)\u0001)\u0001"+
+		"*\u0001*\u0001*\u0001*\u0001*\u0001*\u0001*\u0001+\u0001+\u0001+\u0001"+
+		"+\u0001,\u0001,\u0001,\u0001,\u0001,\u0001-\u0001-\u0001-\u0001-\u0001"+
+		".\u0001.\u0001.\u0001/\u0001/\u0001/\u0001/\u00010\u00010\u00010\u0001"+
+		"0\u00010\u00011\u00011\u00011\u00011\u00011\u00012\u00012\u00012\u0001"+
+		"2\u00012\u00012\u00013\u00013\u00013\u00013\u00013\u00013\u00014\u0001"+
+		"4\u00014\u00014\u00014\u00014\u00014\u00015\u00015\u00015\u00015\u0001"+
+		"5\u00015\u00016\u00016\u00016\u00016\u00016\u00016\u00016\u00017\u0001"+
+		"7\u00017\u00017\u00017\u00017\u00017\u00018\u00018\u00018\u00018\u0001"+
+		"8\u00018\u00019\u00019\u00019\u00019\u00019\u00019\u00019\u0001:\u0001"+
+		":\u0001:\u0001:\u0001;\u0001;\u0001;\u0001;\u0001;\u0001<\u0001<\u0001"+
+		"<\u0001<\u0001<\u0001<\u0001=\u0001=\u0001=\u0001=\u0001=\u0001=\u0001"+
+		"=\u0001>\u0001>\u0001>\u0001>\u0001?\u0001?\u0005?\u01ee\b?\n?\f?\u01f1"+
+		"\t?\u0001@\u0004@\u01f4\b@\u000b@\f@\u01f5\u0001@\u0001@\u0001\u00bb\u0000"+
+		"A\u0001\u0001\u0003\u0002\u0005\u0003\u0007\u0004\t\u0005\u000b\u0006"+
 		"\r\u0007\u000f\b\u0011\t\u0013\n\u0015\u000b\u0017\f\u0019\r\u001b\u000e"+
 		"\u001d\u000f\u001f\u0010!\u0011#\u0012%\u0013\'\u0014)\u0015+\u0016-\u0017"+
 		"/\u00181\u00193\u001a5\u001b7\u001c9\u001d;\u001e=\u001f? A!C\"E#G$I%"+
-		"K&M\'O(Q)S*U+W,Y-[.]/_0a1c2e3g4i5k6m7o8q9s:u;w<y={>}?\u007f@\u0001\u0000"+
-		"\u0004\u0001\u000009\u0003\u0000AZ__az\u0005\u0000--09AZ__az\u0003\u0000"+
-		"\t\n\r\r  \u01fb\u0000\u0001\u0001\u0000\u0000\u0000\u0000\u0003\u0001"+
-		"\u0000\u0000\u0000\u0000\u0005\u0001\u0000\u0000\u0000\u0000\u0007\u0001"+
-		"\u0000\u0000\u0000\u0000\t\u0001\u0000\u0000\u0000\u0000\u000b\u0001\u0000"+
-		"\u0000\u0000\u0000\r\u0001\u0000\u0000\u0000\u0000\u000f\u0001\u0000\u0000"+
-		"\u0000\u0000\u0011\u0001\u0000\u0000\u0000\u0000\u0013\u0001\u0000\u0000"+
-		"\u0000\u0000\u0015\u0001\u0000\u0000\u0000\u0000\u0017\u0001\u0000\u0000"+
-		"\u0000\u0000\u0019\u0001\u0000\u0000\u0000\u0000\u001b\u0001\u0000\u0000"+
-		"\u0000\u0000\u001d\u0001\u0000\u0000\u0000\u0000\u001f\u0001\u0000\u0000"+
-		"\u0000\u0000!\u0001\u0000\u0000\u0000\u0000#\u0001\u0000\u0000\u0000\u0000"+
-		"%\u0001\u0000\u0000\u0000\u0000\'\u0001\u0000\u0000\u0000\u0000)\u0001"+
-		"\u0000\u0000\u0000\u0000+\u0001\u0000\u0000\u0000\u0000-\u0001\u0000\u0000"+
-		"\u0000\u0000/\u0001\u0000\u0000\u0000\u00001\u0001\u0000\u0000\u0000\u0000"+
-		"3\u0001\u0000\u0000\u0000\u00005\u0001\u0000\u0000\u0000\u00007\u0001"+
-		"\u0000\u0000\u0000\u00009\u0001\u0000\u0000\u0000\u0000;\u0001\u0000\u0000"+
-		"\u0000\u0000=\u0001\u0000\u0000\u0000\u0000?\u0001\u0000\u0000\u0000\u0000"+
-		"A\u0001\u0000\u0000\u0000\u0000C\u0001\u0000\u0000\u0000\u0000E\u0001"+
-		"\u0000\u0000\u0000\u0000G\u0001\u0000\u0000\u0000\u0000I\u0001\u0000\u0000"+
-		"\u0000\u0000K\u0001\u0000\u0000\u0000\u0000M\u0001\u0000\u0000\u0000\u0000"+
-		"O\u0001\u0000\u0000\u0000\u0000Q\u0001\u0000\u0000\u0000\u0000S\u0001"+
-		"\u0000\u0000\u0000\u0000U\u0001\u0000\u0000\u0000\u0000W\u0001\u0000\u0000"+
-		"\u0000\u0000Y\u0001\u0000\u0000\u0000\u0000[\u0001\u0000\u0000\u0000\u0000"+
-		"]\u0001\u0000\u0000\u0000\u0000_\u0001\u0000\u0000\u0000\u0000a\u0001"+
-		"\u0000\u0000\u0000\u0000c\u0001\u0000\u0000\u0000\u0000e\u0001\u0000\u0000"+
-		"\u0000\u0000g\u0001\u0000\u0000\u0000\u0000i\u0001\u0000\u0000\u0000\u0000"+
-		"k\u0001\u0000\u0000\u0000\u0000m\u0001\u0000\u0000\u0000\u0000o\u0001"+
-		"\u0000\u0000\u0000\u0000q\u0001\u0000\u0000\u0000\u0000s\u0001\u0000\u0000"+
-		"\u0000\u0000u\u0001\u0000\u0000\u0000\u0000w\u0001\u0000\u0000\u0000\u0000"+
-		"y\u0001\u0000\u0000\u0000\u0000{\u0001\u0000\u0000\u0000\u0000}\u0001"+
-		"\u0000\u0000\u0000\u0000\u007f\u0001\u0000\u0000\u0000\u0001\u0081\u0001"+
-		"\u0000\u0000\u0000\u0003\u0083\u0001\u0000\u0000\u0000\u0005\u0085\u0001"+
-		"\u0000\u0000\u0000\u0007\u0087\u0001\u0000\u0000\u0000\t\u0089\u0001\u0000"+
-		"\u0000\u0000\u000b\u0097\u0001\u0000\u0000\u0000\r\u00a4\u0001\u0000\u0000"+
-		"\u0000\u000f\u00a7\u0001\u0000\u0000\u0000\u0011\u00b3\u0001\u0000\u0000"+
-		"\u0000\u0013\u00be\u0001\u0000\u0000\u0000\u0015\u00c5\u0001\u0000\u0000"+
-		"\u0000\u0017\u00cc\u0001\u0000\u0000\u0000\u0019\u00d4\u0001\u0000\u0000"+
-		"\u0000\u001b\u00d9\u0001\u0000\u0000\u0000\u001d\u00de\u0001\u0000\u0000"+
-		"\u0000\u001f\u00e4\u0001\u0000\u0000\u0000!\u00e9\u0001\u0000\u0000\u0000"+
-		"#\u00ee\u0001\u0000\u0000\u0000%\u00f2\u0001\u0000\u0000\u0000\'\u00f7"+
-		"\u0001\u0000\u0000\u0000)\u00fb\u0001\u0000\u0000\u0000+\u0100\u0001\u0000"+
-		"\u0000\u0000-\u0105\u0001\u0000\u0000\u0000/\u010a\u0001\u0000\u0000\u0000"+
-		"1\u0111\u0001\u0000\u0000\u00003\u0118\u0001\u0000\u0000\u00005\u0120"+
-		"\u0001\u0000\u0000\u00007\u0125\u0001\u0000\u0000\u00009\u012a\u0001\u0000"+
-		"\u0000\u0000;\u0130\u0001\u0000\u0000\u0000=\u0135\u0001\u0000\u0000\u0000"+
-		"?\u0139\u0001\u0000\u0000\u0000A\u013e\u0001\u0000\u0000\u0000C\u0142"+
-		"\u0001\u0000\u0000\u0000E\u0147\u0001\u0000\u0000\u0000G\u014c\u0001\u0000"+
-		"\u0000\u0000I\u0153\u0001\u0000\u0000\u0000K\u015a\u0001\u0000\u0000\u0000"+
-		"M\u015f\u0001\u0000\u0000\u0000O\u0163\u0001\u0000\u0000\u0000Q\u0168"+
-		"\u0001\u0000\u0000\u0000S\u016f\u0001\u0000\u0000\u0000U\u0176\u0001\u0000"+
-		"\u0000\u0000W\u017d\u0001\u0000\u0000\u0000Y\u0181\u0001\u0000\u0000\u0000"+
-		"[\u0186\u0001\u0000\u0000\u0000]\u018a\u0001\u0000\u0000\u0000_\u018d"+
-		"\u0001\u0000\u0000\u0000a\u0191\u0001\u0000\u0000\u0000c\u0196\u0001\u0000"+
-		"\u0000\u0000e\u019b\u0001\u0000\u0000\u0000g\u01a1\u0001\u0000\u0000\u0000"+
-		"i\u01a7\u0001\u0000\u0000\u0000k\u01ae\u0001\u0000\u0000\u0000m\u01b4"+
-		"\u0001\u0000\u0000\u0000o\u01bb\u0001\u0000\u0000\u0000q\u01c2\u0001\u0000"+
-		"\u0000\u0000s\u01c8\u0001\u0000\u0000\u0000u\u01cf\u0001\u0000\u0000\u0000"+
-		"w\u01d3\u0001\u0000\u0000\u0000y\u01d8\u0001\u0000\u0000\u0000{\u01df"+
-		"\u0001\u0000\u0000\u0000}\u01e3\u0001\u0000\u0000\u0000\u007f\u01eb\u0001"+
-		"\u0000\u0000\u0000\u0081\u0082\u0005\r\u0000\u0000\u0082\u0002\u0001\u0000"+
-		"\u0000\u0000\u0083\u0084\u0005\n\u0000\u0000\u0084\u0004\u0001\u0000\u0000"+
-		"\u0000\u0085\u0086\u0005,\u0000\u0000\u0086\u0006\u0001\u0000\u0000\u0000"+
-		"\u0087\u0088\u0005:\u0000\u0000\u0088\b\u0001\u0000\u0000\u0000\u0089"+
-		"\u008a\u0005h\u0000\u0000\u008a\u008b\u0005a\u0000\u0000\u008b\u008c\u0005"+
-		"l\u0000\u0000\u008c\u008d\u0005t\u0000\u0000\u008d\n\u0001\u0000\u0000"+
-		"\u0000\u008e\u008f\u0005t\u0000\u0000\u008f\u0090\u0005r\u0000\u0000\u0090"+
-		"\u0091\u0005u\u0000\u0000\u0091\u0098\u0005e\u0000\u0000\u0092\u0093\u0005"+
-		"f\u0000\u0000\u0093\u0094\u0005a\u0000\u0000\u0094\u0095\u0005l\u0000"+
-		"\u0000\u0095\u0096\u0005s\u0000\u0000\u0096\u0098\u0005e\u0000\u0000\u0097"+
-		"\u008e\u0001\u0000\u0000\u0000\u0097\u0092\u0001\u0000\u0000\u0000\u0098"+
-		"\f\u0001\u0000\u0000\u0000\u0099\u009b\u0007\u0000\u0000\u0000\u009a\u0099"+
-		"\u0001\u0000\u0000\u0000\u009b\u009c\u0001\u0000\u0000\u0000\u009c\u009a"+
-		"\u0001\u0000\u0000\u0000\u009c\u009d\u0001\u0000\u0000\u0000\u009d\u00a5"+
-		"\u0001\u0000\u0000\u0000\u009e\u00a0\u0005-\u0000\u0000\u009f\u00a1\u0007"+
-		"\u0000\u0000\u0000\u00a0\u009f\u0001\u0000\u0000\u0000\u00a1\u00a2\u0001"+
-		"\u0000\u0000\u0000\u00a2\u00a0\u0001\u0000\u0000\u0000\u00a2\u00a3\u0001"+
-		"\u0000\u0000\u0000\u00a3\u00a5\u0001\u0000\u0000\u0000\u00a4\u009a\u0001"+
-		"\u0000\u0000\u0000\u00a4\u009e\u0001\u0000\u0000\u0000\u00a5\u000e\u0001"+
-		"\u0000\u0000\u0000\u00a6\u00a8\u0007\u0000\u0000\u0000\u00a7\u00a6\u0001"+
-		"\u0000\u0000\u0000\u00a8\u00a9\u0001\u0000\u0000\u0000\u00a9\u00a7\u0001"+
-		"\u0000\u0000\u0000\u00a9\u00aa\u0001\u0000\u0000\u0000\u00aa\u00b1\u0001"+
-		"\u0000\u0000\u0000\u00ab\u00ad\u0005.\u0000\u0000\u00ac\u00ae\u0007\u0000"+
-		"\u0000\u0000\u00ad\u00ac\u0001\u0000\u0000\u0000\u00ae\u00af\u0001\u0000"+
-		"\u0000\u0000\u00af\u00ad\u0001\u0000\u0000\u0000\u00af\u00b0\u0001\u0000"+
-		"\u0000\u0000\u00b0\u00b2\u0001\u0000\u0000\u0000\u00b1\u00ab\u0001\u0000"+
-		"\u0000\u0000\u00b1\u00b2\u0001\u0000\u0000\u0000\u00b2\u0010\u0001\u0000"+
-		"\u0000\u0000\u00b3\u00b9\u0005\"\u0000\u0000\u00b4\u00b5\u0005\\\u0000"+
-		"\u0000\u00b5\u00b8\u0005\"\u0000\u0000\u00b6\u00b8\t\u0000\u0000\u0000"+
-		"\u00b7\u00b4\u0001\u0000\u0000\u0000\u00b7\u00b6\u0001\u0000\u0000\u0000"+
-		"\u00b8\u00bb\u0001\u0000\u0000\u0000\u00b9\u00ba\u0001\u0000\u0000\u0000"+
-		"\u00b9\u00b7\u0001\u0000\u0000\u0000\u00ba\u00bc\u0001\u0000\u0000\u0000"+
-		"\u00bb\u00b9\u0001\u0000\u0000\u0000\u00bc\u00bd\u0005\"\u0000\u0000\u00bd"+
-		"\u0012\u0001\u0000\u0000\u0000\u00be\u00bf\u0005i\u0000\u0000\u00bf\u00c0"+
-		"\u0005c\u0000\u0000\u00c0\u00c1\u0005o\u0000\u0000\u00c1\u00c2\u0005n"+
-		"\u0000\u0000\u00c2\u00c3\u0005s\u0000\u0000\u00c3\u00c4\u0005t\u0000\u0000"+
-		"\u00c4\u0014\u0001\u0000\u0000\u0000\u00c5\u00c6\u0005i\u0000\u0000\u00c6"+
-		"\u00c7\u0005p\u0000\u0000\u00c7\u00c8\u0005r\u0000\u0000\u00c8\u00c9\u0005"+
-		"i\u0000\u0000\u00c9\u00ca\u0005n\u0000\u0000\u00ca\u00cb\u0005t\u0000"+
-		"\u0000\u00cb\u0016\u0001\u0000\u0000\u0000\u00cc\u00cd\u0005i\u0000\u0000"+
-		"\u00cd\u00ce\u0005u\u0000\u0000\u00ce\u00cf\u0005m\u0000\u0000\u00cf\u00d0"+
-		"\u0005i\u0000\u0000\u00d0\u00d1\u0005n\u0000\u0000\u00d1\u00d2\u0005u"+
-		"\u0000\u0000\u00d2\u00d3\u0005s\u0000\u0000\u00d3\u0018\u0001\u0000\u0000"+
-		"\u0000\u00d4\u00d5\u0005i\u0000\u0000\u00d5\u00d6\u0005a\u0000\u0000\u00d6"+
-		"\u00d7\u0005d\u0000\u0000\u00d7\u00d8\u0005d\u0000\u0000\u00d8\u001a\u0001"+
-		"\u0000\u0000\u0000\u00d9\u00da\u0005i\u0000\u0000\u00da\u00db\u0005s\u0000"+
-		"\u0000\u00db\u00dc\u0005u\u0000\u0000\u00dc\u00dd\u0005b\u0000\u0000\u00dd"+
-		"\u001c\u0001\u0000\u0000\u0000\u00de\u00df\u0005i\u0000\u0000\u00df\u00e0"+
-		"\u0005m\u0000\u0000\u00e0\u00e1\u0005u\u0000\u0000\u00e1\u00e2\u0005l"+
-		"\u0000\u0000\u00e2\u00e3\u0005t\u0000\u0000\u00e3\u001e\u0001\u0000\u0000"+
-		"\u0000\u00e4\u00e5\u0005i\u0000\u0000\u00e5\u00e6\u0005d\u0000\u0000\u00e6"+
-		"\u00e7\u0005i\u0000\u0000\u00e7\u00e8\u0005v\u0000\u0000\u00e8 \u0001"+
-		"\u0000\u0000\u0000\u00e9\u00ea\u0005i\u0000\u0000\u00ea\u00eb\u0005m\u0000"+
-		"\u0000\u00eb\u00ec\u0005o\u0000\u0000\u00ec\u00ed\u0005d\u0000\u0000\u00ed"+
-		"\"\u0001\u0000\u0000\u0000\u00ee\u00ef\u0005i\u0000\u0000\u00ef\u00f0"+
-		"\u0005e\u0000\u0000\u00f0\u00f1\u0005q\u0000\u0000\u00f1$\u0001\u0000"+
-		"\u0000\u0000\u00f2\u00f3\u0005i\u0000\u0000\u00f3\u00f4\u0005n\u0000\u0000"+
-		"\u00f4\u00f5\u0005e\u0000\u0000\u00f5\u00f6\u0005q\u0000\u0000\u00f6&"+
-		"\u0001\u0000\u0000\u0000\u00f7\u00f8\u0005i\u0000\u0000\u00f8\u00f9\u0005"+
-		"l\u0000\u0000\u00f9\u00fa\u0005t\u0000\u0000\u00fa(\u0001\u0000\u0000"+
-		"\u0000\u00fb\u00fc\u0005i\u0000\u0000\u00fc\u00fd\u0005l\u0000\u0000\u00fd"+
-		"\u00fe\u0005e\u0000\u0000\u00fe\u00ff\u0005q\u0000\u0000\u00ff*\u0001"+
-		"\u0000\u0000\u0000\u0100\u0101\u0005i\u0000\u0000\u0101\u0102\u0005t\u0000"+
-		"\u0000\u0102\u0103\u0005o\u0000\u0000\u0103\u0104\u0005d\u0000\u0000\u0104"+
-		",\u0001\u0000\u0000\u0000\u0105\u0106\u0005i\u0000\u0000\u0106\u0107\u0005"+
-		"t\u0000\u0000\u0107\u0108\u0005o\u0000\u0000\u0108\u0109\u0005s\u0000"+
-		"\u0000\u0109.\u0001\u0000\u0000\u0000\u010a\u010b\u0005d\u0000\u0000\u010b"+
-		"\u010c\u0005c\u0000\u0000\u010c\u010d\u0005o\u0000\u0000\u010d\u010e\u0005"+
-		"n\u0000\u0000\u010e\u010f\u0005s\u0000\u0000\u010f\u0110\u0005t\u0000"+
-		"\u0000\u01100\u0001\u0000\u0000\u0000\u0111\u0112\u0005d\u0000\u0000\u0112"+
-		"\u0113\u0005p\u0000\u0000\u0113\u0114\u0005r\u0000\u0000\u0114\u0115\u0005"+
-		"i\u0000\u0000\u0115\u0116\u0005n\u0000\u0000\u0116\u0117\u0005t\u0000"+
-		"\u0000\u01172\u0001\u0000\u0000\u0000\u0118\u0119\u0005d\u0000\u0000\u0119"+
-		"\u011a\u0005u\u0000\u0000\u011a\u011b\u0005m\u0000\u0000\u011b\u011c\u0005"+
-		"i\u0000\u0000\u011c\u011d\u0005n\u0000\u0000\u011d\u011e\u0005u\u0000"+
-		"\u0000\u011e\u011f\u0005s\u0000\u0000\u011f4\u0001\u0000\u0000\u0000\u0120"+
-		"\u0121\u0005d\u0000\u0000\u0121\u0122\u0005a\u0000\u0000\u0122\u0123\u0005"+
-		"d\u0000\u0000\u0123\u0124\u0005d\u0000\u0000\u01246\u0001\u0000\u0000"+
-		"\u0000\u0125\u0126\u0005d\u0000\u0000\u0126\u0127\u0005s\u0000\u0000\u0127"+
-		"\u0128\u0005u\u0000\u0000\u0128\u0129\u0005b\u0000\u0000\u01298\u0001"+
-		"\u0000\u0000\u0000\u012a\u012b\u0005d\u0000\u0000\u012b\u012c\u0005m\u0000"+
-		"\u0000\u012c\u012d\u0005u\u0000\u0000\u012d\u012e\u0005l\u0000\u0000\u012e"+
-		"\u012f\u0005t\u0000\u0000\u012f:\u0001\u0000\u0000\u0000\u0130\u0131\u0005"+
-		"d\u0000\u0000\u0131\u0132\u0005d\u0000\u0000\u0132\u0133\u0005i\u0000"+
-		"\u0000\u0133\u0134\u0005v\u0000\u0000\u0134<\u0001\u0000\u0000\u0000\u0135"+
-		"\u0136\u0005d\u0000\u0000\u0136\u0137\u0005e\u0000\u0000\u0137\u0138\u0005"+
-		"q\u0000\u0000\u0138>\u0001\u0000\u0000\u0000\u0139\u013a\u0005d\u0000"+
-		"\u0000\u013a\u013b\u0005n\u0000\u0000\u013b\u013c\u0005e\u0000\u0000\u013c"+
-		"\u013d\u0005q\u0000\u0000\u013d@\u0001\u0000\u0000\u0000\u013e\u013f\u0005"+
-		"d\u0000\u0000\u013f\u0140\u0005l\u0000\u0000\u0140\u0141\u0005t\u0000"+
-		"\u0000\u0141B\u0001\u0000\u0000\u0000\u0142\u0143\u0005d\u0000\u0000\u0143"+
-		"\u0144\u0005l\u0000\u0000\u0144\u0145\u0005e\u0000\u0000\u0145\u0146\u0005"+
-		"q\u0000\u0000\u0146D\u0001\u0000\u0000\u0000\u0147\u0148\u0005d\u0000"+
-		"\u0000\u0148\u0149\u0005t\u0000\u0000\u0149\u014a\u0005o\u0000\u0000\u014a"+
-		"\u014b\u0005s\u0000\u0000\u014bF\u0001\u0000\u0000\u0000\u014c\u014d\u0005"+
-		"s\u0000\u0000\u014d\u014e\u0005c\u0000\u0000\u014e\u014f\u0005o\u0000"+
-		"\u0000\u014f\u0150\u0005n\u0000\u0000\u0150\u0151\u0005s\u0000\u0000\u0151"+
-		"\u0152\u0005t\u0000\u0000\u0152H\u0001\u0000\u0000\u0000\u0153\u0154\u0005"+
-		"s\u0000\u0000\u0154\u0155\u0005p\u0000\u0000\u0155\u0156\u0005r\u0000"+
-		"\u0000\u0156\u0157\u0005i\u0000\u0000\u0157\u0158\u0005n\u0000\u0000\u0158"+
-		"\u0159\u0005t\u0000\u0000\u0159J\u0001\u0000\u0000\u0000\u015a\u015b\u0005"+
-		"s\u0000\u0000\u015b\u015c\u0005a\u0000\u0000\u015c\u015d\u0005d\u0000"+
-		"\u0000\u015d\u015e\u0005d\u0000\u0000\u015eL\u0001\u0000\u0000\u0000\u015f"+
-		"\u0160\u0005s\u0000\u0000\u0160\u0161\u0005e\u0000\u0000\u0161\u0162\u0005"+
-		"q\u0000\u0000\u0162N\u0001\u0000\u0000\u0000\u0163\u0164\u0005s\u0000"+
-		"\u0000\u0164\u0165\u0005n\u0000\u0000\u0165\u0166\u0005e\u0000\u0000\u0166"+
-		"\u0167\u0005q\u0000\u0000\u0167P\u0001\u0000\u0000\u0000\u0168\u0169\u0005"+
-		"t\u0000\u0000\u0169\u016a\u0005c\u0000\u0000\u016a\u016b\u0005o\u0000"+
-		"\u0000\u016b\u016c\u0005n\u0000\u0000\u016c\u016d\u0005s\u0000\u0000\u016d"+
-		"\u016e\u0005t\u0000\u0000\u016eR\u0001\u0000\u0000\u0000\u016f\u0170\u0005"+
-		"f\u0000\u0000\u0170\u0171\u0005c\u0000\u0000\u0171\u0172\u0005o\u0000"+
-		"\u0000\u0172\u0173\u0005n\u0000\u0000\u0173\u0174\u0005s\u0000\u0000\u0174"+
-		"\u0175\u0005t\u0000\u0000\u0175T\u0001\u0000\u0000\u0000\u0176\u0177\u0005"+
-		"b\u0000\u0000\u0177\u0178\u0005p\u0000\u0000\u0178\u0179\u0005r\u0000"+
-		"\u0000\u0179\u017a\u0005i\u0000\u0000\u017a\u017b\u0005n\u0000\u0000\u017b"+
-		"\u017c\u0005t\u0000\u0000\u017cV\u0001\u0000\u0000\u0000\u017d\u017e\u0005"+
-		"b\u0000\u0000\u017e\u017f\u0005e\u0000\u0000\u017f\u0180\u0005q\u0000"+
-		"\u0000\u0180X\u0001\u0000\u0000\u0000\u0181\u0182\u0005b\u0000\u0000\u0182"+
-		"\u0183\u0005n\u0000\u0000\u0183\u0184\u0005e\u0000\u0000\u0184\u0185\u0005"+
-		"q\u0000\u0000\u0185Z\u0001\u0000\u0000\u0000\u0186\u0187\u0005a\u0000"+
-		"\u0000\u0187\u0188\u0005n\u0000\u0000\u0188\u0189\u0005d\u0000\u0000\u0189"+
-		"\\\u0001\u0000\u0000\u0000\u018a\u018b\u0005o\u0000\u0000\u018b\u018c"+
-		"\u0005r\u0000\u0000\u018c^\u0001\u0000\u0000\u0000\u018d\u018e\u0005n"+
-		"\u0000\u0000\u018e\u018f\u0005o\u0000\u0000\u018f\u0190\u0005t\u0000\u0000"+
-		"\u0190`\u0001\u0000\u0000\u0000\u0191\u0192\u0005b\u0000\u0000\u0192\u0193"+
-		"\u0005t\u0000\u0000\u0193\u0194\u0005o\u0000\u0000\u0194\u0195\u0005s"+
-		"\u0000\u0000\u0195b\u0001\u0000\u0000\u0000\u0196\u0197\u0005j\u0000\u0000"+
-		"\u0197\u0198\u0005u\u0000\u0000\u0198\u0199\u0005m\u0000\u0000\u0199\u019a"+
-		"\u0005p\u0000\u0000\u019ad\u0001\u0000\u0000\u0000\u019b\u019c\u0005j"+
-		"\u0000\u0000\u019c\u019d\u0005u\u0000\u0000\u019d\u019e\u0005m\u0000\u0000"+
-		"\u019e\u019f\u0005p\u0000\u0000\u019f\u01a0\u0005t\u0000\u0000\u01a0f"+
-		"\u0001\u0000\u0000\u0000\u01a1\u01a2\u0005j\u0000\u0000\u01a2\u01a3\u0005"+
-		"u\u0000\u0000\u01a3\u01a4\u0005m\u0000\u0000\u01a4\u01a5\u0005p\u0000"+
-		"\u0000\u01a5\u01a6\u0005f\u0000\u0000\u01a6h\u0001\u0000\u0000\u0000\u01a7"+
-		"\u01a8\u0005g\u0000\u0000\u01a8\u01a9\u0005a\u0000\u0000\u01a9\u01aa\u0005"+
-		"l\u0000\u0000\u01aa\u01ab\u0005l\u0000\u0000\u01ab\u01ac\u0005o\u0000"+
-		"\u0000\u01ac\u01ad\u0005c\u0000\u0000\u01adj\u0001\u0000\u0000\u0000\u01ae"+
-		"\u01af\u0005g\u0000\u0000\u01af\u01b0\u0005l\u0000\u0000\u01b0\u01b1\u0005"+
-		"o\u0000\u0000\u01b1\u01b2\u0005a\u0000\u0000\u01b2\u01b3\u0005d\u0000"+
-		"\u0000\u01b3l\u0001\u0000\u0000\u0000\u01b4\u01b5\u0005g\u0000\u0000\u01b5"+
-		"\u01b6\u0005s\u0000\u0000\u01b6\u01b7\u0005t\u0000\u0000\u01b7\u01b8\u0005"+
-		"o\u0000\u0000\u01b8\u01b9\u0005r\u0000\u0000\u01b9\u01ba\u0005e\u0000"+
-		"\u0000\u01ban\u0001\u0000\u0000\u0000\u01bb\u01bc\u0005l\u0000\u0000\u01bc"+
-		"\u01bd\u0005a\u0000\u0000\u01bd\u01be\u0005l\u0000\u0000\u01be\u01bf\u0005"+
-		"l\u0000\u0000\u01bf\u01c0\u0005o\u0000\u0000\u01c0\u01c1\u0005c\u0000"+
-		"\u0000\u01c1p\u0001\u0000\u0000\u0000\u01c2\u01c3\u0005l\u0000\u0000\u01c3"+
-		"\u01c4\u0005l\u0000\u0000\u01c4\u01c5\u0005o\u0000\u0000\u01c5\u01c6\u0005"+
-		"a\u0000\u0000\u01c6\u01c7\u0005d\u0000\u0000\u01c7r\u0001\u0000\u0000"+
-		"\u0000\u01c8\u01c9\u0005l\u0000\u0000\u01c9\u01ca\u0005s\u0000\u0000\u01ca"+
-		"\u01cb\u0005t\u0000\u0000\u01cb\u01cc\u0005o\u0000\u0000\u01cc\u01cd\u0005"+
-		"r\u0000\u0000\u01cd\u01ce\u0005e\u0000\u0000\u01cet\u0001\u0000\u0000"+
-		"\u0000\u01cf\u01d0\u0005p\u0000\u0000\u01d0\u01d1\u0005o\u0000\u0000\u01d1"+
-		"\u01d2\u0005p\u0000\u0000\u01d2v\u0001\u0000\u0000\u0000\u01d3\u01d4\u0005"+
-		"c\u0000\u0000\u01d4\u01d5\u0005a\u0000\u0000\u01d5\u01d6\u0005l\u0000"+
-		"\u0000\u01d6\u01d7\u0005l\u0000\u0000\u01d7x\u0001\u0000\u0000\u0000\u01d8"+
-		"\u01d9\u0005r\u0000\u0000\u01d9\u01da\u0005e\u0000\u0000\u01da\u01db\u0005"+
-		"t\u0000\u0000\u01db\u01dc\u0005v\u0000\u0000\u01dc\u01dd\u0005a\u0000"+
-		"\u0000\u01dd\u01de\u0005l\u0000\u0000\u01dez\u0001\u0000\u0000\u0000\u01df"+
-		"\u01e0\u0005r\u0000\u0000\u01e0\u01e1\u0005e\u0000\u0000\u01e1\u01e2\u0005"+
-		"t\u0000\u0000\u01e2|\u0001\u0000\u0000\u0000\u01e3\u01e7\u0007\u0001\u0000"+
-		"\u0000\u01e4\u01e6\u0007\u0002\u0000\u0000\u01e5\u01e4\u0001\u0000\u0000"+
-		"\u0000\u01e6\u01e9\u0001\u0000\u0000\u0000\u01e7\u01e5\u0001\u0000\u0000"+
-		"\u0000\u01e7\u01e8\u0001\u0000\u0000\u0000\u01e8~\u0001\u0000\u0000\u0000"+
-		"\u01e9\u01e7\u0001\u0000\u0000\u0000\u01ea\u01ec\u0007\u0003\u0000\u0000"+
-		"\u01eb\u01ea\u0001\u0000\u0000\u0000\u01ec\u01ed\u0001\u0000\u0000\u0000"+
-		"\u01ed\u01eb\u0001\u0000\u0000\u0000\u01ed\u01ee\u0001\u0000\u0000\u0000"+
-		"\u01ee\u01ef\u0001\u0000\u0000\u0000\u01ef\u01f0\u0006?\u0000\u0000\u01f0"+
-		"\u0080\u0001\u0000\u0000\u0000\f\u0000\u0097\u009c\u00a2\u00a4\u00a9\u00af"+
-		"\u00b1\u00b7\u00b9\u01e7\u01ed\u0001\u0006\u0000\u0000";
+		"K&M\'O(Q)S*U+W,Y-[.]/_0a1c2e3g4i5k6m7o8q9s:u;w<y={>}?\u007f@\u0081A\u0001"+
+		"\u0000\u0004\u0001\u000009\u0003\u0000AZ__az\u0005\u0000--09AZ__az\u0003"+
+		"\u0000\t\n\r\r  \u0203\u0000\u0001\u0001\u0000\u0000\u0000\u0000\u0003"+
+		"\u0001\u0000\u0000\u0000\u0000\u0005\u0001\u0000\u0000\u0000\u0000\u0007"+
+		"\u0001\u0000\u0000\u0000\u0000\t\u0001\u0000\u0000\u0000\u0000\u000b\u0001"+
+		"\u0000\u0000\u0000\u0000\r\u0001\u0000\u0000\u0000\u0000\u000f\u0001\u0000"+
+		"\u0000\u0000\u0000\u0011\u0001\u0000\u0000\u0000\u0000\u0013\u0001\u0000"+
+		"\u0000\u0000\u0000\u0015\u0001\u0000\u0000\u0000\u0000\u0017\u0001\u0000"+
+		"\u0000\u0000\u0000\u0019\u0001\u0000\u0000\u0000\u0000\u001b\u0001\u0000"+
+		"\u0000\u0000\u0000\u001d\u0001\u0000\u0000\u0000\u0000\u001f\u0001\u0000"+
+		"\u0000\u0000\u0000!\u0001\u0000\u0000\u0000\u0000#\u0001\u0000\u0000\u0000"+
+		"\u0000%\u0001\u0000\u0000\u0000\u0000\'\u0001\u0000\u0000\u0000\u0000"+
+		")\u0001\u0000\u0000\u0000\u0000+\u0001\u0000\u0000\u0000\u0000-\u0001"+
+		"\u0000\u0000\u0000\u0000/\u0001\u0000\u0000\u0000\u00001\u0001\u0000\u0000"+
+		"\u0000\u00003\u0001\u0000\u0000\u0000\u00005\u0001\u0000\u0000\u0000\u0000"+
+		"7\u0001\u0000\u0000\u0000\u00009\u0001\u0000\u0000\u0000\u0000;\u0001"+
+		"\u0000\u0000\u0000\u0000=\u0001\u0000\u0000\u0000\u0000?\u0001\u0000\u0000"+
+		"\u0000\u0000A\u0001\u0000\u0000\u0000\u0000C\u0001\u0000\u0000\u0000\u0000"+
+		"E\u0001\u0000\u0000\u0000\u0000G\u0001\u0000\u0000\u0000\u0000I\u0001"+
+		"\u0000\u0000\u0000\u0000K\u0001\u0000\u0000\u0000\u0000M\u0001\u0000\u0000"+
+		"\u0000\u0000O\u0001\u0000\u0000\u0000\u0000Q\u0001\u0000\u0000\u0000\u0000"+
+		"S\u0001\u0000\u0000\u0000\u0000U\u0001\u0000\u0000\u0000\u0000W\u0001"+
+		"\u0000\u0000\u0000\u0000Y\u0001\u0000\u0000\u0000\u0000[\u0001\u0000\u0000"+
+		"\u0000\u0000]\u0001\u0000\u0000\u0000\u0000_\u0001\u0000\u0000\u0000\u0000"+
+		"a\u0001\u0000\u0000\u0000\u0000c\u0001\u0000\u0000\u0000\u0000e\u0001"+
+		"\u0000\u0000\u0000\u0000g\u0001\u0000\u0000\u0000\u0000i\u0001\u0000\u0000"+
+		"\u0000\u0000k\u0001\u0000\u0000\u0000\u0000m\u0001\u0000\u0000\u0000\u0000"+
+		"o\u0001\u0000\u0000\u0000\u0000q\u0001\u0000\u0000\u0000\u0000s\u0001"+
+		"\u0000\u0000\u0000\u0000u\u0001\u0000\u0000\u0000\u0000w\u0001\u0000\u0000"+
+		"\u0000\u0000y\u0001\u0000\u0000\u0000\u0000{\u0001\u0000\u0000\u0000\u0000"+
+		"}\u0001\u0000\u0000\u0000\u0000\u007f\u0001\u0000\u0000\u0000\u0000\u0081"+
+		"\u0001\u0000\u0000\u0000\u0001\u0083\u0001\u0000\u0000\u0000\u0003\u0085"+
+		"\u0001\u0000\u0000\u0000\u0005\u0087\u0001\u0000\u0000\u0000\u0007\u0089"+
+		"\u0001\u0000\u0000\u0000\t\u008b\u0001\u0000\u0000\u0000\u000b\u0099\u0001"+
+		"\u0000\u0000\u0000\r\u00a6\u0001\u0000\u0000\u0000\u000f\u00a9\u0001\u0000"+
+		"\u0000\u0000\u0011\u00b5\u0001\u0000\u0000\u0000\u0013\u00c0\u0001\u0000"+
+		"\u0000\u0000\u0015\u00c7\u0001\u0000\u0000\u0000\u0017\u00ce\u0001\u0000"+
+		"\u0000\u0000\u0019\u00d6\u0001\u0000\u0000\u0000\u001b\u00db\u0001\u0000"+
+		"\u0000\u0000\u001d\u00e0\u0001\u0000\u0000\u0000\u001f\u00e6\u0001\u0000"+
+		"\u0000\u0000!\u00eb\u0001\u0000\u0000\u0000#\u00f0\u0001\u0000\u0000\u0000"+
+		"%\u00f4\u0001\u0000\u0000\u0000\'\u00f9\u0001\u0000\u0000\u0000)\u00fd"+
+		"\u0001\u0000\u0000\u0000+\u0102\u0001\u0000\u0000\u0000-\u0107\u0001\u0000"+
+		"\u0000\u0000/\u010c\u0001\u0000\u0000\u00001\u0113\u0001\u0000\u0000\u0000"+
+		"3\u011a\u0001\u0000\u0000\u00005\u0122\u0001\u0000\u0000\u00007\u0127"+
+		"\u0001\u0000\u0000\u00009\u012c\u0001\u0000\u0000\u0000;\u0132\u0001\u0000"+
+		"\u0000\u0000=\u0137\u0001\u0000\u0000\u0000?\u013b\u0001\u0000\u0000\u0000"+
+		"A\u0140\u0001\u0000\u0000\u0000C\u0144\u0001\u0000\u0000\u0000E\u0149"+
+		"\u0001\u0000\u0000\u0000G\u014e\u0001\u0000\u0000\u0000I\u0155\u0001\u0000"+
+		"\u0000\u0000K\u015c\u0001\u0000\u0000\u0000M\u0161\u0001\u0000\u0000\u0000"+
+		"O\u0165\u0001\u0000\u0000\u0000Q\u016a\u0001\u0000\u0000\u0000S\u0171"+
+		"\u0001\u0000\u0000\u0000U\u0178\u0001\u0000\u0000\u0000W\u017f\u0001\u0000"+
+		"\u0000\u0000Y\u0183\u0001\u0000\u0000\u0000[\u0188\u0001\u0000\u0000\u0000"+
+		"]\u018c\u0001\u0000\u0000\u0000_\u018f\u0001\u0000\u0000\u0000a\u0193"+
+		"\u0001\u0000\u0000\u0000c\u0198\u0001\u0000\u0000\u0000e\u019d\u0001\u0000"+
+		"\u0000\u0000g\u01a3\u0001\u0000\u0000\u0000i\u01a9\u0001\u0000\u0000\u0000"+
+		"k\u01b0\u0001\u0000\u0000\u0000m\u01b6\u0001\u0000\u0000\u0000o\u01bd"+
+		"\u0001\u0000\u0000\u0000q\u01c4\u0001\u0000\u0000\u0000s\u01ca\u0001\u0000"+
+		"\u0000\u0000u\u01d1\u0001\u0000\u0000\u0000w\u01d5\u0001\u0000\u0000\u0000"+
+		"y\u01da\u0001\u0000\u0000\u0000{\u01e0\u0001\u0000\u0000\u0000}\u01e7"+
+		"\u0001\u0000\u0000\u0000\u007f\u01eb\u0001\u0000\u0000\u0000\u0081\u01f3"+
+		"\u0001\u0000\u0000\u0000\u0083\u0084\u0005\r\u0000\u0000\u0084\u0002\u0001"+
+		"\u0000\u0000\u0000\u0085\u0086\u0005\n\u0000\u0000\u0086\u0004\u0001\u0000"+
+		"\u0000\u0000\u0087\u0088\u0005,\u0000\u0000\u0088\u0006\u0001\u0000\u0000"+
+		"\u0000\u0089\u008a\u0005:\u0000\u0000\u008a\b\u0001\u0000\u0000\u0000"+
+		"\u008b\u008c\u0005h\u0000\u0000\u008c\u008d\u0005a\u0000\u0000\u008d\u008e"+
+		"\u0005l\u0000\u0000\u008e\u008f\u0005t\u0000\u0000\u008f\n\u0001\u0000"+
+		"\u0000\u0000\u0090\u0091\u0005t\u0000\u0000\u0091\u0092\u0005r\u0000\u0000"+
+		"\u0092\u0093\u0005u\u0000\u0000\u0093\u009a\u0005e\u0000\u0000\u0094\u0095"+
+		"\u0005f\u0000\u0000\u0095\u0096\u0005a\u0000\u0000\u0096\u0097\u0005l"+
+		"\u0000\u0000\u0097\u0098\u0005s\u0000\u0000\u0098\u009a\u0005e\u0000\u0000"+
+		"\u0099\u0090\u0001\u0000\u0000\u0000\u0099\u0094\u0001\u0000\u0000\u0000"+
+		"\u009a\f\u0001\u0000\u0000\u0000\u009b\u009d\u0007\u0000\u0000\u0000\u009c"+
+		"\u009b\u0001\u0000\u0000\u0000\u009d\u009e\u0001\u0000\u0000\u0000\u009e"+
+		"\u009c\u0001\u0000\u0000\u0000\u009e\u009f\u0001\u0000\u0000\u0000\u009f"+
+		"\u00a7\u0001\u0000\u0000\u0000\u00a0\u00a2\u0005-\u0000\u0000\u00a1\u00a3"+
+		"\u0007\u0000\u0000\u0000\u00a2\u00a1\u0001\u0000\u0000\u0000\u00a3\u00a4"+
+		"\u0001\u0000\u0000\u0000\u00a4\u00a2\u0001\u0000\u0000\u0000\u00a4\u00a5"+
+		"\u0001\u0000\u0000\u0000\u00a5\u00a7\u0001\u0000\u0000\u0000\u00a6\u009c"+
+		"\u0001\u0000\u0000\u0000\u00a6\u00a0\u0001\u0000\u0000\u0000\u00a7\u000e"+
+		"\u0001\u0000\u0000\u0000\u00a8\u00aa\u0007\u0000\u0000\u0000\u00a9\u00a8"+
+		"\u0001\u0000\u0000\u0000\u00aa\u00ab\u0001\u0000\u0000\u0000\u00ab\u00a9"+
+		"\u0001\u0000\u0000\u0000\u00ab\u00ac\u0001\u0000\u0000\u0000\u00ac\u00b3"+
+		"\u0001\u0000\u0000\u0000\u00ad\u00af\u0005.\u0000\u0000\u00ae\u00b0\u0007"+
+		"\u0000\u0000\u0000\u00af\u00ae\u0001\u0000\u0000\u0000\u00b0\u00b1\u0001"+
+		"\u0000\u0000\u0000\u00b1\u00af\u0001\u0000\u0000\u0000\u00b1\u00b2\u0001"+
+		"\u0000\u0000\u0000\u00b2\u00b4\u0001\u0000\u0000\u0000\u00b3\u00ad\u0001"+
+		"\u0000\u0000\u0000\u00b3\u00b4\u0001\u0000\u0000\u0000\u00b4\u0010\u0001"+
+		"\u0000\u0000\u0000\u00b5\u00bb\u0005\"\u0000\u0000\u00b6\u00b7\u0005\\"+
+		"\u0000\u0000\u00b7\u00ba\u0005\"\u0000\u0000\u00b8\u00ba\t\u0000\u0000"+
+		"\u0000\u00b9\u00b6\u0001\u0000\u0000\u0000\u00b9\u00b8\u0001\u0000\u0000"+
+		"\u0000\u00ba\u00bd\u0001\u0000\u0000\u0000\u00bb\u00bc\u0001\u0000\u0000"+
+		"\u0000\u00bb\u00b9\u0001\u0000\u0000\u0000\u00bc\u00be\u0001\u0000\u0000"+
+		"\u0000\u00bd\u00bb\u0001\u0000\u0000\u0000\u00be\u00bf\u0005\"\u0000\u0000"+
+		"\u00bf\u0012\u0001\u0000\u0000\u0000\u00c0\u00c1\u0005i\u0000\u0000\u00c1"+
+		"\u00c2\u0005c\u0000\u0000\u00c2\u00c3\u0005o\u0000\u0000\u00c3\u00c4\u0005"+
+		"n\u0000\u0000\u00c4\u00c5\u0005s\u0000\u0000\u00c5\u00c6\u0005t\u0000"+
+		"\u0000\u00c6\u0014\u0001\u0000\u0000\u0000\u00c7\u00c8\u0005i\u0000\u0000"+
+		"\u00c8\u00c9\u0005p\u0000\u0000\u00c9\u00ca\u0005r\u0000\u0000\u00ca\u00cb"+
+		"\u0005i\u0000\u0000\u00cb\u00cc\u0005n\u0000\u0000\u00cc\u00cd\u0005t"+
+		"\u0000\u0000\u00cd\u0016\u0001\u0000\u0000\u0000\u00ce\u00cf\u0005i\u0000"+
+		"\u0000\u00cf\u00d0\u0005u\u0000\u0000\u00d0\u00d1\u0005m\u0000\u0000\u00d1"+
+		"\u00d2\u0005i\u0000\u0000\u00d2\u00d3\u0005n\u0000\u0000\u00d3\u00d4\u0005"+
+		"u\u0000\u0000\u00d4\u00d5\u0005s\u0000\u0000\u00d5\u0018\u0001\u0000\u0000"+
+		"\u0000\u00d6\u00d7\u0005i\u0000\u0000\u00d7\u00d8\u0005a\u0000\u0000\u00d8"+
+		"\u00d9\u0005d\u0000\u0000\u00d9\u00da\u0005d\u0000\u0000\u00da\u001a\u0001"+
+		"\u0000\u0000\u0000\u00db\u00dc\u0005i\u0000\u0000\u00dc\u00dd\u0005s\u0000"+
+		"\u0000\u00dd\u00de\u0005u\u0000\u0000\u00de\u00df\u0005b\u0000\u0000\u00df"+
+		"\u001c\u0001\u0000\u0000\u0000\u00e0\u00e1\u0005i\u0000\u0000\u00e1\u00e2"+
+		"\u0005m\u0000\u0000\u00e2\u00e3\u0005u\u0000\u0000\u00e3\u00e4\u0005l"+
+		"\u0000\u0000\u00e4\u00e5\u0005t\u0000\u0000\u00e5\u001e\u0001\u0000\u0000"+
+		"\u0000\u00e6\u00e7\u0005i\u0000\u0000\u00e7\u00e8\u0005d\u0000\u0000\u00e8"+
+		"\u00e9\u0005i\u0000\u0000\u00e9\u00ea\u0005v\u0000\u0000\u00ea \u0001"+
+		"\u0000\u0000\u0000\u00eb\u00ec\u0005i\u0000\u0000\u00ec\u00ed\u0005m\u0000"+
+		"\u0000\u00ed\u00ee\u0005o\u0000\u0000\u00ee\u00ef\u0005d\u0000\u0000\u00ef"+
+		"\"\u0001\u0000\u0000\u0000\u00f0\u00f1\u0005i\u0000\u0000\u00f1\u00f2"+
+		"\u0005e\u0000\u0000\u00f2\u00f3\u0005q\u0000\u0000\u00f3$\u0001\u0000"+
+		"\u0000\u0000\u00f4\u00f5\u0005i\u0000\u0000\u00f5\u00f6\u0005n\u0000\u0000"+
+		"\u00f6\u00f7\u0005e\u0000\u0000\u00f7\u00f8\u0005q\u0000\u0000\u00f8&"+
+		"\u0001\u0000\u0000\u0000\u00f9\u00fa\u0005i\u0000\u0000\u00fa\u00fb\u0005"+
+		"l\u0000\u0000\u00fb\u00fc\u0005t\u0000\u0000\u00fc(\u0001\u0000\u0000"+
+		"\u0000\u00fd\u00fe\u0005i\u0000\u0000\u00fe\u00ff\u0005l\u0000\u0000\u00ff"+
+		"\u0100\u0005e\u0000\u0000\u0100\u0101\u0005q\u0000\u0000\u0101*\u0001"+
+		"\u0000\u0000\u0000\u0102\u0103\u0005i\u0000\u0000\u0103\u0104\u0005t\u0000"+
+		"\u0000\u0104\u0105\u0005o\u0000\u0000\u0105\u0106\u0005d\u0000\u0000\u0106"+
+		",\u0001\u0000\u0000\u0000\u0107\u0108\u0005i\u0000\u0000\u0108\u0109\u0005"+
+		"t\u0000\u0000\u0109\u010a\u0005o\u0000\u0000\u010a\u010b\u0005s\u0000"+
+		"\u0000\u010b.\u0001\u0000\u0000\u0000\u010c\u010d\u0005d\u0000\u0000\u010d"+
+		"\u010e\u0005c\u0000\u0000\u010e\u010f\u0005o\u0000\u0000\u010f\u0110\u0005"+
+		"n\u0000\u0000\u0110\u0111\u0005s\u0000\u0000\u0111\u0112\u0005t\u0000"+
+		"\u0000\u01120\u0001\u0000\u0000\u0000\u0113\u0114\u0005d\u0000\u0000\u0114"+
+		"\u0115\u0005p\u0000\u0000\u0115\u0116\u0005r\u0000\u0000\u0116\u0117\u0005"+
+		"i\u0000\u0000\u0117\u0118\u0005n\u0000\u0000\u0118\u0119\u0005t\u0000"+
+		"\u0000\u01192\u0001\u0000\u0000\u0000\u011a\u011b\u0005d\u0000\u0000\u011b"+
+		"\u011c\u0005u\u0000\u0000\u011c\u011d\u0005m\u0000\u0000\u011d\u011e\u0005"+
+		"i\u0000\u0000\u011e\u011f\u0005n\u0000\u0000\u011f\u0120\u0005u\u0000"+
+		"\u0000\u0120\u0121\u0005s\u0000\u0000\u01214\u0001\u0000\u0000\u0000\u0122"+
+		"\u0123\u0005d\u0000\u0000\u0123\u0124\u0005a\u0000\u0000\u0124\u0125\u0005"+
+		"d\u0000\u0000\u0125\u0126\u0005d\u0000\u0000\u01266\u0001\u0000\u0000"+
+		"\u0000\u0127\u0128\u0005d\u0000\u0000\u0128\u0129\u0005s\u0000\u0000\u0129"+
+		"\u012a\u0005u\u0000\u0000\u012a\u012b\u0005b\u0000\u0000\u012b8\u0001"+
+		"\u0000\u0000\u0000\u012c\u012d\u0005d\u0000\u0000\u012d\u012e\u0005m\u0000"+
+		"\u0000\u012e\u012f\u0005u\u0000\u0000\u012f\u0130\u0005l\u0000\u0000\u0130"+
+		"\u0131\u0005t\u0000\u0000\u0131:\u0001\u0000\u0000\u0000\u0132\u0133\u0005"+
+		"d\u0000\u0000\u0133\u0134\u0005d\u0000\u0000\u0134\u0135\u0005i\u0000"+
+		"\u0000\u0135\u0136\u0005v\u0000\u0000\u0136<\u0001\u0000\u0000\u0000\u0137"+
+		"\u0138\u0005d\u0000\u0000\u0138\u0139\u0005e\u0000\u0000\u0139\u013a\u0005"+
+		"q\u0000\u0000\u013a>\u0001\u0000\u0000\u0000\u013b\u013c\u0005d\u0000"+
+		"\u0000\u013c\u013d\u0005n\u0000\u0000\u013d\u013e\u0005e\u0000\u0000\u013e"+
+		"\u013f\u0005q\u0000\u0000\u013f@\u0001\u0000\u0000\u0000\u0140\u0141\u0005"+
+		"d\u0000\u0000\u0141\u0142\u0005l\u0000\u0000\u0142\u0143\u0005t\u0000"+
+		"\u0000\u0143B\u0001\u0000\u0000\u0000\u0144\u0145\u0005d\u0000\u0000\u0145"+
+		"\u0146\u0005l\u0000\u0000\u0146\u0147\u0005e\u0000\u0000\u0147\u0148\u0005"+
+		"q\u0000\u0000\u0148D\u0001\u0000\u0000\u0000\u0149\u014a\u0005d\u0000"+
+		"\u0000\u014a\u014b\u0005t\u0000\u0000\u014b\u014c\u0005o\u0000\u0000\u014c"+
+		"\u014d\u0005s\u0000\u0000\u014dF\u0001\u0000\u0000\u0000\u014e\u014f\u0005"+
+		"s\u0000\u0000\u014f\u0150\u0005c\u0000\u0000\u0150\u0151\u0005o\u0000"+
+		"\u0000\u0151\u0152\u0005n\u0000\u0000\u0152\u0153\u0005s\u0000\u0000\u0153"+
+		"\u0154\u0005t\u0000\u0000\u0154H\u0001\u0000\u0000\u0000\u0155\u0156\u0005"+
+		"s\u0000\u0000\u0156\u0157\u0005p\u0000\u0000\u0157\u0158\u0005r\u0000"+
+		"\u0000\u0158\u0159\u0005i\u0000\u0000\u0159\u015a\u0005n\u0000\u0000\u015a"+
+		"\u015b\u0005t\u0000\u0000\u015bJ\u0001\u0000\u0000\u0000\u015c\u015d\u0005"+
+		"s\u0000\u0000\u015d\u015e\u0005a\u0000\u0000\u015e\u015f\u0005d\u0000"+
+		"\u0000\u015f\u0160\u0005d\u0000\u0000\u0160L\u0001\u0000\u0000\u0000\u0161"+
+		"\u0162\u0005s\u0000\u0000\u0162\u0163\u0005e\u0000\u0000\u0163\u0164\u0005"+
+		"q\u0000\u0000\u0164N\u0001\u0000\u0000\u0000\u0165\u0166\u0005s\u0000"+
+		"\u0000\u0166\u0167\u0005n\u0000\u0000\u0167\u0168\u0005e\u0000\u0000\u0168"+
+		"\u0169\u0005q\u0000\u0000\u0169P\u0001\u0000\u0000\u0000\u016a\u016b\u0005"+
+		"t\u0000\u0000\u016b\u016c\u0005c\u0000\u0000\u016c\u016d\u0005o\u0000"+
+		"\u0000\u016d\u016e\u0005n\u0000\u0000\u016e\u016f\u0005s\u0000\u0000\u016f"+
+		"\u0170\u0005t\u0000\u0000\u0170R\u0001\u0000\u0000\u0000\u0171\u0172\u0005"+
+		"f\u0000\u0000\u0172\u0173\u0005c\u0000\u0000\u0173\u0174\u0005o\u0000"+
+		"\u0000\u0174\u0175\u0005n\u0000\u0000\u0175\u0176\u0005s\u0000\u0000\u0176"+
+		"\u0177\u0005t\u0000\u0000\u0177T\u0001\u0000\u0000\u0000\u0178\u0179\u0005"+
+		"b\u0000\u0000\u0179\u017a\u0005p\u0000\u0000\u017a\u017b\u0005r\u0000"+
+		"\u0000\u017b\u017c\u0005i\u0000\u0000\u017c\u017d\u0005n\u0000\u0000\u017d"+
+		"\u017e\u0005t\u0000\u0000\u017eV\u0001\u0000\u0000\u0000\u017f\u0180\u0005"+
+		"b\u0000\u0000\u0180\u0181\u0005e\u0000\u0000\u0181\u0182\u0005q\u0000"+
+		"\u0000\u0182X\u0001\u0000\u0000\u0000\u0183\u0184\u0005b\u0000\u0000\u0184"+
+		"\u0185\u0005n\u0000\u0000\u0185\u0186\u0005e\u0000\u0000\u0186\u0187\u0005"+
+		"q\u0000\u0000\u0187Z\u0001\u0000\u0000\u0000\u0188\u0189\u0005a\u0000"+
+		"\u0000\u0189\u018a\u0005n\u0000\u0000\u018a\u018b\u0005d\u0000\u0000\u018b"+
+		"\\\u0001\u0000\u0000\u0000\u018c\u018d\u0005o\u0000\u0000\u018d\u018e"+
+		"\u0005r\u0000\u0000\u018e^\u0001\u0000\u0000\u0000\u018f\u0190\u0005n"+
+		"\u0000\u0000\u0190\u0191\u0005o\u0000\u0000\u0191\u0192\u0005t\u0000\u0000"+
+		"\u0192`\u0001\u0000\u0000\u0000\u0193\u0194\u0005b\u0000\u0000\u0194\u0195"+
+		"\u0005t\u0000\u0000\u0195\u0196\u0005o\u0000\u0000\u0196\u0197\u0005s"+
+		"\u0000\u0000\u0197b\u0001\u0000\u0000\u0000\u0198\u0199\u0005j\u0000\u0000"+
+		"\u0199\u019a\u0005u\u0000\u0000\u019a\u019b\u0005m\u0000\u0000\u019b\u019c"+
+		"\u0005p\u0000\u0000\u019cd\u0001\u0000\u0000\u0000\u019d\u019e\u0005j"+
+		"\u0000\u0000\u019e\u019f\u0005u\u0000\u0000\u019f\u01a0\u0005m\u0000\u0000"+
+		"\u01a0\u01a1\u0005p\u0000\u0000\u01a1\u01a2\u0005t\u0000\u0000\u01a2f"+
+		"\u0001\u0000\u0000\u0000\u01a3\u01a4\u0005j\u0000\u0000\u01a4\u01a5\u0005"+
+		"u\u0000\u0000\u01a5\u01a6\u0005m\u0000\u0000\u01a6\u01a7\u0005p\u0000"+
+		"\u0000\u01a7\u01a8\u0005f\u0000\u0000\u01a8h\u0001\u0000\u0000\u0000\u01a9"+
+		"\u01aa\u0005g\u0000\u0000\u01aa\u01ab\u0005a\u0000\u0000\u01ab\u01ac\u0005"+
+		"l\u0000\u0000\u01ac\u01ad\u0005l\u0000\u0000\u01ad\u01ae\u0005o\u0000"+
+		"\u0000\u01ae\u01af\u0005c\u0000\u0000\u01afj\u0001\u0000\u0000\u0000\u01b0"+
+		"\u01b1\u0005g\u0000\u0000\u01b1\u01b2\u0005l\u0000\u0000\u01b2\u01b3\u0005"+
+		"o\u0000\u0000\u01b3\u01b4\u0005a\u0000\u0000\u01b4\u01b5\u0005d\u0000"+
+		"\u0000\u01b5l\u0001\u0000\u0000\u0000\u01b6\u01b7\u0005g\u0000\u0000\u01b7"+
+		"\u01b8\u0005s\u0000\u0000\u01b8\u01b9\u0005t\u0000\u0000\u01b9\u01ba\u0005"+
+		"o\u0000\u0000\u01ba\u01bb\u0005r\u0000\u0000\u01bb\u01bc\u0005e\u0000"+
+		"\u0000\u01bcn\u0001\u0000\u0000\u0000\u01bd\u01be\u0005l\u0000\u0000\u01be"+
+		"\u01bf\u0005a\u0000\u0000\u01bf\u01c0\u0005l\u0000\u0000\u01c0\u01c1\u0005"+
+		"l\u0000\u0000\u01c1\u01c2\u0005o\u0000\u0000\u01c2\u01c3\u0005c\u0000"+
+		"\u0000\u01c3p\u0001\u0000\u0000\u0000\u01c4\u01c5\u0005l\u0000\u0000\u01c5"+
+		"\u01c6\u0005l\u0000\u0000\u01c6\u01c7\u0005o\u0000\u0000\u01c7\u01c8\u0005"+
+		"a\u0000\u0000\u01c8\u01c9\u0005d\u0000\u0000\u01c9r\u0001\u0000\u0000"+
+		"\u0000\u01ca\u01cb\u0005l\u0000\u0000\u01cb\u01cc\u0005s\u0000\u0000\u01cc"+
+		"\u01cd\u0005t\u0000\u0000\u01cd\u01ce\u0005o\u0000\u0000\u01ce\u01cf\u0005"+
+		"r\u0000\u0000\u01cf\u01d0\u0005e\u0000\u0000\u01d0t\u0001\u0000\u0000"+
+		"\u0000\u01d1\u01d2\u0005p\u0000\u0000\u01d2\u01d3\u0005o\u0000\u0000\u01d3"+
+		"\u01d4\u0005p\u0000\u0000\u01d4v\u0001\u0000\u0000\u0000\u01d5\u01d6\u0005"+
+		"c\u0000\u0000\u01d6\u01d7\u0005a\u0000\u0000\u01d7\u01d8\u0005l\u0000"+
+		"\u0000\u01d8\u01d9\u0005l\u0000\u0000\u01d9x\u0001\u0000\u0000\u0000\u01da"+
+		"\u01db\u0005t\u0000\u0000\u01db\u01dc\u0005c\u0000\u0000\u01dc\u01dd\u0005"+
+		"a\u0000\u0000\u01dd\u01de\u0005l\u0000\u0000\u01de\u01df\u0005l\u0000"+
+		"\u0000\u01dfz\u0001\u0000\u0000\u0000\u01e0\u01e1\u0005r\u0000\u0000\u01e1"+
+		"\u01e2\u0005e\u0000\u0000\u01e2\u01e3\u0005t\u0000\u0000\u01e3\u01e4\u0005"+
+		"v\u0000\u0000\u01e4\u01e5\u0005a\u0000\u0000\u01e5\u01e6\u0005l\u0000"+
+		"\u0000\u01e6|\u0001\u0000\u0000\u0000\u01e7\u01e8\u0005r\u0000\u0000\u01e8"+
+		"\u01e9\u0005e\u0000\u0000\u01e9\u01ea\u0005t\u0000\u0000\u01ea~\u0001"+
+		"\u0000\u0000\u0000\u01eb\u01ef\u0007\u0001\u0000\u0000\u01ec\u01ee\u0007"+
+		"\u0002\u0000\u0000\u01ed\u01ec\u0001\u0000\u0000\u0000\u01ee\u01f1\u0001"+
+		"\u0000\u0000\u0000\u01ef\u01ed\u0001\u0000\u0000\u0000\u01ef\u01f0\u0001"+
+		"\u0000\u0000\u0000\u01f0\u0080\u0001\u0000\u0000\u0000\u01f1\u01ef\u0001"+
+		"\u0000\u0000\u0000\u01f2\u01f4\u0007\u0003\u0000\u0000\u01f3\u01f2\u0001"+
+		"\u0000\u0000\u0000\u01f4\u01f5\u0001\u0000\u0000\u0000\u01f5\u01f3\u0001"+
+		"\u0000\u0000\u0000\u01f5\u01f6\u0001\u0000\u0000\u0000\u01f6\u01f7\u0001"+
+		"\u0000\u0000\u0000\u01f7\u01f8\u0006@\u0000\u0000\u01f8\u0082\u0001\u0000"+
+		"\u0000\u0000\f\u0000\u0099\u009e\u00a4\u00a6\u00ab\u00b1\u00b3\u00b9\u00bb"+
+		"\u01ef\u01f5\u0001\u0006\u0000\u0000";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -24,8 +24,8 @@ public class TasmParser extends Parser {
 		DLT=33, DLEQ=34, DTOS=35, SCONST=36, SPRINT=37, SADD=38, SEQ=39, SNEQ=40, 
 		TCONST=41, FCONST=42, BPRINT=43, BEQ=44, BNEQ=45, AND=46, OR=47, NOT=48, 
 		BTOS=49, JUMP=50, JUMPT=51, JUMPF=52, GALLOC=53, GLOAD=54, GSTORE=55, 
-		LALLOC=56, LLOAD=57, LSTORE=58, POP=59, CALL=60, RETVAL=61, RET=62, TAG=63, 
-		WS=64;
+		LALLOC=56, LLOAD=57, LSTORE=58, POP=59, CALL=60, TCALL=61, RETVAL=62, 
+		RET=63, TAG=64, WS=65;
 	public static final int
 		RULE_tasm = 0, RULE_line = 1, RULE_instruction = 2, RULE_constant = 3, 
 		RULE_allocation = 4, RULE_call = 5, RULE_return = 6, RULE_pop = 7, RULE_condition = 8, 
@@ -48,7 +48,7 @@ public class TasmParser extends Parser {
 			"'seq'", "'sneq'", "'tconst'", "'fconst'", "'bprint'", "'beq'", "'bneq'", 
 			"'and'", "'or'", "'not'", "'btos'", "'jump'", "'jumpt'", "'jumpf'", "'galloc'", 
 			"'gload'", "'gstore'", "'lalloc'", "'lload'", "'lstore'", "'pop'", "'call'", 
-			"'retval'", "'ret'"
+			"'tcall'", "'retval'", "'ret'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
@@ -61,7 +61,7 @@ public class TasmParser extends Parser {
 			"SCONST", "SPRINT", "SADD", "SEQ", "SNEQ", "TCONST", "FCONST", "BPRINT", 
 			"BEQ", "BNEQ", "AND", "OR", "NOT", "BTOS", "JUMP", "JUMPT", "JUMPF", 
 			"GALLOC", "GLOAD", "GSTORE", "LALLOC", "LLOAD", "LSTORE", "POP", "CALL", 
-			"RETVAL", "RET", "TAG", "WS"
+			"TCALL", "RETVAL", "RET", "TAG", "WS"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -308,6 +308,7 @@ public class TasmParser extends Parser {
 			case LSTORE:
 			case POP:
 			case CALL:
+			case TCALL:
 			case RETVAL:
 			case RET:
 				_localctx = new InstContext(_localctx);
@@ -813,8 +814,10 @@ public class TasmParser extends Parser {
 
 	@SuppressWarnings("CheckReturnValue")
 	public static class CallContext extends ParserRuleContext {
-		public TerminalNode CALL() { return getToken(TasmParser.CALL, 0); }
+		public Token op;
 		public TerminalNode TAG() { return getToken(TasmParser.TAG, 0); }
+		public TerminalNode CALL() { return getToken(TasmParser.CALL, 0); }
+		public TerminalNode TCALL() { return getToken(TasmParser.TCALL, 0); }
 		public CallContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -832,11 +835,21 @@ public class TasmParser extends Parser {
 	public final CallContext call() throws RecognitionException {
 		CallContext _localctx = new CallContext(_ctx, getState());
 		enterRule(_localctx, 10, RULE_call);
+		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
 			setState(83);
-			match(CALL);
+			((CallContext)_localctx).op = _input.LT(1);
+			_la = _input.LA(1);
+			if ( !(_la==CALL || _la==TCALL) ) {
+				((CallContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
 			setState(84);
 			match(TAG);
 			}
@@ -1280,7 +1293,7 @@ public class TasmParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001@h\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002\u0002"+
+		"\u0004\u0001Ah\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002\u0002"+
 		"\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004\u0002\u0005"+
 		"\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007\u0007\u0007\u0002\b\u0007"+
 		"\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002\u000b\u0007\u000b\u0002\f\u0007"+
@@ -1297,52 +1310,52 @@ public class TasmParser extends Parser {
 		"\u0006\u0001\u0006\u0001\u0006\u0001\u0007\u0001\u0007\u0001\u0007\u0001"+
 		"\b\u0001\b\u0001\t\u0001\t\u0001\n\u0001\n\u0001\u000b\u0001\u000b\u0001"+
 		"\f\u0001\f\u0001\f\u0001\f\u0000\u0000\r\u0000\u0002\u0004\u0006\b\n\f"+
-		"\u000e\u0010\u0012\u0014\u0016\u0018\u0000\n\u0001\u0000\u0001\u0002\u0001"+
-		"\u0000\u0007\b\u0001\u000057\u0001\u00008:\u0001\u0000=>\u0004\u0000\u0012"+
-		"\u0015\u001f#\'(,0\u0003\u0000\u0016\u0017##11\u0003\u0000\f\u0011\u001a"+
-		"\u001e&&\u0004\u0000\u000b\u000b\u0019\u0019%%++\u0001\u000024n\u0000"+
-		"\u001b\u0001\u0000\u0000\u0000\u00023\u0001\u0000\u0000\u0000\u0004A\u0001"+
-		"\u0000\u0000\u0000\u0006K\u0001\u0000\u0000\u0000\bQ\u0001\u0000\u0000"+
-		"\u0000\nS\u0001\u0000\u0000\u0000\fV\u0001\u0000\u0000\u0000\u000eY\u0001"+
-		"\u0000\u0000\u0000\u0010\\\u0001\u0000\u0000\u0000\u0012^\u0001\u0000"+
-		"\u0000\u0000\u0014`\u0001\u0000\u0000\u0000\u0016b\u0001\u0000\u0000\u0000"+
-		"\u0018d\u0001\u0000\u0000\u0000\u001a\u001c\u0003\u0002\u0001\u0000\u001b"+
-		"\u001a\u0001\u0000\u0000\u0000\u001c\u001d\u0001\u0000\u0000\u0000\u001d"+
-		"\u001b\u0001\u0000\u0000\u0000\u001d\u001e\u0001\u0000\u0000\u0000\u001e"+
-		" \u0001\u0000\u0000\u0000\u001f!\u0007\u0000\u0000\u0000 \u001f\u0001"+
-		"\u0000\u0000\u0000 !\u0001\u0000\u0000\u0000!\"\u0001\u0000\u0000\u0000"+
-		"\"#\u0005\u0000\u0000\u0001#\u0001\u0001\u0000\u0000\u0000$%\u0003\u0004"+
-		"\u0002\u0000%&\u0007\u0000\u0000\u0000&4\u0001\u0000\u0000\u0000\',\u0005"+
-		"?\u0000\u0000()\u0005\u0003\u0000\u0000)+\u0005?\u0000\u0000*(\u0001\u0000"+
-		"\u0000\u0000+.\u0001\u0000\u0000\u0000,*\u0001\u0000\u0000\u0000,-\u0001"+
-		"\u0000\u0000\u0000-/\u0001\u0000\u0000\u0000.,\u0001\u0000\u0000\u0000"+
-		"/0\u0005\u0004\u0000\u000001\u0003\u0004\u0002\u000012\u0007\u0000\u0000"+
-		"\u000024\u0001\u0000\u0000\u00003$\u0001\u0000\u0000\u00003\'\u0001\u0000"+
-		"\u0000\u00004\u0003\u0001\u0000\u0000\u00005B\u0003\u0006\u0003\u0000"+
-		"6B\u0003\b\u0004\u00007B\u0003\n\u0005\u00008B\u0003\f\u0006\u00009B\u0003"+
-		"\u000e\u0007\u0000:B\u0003\u0010\b\u0000;B\u0003\u0012\t\u0000<B\u0003"+
-		"\u0014\n\u0000=B\u0003\u0016\u000b\u0000>B\u0007\u0000\u0000\u0000?B\u0005"+
-		"\u0005\u0000\u0000@B\u0003\u0018\f\u0000A5\u0001\u0000\u0000\u0000A6\u0001"+
-		"\u0000\u0000\u0000A7\u0001\u0000\u0000\u0000A8\u0001\u0000\u0000\u0000"+
-		"A9\u0001\u0000\u0000\u0000A:\u0001\u0000\u0000\u0000A;\u0001\u0000\u0000"+
-		"\u0000A<\u0001\u0000\u0000\u0000A=\u0001\u0000\u0000\u0000A>\u0001\u0000"+
-		"\u0000\u0000A?\u0001\u0000\u0000\u0000A@\u0001\u0000\u0000\u0000B\u0005"+
-		"\u0001\u0000\u0000\u0000CD\u0005\n\u0000\u0000DL\u0005\u0007\u0000\u0000"+
-		"EF\u0005\u0018\u0000\u0000FL\u0007\u0001\u0000\u0000GH\u0005$\u0000\u0000"+
-		"HL\u0005\t\u0000\u0000IL\u0005)\u0000\u0000JL\u0005*\u0000\u0000KC\u0001"+
-		"\u0000\u0000\u0000KE\u0001\u0000\u0000\u0000KG\u0001\u0000\u0000\u0000"+
-		"KI\u0001\u0000\u0000\u0000KJ\u0001\u0000\u0000\u0000L\u0007\u0001\u0000"+
-		"\u0000\u0000MN\u0007\u0002\u0000\u0000NR\u0005\u0007\u0000\u0000OP\u0007"+
-		"\u0003\u0000\u0000PR\u0005\u0007\u0000\u0000QM\u0001\u0000\u0000\u0000"+
-		"QO\u0001\u0000\u0000\u0000R\t\u0001\u0000\u0000\u0000ST\u0005<\u0000\u0000"+
-		"TU\u0005?\u0000\u0000U\u000b\u0001\u0000\u0000\u0000VW\u0007\u0004\u0000"+
-		"\u0000WX\u0005\u0007\u0000\u0000X\r\u0001\u0000\u0000\u0000YZ\u0005;\u0000"+
-		"\u0000Z[\u0005\u0007\u0000\u0000[\u000f\u0001\u0000\u0000\u0000\\]\u0007"+
-		"\u0005\u0000\u0000]\u0011\u0001\u0000\u0000\u0000^_\u0007\u0006\u0000"+
-		"\u0000_\u0013\u0001\u0000\u0000\u0000`a\u0007\u0007\u0000\u0000a\u0015"+
-		"\u0001\u0000\u0000\u0000bc\u0007\b\u0000\u0000c\u0017\u0001\u0000\u0000"+
-		"\u0000de\u0007\t\u0000\u0000ef\u0005?\u0000\u0000f\u0019\u0001\u0000\u0000"+
-		"\u0000\u0007\u001d ,3AKQ";
+		"\u000e\u0010\u0012\u0014\u0016\u0018\u0000\u000b\u0001\u0000\u0001\u0002"+
+		"\u0001\u0000\u0007\b\u0001\u000057\u0001\u00008:\u0001\u0000<=\u0001\u0000"+
+		">?\u0004\u0000\u0012\u0015\u001f#\'(,0\u0003\u0000\u0016\u0017##11\u0003"+
+		"\u0000\f\u0011\u001a\u001e&&\u0004\u0000\u000b\u000b\u0019\u0019%%++\u0001"+
+		"\u000024n\u0000\u001b\u0001\u0000\u0000\u0000\u00023\u0001\u0000\u0000"+
+		"\u0000\u0004A\u0001\u0000\u0000\u0000\u0006K\u0001\u0000\u0000\u0000\b"+
+		"Q\u0001\u0000\u0000\u0000\nS\u0001\u0000\u0000\u0000\fV\u0001\u0000\u0000"+
+		"\u0000\u000eY\u0001\u0000\u0000\u0000\u0010\\\u0001\u0000\u0000\u0000"+
+		"\u0012^\u0001\u0000\u0000\u0000\u0014`\u0001\u0000\u0000\u0000\u0016b"+
+		"\u0001\u0000\u0000\u0000\u0018d\u0001\u0000\u0000\u0000\u001a\u001c\u0003"+
+		"\u0002\u0001\u0000\u001b\u001a\u0001\u0000\u0000\u0000\u001c\u001d\u0001"+
+		"\u0000\u0000\u0000\u001d\u001b\u0001\u0000\u0000\u0000\u001d\u001e\u0001"+
+		"\u0000\u0000\u0000\u001e \u0001\u0000\u0000\u0000\u001f!\u0007\u0000\u0000"+
+		"\u0000 \u001f\u0001\u0000\u0000\u0000 !\u0001\u0000\u0000\u0000!\"\u0001"+
+		"\u0000\u0000\u0000\"#\u0005\u0000\u0000\u0001#\u0001\u0001\u0000\u0000"+
+		"\u0000$%\u0003\u0004\u0002\u0000%&\u0007\u0000\u0000\u0000&4\u0001\u0000"+
+		"\u0000\u0000\',\u0005@\u0000\u0000()\u0005\u0003\u0000\u0000)+\u0005@"+
+		"\u0000\u0000*(\u0001\u0000\u0000\u0000+.\u0001\u0000\u0000\u0000,*\u0001"+
+		"\u0000\u0000\u0000,-\u0001\u0000\u0000\u0000-/\u0001\u0000\u0000\u0000"+
+		".,\u0001\u0000\u0000\u0000/0\u0005\u0004\u0000\u000001\u0003\u0004\u0002"+
+		"\u000012\u0007\u0000\u0000\u000024\u0001\u0000\u0000\u00003$\u0001\u0000"+
+		"\u0000\u00003\'\u0001\u0000\u0000\u00004\u0003\u0001\u0000\u0000\u0000"+
+		"5B\u0003\u0006\u0003\u00006B\u0003\b\u0004\u00007B\u0003\n\u0005\u0000"+
+		"8B\u0003\f\u0006\u00009B\u0003\u000e\u0007\u0000:B\u0003\u0010\b\u0000"+
+		";B\u0003\u0012\t\u0000<B\u0003\u0014\n\u0000=B\u0003\u0016\u000b\u0000"+
+		">B\u0007\u0000\u0000\u0000?B\u0005\u0005\u0000\u0000@B\u0003\u0018\f\u0000"+
+		"A5\u0001\u0000\u0000\u0000A6\u0001\u0000\u0000\u0000A7\u0001\u0000\u0000"+
+		"\u0000A8\u0001\u0000\u0000\u0000A9\u0001\u0000\u0000\u0000A:\u0001\u0000"+
+		"\u0000\u0000A;\u0001\u0000\u0000\u0000A<\u0001\u0000\u0000\u0000A=\u0001"+
+		"\u0000\u0000\u0000A>\u0001\u0000\u0000\u0000A?\u0001\u0000\u0000\u0000"+
+		"A@\u0001\u0000\u0000\u0000B\u0005\u0001\u0000\u0000\u0000CD\u0005\n\u0000"+
+		"\u0000DL\u0005\u0007\u0000\u0000EF\u0005\u0018\u0000\u0000FL\u0007\u0001"+
+		"\u0000\u0000GH\u0005$\u0000\u0000HL\u0005\t\u0000\u0000IL\u0005)\u0000"+
+		"\u0000JL\u0005*\u0000\u0000KC\u0001\u0000\u0000\u0000KE\u0001\u0000\u0000"+
+		"\u0000KG\u0001\u0000\u0000\u0000KI\u0001\u0000\u0000\u0000KJ\u0001\u0000"+
+		"\u0000\u0000L\u0007\u0001\u0000\u0000\u0000MN\u0007\u0002\u0000\u0000"+
+		"NR\u0005\u0007\u0000\u0000OP\u0007\u0003\u0000\u0000PR\u0005\u0007\u0000"+
+		"\u0000QM\u0001\u0000\u0000\u0000QO\u0001\u0000\u0000\u0000R\t\u0001\u0000"+
+		"\u0000\u0000ST\u0007\u0004\u0000\u0000TU\u0005@\u0000\u0000U\u000b\u0001"+
+		"\u0000\u0000\u0000VW\u0007\u0005\u0000\u0000WX\u0005\u0007\u0000\u0000"+
+		"X\r\u0001\u0000\u0000\u0000YZ\u0005;\u0000\u0000Z[\u0005\u0007\u0000\u0000"+
+		"[\u000f\u0001\u0000\u0000\u0000\\]\u0007\u0006\u0000\u0000]\u0011\u0001"+
+		"\u0000\u0000\u0000^_\u0007\u0007\u0000\u0000_\u0013\u0001\u0000\u0000"+
+		"\u0000`a\u0007\b\u0000\u0000a\u0015\u0001\u0000\u0000\u0000bc\u0007\t"+
+		"\u0000\u0000c\u0017\u0001\u0000\u0000\u0000de\u0007\n\u0000\u0000ef\u0005"+
+		"@\u0000\u0000f\u0019\u0001\u0000\u0000\u0000\u0007\u001d ,3AKQ";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -8,9 +8,11 @@ import java.io.*;
 import java.util.*;
 
 import Antlr.*;
+import solUtils.ByteCodeFormat;
 import solUtils.ConstantPool;
 import solUtils.Instruction;
 import solUtils.OpCode;
+import solUtils.StringLiteral;
 import solUtils.Value;
 import SemanticChecker.TagRecord;
 
@@ -32,25 +34,25 @@ public class tAssembler extends TasmBaseListener
 
     public void exitIconst(TasmParser.IconstContext ctx)
     {
-        this.instructions.add(new Instruction(OpCode.iconst, new Value(Integer.parseInt(ctx.INT().getText()))));
+        this.instructions.add(new Instruction(OpCode.iconst, Value.of(Integer.parseInt(ctx.INT().getText()))));
     }
 
     public void exitDconst(TasmParser.DconstContext ctx)
     {
         Double number = Double.valueOf(ctx.DOUBLE() != null ? ctx.DOUBLE().getText() : ctx.INT().getText());
-        this.constantPool.add(new Value(number));
+        this.constantPool.add(Value.of(number));
 
-        Value poolPositionValue = new Value(this.constantPool.getPoolPosition(new Value(number)));
+        Value poolPositionValue = Value.of(this.constantPool.getPoolPosition(Value.of(number)));
         this.instructions.add(new Instruction(OpCode.dconst, poolPositionValue));
     }
 
 
     public void exitSconst(TasmParser.SconstContext ctx)
     {
-        String string = ctx.STRING().getText();
-        this.constantPool.add(new Value(string));
+        String string = StringLiteral.unquote(ctx.STRING().getText());
+        this.constantPool.add(Value.of(string));
 
-        Value poolPositionValue = new Value(this.constantPool.getPoolPosition(new Value(string)));
+        Value poolPositionValue = Value.of(this.constantPool.getPoolPosition(Value.of(string)));
         this.instructions.add(new Instruction(OpCode.sconst, poolPositionValue));
     }
 
@@ -68,7 +70,7 @@ public class tAssembler extends TasmBaseListener
     public void exitGlobal(TasmParser.GlobalContext ctx)
     {
         this.instructions.add(new Instruction(OpCode.valueOf(ctx.alloc.getText()),
-                                new Value(Integer.parseInt(ctx.INT().getText())))
+                                Value.of(Integer.parseInt(ctx.INT().getText())))
         );
     }
 
@@ -80,7 +82,7 @@ public class tAssembler extends TasmBaseListener
         if(argument < 0 && ctx.alloc.getText().equals("lalloc"))
             this.errorLog.throwError(ctx, " Cannot allocate negative memory");
 
-        this.instructions.add(new Instruction(OpCode.valueOf(ctx.alloc.getText()), new Value(argument)));
+        this.instructions.add(new Instruction(OpCode.valueOf(ctx.alloc.getText()), Value.of(argument)));
     }
 
     @Override
@@ -91,21 +93,21 @@ public class tAssembler extends TasmBaseListener
 
 
         Integer line = this.tagCache.get(ctx.TAG().getText());
-        this.instructions.add(new Instruction(OpCode.call, new Value(line)));
+        this.instructions.add(new Instruction(OpCode.valueOf(ctx.op.getText()), line == null ? Value.NIL : Value.of(line)));
     }
 
     @Override
     public void exitReturn(TasmParser.ReturnContext ctx)
     {
         this.instructions.add(new Instruction(OpCode.valueOf(ctx.ret.getText()),
-                new Value(Integer.parseInt(ctx.INT().getText())))
+                Value.of(Integer.parseInt(ctx.INT().getText())))
         );
     }
 
     @Override
     public void exitPop(TasmParser.PopContext ctx)
     {
-        this.instructions.add(new Instruction(OpCode.pop, new Value(Integer.parseInt(ctx.INT().getText()))));
+        this.instructions.add(new Instruction(OpCode.pop, Value.of(Integer.parseInt(ctx.INT().getText()))));
     }
 
     public void exitConditions(TasmParser.ConditionsContext ctx)
@@ -135,7 +137,7 @@ public class tAssembler extends TasmBaseListener
         if(line == null)
             this.errorLog.throwError(ctx, "Tag '" + ctx.TAG().getText() + "' has not been defined.");
         else
-            this.instructions.add(new Instruction(OpCode.valueOf(ctx.jp.getText()), new Value(line)));
+            this.instructions.add(new Instruction(OpCode.valueOf(ctx.jp.getText()), Value.of(line)));
     }
 
     @Override
@@ -167,44 +169,7 @@ public class tAssembler extends TasmBaseListener
 
     private void generateByteCode(LinkedList<Instruction> instructions, LinkedList<Value> constantPool, String outputFile) throws Exception
     {
-        DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(outputFile));
-
-        outputStream.writeInt(constantPool.size());
-
-        //Generates Bytes for constant pool
-        for(Value value: constantPool)
-        {
-            OpCode instructionOpCode = value.getValueType() == Double.class ? OpCode.dconst : OpCode.sconst;
-            outputStream.writeByte(instructionOpCode.ordinal());
-
-            if(instructionOpCode == OpCode.dconst)
-            {
-                outputStream.writeDouble(value.getDouble());
-            }
-
-            else if(instructionOpCode == OpCode.sconst)
-            {
-                String argument = value.getString();
-                outputStream.writeInt(argument.length());
-                outputStream.writeChars(argument);
-            }
-        }
-
-
-        //Generates bytes for instructions
-        for (Instruction instruction : instructions)
-        {
-            OpCode instructionOpCode = instruction.getInstruction();
-            outputStream.writeByte(instructionOpCode.ordinal());
-
-            if(instruction.hasArgument())
-            {
-                outputStream.writeInt(instruction.getArgument().getInteger());
-            }
-
-        }
-
-        outputStream.close();
+        ByteCodeFormat.write(instructions, constantPool, outputFile);
     }
 
     public void compile(String inputFile, String outputFile) throws Exception
@@ -0,0 +1,469 @@
+package Compiler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+
+import solUtils.*;
+
+//Cleans up the instructions solCompiler generates before they are saved. Each pass looks at a few instructions at a
+//time and only rewrites them where every path through them does the same, then the removed instructions are dropped
+//and the jumps and calls are pointed at the new positions. The passes repeat until none of them changes anything.
+//Level 1 threads jumps, removes unreachable code and the pops before a ret and folds conversions of constants,
+//level 2 also drops a store followed by a load of the same local when the local isn't read again.
+class PeepholeOptimizer
+{
+    private final ConstantPool<Value> pool;
+    private final int level;
+
+    private ArrayList<Instruction> code;
+    private boolean[] targets;
+    private boolean[] removed;
+
+    PeepholeOptimizer(ConstantPool<Value> pool, int level)
+    {
+        this.pool = pool;
+        this.level = level;
+    }
+
+    //Rewrites the instructions in place and returns how many were removed
+    int optimize(LinkedList<Instruction> instructions)
+    {
+        this.code = new ArrayList<>(instructions);
+        compact();
+
+        boolean changed = true;
+
+        while(changed)
+        {
+            changed = threadJumps();
+            changed |= compact();
+            changed |= invertBranches();
+            changed |= compact();
+            changed |= removeUnreachable();
+            changed |= compact();
+            changed |= removePops();
+            changed |= compact();
+            changed |= foldConversions();
+            changed |= compact();
+            changed |= removeLoadStores();
+            changed |= compact();
+
+            if(this.level >= 2)
+            {
+                changed |= removeDeadStores();
+                changed |= compact();
+            }
+        }
+
+        int removedInstructions = instructions.size() - this.code.size();
+
+        instructions.clear();
+        instructions.addAll(this.code);
+
+        return removedInstructions;
+    }
+
+    private static boolean isJump(OpCode opCode)
+    {
+        return opCode == OpCode.jump || opCode == OpCode.jumpt || opCode == OpCode.jumpf;
+    }
+
+    private static boolean isCall(OpCode opCode)
+    {
+        return opCode == OpCode.call || opCode == OpCode.tcall;
+    }
+
+    private static boolean isExit(OpCode opCode)
+    {
+        return opCode == OpCode.ret || opCode == OpCode.retval || opCode == OpCode.halt;
+    }
+
+    private OpCode opCode(int position)
+    {
+        return this.code.get(position).getInstruction();
+    }
+
+    private int argument(int position)
+    {
+        return this.code.get(position).getArgument().getInteger();
+    }
+
+    //Instructions that can run right after the one at position, calls return to the next one
+    private int[] successors(int position)
+    {
+        OpCode opCode = opCode(position);
+
+        if(opCode == OpCode.jump)
+            return new int[] {argument(position)};
+
+        if(opCode == OpCode.jumpt || opCode == OpCode.jumpf)
+            return new int[] {argument(position), position + 1};
+
+        if(isExit(opCode) || position + 1 >= this.code.size())
+            return new int[] {};
+
+        return new int[] {position + 1};
+    }
+
+    //Drops the removed instructions, a jump or call to one of them goes to the next instruction that is kept.
+    //Returns whether anything was removed and marks the instructions jumps go to for the next pass.
+    private boolean compact()
+    {
+        int size = this.code.size();
+        int[] newPositions = new int[size + 1];
+        ArrayList<Instruction> compacted = new ArrayList<>(size);
+
+        for(int i = 0; i < size; i++)
+        {
+            newPositions[i] = compacted.size();
+
+            if(this.removed == null || !this.removed[i])
+                compacted.add(this.code.get(i));
+        }
+
+        newPositions[size] = compacted.size();
+
+        for(int i = 0; i < compacted.size(); i++)
+        {
+            Instruction instruction = compacted.get(i);
+            OpCode opCode = instruction.getInstruction();
+
+            if(isJump(opCode) || isCall(opCode))
+                compacted.set(i, new Instruction(opCode, Value.of(newPositions[instruction.getArgument().getInteger()])));
+        }
+
+        boolean changed = compacted.size() != size;
+
+        this.code = compacted;
+        this.removed = new boolean[compacted.size()];
+        this.targets = new boolean[compacted.size()];
+
+        for(int i = 0; i < compacted.size(); i++)
+            if(isJump(opCode(i)))
+                this.targets[argument(i)] = true;
+
+        return changed;
+    }
+
+    //Where a chain of unconditional jumps starting at position ends, a chain that loops forever is left alone
+    private int finalTarget(int position)
+    {
+        int target = position;
+
+        for(int steps = 0; opCode(target) == OpCode.jump; steps++)
+        {
+            if(steps == this.code.size())
+                return position;
+
+            target = argument(target);
+        }
+
+        return target;
+    }
+
+    //A jump to a jump goes straight to where the last one goes, an unconditional jump to a ret, retval or halt becomes
+    //a copy of it and one to the next instruction is removed
+    private boolean threadJumps()
+    {
+        boolean changed = false;
+
+        for(int i = 0; i < this.code.size(); i++)
+        {
+            OpCode opCode = opCode(i);
+
+            if(!isJump(opCode))
+                continue;
+
+            int target = finalTarget(argument(i));
+
+            if(opCode == OpCode.jump && isExit(opCode(target)))
+            {
+                this.code.set(i, this.code.get(target));
+                changed = true;
+            }
+            else if(opCode == OpCode.jump && target == i + 1)
+            {
+                this.removed[i] = true;
+                changed = true;
+            }
+            else if(target != argument(i))
+            {
+                this.code.set(i, new Instruction(opCode, Value.of(target)));
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    //jumpf L1; jump L2; L1: becomes jumpt L2; L1: and the same with jumpt
+    private boolean invertBranches()
+    {
+        boolean changed = false;
+
+        for(int i = 0; i + 2 < this.code.size(); i++)
+        {
+            OpCode opCode = opCode(i);
+
+            if((opCode != OpCode.jumpf && opCode != OpCode.jumpt) || opCode(i + 1) != OpCode.jump
+                    || this.targets[i + 1] || argument(i) != i + 2)
+                continue;
+
+            OpCode inverted = opCode == OpCode.jumpf ? OpCode.jumpt : OpCode.jumpf;
+
+            this.code.set(i, new Instruction(inverted, Value.of(argument(i + 1))));
+            this.removed[i + 1] = true;
+            changed = true;
+            i++;
+        }
+
+        return changed;
+    }
+
+    //Code no path from the start of the program or from a called function reaches, like a jump after a retval
+    private boolean removeUnreachable()
+    {
+        boolean[] reached = new boolean[this.code.size()];
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+
+        reached[0] = true;
+        worklist.add(0);
+
+        while(!worklist.isEmpty())
+        {
+            int position = worklist.poll();
+            int[] successors = successors(position);
+
+            if(isCall(opCode(position)))
+            {
+                successors = Arrays.copyOf(successors, successors.length + 1);
+                successors[successors.length - 1] = argument(position);
+            }
+
+            for(int successor : successors)
+            {
+                if(!reached[successor])
+                {
+                    reached[successor] = true;
+                    worklist.add(successor);
+                }
+            }
+        }
+
+        boolean changed = false;
+
+        for(int i = 0; i < reached.length; i++)
+        {
+            if(!reached[i])
+            {
+                this.removed[i] = true;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    //A ret drops the whole frame, so the pop of a scope right before it does nothing. Two pops in a row become one.
+    //The ret mustn't be a jump target, paths that join there would reach it with different depths.
+    private boolean removePops()
+    {
+        boolean changed = false;
+
+        for(int i = 0; i + 1 < this.code.size(); i++)
+        {
+            if(opCode(i) != OpCode.pop || this.targets[i + 1])
+                continue;
+
+            if(opCode(i + 1) == OpCode.ret)
+            {
+                this.removed[i] = true;
+                changed = true;
+            }
+            else if(opCode(i + 1) == OpCode.pop)
+            {
+                this.code.set(i + 1, new Instruction(OpCode.pop, Value.of(argument(i) + argument(i + 1))));
+                this.removed[i] = true;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    private Instruction poolConstant(OpCode opCode, Value value)
+    {
+        this.pool.add(value);
+
+        return new Instruction(opCode, Value.of(this.pool.getPoolPosition(value)));
+    }
+
+    //A conversion, negation or not of a constant becomes the constant it results in
+    private Instruction fold(Instruction constant, OpCode operation)
+    {
+        switch(constant.getInstruction())
+        {
+            case iconst ->
+            {
+                int value = constant.getArgument().getInteger();
+
+                return switch(operation)
+                {
+                    case itod -> poolConstant(OpCode.dconst, Value.of((double) value));
+                    case itos -> poolConstant(OpCode.sconst, Value.of(String.valueOf(value)));
+                    case iuminus -> new Instruction(OpCode.iconst, Value.of(-value));
+                    default -> null;
+                };
+            }
+            case dconst ->
+            {
+                double value = this.pool.getPoolValue(constant.getArgument().getInteger()).getDouble();
+
+                return switch(operation)
+                {
+                    case dtos -> poolConstant(OpCode.sconst, Value.of(String.valueOf(value)));
+                    case duminus -> poolConstant(OpCode.dconst, Value.of(-value));
+                    default -> null;
+                };
+            }
+            case tconst, fconst ->
+            {
+                boolean value = constant.getInstruction() == OpCode.tconst;
+
+                return switch(operation)
+                {
+                    case btos -> poolConstant(OpCode.sconst, Value.of(value ? "true" : "false"));
+                    case not -> new Instruction(value ? OpCode.fconst : OpCode.tconst);
+                    default -> null;
+                };
+            }
+            default ->
+            {
+                return null;
+            }
+        }
+    }
+
+    private boolean foldConversions()
+    {
+        boolean changed = false;
+
+        for(int i = 0; i + 1 < this.code.size(); i++)
+        {
+            if(this.targets[i + 1])
+                continue;
+
+            Instruction folded = fold(this.code.get(i), opCode(i + 1));
+
+            if(folded != null)
+            {
+                this.code.set(i, folded);
+                this.removed[i + 1] = true;
+                changed = true;
+                i++;
+            }
+        }
+
+        return changed;
+    }
+
+    //A load followed by a store to the same address, x = x, does nothing
+    private boolean removeLoadStores()
+    {
+        boolean changed = false;
+
+        for(int i = 0; i + 1 < this.code.size(); i++)
+        {
+            OpCode load = opCode(i);
+            OpCode store = opCode(i + 1);
+
+            if(((load == OpCode.lload && store == OpCode.lstore) || (load == OpCode.gload && store == OpCode.gstore))
+                    && !this.targets[i + 1] && argument(i) == argument(i + 1))
+            {
+                this.removed[i] = true;
+                this.removed[i + 1] = true;
+                changed = true;
+                i++;
+            }
+        }
+
+        return changed;
+    }
+
+    //The locals of the frame that can still be read before each instruction runs. Offsets are shifted by the number
+    //of arguments so those of the arguments, below the frame pointer, fit in the set too.
+    private BitSet[] liveLocals(int shift)
+    {
+        int size = this.code.size();
+        BitSet[] live = new BitSet[size];
+
+        for(int i = 0; i < size; i++)
+            live[i] = new BitSet();
+
+        boolean changed = true;
+
+        while(changed)
+        {
+            changed = false;
+
+            for(int i = size - 1; i >= 0; i--)
+            {
+                BitSet before = new BitSet();
+
+                for(int successor : successors(i))
+                    before.or(live[successor]);
+
+                if(opCode(i) == OpCode.lstore)
+                    before.clear(argument(i) + shift);
+                else if(opCode(i) == OpCode.lload)
+                    before.set(argument(i) + shift);
+
+                if(!before.equals(live[i]))
+                {
+                    live[i] = before;
+                    changed = true;
+                }
+            }
+        }
+
+        return live;
+    }
+
+    //lstore n; lload n leaves the stored value on the stack, if nothing reads the local afterwards both can go
+    private boolean removeDeadStores()
+    {
+        int shift = 0;
+
+        for(int i = 0; i < this.code.size(); i++)
+            if(opCode(i) == OpCode.lload || opCode(i) == OpCode.lstore)
+                shift = Math.max(shift, -argument(i));
+
+        BitSet[] live = liveLocals(shift);
+        boolean changed = false;
+
+        for(int i = 0; i + 1 < this.code.size(); i++)
+        {
+            if(opCode(i) != OpCode.lstore || opCode(i + 1) != OpCode.lload || this.targets[i + 1]
+                    || argument(i) != argument(i + 1))
+                continue;
+
+            boolean readLater = false;
+
+            for(int successor : successors(i + 1))
+                readLater |= live[successor].get(argument(i) + shift);
+
+            if(!readLater)
+            {
+                this.removed[i] = true;
+                this.removed[i + 1] = true;
+                changed = true;
+                i++;
+            }
+        }
+
+        return changed;
+    }
+}
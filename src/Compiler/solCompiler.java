@@ -29,6 +29,7 @@ public class solCompiler extends SolBaseVisitor<Void>
     private HashMap<String, Function> functionCache;
     private final HashMap<String, Integer> functionPosition;
     private final HashMap<String, Integer> functionPositionWaitList;
+    private SolParser.FunctionCallContext tailCall;
     private int globalMemoryPointer;
     private int localMemoryPointer;
 
@@ -42,6 +43,7 @@ public class solCompiler extends SolBaseVisitor<Void>
         this.functionCache = new HashMap<>();
         this.functionPosition = new HashMap<>();
         this.functionPositionWaitList = new HashMap<>();
+        this.tailCall = null;
         this.globalMemoryPointer = 0;
         this.localMemoryPointer = 2;
     }
@@ -111,14 +113,14 @@ public class solCompiler extends SolBaseVisitor<Void>
                     gallocSize += 1;
 
             if (gallocSize > 0)
-                this.instructions.add(new Instruction(OpCode.galloc, new Value(gallocSize)));
+                this.instructions.add(new Instruction(OpCode.galloc, Value.of(gallocSize)));
         }
 
         for(SolParser.DeclarationContext declaration : ctx.declaration())
             visit(declaration);
 
         //Marks the position for the main call
-        this.instructions.add(new Instruction(OpCode.call, new Value(-1)));
+        this.instructions.add(new Instruction(OpCode.call, Value.of(-1)));
         this.instructions.add(new Instruction(OpCode.halt));
 
         for(SolParser.FunctionContext function : ctx.function())
@@ -127,7 +129,7 @@ public class solCompiler extends SolBaseVisitor<Void>
         //Sets the call argument of the function main to the start of the function
         for(int i = 0; i < this.instructions.size(); i++)
             if (this.instructions.get(i).getInstruction() == OpCode.call && this.instructions.get(i).getArgument().getInteger() == -1)
-                this.instructions.set(i, new Instruction(OpCode.call, new Value(this.functionPosition.get("main"))));
+                this.instructions.set(i, new Instruction(OpCode.call, Value.of(this.functionPosition.get("main"))));
 
         return null;
     }
@@ -155,7 +157,7 @@ public class solCompiler extends SolBaseVisitor<Void>
 
         //The following code just creates an expression just like a while but just uses the symbol '<' per example
         // for i = 1 to 10 equals -> while i < 10
-        this.instructions.add(new Instruction(load, new Value(affectationLabelPosition)));
+        this.instructions.add(new Instruction(load, Value.of(affectationLabelPosition)));
         visit(ctx.expression());
         this.instructions.add(new Instruction(OpCode.ileq));
 
@@ -164,20 +166,20 @@ public class solCompiler extends SolBaseVisitor<Void>
 
         //The following code just sums 1 to the affection variable
         visit(ctx.instruction());
-        this.instructions.add(new Instruction(OpCode.iconst, new Value(1)));
-        this.instructions.add(new Instruction(load, new Value(affectationLabelPosition)));
+        this.instructions.add(new Instruction(OpCode.iconst, Value.of(1)));
+        this.instructions.add(new Instruction(load, Value.of(affectationLabelPosition)));
         this.instructions.add(new Instruction(OpCode.iadd));
-        this.instructions.add(new Instruction(store, new Value(affectationLabelPosition)));
+        this.instructions.add(new Instruction(store, Value.of(affectationLabelPosition)));
 
         //the following code just sets the jumps, if we are at the end of the loop we go to the beginning
         //if the affection equals the expression we leave the loop
-        this.instructions.add(new Instruction(OpCode.jump, new Value(beginLoop)));
-        this.instructions.set(jumpToEndOfLoop, new Instruction(OpCode.jumpf, new Value(this.instructions.size())));
+        this.instructions.add(new Instruction(OpCode.jump, Value.of(beginLoop)));
+        this.instructions.set(jumpToEndOfLoop, new Instruction(OpCode.jumpf, Value.of(this.instructions.size())));
 
         //Searches for positions to put a jump that was the break
         for(int i = beginLoop; i < this.instructions.size(); i++)
             if(this.instructions.get(i) == null)
-                this.instructions.set(i, new Instruction(OpCode.jump, new Value(this.instructions.size())));
+                this.instructions.set(i, new Instruction(OpCode.jump, Value.of(this.instructions.size())));
 
         return null;
     }
@@ -192,13 +194,13 @@ public class solCompiler extends SolBaseVisitor<Void>
         this.instructions.add(null);
 
         visit(ctx.instruction());
-        this.instructions.add(new Instruction(OpCode.jump, new Value(beginLoop)));
-        this.instructions.set(jumpInstructionIndex, new Instruction(OpCode.jumpf, new Value(this.instructions.size())));
+        this.instructions.add(new Instruction(OpCode.jump, Value.of(beginLoop)));
+        this.instructions.set(jumpInstructionIndex, new Instruction(OpCode.jumpf, Value.of(this.instructions.size())));
 
         //Searches for positions to put a jump that was the break
         for(int i = beginLoop; i < this.instructions.size(); i++)
             if(this.instructions.get(i) == null)
-                this.instructions.set(i, new Instruction(OpCode.jump, new Value(this.instructions.size())));
+                this.instructions.set(i, new Instruction(OpCode.jump, Value.of(this.instructions.size())));
 
         return null;
     }
@@ -212,17 +214,17 @@ public class solCompiler extends SolBaseVisitor<Void>
 
         visit(ctx.instruction(0));
         int afterIfIndex =this.instructions.size();
-        this.instructions.set(jumpInstructionIndex, new Instruction(OpCode.jumpf, new Value(afterIfIndex)));
+        this.instructions.set(jumpInstructionIndex, new Instruction(OpCode.jumpf, Value.of(afterIfIndex)));
 
         //else exists
         if(ctx.instruction().size() > 1)
         {
-            this.instructions.set(jumpInstructionIndex, new Instruction(OpCode.jumpf, new Value(afterIfIndex+1)));
+            this.instructions.set(jumpInstructionIndex, new Instruction(OpCode.jumpf, Value.of(afterIfIndex+1)));
             this.instructions.add(null);
             visit(ctx.instruction(1));
             int afterElseIndex = this.instructions.size();
 
-            this.instructions.set(afterIfIndex, new Instruction(OpCode.jump, new Value(afterElseIndex)));
+            this.instructions.set(afterIfIndex, new Instruction(OpCode.jump, Value.of(afterElseIndex)));
         }
 
         return null;
@@ -234,7 +236,7 @@ public class solCompiler extends SolBaseVisitor<Void>
        visit(ctx.block());
 
        if(!(ctx.parent instanceof SolParser.FunctionContext) && !ctx.block().declaration().isEmpty())
-           this.instructions.add(new Instruction(OpCode.pop, new Value(ctx.block().declaration().size())));
+           this.instructions.add(new Instruction(OpCode.pop, Value.of(ctx.block().declaration().size())));
 
 
        for(SolParser.DeclarationContext declaration : ctx.block().declaration())
@@ -253,7 +255,7 @@ public class solCompiler extends SolBaseVisitor<Void>
                 lallocSize++;
 
         if(lallocSize > 0)
-            this.instructions.add(new Instruction(OpCode.lalloc, new Value(lallocSize)));
+            this.instructions.add(new Instruction(OpCode.lalloc, Value.of(lallocSize)));
 
         for(int i = 0; i < ctx.declaration().size(); i++)
             visit(ctx.declaration(i));
@@ -270,7 +272,7 @@ public class solCompiler extends SolBaseVisitor<Void>
         Variable variable = this.scopeTree.getVariable(ctx, ctx.LABEL().getText());
 
         possibleConversion(this.types.get(ctx), ctx.expression());
-        this.instructions.add(new Instruction(returnStoreCode(variable.isGlobal), new Value(
+        this.instructions.add(new Instruction(returnStoreCode(variable.isGlobal), Value.of(
                 variable.memoryValue
                 )));
 
@@ -287,7 +289,7 @@ public class solCompiler extends SolBaseVisitor<Void>
         if(ctx.expression() != null)
         {
             possibleConversion(this.types.get(ctx), ctx.expression());
-            this.instructions.add(new Instruction(returnStoreCode(isGlobal), new Value(pointer)));
+            this.instructions.add(new Instruction(returnStoreCode(isGlobal), Value.of(pointer)));
         }
 
         this.scopeTree.getVariable(ctx, ctx.LABEL().getText()).memoryValue = pointer;
@@ -329,7 +331,12 @@ public class solCompiler extends SolBaseVisitor<Void>
             this.scopeTree.getVariable(ctx.scope(), ctx.LABEL(i).getText()).memoryValue = -(ctx.LABEL().size()  - i);
 
         if(this.functionPositionWaitList.containsKey(ctx.fname.getText()))
-            this.instructions.set(this.functionPositionWaitList.get(ctx.fname.getText()), new Instruction(OpCode.call, new Value(this.instructions.size())));
+        {
+            int callPosition = this.functionPositionWaitList.get(ctx.fname.getText());
+            OpCode callCode = this.instructions.get(callPosition).getInstruction();
+
+            this.instructions.set(callPosition, new Instruction(callCode, Value.of(this.instructions.size())));
+        }
 
         this.functionPosition.put(ctx.fname.getText(), this.instructions.size());
         visit(ctx.scope());
@@ -337,7 +344,7 @@ public class solCompiler extends SolBaseVisitor<Void>
         int end = this.instructions.size() - 1;
 
         if(ctx.rtype.getText().equals("void") && !hasRetInstruction(begin, end))
-            this.instructions.add(new Instruction(OpCode.ret, new Value(ctx.LABEL().size() - 1)));
+            this.instructions.add(new Instruction(OpCode.ret, Value.of(ctx.LABEL().size() - 1)));
 
         return null;
     }
@@ -350,13 +357,21 @@ public class solCompiler extends SolBaseVisitor<Void>
         OpCode returnCode;
         if(ctx.expression() != null)
         {
+            //A call whose result is returned without a conversion is in tail position and can reuse this frame
+            SolParser.ExpressionContext expression = ctx.expression();
+            while(expression instanceof SolParser.LRParenContext parenthesis)
+                expression = parenthesis.expression();
+
+            if(expression instanceof SolParser.FunctionCallExpressionContext call && this.types.get(call) == thisFunction.returnType())
+                this.tailCall = call.functionCall();
+
             possibleConversion(thisFunction.returnType(), ctx.expression());
             returnCode = OpCode.retval;
         }
         else
             returnCode = OpCode.ret;
 
-        this.instructions.add(new Instruction(returnCode, new Value(thisFunction.numberOfArgs())));
+        this.instructions.add(new Instruction(returnCode, Value.of(thisFunction.numberOfArgs())));
 
         return null;
     }
@@ -506,7 +521,7 @@ public class solCompiler extends SolBaseVisitor<Void>
         Variable labelVariable = this.scopeTree.getVariable(ctx, ctx.LABEL().getText());
 
         this.instructions.add(new Instruction(
-                returnLoadCode(labelVariable.isGlobal), new Value(labelVariable.memoryValue))
+                returnLoadCode(labelVariable.isGlobal), Value.of(labelVariable.memoryValue))
         );
 
         return null;
@@ -523,7 +538,10 @@ public class solCompiler extends SolBaseVisitor<Void>
         if(functionPosition == null)
             this.functionPositionWaitList.put(ctx.fname.getText(), this.instructions.size());
 
-        this.instructions.add(new Instruction(OpCode.call, new Value(functionPosition)));
+        OpCode callCode = ctx == this.tailCall ? OpCode.tcall : OpCode.call;
+
+        //The call target stays NIL until the function is visited and the wait list patches it
+        this.instructions.add(new Instruction(callCode, functionPosition == null ? Value.NIL : Value.of(functionPosition)));
 
         return null;
     }
@@ -532,7 +550,7 @@ public class solCompiler extends SolBaseVisitor<Void>
     public Void visitInt(SolParser.IntContext ctx)
     {
         int integer = Integer.parseInt(ctx.INT().getText());
-        this.instructions.add(new Instruction(OpCode.iconst, new Value(integer)));
+        this.instructions.add(new Instruction(OpCode.iconst, Value.of(integer)));
 
         return null;
     }
@@ -540,10 +558,10 @@ public class solCompiler extends SolBaseVisitor<Void>
     @Override
     public Void visitDouble(SolParser.DoubleContext ctx)
     {
-        Value real = new Value(Double.parseDouble(ctx.DOUBLE().getText()));
+        Value real = Value.of(Double.parseDouble(ctx.DOUBLE().getText()));
 
         this.pool.add(real);
-        this.instructions.add(new Instruction(OpCode.dconst, new Value(this.pool.getPoolPosition(real))));
+        this.instructions.add(new Instruction(OpCode.dconst, Value.of(this.pool.getPoolPosition(real))));
 
         return null;
     }
@@ -551,10 +569,10 @@ public class solCompiler extends SolBaseVisitor<Void>
     @Override
     public Void visitString(SolParser.StringContext ctx)
     {
-        Value string = new Value(ctx.STRING().getText());
+        Value string = Value.of(StringLiteral.unquote(ctx.STRING().getText()));
 
         this.pool.add(string);
-        this.instructions.add(new Instruction(OpCode.sconst, new Value(this.pool.getPoolPosition(string))));
+        this.instructions.add(new Instruction(OpCode.sconst, Value.of(this.pool.getPoolPosition(string))));
 
         return null;
     }
@@ -606,40 +624,7 @@ public class solCompiler extends SolBaseVisitor<Void>
 
     private void generateByteCode(LinkedList<Instruction> instructions, LinkedList<Value> constantPool, String outputFile) throws Exception
     {
-        DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(outputFile));
-
-        outputStream.writeInt(constantPool.size());
-
-        //Generates Bytes for constant pool
-        for(Value value : constantPool)
-        {
-            if(value.getValueType() == Double.class)
-            {
-                outputStream.writeByte(OpCode.dconst.ordinal());
-                outputStream.writeDouble(value.getDouble());
-            }
-
-            else if(value.getValueType() == String.class)
-            {
-                outputStream.writeByte(OpCode.sconst.ordinal());
-                outputStream.writeInt(value.getString().length());
-                outputStream.writeChars(value.getString());
-            }
-        }
-
-        //Generates bytes for instructions
-        for (Instruction instruction : instructions)
-        {
-            outputStream.writeByte(instruction.getInstruction().ordinal());
-
-            if(instruction.hasArgument())
-            {
-                outputStream.writeInt(instruction.getArgument().getInteger());
-            }
-
-        }
-
-        outputStream.close();
+        ByteCodeFormat.write(instructions, constantPool, outputFile);
     }
 
     private void asm()
@@ -663,6 +648,11 @@ public class solCompiler extends SolBaseVisitor<Void>
     }
 
     public void compile(String inputFile, String outputFile, boolean asm) throws Exception
+    {
+        compile(inputFile, outputFile, asm, 0);
+    }
+
+    public void compile(String inputFile, String outputFile, boolean asm, int optimizationLevel) throws Exception
     {
         InputStream inputStream = inputFile == null ? System.in : new FileInputStream(inputFile);
         SolParser parser = generateParser(inputStream);
@@ -692,7 +682,14 @@ public class solCompiler extends SolBaseVisitor<Void>
         //Iterate through the tree and creates the instructions
         this.visit(tree);
 
+        //Peephole passes over the generated instructions, -O1 and up
+        if(optimizationLevel > 0)
+        {
+            int size = this.instructions.size();
+            int removed = new PeepholeOptimizer(this.pool, optimizationLevel).optimize(this.instructions);
 
+            System.out.println("\nPeephole optimizer removed " + removed + " of " + size + " instructions");
+        }
 
         if(asm) asm();
         System.out.println("\nSaving the bytecodes to " + outputFile);
@@ -719,21 +716,25 @@ public class solCompiler extends SolBaseVisitor<Void>
 
     public static void main(String[] args) throws Exception
     {
-        if(args.length > 2)
-        {
-            ErrorLog.fatalError("Too many Program arguments. tVM.tVM [OPTION] [FILE]");
-        }
-
         String inputFile = null;
         boolean asm = false;
+        int optimizationLevel = 0;
 
         for (String arg : args)
         {
 
             if (arg.equals("-asm") || arg.equals("-a"))
                 asm = true;
-            else
+            else if (arg.equals("-O"))
+                optimizationLevel = 1;
+            else if (arg.matches("-O[0-2]"))
+                optimizationLevel = arg.charAt(2) - '0';
+            else if (arg.startsWith("-O"))
+                ErrorLog.fatalError("Invalid optimization level " + arg + ", it must be -O0, -O1 or -O2.");
+            else if (inputFile == null)
                 inputFile = arg;
+            else
+                ErrorLog.fatalError("Too many Program arguments. Compiler.solCompiler [-asm] [-O0|-O1|-O2] [FILE]");
         }
 
         if (inputFile == null)
@@ -756,7 +757,7 @@ public class solCompiler extends SolBaseVisitor<Void>
 
         String outputFile = inputFile.split("\\.")[0].concat(".tbc");
         solCompiler compiler = new solCompiler();
-        compiler.compile(inputFile, outputFile, asm);
+        compiler.compile(inputFile, outputFile, asm, optimizationLevel);
     }
 
 }
@@ -0,0 +1,148 @@
+package Compiler;
+
+import ErrorHandler.ErrorLog;
+import tVM.AotRuntime;
+import tVM.AotTranslator;
+import tVM.ConcatString;
+import tVM.InvalidProgramException;
+import tVM.JitRuntime;
+import tVM.JitTranslator;
+import tVM.OutputBuffer;
+import tVM.Program;
+import tVM.VMFault;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+//Ahead-of-time compiler: turns a .tbc, or a .sol through solCompiler first, into a jar with one JVM class for the
+//program and the few tVM classes it runs on. The jar runs with plain java, java -cp program.jar program.
+public class solaot
+{
+    //Classes the generated code calls, they and their nested classes are copied into every jar
+    private static final Class<?>[] RUNTIME_CLASSES =
+            {AotRuntime.class, OutputBuffer.class, VMFault.class, ConcatString.class, JitRuntime.class};
+
+    //The program's file name, made into a valid class name
+    private static String className(String inputFile)
+    {
+        String name = new File(inputFile).getName();
+        name = name.substring(0, name.lastIndexOf('.'));
+
+        StringBuilder result = new StringBuilder();
+
+        for (char character : name.toCharArray())
+            result.append(Character.isJavaIdentifierPart(character) ? character : '_');
+
+        if (result.isEmpty() || !Character.isJavaIdentifierStart(result.charAt(0)))
+            result.insert(0, '_');
+
+        return result.toString();
+    }
+
+    private static void writeClass(JarOutputStream jar, Class<?> runtimeClass) throws IOException
+    {
+        String name = runtimeClass.getName().replace('.', '/') + ".class";
+
+        try (InputStream classFile = solaot.class.getClassLoader().getResourceAsStream(name))
+        {
+            if (classFile == null)
+                throw new IOException("Couldn't find " + name);
+
+            jar.putNextEntry(new JarEntry(name));
+            classFile.transferTo(jar);
+            jar.closeEntry();
+        }
+
+        for (Class<?> nested : runtimeClass.getDeclaredClasses())
+            writeClass(jar, nested);
+    }
+
+    private static void writeJar(String jarFile, String className, byte[] classFile) throws IOException
+    {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, className);
+
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile), manifest))
+        {
+            jar.putNextEntry(new JarEntry(className + ".class"));
+            jar.write(classFile);
+            jar.closeEntry();
+
+            for (Class<?> runtimeClass : RUNTIME_CLASSES)
+                writeClass(jar, runtimeClass);
+        }
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        String inputFile = null;
+        String jarFile = null;
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("-jar="))
+                jarFile = arg.substring("-jar=".length());
+            else if (inputFile == null)
+                inputFile = arg;
+            else
+                ErrorLog.fatalError("Too many Program arguments. Compiler.solaot [-jar=FILE] FILE");
+        }
+
+        if (inputFile == null)
+            ErrorLog.fatalError("No input file. Compiler.solaot [-jar=FILE] FILE");
+
+        if (!new File(inputFile).exists())
+            ErrorLog.fatalError("File " + inputFile + " does not exist.");
+
+        if (!inputFile.endsWith(".tbc") && !inputFile.endsWith(".sol"))
+            ErrorLog.fatalError("Invalid file extension, File must have the extension tbc or sol.");
+
+        String baseName = inputFile.substring(0, inputFile.lastIndexOf('.'));
+        String byteCodeFile = inputFile;
+
+        if (inputFile.endsWith(".sol"))
+        {
+            byteCodeFile = baseName + ".tbc";
+            new solCompiler().compile(inputFile, byteCodeFile, false);
+        }
+
+        if (jarFile == null)
+            jarFile = baseName + ".jar";
+
+        Program program = null;
+        try
+        {
+            program = Program.load(Path.of(byteCodeFile));
+        }
+        catch (InvalidProgramException e)
+        {
+            ErrorLog.fatalError(e.getMessage());
+        }
+
+        String className = className(inputFile);
+        AotTranslator translator = new AotTranslator(program, className);
+        byte[] classFile = null;
+
+        try
+        {
+            classFile = translator.translate();
+        }
+        catch (JitTranslator.UnsupportedCodeException e)
+        {
+            ErrorLog.fatalError("Can't compile " + byteCodeFile + " ahead of time: " + e.getMessage());
+        }
+
+        writeJar(jarFile, className, classFile);
+
+        System.out.println("\nSaving " + translator.getMethodCount() + " compiled functions to " + jarFile
+                + ", run it with java -cp " + jarFile + " " + className);
+    }
+}
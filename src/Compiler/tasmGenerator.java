@@ -28,7 +28,7 @@ public class tasmGenerator {
             if (instruction.getInstruction() == OpCode.dconst)
                 line += "dconst " + pool.getPoolValue(instruction.getArgument().getInteger());
             else if (instruction.getInstruction() == OpCode.sconst)
-              line += "sconst " + pool.getPoolValue(instruction.getArgument().getInteger());
+              line += "sconst " + StringLiteral.quote(pool.getPoolValue(instruction.getArgument().getInteger()).getString());
             else
             line += instruction.toString();
 
@@ -55,6 +55,6 @@ public class tasmGenerator {
     }
 
     public boolean isJump(String jump) {
-        return jump.equals("call") || jump.equals("jumpf") || jump.equals("jump") || jump.equals("jumpt");
+        return jump.equals("call") || jump.equals("tcall") || jump.equals("jumpf") || jump.equals("jump") || jump.equals("jumpt");
     }
 }
\ No newline at end of file
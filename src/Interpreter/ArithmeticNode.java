@@ -0,0 +1,290 @@
+package Interpreter;
+
+import tVM.ConcatString;
+import tVM.VMFault;
+
+//+, -, *, / and % before their first execution. The operands already have the type of the result, like the operands
+//solCompiler converts before it emits the operator.
+final class ArithmeticNode extends BinaryNode
+{
+    enum Operator
+    {
+        ADD, SUB, MULT, DIV, MOD
+    }
+
+    private final Operator operator;
+
+    ArithmeticNode(Operator operator, Class<?> type, ExpressionNode left, ExpressionNode right)
+    {
+        super(type, left, right);
+        this.operator = operator;
+    }
+
+    @Override
+    ExpressionNode specialize()
+    {
+        ExpressionNode left = this.left.specialize();
+        ExpressionNode right = this.right.specialize();
+
+        if(this.type == String.class)
+            return specialize(new StringConcat(left, right));
+
+        if(this.type == double.class)
+        {
+            return specialize(switch (this.operator)
+            {
+                case ADD -> new DoubleAdd(left, right);
+                case SUB -> new DoubleSub(left, right);
+                case MULT -> new DoubleMult(left, right);
+                case DIV -> new DoubleDiv(left, right);
+                case MOD -> new RealMod(left, right);
+            });
+        }
+
+        //Adding a constant is most of the int arithmetic in loops, the constant is kept in the node
+        if(this.operator == Operator.ADD && left.isConstant() != right.isConstant())
+            return specialize(right.isConstant() ? new IntAddConstant(left, right) : new IntAddConstant(right, left));
+
+        if(this.operator == Operator.SUB && right.isConstant() && !left.isConstant())
+            return specialize(new IntSubConstant(left, right));
+
+        return specialize(switch (this.operator)
+        {
+            case ADD -> new IntAdd(left, right);
+            case SUB -> new IntSub(left, right);
+            case MULT -> new IntMult(left, right);
+            case DIV -> new IntDiv(left, right);
+            case MOD -> new IntMod(left, right);
+        });
+    }
+
+    @Override
+    int executeInt(Frame frame)
+    {
+        return specialize().executeInt(frame);
+    }
+
+    @Override
+    double executeDouble(Frame frame)
+    {
+        return specialize().executeDouble(frame);
+    }
+
+    @Override
+    CharSequence executeString(Frame frame)
+    {
+        return specialize().executeString(frame);
+    }
+
+    static final class IntAdd extends BinaryNode
+    {
+        IntAdd(ExpressionNode left, ExpressionNode right)
+        {
+            super(int.class, left, right);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return leftInt(frame, ADDITION_NIL_ERROR) + rightInt(frame, ADDITION_NIL_ERROR);
+        }
+    }
+
+    static final class IntAddConstant extends BinaryNode
+    {
+        private final int constant;
+
+        IntAddConstant(ExpressionNode left, ExpressionNode constant)
+        {
+            super(int.class, left, constant);
+            this.constant = constant.executeInt(null);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return leftInt(frame, ADDITION_NIL_ERROR) + this.constant;
+        }
+    }
+
+    static final class IntSub extends BinaryNode
+    {
+        IntSub(ExpressionNode left, ExpressionNode right)
+        {
+            super(int.class, left, right);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return leftInt(frame, SUBTRACTION_NIL_ERROR) - rightInt(frame, SUBTRACTION_NIL_ERROR);
+        }
+    }
+
+    static final class IntSubConstant extends BinaryNode
+    {
+        private final int constant;
+
+        IntSubConstant(ExpressionNode left, ExpressionNode constant)
+        {
+            super(int.class, left, constant);
+            this.constant = constant.executeInt(null);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return leftInt(frame, SUBTRACTION_NIL_ERROR) - this.constant;
+        }
+    }
+
+    static final class IntMult extends BinaryNode
+    {
+        IntMult(ExpressionNode left, ExpressionNode right)
+        {
+            super(int.class, left, right);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return leftInt(frame, MULTIPLICATION_NIL_ERROR) * rightInt(frame, MULTIPLICATION_NIL_ERROR);
+        }
+    }
+
+    static final class IntDiv extends BinaryNode
+    {
+        IntDiv(ExpressionNode left, ExpressionNode right)
+        {
+            super(int.class, left, right);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            int left = leftInt(frame, DIVISION_NIL_ERROR);
+            int right = rightInt(frame, DIVISION_NIL_ERROR);
+
+            if(right == 0)
+                throw new VMFault(DIVISOR_ERROR);
+
+            return left / right;
+        }
+    }
+
+    static final class IntMod extends BinaryNode
+    {
+        IntMod(ExpressionNode left, ExpressionNode right)
+        {
+            super(int.class, left, right);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            int left = leftInt(frame, MOD_NIL_ERROR);
+            int right = rightInt(frame, MOD_NIL_ERROR);
+
+            if(right == 0)
+                throw new VMFault(DIVISOR_ERROR);
+
+            return left % right;
+        }
+    }
+
+    static final class DoubleAdd extends BinaryNode
+    {
+        DoubleAdd(ExpressionNode left, ExpressionNode right)
+        {
+            super(double.class, left, right);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return leftDouble(frame, ADDITION_NIL_ERROR) + rightDouble(frame, ADDITION_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleSub extends BinaryNode
+    {
+        DoubleSub(ExpressionNode left, ExpressionNode right)
+        {
+            super(double.class, left, right);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return leftDouble(frame, SUBTRACTION_NIL_ERROR) - rightDouble(frame, SUBTRACTION_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleMult extends BinaryNode
+    {
+        DoubleMult(ExpressionNode left, ExpressionNode right)
+        {
+            super(double.class, left, right);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return leftDouble(frame, MULTIPLICATION_NIL_ERROR) * rightDouble(frame, MULTIPLICATION_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleDiv extends BinaryNode
+    {
+        DoubleDiv(ExpressionNode left, ExpressionNode right)
+        {
+            super(double.class, left, right);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            double left = leftDouble(frame, DIVISION_NIL_ERROR);
+            double right = rightDouble(frame, DIVISION_NIL_ERROR);
+
+            if(right == 0)
+                throw new VMFault(DIVISOR_ERROR);
+
+            return left / right;
+        }
+    }
+
+    //solCompiler turns % on reals into an imod of two doubles, which the tVM can't cast
+    static final class RealMod extends BinaryNode
+    {
+        RealMod(ExpressionNode left, ExpressionNode right)
+        {
+            super(double.class, left, right);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            leftDouble(frame, MOD_NIL_ERROR);
+            rightDouble(frame, MOD_NIL_ERROR);
+
+            throw new VMFault("Couldn't cast to Integer, because the value is not an instance of Integer");
+        }
+    }
+
+    //+ and - on strings both concatenate, like the sadd solCompiler emits for them
+    static final class StringConcat extends BinaryNode
+    {
+        StringConcat(ExpressionNode left, ExpressionNode right)
+        {
+            super(String.class, left, right);
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            CharSequence left = leftString(frame, ADDITION_NIL_ERROR);
+            return ConcatString.concat(left, rightString(frame, ADDITION_NIL_ERROR));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package Interpreter;
+
+//Assignment or initialized declaration
+abstract class AssignNode extends StatementNode
+{
+    final WriteNode write;
+
+    AssignNode(WriteNode write)
+    {
+        this.write = adopt(write);
+    }
+
+    static final class Local extends AssignNode
+    {
+        Local(WriteNode write)
+        {
+            super(write);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            this.write.execute(frame, frame);
+            return NORMAL;
+        }
+    }
+
+    static final class Global extends AssignNode
+    {
+        private final Frame globals;
+
+        Global(WriteNode write, Frame globals)
+        {
+            super(write);
+            this.globals = globals;
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            this.write.execute(frame, this.globals);
+            return NORMAL;
+        }
+    }
+}
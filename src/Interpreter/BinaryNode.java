@@ -0,0 +1,146 @@
+package Interpreter;
+
+import tVM.VMFault;
+
+//Expression with two operands. The tVM has both operands on the stack before it checks them for NIL, so when the
+//left one is NIL the right one still runs before the fault.
+abstract class BinaryNode extends ExpressionNode
+{
+    ExpressionNode left;
+    ExpressionNode right;
+
+    BinaryNode(Class<?> type, ExpressionNode left, ExpressionNode right)
+    {
+        super(type);
+        this.left = adopt(left);
+        this.right = adopt(right);
+    }
+
+    @Override
+    final void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.left)
+            this.left = (ExpressionNode) replacement;
+        else if(child == this.right)
+            this.right = (ExpressionNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    private VMFault leftNil(Frame frame, String message)
+    {
+        this.right.executeIgnoringNil(frame);
+        return new VMFault(message);
+    }
+
+    final int leftInt(Frame frame, String message)
+    {
+        try
+        {
+            return this.left.executeInt(frame);
+        }
+        catch(NilValue e)
+        {
+            throw leftNil(frame, message);
+        }
+    }
+
+    final int rightInt(Frame frame, String message)
+    {
+        try
+        {
+            return this.right.executeInt(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+
+    final double leftDouble(Frame frame, String message)
+    {
+        try
+        {
+            return this.left.executeDouble(frame);
+        }
+        catch(NilValue e)
+        {
+            throw leftNil(frame, message);
+        }
+    }
+
+    final double rightDouble(Frame frame, String message)
+    {
+        try
+        {
+            return this.right.executeDouble(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+
+    final boolean leftBoolean(Frame frame, String message)
+    {
+        try
+        {
+            return this.left.executeBoolean(frame);
+        }
+        catch(NilValue e)
+        {
+            throw leftNil(frame, message);
+        }
+    }
+
+    final boolean rightBoolean(Frame frame, String message)
+    {
+        try
+        {
+            return this.right.executeBoolean(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+
+    final CharSequence leftString(Frame frame, String message)
+    {
+        try
+        {
+            return this.left.executeString(frame);
+        }
+        catch(NilValue e)
+        {
+            throw leftNil(frame, message);
+        }
+    }
+
+    final CharSequence rightString(Frame frame, String message)
+    {
+        try
+        {
+            return this.right.executeString(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+
+    //The first execution of an operator node picks the node that only does what its operand types need and folds it
+    //away when both operands are constants
+    final ExpressionNode specialize(BinaryNode specialized)
+    {
+        if(specialized.left.isConstant() && specialized.right.isConstant())
+        {
+            ConstantNode constant = ConstantNode.fold(specialized);
+
+            if(constant != null)
+                return replace(constant);
+        }
+
+        return replace(specialized);
+    }
+}
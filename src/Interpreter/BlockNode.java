@@ -0,0 +1,51 @@
+package Interpreter;
+
+//begin ... end. Its locals are NIL every time the block is entered, like after the lalloc solCompiler emits for them.
+final class BlockNode extends StatementNode
+{
+    private final int firstLocal;
+    private final int locals;
+    private final StatementNode[] statements;
+
+    BlockNode(int firstLocal, int locals, StatementNode[] statements)
+    {
+        this.firstLocal = firstLocal;
+        this.locals = locals;
+        this.statements = statements;
+
+        for(StatementNode statement : statements)
+            adopt(statement);
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement)
+    {
+        for(int i = 0; i < this.statements.length; i++)
+        {
+            if(this.statements[i] == child)
+            {
+                this.statements[i] = (StatementNode) replacement;
+                return;
+            }
+        }
+
+        super.replaceChild(child, replacement);
+    }
+
+    @Override
+    int execute(Frame frame)
+    {
+        if(this.locals > 0)
+            frame.setNil(this.firstLocal, this.locals);
+
+        for(StatementNode statement : this.statements)
+        {
+            int status = statement.execute(frame);
+
+            if(status != NORMAL)
+                return status;
+        }
+
+        return NORMAL;
+    }
+}
@@ -0,0 +1,91 @@
+package Interpreter;
+
+//Calls a function and reads what it returns. The arguments are evaluated left to right straight into the frame of
+//the call, a NIL argument is passed on as NIL.
+final class CallNode extends ExpressionNode
+{
+    private final FunctionNode target;
+    private final WriteNode[] arguments;
+
+    CallNode(Class<?> type, FunctionNode target, WriteNode[] arguments)
+    {
+        super(type);
+        this.target = target;
+        this.arguments = arguments;
+
+        for(WriteNode argument : arguments)
+            adopt(argument);
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement)
+    {
+        for(int i = 0; i < this.arguments.length; i++)
+        {
+            if(this.arguments[i] == child)
+            {
+                this.arguments[i] = (WriteNode) replacement;
+                return;
+            }
+        }
+
+        super.replaceChild(child, replacement);
+    }
+
+    static Frame arguments(WriteNode[] arguments, FunctionNode target, Frame frame)
+    {
+        Frame callee = target.newFrame();
+
+        for(WriteNode argument : arguments)
+            argument.execute(frame, callee);
+
+        return callee;
+    }
+
+    Frame call(Frame frame)
+    {
+        return this.target.invoke(arguments(this.arguments, this.target, frame));
+    }
+
+    @Override
+    int executeInt(Frame frame)
+    {
+        return call(frame).intAt(Frame.RESULT);
+    }
+
+    @Override
+    double executeDouble(Frame frame)
+    {
+        return call(frame).doubleAt(Frame.RESULT);
+    }
+
+    @Override
+    boolean executeBoolean(Frame frame)
+    {
+        return call(frame).booleanAt(Frame.RESULT);
+    }
+
+    @Override
+    CharSequence executeString(Frame frame)
+    {
+        return call(frame).stringAt(Frame.RESULT);
+    }
+
+    //A call to a void function as an instruction
+    static final class Statement extends StatementNode
+    {
+        private final CallNode call;
+
+        Statement(CallNode call)
+        {
+            this.call = adopt(call);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            this.call.call(frame);
+            return NORMAL;
+        }
+    }
+}
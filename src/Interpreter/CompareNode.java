@@ -0,0 +1,269 @@
+package Interpreter;
+
+import tVM.ConcatString;
+
+//Comparisons, and and or before their first execution. Both operands have operandType, the type solCompiler converts
+//them to. Like the and and or instructions, both operands of and and or always run.
+final class CompareNode extends BinaryNode
+{
+    enum Operator
+    {
+        LT, LEQ, EQ, NEQ, AND, OR
+    }
+
+    private final Operator operator;
+    private final Class<?> operandType;
+
+    CompareNode(Operator operator, Class<?> operandType, ExpressionNode left, ExpressionNode right)
+    {
+        super(boolean.class, left, right);
+        this.operator = operator;
+        this.operandType = operandType;
+    }
+
+    @Override
+    ExpressionNode specialize()
+    {
+        ExpressionNode left = this.left.specialize();
+        ExpressionNode right = this.right.specialize();
+
+        if(this.operator == Operator.AND)
+            return specialize(new And(left, right));
+
+        if(this.operator == Operator.OR)
+            return specialize(new Or(left, right));
+
+        if(this.operandType == int.class)
+        {
+            return specialize(switch (this.operator)
+            {
+                case LT -> new IntLt(left, right);
+                case LEQ -> new IntLeq(left, right);
+                case EQ -> new IntEq(left, right);
+                default -> new IntNeq(left, right);
+            });
+        }
+
+        if(this.operandType == double.class)
+        {
+            return specialize(switch (this.operator)
+            {
+                case LT -> new DoubleLt(left, right);
+                case LEQ -> new DoubleLeq(left, right);
+                case EQ -> new DoubleEq(left, right);
+                default -> new DoubleNeq(left, right);
+            });
+        }
+
+        if(this.operandType == String.class)
+            return specialize(this.operator == Operator.EQ ? new StringEq(left, right) : new StringNeq(left, right));
+
+        return specialize(this.operator == Operator.EQ ? new BooleanEq(left, right) : new BooleanNeq(left, right));
+    }
+
+    @Override
+    boolean executeBoolean(Frame frame)
+    {
+        return specialize().executeBoolean(frame);
+    }
+
+    static final class IntLt extends BinaryNode
+    {
+        IntLt(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftInt(frame, COMPARE_NIL_ERROR) < rightInt(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class IntLeq extends BinaryNode
+    {
+        IntLeq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftInt(frame, COMPARE_NIL_ERROR) <= rightInt(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class IntEq extends BinaryNode
+    {
+        IntEq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftInt(frame, COMPARE_NIL_ERROR) == rightInt(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class IntNeq extends BinaryNode
+    {
+        IntNeq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftInt(frame, COMPARE_NIL_ERROR) != rightInt(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleLt extends BinaryNode
+    {
+        DoubleLt(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftDouble(frame, COMPARE_NIL_ERROR) < rightDouble(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleLeq extends BinaryNode
+    {
+        DoubleLeq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftDouble(frame, COMPARE_NIL_ERROR) <= rightDouble(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleEq extends BinaryNode
+    {
+        DoubleEq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftDouble(frame, COMPARE_NIL_ERROR) == rightDouble(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleNeq extends BinaryNode
+    {
+        DoubleNeq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftDouble(frame, COMPARE_NIL_ERROR) != rightDouble(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class StringEq extends BinaryNode
+    {
+        StringEq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            CharSequence left = leftString(frame, COMPARE_NIL_ERROR);
+            return ConcatString.contentEquals(left, rightString(frame, COMPARE_NIL_ERROR));
+        }
+    }
+
+    static final class StringNeq extends BinaryNode
+    {
+        StringNeq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            CharSequence left = leftString(frame, COMPARE_NIL_ERROR);
+            return !ConcatString.contentEquals(left, rightString(frame, COMPARE_NIL_ERROR));
+        }
+    }
+
+    static final class BooleanEq extends BinaryNode
+    {
+        BooleanEq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftBoolean(frame, COMPARE_NIL_ERROR) == rightBoolean(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class BooleanNeq extends BinaryNode
+    {
+        BooleanNeq(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return leftBoolean(frame, COMPARE_NIL_ERROR) != rightBoolean(frame, COMPARE_NIL_ERROR);
+        }
+    }
+
+    static final class And extends BinaryNode
+    {
+        And(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            boolean left = leftBoolean(frame, COMPARE_NIL_ERROR);
+            return rightBoolean(frame, COMPARE_NIL_ERROR) && left;
+        }
+    }
+
+    static final class Or extends BinaryNode
+    {
+        Or(ExpressionNode left, ExpressionNode right)
+        {
+            super(boolean.class, left, right);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            boolean left = leftBoolean(frame, COMPARE_NIL_ERROR);
+            return rightBoolean(frame, COMPARE_NIL_ERROR) || left;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package Interpreter;
+
+import tVM.VMFault;
+
+//Literal, or an expression over literals that was folded the first time it ran
+abstract class ConstantNode extends ExpressionNode
+{
+    ConstantNode(Class<?> type)
+    {
+        super(type);
+    }
+
+    @Override
+    boolean isConstant()
+    {
+        return true;
+    }
+
+    static ConstantNode of(int value)
+    {
+        return new IntConstant(value);
+    }
+
+    static ConstantNode of(double value)
+    {
+        return new DoubleConstant(value);
+    }
+
+    static ConstantNode of(boolean value)
+    {
+        return new BooleanConstant(value);
+    }
+
+    static ConstantNode of(CharSequence value)
+    {
+        return new StringConstant(value);
+    }
+
+    //Value of an expression that only reads constants, null when it faults so the fault still happens when it runs
+    static ConstantNode fold(ExpressionNode expression)
+    {
+        try
+        {
+            if(expression.type == int.class)
+                return of(expression.executeInt(null));
+            else if(expression.type == double.class)
+                return of(expression.executeDouble(null));
+            else if(expression.type == boolean.class)
+                return of(expression.executeBoolean(null));
+            else
+                return of(expression.executeString(null).toString());
+        }
+        catch(VMFault e)
+        {
+            return null;
+        }
+    }
+
+    static final class IntConstant extends ConstantNode
+    {
+        final int value;
+
+        IntConstant(int value)
+        {
+            super(int.class);
+            this.value = value;
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return this.value;
+        }
+    }
+
+    static final class DoubleConstant extends ConstantNode
+    {
+        final double value;
+
+        DoubleConstant(double value)
+        {
+            super(double.class);
+            this.value = value;
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return this.value;
+        }
+    }
+
+    static final class BooleanConstant extends ConstantNode
+    {
+        final boolean value;
+
+        BooleanConstant(boolean value)
+        {
+            super(boolean.class);
+            this.value = value;
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return this.value;
+        }
+    }
+
+    static final class StringConstant extends ConstantNode
+    {
+        final CharSequence value;
+
+        StringConstant(CharSequence value)
+        {
+            super(String.class);
+            this.value = value;
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            return this.value;
+        }
+    }
+}
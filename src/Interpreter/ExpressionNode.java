@@ -0,0 +1,65 @@
+package Interpreter;
+
+//An expression with the type SemanticChecker gave it. Its parent reads it with the execute method of that type, so
+//values are never boxed. A NIL value is thrown as NilValue.
+abstract class ExpressionNode extends Node
+{
+    final Class<?> type;
+
+    ExpressionNode(Class<?> type)
+    {
+        this.type = type;
+    }
+
+    int executeInt(Frame frame)
+    {
+        throw new IllegalStateException(getClass().getSimpleName() + " isn't an int.");
+    }
+
+    double executeDouble(Frame frame)
+    {
+        throw new IllegalStateException(getClass().getSimpleName() + " isn't a real.");
+    }
+
+    boolean executeBoolean(Frame frame)
+    {
+        throw new IllegalStateException(getClass().getSimpleName() + " isn't a bool.");
+    }
+
+    CharSequence executeString(Frame frame)
+    {
+        throw new IllegalStateException(getClass().getSimpleName() + " isn't a string.");
+    }
+
+    //Runs the expression only for what it does, an operand after a NIL one is still evaluated like on the tVM
+    final void executeIgnoringNil(Frame frame)
+    {
+        try
+        {
+            if(this.type == int.class)
+                executeInt(frame);
+            else if(this.type == double.class)
+                executeDouble(frame);
+            else if(this.type == boolean.class)
+                executeBoolean(frame);
+            else
+                executeString(frame);
+        }
+        catch(NilValue e)
+        {
+            //The fault is about the operand that was NIL first
+        }
+    }
+
+    //Nodes that haven't run yet pick their specialized version here and put it in their place, everything else is
+    //already what it runs as
+    ExpressionNode specialize()
+    {
+        return this;
+    }
+
+    boolean isConstant()
+    {
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package Interpreter;
+
+//Variables of one function call, or the globals. Slot 0 of a call holds what it returns, the arguments follow and then
+//every local of the function. Ints, doubles and bools are kept unboxed in values, a slot is NIL until it's assigned.
+final class Frame
+{
+    static final int RESULT = 0;
+
+    private final long[] values;
+    private final boolean[] assigned;
+    private final CharSequence[] strings;
+
+    //A call in tail position leaves the function to run next and its frame here instead of calling it
+    FunctionNode tailCallee;
+    Frame tailFrame;
+
+    Frame(int size)
+    {
+        this.values = new long[size];
+        this.assigned = new boolean[size];
+        this.strings = new CharSequence[size];
+    }
+
+    int intAt(int slot)
+    {
+        if(!this.assigned[slot])
+            throw NilValue.INSTANCE;
+
+        return (int) this.values[slot];
+    }
+
+    double doubleAt(int slot)
+    {
+        if(!this.assigned[slot])
+            throw NilValue.INSTANCE;
+
+        return Double.longBitsToDouble(this.values[slot]);
+    }
+
+    boolean booleanAt(int slot)
+    {
+        if(!this.assigned[slot])
+            throw NilValue.INSTANCE;
+
+        return this.values[slot] != 0;
+    }
+
+    CharSequence stringAt(int slot)
+    {
+        CharSequence value = this.strings[slot];
+
+        if(value == null)
+            throw NilValue.INSTANCE;
+
+        return value;
+    }
+
+    void setInt(int slot, int value)
+    {
+        this.values[slot] = value;
+        this.assigned[slot] = true;
+    }
+
+    void setDouble(int slot, double value)
+    {
+        this.values[slot] = Double.doubleToRawLongBits(value);
+        this.assigned[slot] = true;
+    }
+
+    void setBoolean(int slot, boolean value)
+    {
+        this.values[slot] = value ? 1 : 0;
+        this.assigned[slot] = true;
+    }
+
+    void setString(int slot, CharSequence value)
+    {
+        this.strings[slot] = value;
+    }
+
+    void setNil(int slot, int count)
+    {
+        for(int i = slot; i < slot + count; i++)
+        {
+            this.assigned[i] = false;
+            this.strings[i] = null;
+        }
+    }
+}
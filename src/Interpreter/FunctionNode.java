@@ -0,0 +1,55 @@
+package Interpreter;
+
+//A Sol function. Every call gets a new frame, slot 0 holds the returned value and the arguments start at slot 1.
+final class FunctionNode extends Node
+{
+    final String name;
+    final int arguments;
+    private int frameSize;
+    private StatementNode body;
+
+    FunctionNode(String name, int arguments)
+    {
+        this.name = name;
+        this.arguments = arguments;
+    }
+
+    //Set once the whole program is built, calls can come before the function they call
+    void setBody(StatementNode body, int frameSize)
+    {
+        this.body = adopt(body);
+        this.frameSize = frameSize;
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.body)
+            this.body = (StatementNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    Frame newFrame()
+    {
+        return new Frame(this.frameSize);
+    }
+
+    //Runs a call and returns the frame that holds its result. A return in tail position hands over the next function
+    //and its frame instead of calling it, so tail recursion runs in a loop like the tcall of the tVM.
+    Frame invoke(Frame frame)
+    {
+        FunctionNode function = this;
+
+        while(true)
+        {
+            function.body.execute(frame);
+
+            if(frame.tailCallee == null)
+                return frame;
+
+            function = frame.tailCallee;
+            frame = frame.tailFrame;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package Interpreter;
+
+//An if before its first execution. A condition that folds to a constant leaves only the branch it takes, anything else
+//becomes an IfThen or an IfThenElse.
+final class IfNode extends StatementNode
+{
+    private ExpressionNode condition;
+    private final StatementNode thenBranch;
+    private final StatementNode elseBranch;
+
+    IfNode(ExpressionNode condition, StatementNode thenBranch, StatementNode elseBranch)
+    {
+        this.condition = adopt(condition);
+        this.thenBranch = thenBranch;
+        this.elseBranch = elseBranch;
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.condition)
+            this.condition = (ExpressionNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    @Override
+    int execute(Frame frame)
+    {
+        ExpressionNode condition = this.condition.specialize();
+        StatementNode specialized;
+
+        if(condition instanceof ConstantNode constant)
+        {
+            StatementNode taken = constant.executeBoolean(null) ? this.thenBranch : this.elseBranch;
+            specialized = taken != null ? taken : new Empty();
+        }
+        else if(this.elseBranch == null)
+            specialized = new IfThen(condition, this.thenBranch);
+        else
+            specialized = new IfThenElse(condition, this.thenBranch, this.elseBranch);
+
+        return replace(specialized).execute(frame);
+    }
+
+    static final class IfThen extends StatementNode
+    {
+        private ExpressionNode condition;
+        private StatementNode thenBranch;
+
+        IfThen(ExpressionNode condition, StatementNode thenBranch)
+        {
+            this.condition = adopt(condition);
+            this.thenBranch = adopt(thenBranch);
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement)
+        {
+            if(child == this.condition)
+                this.condition = (ExpressionNode) replacement;
+            else if(child == this.thenBranch)
+                this.thenBranch = (StatementNode) replacement;
+            else
+                super.replaceChild(child, replacement);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            if(condition(this.condition, frame))
+                return this.thenBranch.execute(frame);
+
+            return NORMAL;
+        }
+    }
+
+    static final class IfThenElse extends StatementNode
+    {
+        private ExpressionNode condition;
+        private StatementNode thenBranch;
+        private StatementNode elseBranch;
+
+        IfThenElse(ExpressionNode condition, StatementNode thenBranch, StatementNode elseBranch)
+        {
+            this.condition = adopt(condition);
+            this.thenBranch = adopt(thenBranch);
+            this.elseBranch = adopt(elseBranch);
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement)
+        {
+            if(child == this.condition)
+                this.condition = (ExpressionNode) replacement;
+            else if(child == this.thenBranch)
+                this.thenBranch = (StatementNode) replacement;
+            else if(child == this.elseBranch)
+                this.elseBranch = (StatementNode) replacement;
+            else
+                super.replaceChild(child, replacement);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            if(condition(this.condition, frame))
+                return this.thenBranch.execute(frame);
+
+            return this.elseBranch.execute(frame);
+        }
+    }
+}
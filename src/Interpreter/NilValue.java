@@ -0,0 +1,15 @@
+package Interpreter;
+
+//Thrown by an expression whose value is NIL. Variables, arguments and returns just pass NIL on, every other node turns
+//it into the fault the tVM would raise. Only one instance exists and it has no stack trace, so throwing it is cheap.
+final class NilValue extends RuntimeException
+{
+    private static final long serialVersionUID = 1L;
+
+    static final NilValue INSTANCE = new NilValue();
+
+    private NilValue()
+    {
+        super(null, null, false, false);
+    }
+}
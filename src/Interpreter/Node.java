@@ -0,0 +1,41 @@
+package Interpreter;
+
+//Node of the executable tree solInterpreter runs. A node can replace itself in its parent with a version specialized
+//for what it saw on its first execution, after that the parent calls the specialized node directly.
+abstract class Node
+{
+    //Same faults as the tVM, so a program fails the same way on both engines
+    static final String PRINT_NIL_ERROR = "Can't print a NIL value";
+    static final String CAST_NIL_ERROR = "Can't cast a NIL value";
+    static final String ADDITION_NIL_ERROR = "Can't effectuate an addition with a NIL value";
+    static final String SUBTRACTION_NIL_ERROR = "Can't effectuate a subtraction with a NIL value";
+    static final String MULTIPLICATION_NIL_ERROR = "Can't effectuate a multiplication with a NIL value";
+    static final String DIVISION_NIL_ERROR = "Can't effectuate a division with a NIL value";
+    static final String MOD_NIL_ERROR = "Can't mod a NIL value";
+    static final String UNARY_NIL_ERROR = "Can't effectuate a unary operation with a NIL value";
+    static final String COMPARE_NIL_ERROR = "Can't compare a NIL value";
+    static final String DIVISOR_ERROR = "Divisor mustn't be 0";
+
+    Node parent;
+
+    final <T extends Node> T adopt(T child)
+    {
+        if(child != null)
+            child.parent = this;
+
+        return child;
+    }
+
+    final <T extends Node> T replace(T replacement)
+    {
+        replacement.parent = this.parent;
+        this.parent.replaceChild(this, replacement);
+
+        return replacement;
+    }
+
+    void replaceChild(Node child, Node replacement)
+    {
+        throw new IllegalStateException(getClass().getSimpleName() + " has no child to replace.");
+    }
+}
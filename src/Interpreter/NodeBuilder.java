@@ -0,0 +1,405 @@
+package Interpreter;
+
+import Antlr.SolBaseVisitor;
+import Antlr.SolParser;
+import SemanticChecker.ScopeTree;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import solUtils.Function;
+import solUtils.StringLiteral;
+import solUtils.Variable;
+
+import tVM.OutputBuffer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+//Turns a checked parse tree into the nodes solInterpreter runs. The types TypeRecord found decide the conversions,
+//the same ones solCompiler emits, and every operator node starts out unspecialized.
+class NodeBuilder extends SolBaseVisitor<Node>
+{
+    private final ParseTreeProperty<Class<?>> types;
+    private final ScopeTree scopeTree;
+    private final HashMap<String, Function> functionCache;
+    private final OutputBuffer output;
+
+    private final HashMap<String, FunctionNode> functions;
+    private final IdentityHashMap<Variable, Integer> globalSlots;
+    private final IdentityHashMap<Variable, Integer> localSlots;
+    private Frame globals;
+
+    //Next free slot of the function being built and the most it has used
+    private int nextSlot;
+    private int frameSize;
+
+    NodeBuilder(ParseTreeProperty<Class<?>> types, ScopeTree scopeTree, HashMap<String, Function> functionCache, OutputBuffer output)
+    {
+        this.types = types;
+        this.scopeTree = scopeTree;
+        this.functionCache = functionCache;
+        this.output = output;
+        this.functions = new HashMap<>();
+        this.globalSlots = new IdentityHashMap<>();
+        this.localSlots = new IdentityHashMap<>();
+    }
+
+    //Statement that initializes the globals and then calls main, it runs on a frame of its own
+    StatementNode build(SolParser.SolContext ctx)
+    {
+        int globalCount = 0;
+        for(SolParser.DeclarationContext declaration : ctx.declaration())
+            for(SolParser.LabelExpressionContext labelExpression : declaration.labelExpression())
+                this.globalSlots.put(variable(labelExpression, labelExpression.LABEL().getText()), globalCount++);
+
+        this.globals = new Frame(globalCount);
+
+        for(SolParser.FunctionContext function : ctx.function())
+            this.functions.put(function.fname.getText(), new FunctionNode(function.fname.getText(), function.LABEL().size() - 1));
+
+        for(SolParser.FunctionContext function : ctx.function())
+            buildFunction(function);
+
+        ArrayList<StatementNode> statements = new ArrayList<>();
+
+        for(SolParser.DeclarationContext declaration : ctx.declaration())
+            for(SolParser.LabelExpressionContext labelExpression : declaration.labelExpression())
+                if(labelExpression.expression() != null)
+                    statements.add(initialize(labelExpression));
+
+        statements.add(new CallNode.Statement(new CallNode(void.class, this.functions.get("main"), new WriteNode[0])));
+
+        return new BlockNode(0, 0, statements.toArray(new StatementNode[0]));
+    }
+
+    private void buildFunction(SolParser.FunctionContext ctx)
+    {
+        this.localSlots.clear();
+
+        for(int i = 1; i < ctx.LABEL().size(); i++)
+            this.localSlots.put(variable(ctx.scope(), ctx.LABEL(i).getText()), i);
+
+        this.nextSlot = ctx.LABEL().size();
+        this.frameSize = this.nextSlot;
+
+        StatementNode body = statement(ctx.scope());
+        this.functions.get(ctx.fname.getText()).setBody(body, this.frameSize);
+    }
+
+    private Variable variable(RuleContext ctx, String name)
+    {
+        return this.scopeTree.getVariable(ctx, name);
+    }
+
+    private ExpressionNode expression(SolParser.ExpressionContext ctx)
+    {
+        return (ExpressionNode) visit(ctx);
+    }
+
+    private StatementNode statement(ParseTree ctx)
+    {
+        return (StatementNode) visit(ctx);
+    }
+
+    private static Class<?> mergeTypes(Class<?> left, Class<?> right)
+    {
+        if(left == String.class || right == String.class)
+            return String.class;
+        else if(left == double.class || right == double.class)
+            return double.class;
+        else if(left == int.class || right == int.class)
+            return int.class;
+        else
+            return boolean.class;
+    }
+
+    //The expression as a value of type, with the conversion solCompiler would emit for it
+    private ExpressionNode convert(SolParser.ExpressionContext ctx, Class<?> type)
+    {
+        ExpressionNode node = expression(ctx);
+        Class<?> nodeType = this.types.get(ctx);
+
+        if(type == String.class && nodeType != String.class)
+            return new UnaryOperatorNode(UnaryOperatorNode.Operator.TO_STRING, String.class, node);
+
+        if(type == double.class && nodeType == int.class)
+            return new UnaryOperatorNode(UnaryOperatorNode.Operator.TO_REAL, double.class, node);
+
+        return node;
+    }
+
+    private ExpressionNode read(Variable variable)
+    {
+        Integer global = this.globalSlots.get(variable);
+
+        if(global != null)
+            return VariableNode.global(variable.type, this.globals, global);
+
+        return VariableNode.local(variable.type, this.localSlots.get(variable));
+    }
+
+    private StatementNode assign(Variable variable, ExpressionNode value)
+    {
+        Integer global = this.globalSlots.get(variable);
+
+        if(global != null)
+            return new AssignNode.Global(WriteNode.of(variable.type, global, value), this.globals);
+
+        return new AssignNode.Local(WriteNode.of(variable.type, this.localSlots.get(variable), value));
+    }
+
+    private StatementNode initialize(SolParser.LabelExpressionContext ctx)
+    {
+        Variable variable = variable(ctx, ctx.LABEL().getText());
+        return assign(variable, convert(ctx.expression(), variable.type));
+    }
+
+    private WriteNode[] arguments(SolParser.FunctionCallContext ctx)
+    {
+        Function function = this.functionCache.get(ctx.fname.getText());
+        WriteNode[] arguments = new WriteNode[ctx.expression().size()];
+
+        for(int i = 0; i < arguments.length; i++)
+        {
+            Class<?> type = function.argumentTypes().get(i);
+            arguments[i] = WriteNode.of(type, i + 1, convert(ctx.expression(i), type));
+        }
+
+        return arguments;
+    }
+
+    @Override
+    public Node visitScope(SolParser.ScopeContext ctx)
+    {
+        return visit(ctx.block());
+    }
+
+    @Override
+    public Node visitBlock(SolParser.BlockContext ctx)
+    {
+        //The locals of a block get their slots up front and give them back at its end, for the blocks that follow
+        int firstLocal = this.nextSlot;
+
+        for(SolParser.DeclarationContext declaration : ctx.declaration())
+            for(SolParser.LabelExpressionContext labelExpression : declaration.labelExpression())
+                this.localSlots.put(variable(labelExpression, labelExpression.LABEL().getText()), this.nextSlot++);
+
+        this.frameSize = Math.max(this.frameSize, this.nextSlot);
+
+        ArrayList<StatementNode> statements = new ArrayList<>();
+
+        for(SolParser.DeclarationContext declaration : ctx.declaration())
+            for(SolParser.LabelExpressionContext labelExpression : declaration.labelExpression())
+                if(labelExpression.expression() != null)
+                    statements.add(initialize(labelExpression));
+
+        for(SolParser.InstructionContext instruction : ctx.instruction())
+            statements.add(statement(instruction));
+
+        int locals = this.nextSlot - firstLocal;
+        this.nextSlot = firstLocal;
+
+        return new BlockNode(firstLocal, locals, statements.toArray(new StatementNode[0]));
+    }
+
+    @Override
+    public Node visitInstruction(SolParser.InstructionContext ctx)
+    {
+        if(ctx.scope() != null)
+            return visit(ctx.scope());
+        else if(ctx.if_() != null)
+            return visit(ctx.if_());
+        else if(ctx.loop() != null)
+            return visit(ctx.loop());
+        else if(ctx.affectation() != null)
+            return visit(ctx.affectation());
+        else if(ctx.break_() != null)
+            return new StatementNode.Break();
+        else if(ctx.return_() != null)
+            return visit(ctx.return_());
+        else if(ctx.functionCall() != null)
+            return new CallNode.Statement((CallNode) visit(ctx.functionCall()));
+        else if(ctx.print() != null)
+            return visit(ctx.print());
+        else
+            return new StatementNode.Empty();
+    }
+
+    @Override
+    public Node visitIf(SolParser.IfContext ctx)
+    {
+        StatementNode elseBranch = ctx.instruction().size() > 1 ? statement(ctx.instruction(1)) : null;
+
+        return new IfNode(expression(ctx.expression()), statement(ctx.instruction(0)), elseBranch);
+    }
+
+    @Override
+    public Node visitWhile(SolParser.WhileContext ctx)
+    {
+        return new WhileNode(expression(ctx.expression()), statement(ctx.instruction()));
+    }
+
+    @Override
+    public Node visitFor(SolParser.ForContext ctx)
+    {
+        //for i = a to b do S is i = a; while i <= b do begin S; i = 1 + i end, the order solCompiler emits it in
+        Variable variable = variable(ctx, ctx.affectation().LABEL().getText());
+
+        StatementNode first = statement(ctx.affectation());
+        ExpressionNode condition = new CompareNode(CompareNode.Operator.LEQ, int.class, read(variable), expression(ctx.expression()));
+        StatementNode next = assign(variable, new ArithmeticNode(ArithmeticNode.Operator.ADD, int.class, ConstantNode.of(1), read(variable)));
+
+        StatementNode body = new BlockNode(0, 0, new StatementNode[] {statement(ctx.instruction()), next});
+
+        return new BlockNode(0, 0, new StatementNode[] {first, new WhileNode(condition, body)});
+    }
+
+    @Override
+    public Node visitAffectation(SolParser.AffectationContext ctx)
+    {
+        Variable variable = variable(ctx, ctx.LABEL().getText());
+        return assign(variable, convert(ctx.expression(), this.types.get(ctx)));
+    }
+
+    @Override
+    public Node visitReturn(SolParser.ReturnContext ctx)
+    {
+        Function function = Function.getCurrentFunction(ctx);
+
+        if(ctx.expression() == null)
+            return new ReturnNode.Void();
+
+        SolParser.ExpressionContext expression = ctx.expression();
+        while(expression instanceof SolParser.LRParenContext parenthesis)
+            expression = parenthesis.expression();
+
+        if(expression instanceof SolParser.FunctionCallExpressionContext call && this.types.get(call) == function.returnType())
+            return new ReturnNode.TailCall(this.functions.get(call.functionCall().fname.getText()), arguments(call.functionCall()));
+
+        return new ReturnNode.Value(WriteNode.of(function.returnType(), Frame.RESULT, convert(ctx.expression(), function.returnType())));
+    }
+
+    @Override
+    public Node visitPrint(SolParser.PrintContext ctx)
+    {
+        return PrintNode.of(this.output, expression(ctx.expression()));
+    }
+
+    @Override
+    public Node visitFunctionCall(SolParser.FunctionCallContext ctx)
+    {
+        return new CallNode(this.types.get(ctx), this.functions.get(ctx.fname.getText()), arguments(ctx));
+    }
+
+    @Override
+    public Node visitFunctionCallExpression(SolParser.FunctionCallExpressionContext ctx)
+    {
+        return visit(ctx.functionCall());
+    }
+
+    @Override
+    public Node visitLRParen(SolParser.LRParenContext ctx)
+    {
+        return visit(ctx.expression());
+    }
+
+    @Override
+    public Node visitUnary(SolParser.UnaryContext ctx)
+    {
+        Class<?> type = this.types.get(ctx);
+        UnaryOperatorNode.Operator operator = ctx.op.getText().equals("-") ? UnaryOperatorNode.Operator.NEGATE : UnaryOperatorNode.Operator.NOT;
+
+        return new UnaryOperatorNode(operator, type, convert(ctx.expression(), type));
+    }
+
+    @Override
+    public Node visitMultDivMod(SolParser.MultDivModContext ctx)
+    {
+        Class<?> type = this.types.get(ctx);
+
+        ArithmeticNode.Operator operator = switch (ctx.op.getText())
+        {
+            case "*" -> ArithmeticNode.Operator.MULT;
+            case "/" -> ArithmeticNode.Operator.DIV;
+            default -> ArithmeticNode.Operator.MOD;
+        };
+
+        return new ArithmeticNode(operator, type, convert(ctx.expression(0), type), convert(ctx.expression(1), type));
+    }
+
+    @Override
+    public Node visitAddSub(SolParser.AddSubContext ctx)
+    {
+        Class<?> type = this.types.get(ctx);
+        ArithmeticNode.Operator operator = ctx.op.getText().equals("+") ? ArithmeticNode.Operator.ADD : ArithmeticNode.Operator.SUB;
+
+        return new ArithmeticNode(operator, type, convert(ctx.expression(0), type), convert(ctx.expression(1), type));
+    }
+
+    @Override
+    public Node visitRelational(SolParser.RelationalContext ctx)
+    {
+        Class<?> type = mergeTypes(this.types.get(ctx.expression(0)), this.types.get(ctx.expression(1))) == int.class ? int.class : double.class;
+        String operator = ctx.op.getText();
+
+        //> and >= are < and <= with the operands swapped, the right one runs first like in the compiled code
+        SolParser.ExpressionContext left = operator.startsWith("<") ? ctx.expression(0) : ctx.expression(1);
+        SolParser.ExpressionContext right = operator.startsWith("<") ? ctx.expression(1) : ctx.expression(0);
+
+        CompareNode.Operator compare = operator.endsWith("=") ? CompareNode.Operator.LEQ : CompareNode.Operator.LT;
+
+        return new CompareNode(compare, type, convert(left, type), convert(right, type));
+    }
+
+    @Override
+    public Node visitIguality(SolParser.IgualityContext ctx)
+    {
+        Class<?> type = mergeTypes(this.types.get(ctx.expression(0)), this.types.get(ctx.expression(1)));
+        CompareNode.Operator operator = ctx.op.getText().equals("==") ? CompareNode.Operator.EQ : CompareNode.Operator.NEQ;
+
+        return new CompareNode(operator, type, convert(ctx.expression(0), type), convert(ctx.expression(1), type));
+    }
+
+    @Override
+    public Node visitAnd(SolParser.AndContext ctx)
+    {
+        return new CompareNode(CompareNode.Operator.AND, boolean.class, expression(ctx.expression(0)), expression(ctx.expression(1)));
+    }
+
+    @Override
+    public Node visitOr(SolParser.OrContext ctx)
+    {
+        return new CompareNode(CompareNode.Operator.OR, boolean.class, expression(ctx.expression(0)), expression(ctx.expression(1)));
+    }
+
+    @Override
+    public Node visitLabel(SolParser.LabelContext ctx)
+    {
+        return read(variable(ctx, ctx.LABEL().getText()));
+    }
+
+    @Override
+    public Node visitInt(SolParser.IntContext ctx)
+    {
+        return ConstantNode.of(Integer.parseInt(ctx.INT().getText()));
+    }
+
+    @Override
+    public Node visitDouble(SolParser.DoubleContext ctx)
+    {
+        return ConstantNode.of(Double.parseDouble(ctx.DOUBLE().getText()));
+    }
+
+    @Override
+    public Node visitString(SolParser.StringContext ctx)
+    {
+        return ConstantNode.of(StringLiteral.unquote(ctx.STRING().getText()));
+    }
+
+    @Override
+    public Node visitBool(SolParser.BoolContext ctx)
+    {
+        return ConstantNode.of(Boolean.parseBoolean(ctx.BOOL().getText()));
+    }
+}
@@ -0,0 +1,139 @@
+package Interpreter;
+
+import tVM.OutputBuffer;
+import tVM.VMFault;
+
+//print, one node for each type of value. The output is the same OutputBuffer the tVM prints to.
+abstract class PrintNode extends StatementNode
+{
+    final OutputBuffer output;
+    ExpressionNode value;
+
+    PrintNode(OutputBuffer output, ExpressionNode value)
+    {
+        this.output = output;
+        this.value = adopt(value);
+    }
+
+    static PrintNode of(OutputBuffer output, ExpressionNode value)
+    {
+        if(value.type == int.class)
+            return new IntPrint(output, value);
+        else if(value.type == double.class)
+            return new DoublePrint(output, value);
+        else if(value.type == boolean.class)
+            return new BooleanPrint(output, value);
+        else
+            return new StringPrint(output, value);
+    }
+
+    @Override
+    final void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.value)
+            this.value = (ExpressionNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    static final class IntPrint extends PrintNode
+    {
+        IntPrint(OutputBuffer output, ExpressionNode value)
+        {
+            super(output, value);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            int value;
+            try
+            {
+                value = this.value.executeInt(frame);
+            }
+            catch(NilValue e)
+            {
+                throw new VMFault(PRINT_NIL_ERROR);
+            }
+
+            this.output.printInt(value);
+            return NORMAL;
+        }
+    }
+
+    static final class DoublePrint extends PrintNode
+    {
+        DoublePrint(OutputBuffer output, ExpressionNode value)
+        {
+            super(output, value);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            double value;
+            try
+            {
+                value = this.value.executeDouble(frame);
+            }
+            catch(NilValue e)
+            {
+                //dprint of the tVM reports a NIL value as a comparison
+                throw new VMFault(COMPARE_NIL_ERROR);
+            }
+
+            this.output.printDouble(value);
+            return NORMAL;
+        }
+    }
+
+    static final class BooleanPrint extends PrintNode
+    {
+        BooleanPrint(OutputBuffer output, ExpressionNode value)
+        {
+            super(output, value);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            boolean value;
+            try
+            {
+                value = this.value.executeBoolean(frame);
+            }
+            catch(NilValue e)
+            {
+                throw new VMFault(PRINT_NIL_ERROR);
+            }
+
+            this.output.printBoolean(value);
+            return NORMAL;
+        }
+    }
+
+    static final class StringPrint extends PrintNode
+    {
+        StringPrint(OutputBuffer output, ExpressionNode value)
+        {
+            super(output, value);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            CharSequence value;
+            try
+            {
+                value = this.value.executeString(frame);
+            }
+            catch(NilValue e)
+            {
+                throw new VMFault(PRINT_NIL_ERROR);
+            }
+
+            this.output.printString(value);
+            return NORMAL;
+        }
+    }
+}
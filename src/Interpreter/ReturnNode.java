@@ -0,0 +1,70 @@
+package Interpreter;
+
+//return, with or without a value. A returned call whose type is already the return type is a tail call, the same
+//returns solCompiler turns into a tcall.
+abstract class ReturnNode extends StatementNode
+{
+    static final class Void extends ReturnNode
+    {
+        @Override
+        int execute(Frame frame)
+        {
+            return RETURN;
+        }
+    }
+
+    static final class Value extends ReturnNode
+    {
+        private final WriteNode value;
+
+        Value(WriteNode value)
+        {
+            this.value = adopt(value);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            this.value.execute(frame, frame);
+            return RETURN;
+        }
+    }
+
+    static final class TailCall extends ReturnNode
+    {
+        private final FunctionNode target;
+        private final WriteNode[] arguments;
+
+        TailCall(FunctionNode target, WriteNode[] arguments)
+        {
+            this.target = target;
+            this.arguments = arguments;
+
+            for(WriteNode argument : arguments)
+                adopt(argument);
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement)
+        {
+            for(int i = 0; i < this.arguments.length; i++)
+            {
+                if(this.arguments[i] == child)
+                {
+                    this.arguments[i] = (WriteNode) replacement;
+                    return;
+                }
+            }
+
+            super.replaceChild(child, replacement);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            frame.tailFrame = CallNode.arguments(this.arguments, this.target, frame);
+            frame.tailCallee = this.target;
+            return RETURN;
+        }
+    }
+}
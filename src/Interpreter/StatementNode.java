@@ -0,0 +1,45 @@
+package Interpreter;
+
+import tVM.VMFault;
+
+//An instruction of a Sol function. execute says how it ended, loops stop on BREAK and everything stops on RETURN.
+abstract class StatementNode extends Node
+{
+    static final int NORMAL = 0;
+    static final int BREAK = 1;
+    static final int RETURN = 2;
+
+    abstract int execute(Frame frame);
+
+    //A NIL condition fails like the jumpf solCompiler emits for it
+    static boolean condition(ExpressionNode condition, Frame frame)
+    {
+        try
+        {
+            return condition.executeBoolean(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault("Couldn't cast to Boolean, because the value is not an instance of Boolean");
+        }
+    }
+
+    static final class Break extends StatementNode
+    {
+        @Override
+        int execute(Frame frame)
+        {
+            return BREAK;
+        }
+    }
+
+    //The ; instruction, and what an if or a while with a constant condition becomes when its code can never run
+    static final class Empty extends StatementNode
+    {
+        @Override
+        int execute(Frame frame)
+        {
+            return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package Interpreter;
+
+import tVM.VMFault;
+
+//Expression with one operand, a NIL operand is a fault with the message of the operation
+abstract class UnaryNode extends ExpressionNode
+{
+    ExpressionNode operand;
+
+    UnaryNode(Class<?> type, ExpressionNode operand)
+    {
+        super(type);
+        this.operand = adopt(operand);
+    }
+
+    @Override
+    final void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.operand)
+            this.operand = (ExpressionNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    final int operandInt(Frame frame, String message)
+    {
+        try
+        {
+            return this.operand.executeInt(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+
+    final double operandDouble(Frame frame, String message)
+    {
+        try
+        {
+            return this.operand.executeDouble(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+
+    final boolean operandBoolean(Frame frame, String message)
+    {
+        try
+        {
+            return this.operand.executeBoolean(frame);
+        }
+        catch(NilValue e)
+        {
+            throw new VMFault(message);
+        }
+    }
+}
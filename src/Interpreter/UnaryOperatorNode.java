@@ -0,0 +1,173 @@
+package Interpreter;
+
+//- and not, and the conversions solCompiler puts in where an int is used as a real or a value is added to a string.
+//This is the node before its first execution, it specializes on the type of its operand.
+final class UnaryOperatorNode extends UnaryNode
+{
+    enum Operator
+    {
+        NEGATE, NOT, TO_REAL, TO_STRING
+    }
+
+    private final Operator operator;
+
+    UnaryOperatorNode(Operator operator, Class<?> type, ExpressionNode operand)
+    {
+        super(type, operand);
+        this.operator = operator;
+    }
+
+    @Override
+    ExpressionNode specialize()
+    {
+        ExpressionNode operand = this.operand.specialize();
+
+        UnaryNode specialized = switch (this.operator)
+        {
+            case NEGATE -> operand.type == int.class ? new IntNegate(operand) : new DoubleNegate(operand);
+            case NOT -> new Not(operand);
+            case TO_REAL -> new IntToDouble(operand);
+            case TO_STRING ->
+            {
+                if(operand.type == int.class)
+                    yield new IntToString(operand);
+                else if(operand.type == double.class)
+                    yield new DoubleToString(operand);
+                else
+                    yield new BooleanToString(operand);
+            }
+        };
+
+        if(operand.isConstant())
+        {
+            ConstantNode constant = ConstantNode.fold(specialized);
+
+            if(constant != null)
+                return replace(constant);
+        }
+
+        return replace(specialized);
+    }
+
+    @Override
+    int executeInt(Frame frame)
+    {
+        return specialize().executeInt(frame);
+    }
+
+    @Override
+    double executeDouble(Frame frame)
+    {
+        return specialize().executeDouble(frame);
+    }
+
+    @Override
+    boolean executeBoolean(Frame frame)
+    {
+        return specialize().executeBoolean(frame);
+    }
+
+    @Override
+    CharSequence executeString(Frame frame)
+    {
+        return specialize().executeString(frame);
+    }
+
+    static final class IntNegate extends UnaryNode
+    {
+        IntNegate(ExpressionNode operand)
+        {
+            super(int.class, operand);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return -operandInt(frame, UNARY_NIL_ERROR);
+        }
+    }
+
+    static final class DoubleNegate extends UnaryNode
+    {
+        DoubleNegate(ExpressionNode operand)
+        {
+            super(double.class, operand);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return -operandDouble(frame, UNARY_NIL_ERROR);
+        }
+    }
+
+    static final class Not extends UnaryNode
+    {
+        Not(ExpressionNode operand)
+        {
+            super(boolean.class, operand);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return !operandBoolean(frame, UNARY_NIL_ERROR);
+        }
+    }
+
+    static final class IntToDouble extends UnaryNode
+    {
+        IntToDouble(ExpressionNode operand)
+        {
+            super(double.class, operand);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return operandInt(frame, CAST_NIL_ERROR);
+        }
+    }
+
+    static final class IntToString extends UnaryNode
+    {
+        IntToString(ExpressionNode operand)
+        {
+            super(String.class, operand);
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            return String.valueOf(operandInt(frame, CAST_NIL_ERROR));
+        }
+    }
+
+    static final class DoubleToString extends UnaryNode
+    {
+        DoubleToString(ExpressionNode operand)
+        {
+            super(String.class, operand);
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            return String.valueOf(operandDouble(frame, CAST_NIL_ERROR));
+        }
+    }
+
+    static final class BooleanToString extends UnaryNode
+    {
+        BooleanToString(ExpressionNode operand)
+        {
+            super(String.class, operand);
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            return operandBoolean(frame, CAST_NIL_ERROR) ? "true" : "false";
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package Interpreter;
+
+//Reads a variable. Locals are in the frame of the running call, globals are in the one frame they all share.
+abstract class VariableNode extends ExpressionNode
+{
+    final int slot;
+
+    VariableNode(Class<?> type, int slot)
+    {
+        super(type);
+        this.slot = slot;
+    }
+
+    static VariableNode local(Class<?> type, int slot)
+    {
+        if(type == int.class)
+            return new LocalInt(slot);
+        else if(type == double.class)
+            return new LocalDouble(slot);
+        else if(type == boolean.class)
+            return new LocalBoolean(slot);
+        else
+            return new LocalString(slot);
+    }
+
+    static VariableNode global(Class<?> type, Frame globals, int slot)
+    {
+        if(type == int.class)
+            return new GlobalInt(globals, slot);
+        else if(type == double.class)
+            return new GlobalDouble(globals, slot);
+        else if(type == boolean.class)
+            return new GlobalBoolean(globals, slot);
+        else
+            return new GlobalString(globals, slot);
+    }
+
+    static final class LocalInt extends VariableNode
+    {
+        LocalInt(int slot)
+        {
+            super(int.class, slot);
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return frame.intAt(this.slot);
+        }
+    }
+
+    static final class LocalDouble extends VariableNode
+    {
+        LocalDouble(int slot)
+        {
+            super(double.class, slot);
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return frame.doubleAt(this.slot);
+        }
+    }
+
+    static final class LocalBoolean extends VariableNode
+    {
+        LocalBoolean(int slot)
+        {
+            super(boolean.class, slot);
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return frame.booleanAt(this.slot);
+        }
+    }
+
+    static final class LocalString extends VariableNode
+    {
+        LocalString(int slot)
+        {
+            super(String.class, slot);
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            return frame.stringAt(this.slot);
+        }
+    }
+
+    static final class GlobalInt extends VariableNode
+    {
+        private final Frame globals;
+
+        GlobalInt(Frame globals, int slot)
+        {
+            super(int.class, slot);
+            this.globals = globals;
+        }
+
+        @Override
+        int executeInt(Frame frame)
+        {
+            return this.globals.intAt(this.slot);
+        }
+    }
+
+    static final class GlobalDouble extends VariableNode
+    {
+        private final Frame globals;
+
+        GlobalDouble(Frame globals, int slot)
+        {
+            super(double.class, slot);
+            this.globals = globals;
+        }
+
+        @Override
+        double executeDouble(Frame frame)
+        {
+            return this.globals.doubleAt(this.slot);
+        }
+    }
+
+    static final class GlobalBoolean extends VariableNode
+    {
+        private final Frame globals;
+
+        GlobalBoolean(Frame globals, int slot)
+        {
+            super(boolean.class, slot);
+            this.globals = globals;
+        }
+
+        @Override
+        boolean executeBoolean(Frame frame)
+        {
+            return this.globals.booleanAt(this.slot);
+        }
+    }
+
+    static final class GlobalString extends VariableNode
+    {
+        private final Frame globals;
+
+        GlobalString(Frame globals, int slot)
+        {
+            super(String.class, slot);
+            this.globals = globals;
+        }
+
+        @Override
+        CharSequence executeString(Frame frame)
+        {
+            return this.globals.stringAt(this.slot);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package Interpreter;
+
+//A while before its first execution, a loop whose condition folds to false never runs and is dropped. for loops are
+//built as their first assignment followed by this loop.
+final class WhileNode extends StatementNode
+{
+    private ExpressionNode condition;
+    private final StatementNode body;
+
+    WhileNode(ExpressionNode condition, StatementNode body)
+    {
+        this.condition = adopt(condition);
+        this.body = body;
+    }
+
+    @Override
+    void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.condition)
+            this.condition = (ExpressionNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    @Override
+    int execute(Frame frame)
+    {
+        ExpressionNode condition = this.condition.specialize();
+
+        if(condition instanceof ConstantNode constant && !constant.executeBoolean(null))
+            return replace(new Empty()).execute(frame);
+
+        return replace(new Loop(condition, this.body)).execute(frame);
+    }
+
+    static final class Loop extends StatementNode
+    {
+        private ExpressionNode condition;
+        private StatementNode body;
+
+        Loop(ExpressionNode condition, StatementNode body)
+        {
+            this.condition = adopt(condition);
+            this.body = adopt(body);
+        }
+
+        @Override
+        void replaceChild(Node child, Node replacement)
+        {
+            if(child == this.condition)
+                this.condition = (ExpressionNode) replacement;
+            else if(child == this.body)
+                this.body = (StatementNode) replacement;
+            else
+                super.replaceChild(child, replacement);
+        }
+
+        @Override
+        int execute(Frame frame)
+        {
+            while(condition(this.condition, frame))
+            {
+                int status = this.body.execute(frame);
+
+                if(status == BREAK)
+                    break;
+
+                if(status == RETURN)
+                    return RETURN;
+            }
+
+            return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package Interpreter;
+
+//Evaluates an expression in one frame and stores it in a slot of a target frame: assignments, initialized
+//declarations, the arguments of a call and the value a function returns. A NIL value is stored as NIL.
+abstract class WriteNode extends Node
+{
+    final int slot;
+    ExpressionNode value;
+
+    WriteNode(int slot, ExpressionNode value)
+    {
+        this.slot = slot;
+        this.value = adopt(value);
+    }
+
+    static WriteNode of(Class<?> type, int slot, ExpressionNode value)
+    {
+        if(type == int.class)
+            return new IntWrite(slot, value);
+        else if(type == double.class)
+            return new DoubleWrite(slot, value);
+        else if(type == boolean.class)
+            return new BooleanWrite(slot, value);
+        else
+            return new StringWrite(slot, value);
+    }
+
+    @Override
+    final void replaceChild(Node child, Node replacement)
+    {
+        if(child == this.value)
+            this.value = (ExpressionNode) replacement;
+        else
+            super.replaceChild(child, replacement);
+    }
+
+    abstract void execute(Frame frame, Frame target);
+
+    static final class IntWrite extends WriteNode
+    {
+        IntWrite(int slot, ExpressionNode value)
+        {
+            super(slot, value);
+        }
+
+        @Override
+        void execute(Frame frame, Frame target)
+        {
+            try
+            {
+                target.setInt(this.slot, this.value.executeInt(frame));
+            }
+            catch(NilValue e)
+            {
+                target.setNil(this.slot, 1);
+            }
+        }
+    }
+
+    static final class DoubleWrite extends WriteNode
+    {
+        DoubleWrite(int slot, ExpressionNode value)
+        {
+            super(slot, value);
+        }
+
+        @Override
+        void execute(Frame frame, Frame target)
+        {
+            try
+            {
+                target.setDouble(this.slot, this.value.executeDouble(frame));
+            }
+            catch(NilValue e)
+            {
+                target.setNil(this.slot, 1);
+            }
+        }
+    }
+
+    static final class BooleanWrite extends WriteNode
+    {
+        BooleanWrite(int slot, ExpressionNode value)
+        {
+            super(slot, value);
+        }
+
+        @Override
+        void execute(Frame frame, Frame target)
+        {
+            try
+            {
+                target.setBoolean(this.slot, this.value.executeBoolean(frame));
+            }
+            catch(NilValue e)
+            {
+                target.setNil(this.slot, 1);
+            }
+        }
+    }
+
+    static final class StringWrite extends WriteNode
+    {
+        StringWrite(int slot, ExpressionNode value)
+        {
+            super(slot, value);
+        }
+
+        @Override
+        void execute(Frame frame, Frame target)
+        {
+            try
+            {
+                target.setString(this.slot, this.value.executeString(frame));
+            }
+            catch(NilValue e)
+            {
+                target.setNil(this.slot, 1);
+            }
+        }
+    }
+}
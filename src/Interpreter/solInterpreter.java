@@ -0,0 +1,129 @@
+package Interpreter;
+
+import Antlr.SolLexer;
+import Antlr.SolParser;
+import ErrorHandler.ErrorLog;
+import SemanticChecker.SemanticChecker;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+
+import tVM.OutputBuffer;
+import tVM.VMFault;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+//Runs a Sol program straight from its source, without compiling it to a .tbc first. The checked parse tree is turned
+//into nodes that specialize themselves on their first execution: operators become the version for their operand
+//types, constant expressions are folded and ifs and whiles with a constant condition keep only the code that runs.
+//Output and faults are the same as running the compiled program on the tVM.
+public class solInterpreter
+{
+    //Sol calls that aren't tail calls nest Java calls, the program runs on a thread with room for deep recursion
+    private static final long STACK_SIZE = 1L << 30;
+
+    private final OutputBuffer output;
+
+    public solInterpreter(OutputBuffer output)
+    {
+        this.output = output;
+    }
+
+    public void run(InputStream inputStream, String inputName) throws Exception
+    {
+        SolParser parser = new SolParser(new CommonTokenStream(new SolLexer(CharStreams.fromStream(inputStream))));
+        SolParser.SolContext tree = parser.sol();
+
+        if(parser.getNumberOfSyntaxErrors() > 0)
+            System.exit(1);
+
+        ErrorLog errorLog = new ErrorLog();
+
+        SemanticChecker semanticChecker = new SemanticChecker(errorLog);
+        semanticChecker.semanticCheckTree(tree);
+
+        if(errorLog.getNumberOfErrors() > 0)
+        {
+            System.err.println(inputName + " has " + errorLog.getNumberOfErrors() + " semantic errors");
+            System.exit(1);
+        }
+
+        StatementNode program = new NodeBuilder(semanticChecker.getTypes(), semanticChecker.getScopeTree(),
+                semanticChecker.getFunctions(), this.output).build(tree);
+
+        try
+        {
+            execute(program);
+        }
+        finally
+        {
+            this.output.flush();
+        }
+    }
+
+    private static void execute(StatementNode program) throws InterruptedException
+    {
+        Throwable[] failure = new Throwable[1];
+
+        Thread thread = new Thread(null, () ->
+        {
+            try
+            {
+                program.execute(new Frame(1));
+            }
+            catch(Throwable e)
+            {
+                failure[0] = e;
+            }
+        }, "sol", STACK_SIZE);
+
+        thread.start();
+        thread.join();
+
+        if(failure[0] instanceof VMFault fault)
+            throw fault;
+
+        if(failure[0] instanceof StackOverflowError)
+            throw new VMFault("Virtual machine memory limit exceeded");
+
+        if(failure[0] != null)
+            throw new VMFault(failure[0].toString(), failure[0]);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        String inputFile = null;
+        int outputThreshold = OutputBuffer.DEFAULT_THRESHOLD;
+        OutputBuffer.FlushPolicy flushPolicy = OutputBuffer.FlushPolicy.THRESHOLD;
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("-output-buffer="))
+                outputThreshold = Integer.parseInt(arg.substring("-output-buffer=".length()));
+            else if (arg.equals("-flush-every-print"))
+                flushPolicy = OutputBuffer.FlushPolicy.EVERY_PRINT;
+            else if (inputFile == null)
+                inputFile = arg;
+            else
+                ErrorLog.fatalError("Too many Program arguments. Interpreter.solInterpreter [OPTION]... [FILE]");
+        }
+
+        if (inputFile != null && !new File(inputFile).exists())
+            ErrorLog.fatalError("File " + inputFile + " does not exist.");
+
+        if (inputFile != null && !inputFile.endsWith(".sol"))
+            ErrorLog.fatalError("Invalid file extension, File must have the extension sol.");
+
+        OutputBuffer output = new OutputBuffer(System.out, System.out.charset(), outputThreshold, flushPolicy);
+
+        try (InputStream inputStream = inputFile == null ? System.in : new FileInputStream(inputFile))
+        {
+            new solInterpreter(output).run(inputStream, inputFile == null ? "input" : inputFile);
+        }
+        catch (VMFault e)
+        {
+            ErrorLog.fatalError(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package solUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+//Version 2 of the bytecode file, written by both solCompiler and tAssembler.
+//
+//  header    magic (4 bytes), version (2 bytes), number of constants, size of the constant section,
+//            number of instructions and size of the code section (4 bytes each)
+//  constants a dconst or sconst tag, then the 8 byte double or a varint length and that many UTF-8 bytes
+//  code      an opcode and its operand as a zigzag varint, or a single short form byte for the common
+//            opcode and operand pairs in SHORT_FORM_OPCODES
+//
+//Version 1 files have no header and start right away with the number of constants, which is never as big as MAGIC.
+public final class ByteCodeFormat
+{
+    public static final int MAGIC = 0x7F544243;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 22;
+
+    //Short forms are the bytes from SHORT_FORM_BASE up, every opcode is below it
+    public static final int SHORT_FORM_BASE = 0x80;
+    private static final OpCode[] SHORT_FORM_OPCODES;
+    private static final int[] SHORT_FORM_OPERANDS;
+
+    static
+    {
+        //Operands as they are in the file, locals of a function start at 2 and its arguments are negative
+        Object[][] ranges = {
+                {OpCode.iconst, 0, 7},
+                {OpCode.lload, -4, 7},
+                {OpCode.lstore, -4, 7},
+                {OpCode.gload, 0, 7},
+                {OpCode.gstore, 0, 7},
+                {OpCode.pop, 1, 4},
+                {OpCode.lalloc, 1, 4},
+                {OpCode.galloc, 1, 4},
+                {OpCode.ret, 0, 3},
+                {OpCode.retval, 0, 3},
+        };
+
+        int count = 0;
+        for(Object[] range : ranges)
+            count += (int) range[2] - (int) range[1] + 1;
+
+        SHORT_FORM_OPCODES = new OpCode[count];
+        SHORT_FORM_OPERANDS = new int[count];
+
+        int index = 0;
+        for(Object[] range : ranges)
+            for(int operand = (int) range[1]; operand <= (int) range[2]; operand++)
+            {
+                SHORT_FORM_OPCODES[index] = (OpCode) range[0];
+                SHORT_FORM_OPERANDS[index] = operand;
+                index++;
+            }
+    }
+
+    private ByteCodeFormat()
+    {
+    }
+
+    public static int shortFormCount()
+    {
+        return SHORT_FORM_OPCODES.length;
+    }
+
+    public static OpCode shortFormOpCode(int index)
+    {
+        return SHORT_FORM_OPCODES[index];
+    }
+
+    public static int shortFormOperand(int index)
+    {
+        return SHORT_FORM_OPERANDS[index];
+    }
+
+    //Index of the short form of an instruction, -1 if it has none
+    private static int shortForm(OpCode instruction, int operand)
+    {
+        for(int i = 0; i < SHORT_FORM_OPCODES.length; i++)
+            if(SHORT_FORM_OPCODES[i] == instruction && SHORT_FORM_OPERANDS[i] == operand)
+                return i;
+
+        return -1;
+    }
+
+    //Small negative numbers get small varints too
+    public static int zigzag(int value)
+    {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int unzigzag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream outputStream, int value) throws IOException
+    {
+        while((value & ~0x7F) != 0)
+        {
+            outputStream.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        outputStream.writeByte(value);
+    }
+
+    public static void write(List<Instruction> instructions, List<Value> constantPool, String outputFile) throws IOException
+    {
+        ByteArrayOutputStream constantBytes = new ByteArrayOutputStream();
+        DataOutputStream constants = new DataOutputStream(constantBytes);
+
+        for(Value value : constantPool)
+        {
+            if(value.getValueType() == Double.class)
+            {
+                constants.writeByte(OpCode.dconst.ordinal());
+                constants.writeDouble(value.getDouble());
+            }
+            else if(value.getValueType() == String.class)
+            {
+                byte[] characters = value.getString().getBytes(StandardCharsets.UTF_8);
+
+                constants.writeByte(OpCode.sconst.ordinal());
+                writeVarInt(constants, characters.length);
+                constants.write(characters);
+            }
+        }
+
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream(instructions.size() * 2);
+        DataOutputStream code = new DataOutputStream(codeBytes);
+
+        for(Instruction instruction : instructions)
+        {
+            OpCode opCode = instruction.getInstruction();
+
+            if(!instruction.hasArgument())
+            {
+                code.writeByte(opCode.ordinal());
+                continue;
+            }
+
+            int operand = instruction.getArgument().getInteger();
+            int shortForm = shortForm(opCode, operand);
+
+            if(shortForm >= 0)
+                code.writeByte(SHORT_FORM_BASE + shortForm);
+            else
+            {
+                code.writeByte(opCode.ordinal());
+                writeVarInt(code, zigzag(operand));
+            }
+        }
+
+        try(DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(outputFile)))
+        {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeShort(VERSION);
+            outputStream.writeInt(constantPool.size());
+            outputStream.writeInt(constantBytes.size());
+            outputStream.writeInt(instructions.size());
+            outputStream.writeInt(codeBytes.size());
+
+            constantBytes.writeTo(outputStream);
+            codeBytes.writeTo(outputStream);
+        }
+    }
+}
@@ -9,5 +9,18 @@ public enum OpCode
     galloc, gload, gstore, lalloc, lload, lstore,
     pop, call, ret, retval,
     jump, jumpt, jumpf,
-    halt
+    halt,
+
+    //Call in tail position, always followed by the ret or retval of the calling function
+    tcall,
+
+    //Superinstructions, only created by the tVM loader and never written to a bytecode file
+    linc, ginc,
+    iltjumpf, ileqjumpf, ieqjumpf, ineqjumpf,
+
+    //Unchecked forms, only created by the tVM loader where the verifier proved the operands can't be NIL or of
+    //another type and the address is inside the memory
+    uiadd, uisub, uimult, uidiv, uimod, uieq, uineq, uilt, uileq,
+    udadd, udsub, udmult, uddiv, udeq, udneq, udlt, udleq,
+    ujumpt, ujumpf, ugload, ulload
 }
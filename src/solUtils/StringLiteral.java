@@ -0,0 +1,22 @@
+package solUtils;
+
+//Strings are kept as their plain value from the moment a literal is read, the quotes and the \" escapes of the
+//Sol and tasm source only exist in the source text
+public final class StringLiteral
+{
+    private StringLiteral() {}
+
+    //"a\"b" to a"b
+    public static String unquote(String literal)
+    {
+        String value = literal.substring(1, literal.length() - 1);
+
+        return value.indexOf('\\') < 0 ? value : value.replace("\\\"", "\"");
+    }
+
+    //a"b to "a\"b"
+    public static String quote(String value)
+    {
+        return '"' + value.replace("\"", "\\\"") + '"';
+    }
+}
@@ -2,33 +2,56 @@ package solUtils;
 
 import ErrorHandler.ErrorLog;
 
-import java.util.Arrays;
-
-public class Value
+public final class Value
 {
-    private Object value;
-    private Class<?> type;
+    public static final Value NIL = new Value(null, null);
+    public static final Value TRUE = new Value(Boolean.TRUE, Boolean.class);
+    public static final Value FALSE = new Value(Boolean.FALSE, Boolean.class);
+
+    //Small integers (arguments, addresses, jump targets) are shared instead of allocated each time
+    private static final int INTEGER_CACHE_LOW = -128;
+    private static final int INTEGER_CACHE_HIGH = 1023;
+    private static final Value[] INTEGER_CACHE = new Value[INTEGER_CACHE_HIGH - INTEGER_CACHE_LOW + 1];
+
+    static
+    {
+        for(int i = 0; i < INTEGER_CACHE.length; i++)
+            INTEGER_CACHE[i] = new Value(i + INTEGER_CACHE_LOW, Integer.class);
+    }
+
+    private final Object value;
+    private final Class<?> type;
+
+    private Value(Object value, Class<?> type)
+    {
+        this.value = value;
+        this.type = type;
+    }
 
-    public Value(Object value)
+    public static Value of(int value)
     {
-        Class<?>[] VALID_TYPES = {Integer.class, Double.class, String.class, Boolean.class};
+        if(value >= INTEGER_CACHE_LOW && value <= INTEGER_CACHE_HIGH)
+            return INTEGER_CACHE[value - INTEGER_CACHE_LOW];
 
-        for(Class<?> type : VALID_TYPES)
-        {
-            if(type.isInstance(value))
-            {
-                this.value = value;
-                this.type = type;
-            }
-        }
+        return new Value(value, Integer.class);
+    }
 
+    public static Value of(double value)
+    {
+        return new Value(value, Double.class);
+    }
+
+    public static Value of(boolean value)
+    {
+        return value ? TRUE : FALSE;
+    }
+
+    public static Value of(String value)
+    {
         if(value == null)
-        {
-           this.value = null;
-           this.type = null;
-        }
-        else if(this.value == null)
-            ErrorLog.fatalError("Invalid Type, the valid types are: ".concat(Arrays.toString(VALID_TYPES)));
+            return NIL;
+
+        return new Value(value, String.class);
     }
 
     public Object getObject()
@@ -36,17 +59,17 @@ public class Value
         return this.value;
     }
 
-    public Integer getInteger()
+    public int getInteger()
     {
-        if(!(this.value instanceof Integer))
+        if(this.type != Integer.class)
             ErrorLog.fatalError("Couldn't cast to Integer, because the value is not an instance of Integer");
 
         return (Integer) this.value;
     }
 
-    public Double getDouble()
+    public double getDouble()
     {
-        if(!(this.value instanceof Double))
+        if(this.type != Double.class)
             ErrorLog.fatalError("Couldn't cast to Double, because the value is not an instance of Double");
 
         return (Double) this.value;
@@ -54,18 +77,18 @@ public class Value
 
     public String getString()
     {
-        if(!(this.value instanceof String))
+        if(this.type != String.class)
             ErrorLog.fatalError("Couldn't cast to String, because the value is not an instance of String");
 
         return (String) this.value;
     }
 
-    public Boolean getBoolean()
+    public boolean getBoolean()
     {
-        if(!(this.value instanceof Boolean))
+        if(this.type != Boolean.class)
             ErrorLog.fatalError("Couldn't cast to Boolean, because the value is not an instance of Boolean");
 
-        return (Boolean) this.value;
+        return this == TRUE;
     }
 
     public Class<?> getValueType()
@@ -80,13 +103,13 @@ public class Value
 
     public boolean isNull()
     {
-        return this.value == null;
+        return this == NIL;
     }
 
     @Override
     public int hashCode()
     {
-        return this.value.hashCode();
+        return this.value == null ? 0 : this.value.hashCode();
     }
 
     @Override
@@ -94,12 +117,12 @@ public class Value
     {
         if(this == that)
             return true;
-        if(that == null)
+        if(!(that instanceof Value thatValue))
             return false;
-        if(this.getClass() != that.getClass())
+        if(this.type != thatValue.type)
             return false;
 
-        return this.value.equals(((Value)that).value);
+        return this.value != null && this.value.equals(thatValue.value);
     }
 
     @Override
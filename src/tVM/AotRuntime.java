@@ -0,0 +1,98 @@
+package tVM;
+
+//Runtime support of the programs compiled by solaot, it is copied into every jar together with the classes it uses.
+//The generated class prints through it and hands its top-level code to run, which gives it the same options,
+//output and faults as running the program on the tVM.
+public class AotRuntime
+{
+    //Sol calls nest JVM calls, the program runs on a thread with room for recursion about as deep as the tVM's memory
+    //limit allows. Much larger stacks make overflowing them, at the limit, take far more memory than the stack itself.
+    private static final long STACK_SIZE = 1L << 29;
+
+    private static OutputBuffer output;
+
+    public static void run(Runnable program, String[] args)
+    {
+        int outputThreshold = OutputBuffer.DEFAULT_THRESHOLD;
+        OutputBuffer.FlushPolicy flushPolicy = OutputBuffer.FlushPolicy.THRESHOLD;
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("-output-buffer="))
+                outputThreshold = Integer.parseInt(arg.substring("-output-buffer=".length()));
+            else if (arg.equals("-flush-every-print"))
+                flushPolicy = OutputBuffer.FlushPolicy.EVERY_PRINT;
+            else
+                fatalError("Unknown option " + arg + ". [-output-buffer=N] [-flush-every-print]");
+        }
+
+        output = new OutputBuffer(System.out, System.out.charset(), outputThreshold, flushPolicy);
+
+        Throwable[] failure = new Throwable[1];
+
+        Thread thread = new Thread(null, () ->
+        {
+            try
+            {
+                program.run();
+            }
+            catch(Throwable e)
+            {
+                failure[0] = e;
+            }
+        }, "sol", STACK_SIZE);
+
+        thread.start();
+
+        try
+        {
+            thread.join();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            failure[0] = e;
+        }
+
+        output.flush();
+
+        if(failure[0] instanceof VMFault)
+            fatalError(failure[0].getMessage());
+        else if(failure[0] instanceof StackOverflowError)
+            fatalError("Virtual machine memory limit exceeded");
+        else if(failure[0] != null)
+            fatalError(failure[0].toString());
+    }
+
+    //Same report as ErrorLog.fatalError, which isn't in the jar because it needs the ANTLR runtime
+    private static void fatalError(String message)
+    {
+        System.err.println("Fatal Error: " + message);
+        System.exit(1);
+    }
+
+    public static VMFault fault(String message)
+    {
+        return new VMFault(message);
+    }
+
+    public static void printInt(int value)
+    {
+        output.printInt(value);
+    }
+
+    public static void printDouble(double value)
+    {
+        output.printDouble(value);
+    }
+
+    public static void printBoolean(boolean value)
+    {
+        output.printBoolean(value);
+    }
+
+    public static void printString(CharSequence value)
+    {
+        output.printString(value);
+    }
+}
@@ -0,0 +1,1481 @@
+package tVM;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import solUtils.Instruction;
+import solUtils.OpCode;
+import tVM.JitTranslator.UnsupportedCodeException;
+
+import static tVM.ClassFileWriter.Code.*;
+
+//Translates a whole program to one JVM class for solaot. Like in JitTranslator a type dataflow gives every stack slot a
+//fixed type and every function becomes a static method on unboxed values for the types it is called with, the top-level
+//code becomes program() and the constant pool static final fields. Nothing is left to an interpreter, so NIL values,
+//strings, globals and prints are translated too: a slot that holds NIL on some of the paths to it gets a flag local
+//next to its value, which is checked where the tVM would fault.
+public class AotTranslator
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    private static final byte NIL = OperandStack.NIL;
+    private static final byte INT = OperandStack.INT;
+    private static final byte DOUBLE = OperandStack.DOUBLE;
+    private static final byte BOOLEAN = OperandStack.BOOLEAN;
+    private static final byte STRING = OperandStack.STRING;
+    //Return type of a function that hasn't been analysed yet
+    private static final byte UNKNOWN = 5;
+    //Slot that holds different types depending on the path taken
+    private static final byte CONFLICT = 6;
+    //Added to the type of a slot that holds NIL on some of the paths to it
+    private static final byte MAYBE_NIL = 8;
+
+    //Every slot of a frame has an int, a double, a reference and a NIL flag local, booleans use the int one.
+    //A local only ever holds one JVM type, so slots reused for other types after a pop need no care.
+    private static final int INT_LOCAL = 0;
+    private static final int DOUBLE_LOCAL = 1;
+    private static final int REFERENCE_LOCAL = 3;
+    private static final int FLAG_LOCAL = 4;
+    private static final int LOCALS_PER_SLOT = 5;
+
+    private static final String RUNTIME_CLASS = "tVM/AotRuntime";
+    private static final String TEXT = "Ljava/lang/CharSequence;";
+    //Set by a function that can return NIL before it returns, the value returned is only read if it is false
+    private static final String RETURNED_NIL = "returnedNil";
+
+    //Same faults as the tVM, so a program fails the same way compiled
+    private static final String PRINT_NIL_ERROR = "Can't print a NIL value";
+    private static final String CAST_NIL_ERROR = "Can't cast a NIL value";
+    private static final String ADDITION_NIL_ERROR = "Can't effectuate an addition with a NIL value";
+    private static final String SUBTRACTION_NIL_ERROR = "Can't effectuate a subtraction with a NIL value";
+    private static final String MULTIPLICATION_NIL_ERROR = "Can't effectuate a multiplication with a NIL value";
+    private static final String DIVISION_NIL_ERROR = "Can't effectuate a division with a NIL value";
+    private static final String MOD_NIL_ERROR = "Can't mod a NIL value";
+    private static final String UNARY_NIL_ERROR = "Can't effectuate a unary operation with a NIL value";
+    private static final String COMPARE_NIL_ERROR = "Can't compare a NIL value";
+
+    private static String castError(byte type)
+    {
+        String typeName = switch (type)
+        {
+            case INT -> "Integer";
+            case DOUBLE -> "Double";
+            case BOOLEAN -> "Boolean";
+            default -> "String";
+        };
+
+        return "Couldn't cast to " + typeName + ", because the value is not an instance of " + typeName;
+    }
+
+    private class FunctionInfo
+    {
+        final int entry;
+        final int numberOfArgs;
+        final boolean returnsValue;
+        final byte[] argumentTypes;
+        final String methodName;
+        byte returnType;
+        byte[][] states;
+        int maxDepth;
+        int maxCallArguments;
+
+        FunctionInfo(int entry, int numberOfArgs, boolean returnsValue, byte[] argumentTypes, String methodName)
+        {
+            this.entry = entry;
+            this.numberOfArgs = numberOfArgs;
+            this.returnsValue = returnsValue;
+            this.argumentTypes = argumentTypes;
+            this.methodName = methodName;
+            this.returnType = returnsValue ? UNKNOWN : NIL;
+        }
+
+        String descriptor()
+        {
+            StringBuilder result = new StringBuilder("(");
+
+            for(byte type : this.argumentTypes)
+                result.append(argumentDescriptor(type));
+
+            return result.append(')').append(this.returnType == NIL ? "V" : typeDescriptor(this.returnType)).toString();
+        }
+
+        int parameterSize()
+        {
+            int size = 0;
+
+            for(byte type : this.argumentTypes)
+            {
+                if(type == NIL)
+                    continue;
+
+                size += base(type) == DOUBLE ? 2 : 1;
+
+                if(maybeNil(type) && base(type) != STRING)
+                    size++;
+            }
+
+            return size;
+        }
+    }
+
+    private final String className;
+    private final MethodJit jit;
+    private final byte[] code;
+    private final int[] arguments;
+    private final List<Instruction> constPool;
+    private final double[] doubleConstants;
+    private final String[] stringConstants;
+
+    //Address of the first global each galloc allocates, the gallocs are numbered in code order like the verifier does
+    private final int[] globalBase;
+    private final byte[] globalTypes;
+    private boolean globalsChanged;
+
+    private final HashMap<String, FunctionInfo> functionCache;
+    private final HashMap<Integer, Integer> specializations;
+    private final ArrayList<FunctionInfo> functions;
+
+    public AotTranslator(Program program, String className)
+    {
+        this.className = className;
+        this.code = program.getCode();
+        this.arguments = program.getArguments();
+        this.constPool = program.getConstPool();
+        this.doubleConstants = program.getDoubleConstants();
+        this.stringConstants = program.getStringConstants();
+        this.jit = new MethodJit(this.code, this.arguments, this.constPool, MethodJit.DEFAULT_THRESHOLD);
+
+        this.globalBase = new int[this.code.length];
+        int globals = 0;
+
+        for(int i = 0; i < this.code.length; i++)
+        {
+            if(OPCODES[this.code[i]] == OpCode.galloc)
+            {
+                this.globalBase[i] = globals;
+                globals += this.arguments[i];
+            }
+        }
+
+        //Every global starts as NIL
+        this.globalTypes = new byte[globals];
+
+        this.functionCache = new HashMap<>();
+        this.specializations = new HashMap<>();
+        this.functions = new ArrayList<>();
+    }
+
+    public int getMethodCount()
+    {
+        return this.functions.size();
+    }
+
+    private static byte base(byte type)
+    {
+        return (byte) (type & ~MAYBE_NIL);
+    }
+
+    private static boolean maybeNil(byte type)
+    {
+        return (type & MAYBE_NIL) != 0;
+    }
+
+    private static boolean isValue(byte type)
+    {
+        byte base = base(type);
+        return base == INT || base == DOUBLE || base == BOOLEAN || base == STRING;
+    }
+
+    private static String typeDescriptor(byte type)
+    {
+        return switch (base(type))
+        {
+            case INT -> "I";
+            case DOUBLE -> "D";
+            case BOOLEAN -> "Z";
+            case STRING -> TEXT;
+            default -> throw new IllegalStateException("No JVM type for " + type);
+        };
+    }
+
+    //NIL arguments aren't passed at all, and the ones that can be NIL are followed by their flag, except strings which use null
+    private static String argumentDescriptor(byte type)
+    {
+        if(type == NIL)
+            return "";
+
+        if(maybeNil(type) && base(type) != STRING)
+            return typeDescriptor(type) + "Z";
+
+        return typeDescriptor(type);
+    }
+
+    private static byte merge(byte left, byte right)
+    {
+        if(left == right || right == UNKNOWN)
+            return left;
+        if(left == UNKNOWN)
+            return right;
+        if(left == CONFLICT || right == CONFLICT)
+            return CONFLICT;
+        if(left == NIL)
+            return (byte) (right | MAYBE_NIL);
+        if(right == NIL)
+            return (byte) (left | MAYBE_NIL);
+        if(base(left) == base(right))
+            return (byte) (left | right);
+
+        return CONFLICT;
+    }
+
+    private FunctionInfo getFunction(int entry, byte[] argumentTypes) throws UnsupportedCodeException
+    {
+        String key = entry + Arrays.toString(argumentTypes);
+        FunctionInfo function = this.functionCache.get(key);
+
+        if(function != null)
+            return function;
+
+        MethodJit.FunctionShape shape = this.jit.getShape(entry);
+
+        if(shape == null || shape.numberOfArgs() != argumentTypes.length)
+            throw new UnsupportedCodeException("Call target " + entry + " is not a function");
+
+        for(byte type : argumentTypes)
+            if(type != NIL && !isValue(type))
+                throw new UnsupportedCodeException("Argument without a fixed type in a call to " + Program.functionName(entry));
+
+        //A function called with different types gets one method for each of them
+        int specialization = this.specializations.merge(entry, 1, Integer::sum) - 1;
+        String methodName = Program.functionName(entry) + (specialization == 0 ? "" : "_" + specialization);
+
+        function = new FunctionInfo(entry, shape.numberOfArgs(), shape.returnsValue(), argumentTypes, methodName);
+        this.functionCache.put(key, function);
+        this.functions.add(function);
+
+        return function;
+    }
+
+    public byte[] translate() throws UnsupportedCodeException
+    {
+        this.functions.add(new FunctionInfo(0, 0, false, new byte[0], "program"));
+
+        //Return types of (mutually) recursive functions and the types of globals are only known after every function
+        //was seen, so everything is analysed until nothing changes. A function that is still UNKNOWN then never
+        //returns and is taken as returning NIL, before the final strict pass.
+        boolean changed = true;
+        while(changed)
+        {
+            changed = false;
+            this.globalsChanged = false;
+            int known = this.functions.size();
+
+            for(int i = 0; i < this.functions.size(); i++)
+            {
+                FunctionInfo function = this.functions.get(i);
+                byte returnType = function.returnType;
+
+                analyse(function, false);
+                changed |= returnType != function.returnType;
+            }
+
+            changed |= this.globalsChanged || known != this.functions.size();
+
+            if(!changed)
+            {
+                for(FunctionInfo function : this.functions)
+                {
+                    if(function.returnType == UNKNOWN)
+                    {
+                        function.returnType = NIL;
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        for(int i = 0; i < this.functions.size(); i++)
+            analyse(this.functions.get(i), true);
+
+        ClassFileWriter writer = new ClassFileWriter(this.className, "java/lang/Object", "java/lang/Runnable");
+
+        writeFields(writer);
+        writeConstructor(writer);
+        writeEntryPoints(writer);
+
+        for(FunctionInfo function : this.functions)
+            new FunctionWriter(writer, function).write();
+
+        return writer.toByteArray();
+    }
+
+    //Index in the state of the slot an lload or lstore refers to, the arguments come first and the locals follow them
+    private static int slotIndex(FunctionInfo function, int offset, int stateLength) throws UnsupportedCodeException
+    {
+        int index = function.numberOfArgs + offset;
+
+        if(index < 0)
+            throw new UnsupportedCodeException("Access below the arguments");
+
+        if(index >= stateLength)
+            throw new UnsupportedCodeException("Access outside the frame");
+
+        return index;
+    }
+
+    private int globalIndex(int address) throws UnsupportedCodeException
+    {
+        if(address < 0 || address >= this.globalTypes.length)
+            throw new UnsupportedCodeException("Global " + address + " is never allocated");
+
+        return address;
+    }
+
+    private static byte[] push(byte[] state, byte type)
+    {
+        byte[] result = Arrays.copyOf(state, state.length + 1);
+        result[state.length] = type;
+
+        return result;
+    }
+
+    private static byte[] pop(byte[] state, int count) throws UnsupportedCodeException
+    {
+        if(count > state.length)
+            throw new UnsupportedCodeException("Stack underflow");
+
+        return Arrays.copyOf(state, state.length - count);
+    }
+
+    private static void expectReadable(byte type, boolean strict) throws UnsupportedCodeException
+    {
+        if(type == CONFLICT || (strict && type == UNKNOWN))
+            throw new UnsupportedCodeException("Read of a value without a fixed type");
+    }
+
+    //Checks that the top count slots hold a value or NIL. Any value is accepted, an operand of the wrong type or NIL
+    //faults when it runs with the same error as on the tVM.
+    private static void expect(byte[] state, int count, boolean strict) throws UnsupportedCodeException
+    {
+        if(count > state.length)
+            throw new UnsupportedCodeException("Stack underflow");
+
+        for(int i = state.length - count; i < state.length; i++)
+            expectReadable(state[i], strict);
+    }
+
+    private void analyse(FunctionInfo function, boolean strict) throws UnsupportedCodeException
+    {
+        byte[][] states = new byte[this.code.length][];
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        int maxDepth = function.numberOfArgs;
+        int maxCallArguments = 0;
+
+        states[function.entry] = function.argumentTypes.clone();
+        worklist.push(function.entry);
+
+        while(!worklist.isEmpty())
+        {
+            int position = worklist.pop();
+            byte[] state = states[position];
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+            int jumpTarget = -1;
+            boolean fallsThrough = true;
+
+            switch (instruction)
+            {
+                case iconst -> state = push(state, INT);
+
+                case dconst -> state = push(state, DOUBLE);
+
+                case sconst -> state = push(state, STRING);
+
+                case tconst, fconst -> state = push(state, BOOLEAN);
+
+                case lload ->
+                {
+                    byte type = state[slotIndex(function, argument, state.length)];
+
+                    expectReadable(type, strict);
+                    state = push(state, type);
+                }
+
+                case lstore ->
+                {
+                    int index = slotIndex(function, argument, state.length - 1);
+                    byte type = state[state.length - 1];
+
+                    state = pop(state, 1);
+                    state[index] = type;
+                }
+
+                case lalloc ->
+                {
+                    state = Arrays.copyOf(state, state.length + argument);
+                    Arrays.fill(state, state.length - argument, state.length, NIL);
+                }
+
+                case pop -> state = pop(state, argument);
+
+                case galloc ->
+                {
+                    if(function.entry != 0)
+                        throw new UnsupportedCodeException("galloc inside a function");
+                }
+
+                case gload ->
+                {
+                    byte type = this.globalTypes[globalIndex(argument)];
+
+                    expectReadable(type, strict);
+                    state = push(state, type);
+                }
+
+                case gstore ->
+                {
+                    int index = globalIndex(argument);
+                    byte type = merge(this.globalTypes[index], state[state.length - 1]);
+
+                    if(type != this.globalTypes[index])
+                    {
+                        if(strict)
+                            throw new UnsupportedCodeException("Global changes type");
+
+                        this.globalTypes[index] = type;
+                        this.globalsChanged = true;
+                    }
+
+                    state = pop(state, 1);
+                }
+
+                case iadd, isub, imult, idiv, imod ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), INT);
+                }
+
+                case ieq, ineq, ilt, ileq ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case iuminus ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), INT);
+                }
+
+                case itod ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), DOUBLE);
+                }
+
+                case itos ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), STRING);
+                }
+
+                case dadd, dsub, dmult, ddiv ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), DOUBLE);
+                }
+
+                case deq, dneq, dlt, dleq ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case duminus ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), DOUBLE);
+                }
+
+                case dtos ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), STRING);
+                }
+
+                case sadd ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), STRING);
+                }
+
+                case seq, sneq ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case beq, bneq, and, or ->
+                {
+                    expect(state, 2, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case not ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), BOOLEAN);
+                }
+
+                case btos ->
+                {
+                    expect(state, 1, strict);
+                    state = push(pop(state, 1), STRING);
+                }
+
+                case iprint ->
+                {
+                    expect(state, 1, strict);
+                    state = pop(state, 1);
+                }
+
+                case dprint ->
+                {
+                    expect(state, 1, strict);
+                    state = pop(state, 1);
+                }
+
+                case sprint ->
+                {
+                    expect(state, 1, strict);
+                    state = pop(state, 1);
+                }
+
+                case bprint ->
+                {
+                    expect(state, 1, strict);
+                    state = pop(state, 1);
+                }
+
+                case jump ->
+                {
+                    jumpTarget = argument;
+                    fallsThrough = false;
+                }
+
+                case jumpt, jumpf ->
+                {
+                    expect(state, 1, strict);
+                    state = pop(state, 1);
+                    jumpTarget = argument;
+                }
+
+                case call, tcall ->
+                {
+                    MethodJit.FunctionShape callee = this.jit.getShape(argument);
+
+                    if(callee == null || callee.numberOfArgs() > state.length)
+                        throw new UnsupportedCodeException("Call to something that is not a function");
+
+                    byte[] calleeArguments = Arrays.copyOfRange(state, state.length - callee.numberOfArgs(), state.length);
+                    byte returnType = UNKNOWN;
+
+                    boolean argumentsKnown = true;
+                    for(byte type : calleeArguments)
+                        argumentsKnown &= type != UNKNOWN;
+
+                    if(argumentsKnown || strict)
+                        returnType = getFunction(argument, calleeArguments).returnType;
+
+                    maxCallArguments = Math.max(maxCallArguments, calleeArguments.length);
+                    state = pop(state, callee.numberOfArgs());
+
+                    if(callee.returnsValue())
+                        state = push(state, returnType);
+                }
+
+                case ret, retval ->
+                {
+                    if(function.entry == 0)
+                        throw new UnsupportedCodeException("Return outside of a function");
+
+                    if(instruction == OpCode.retval)
+                    {
+                        byte type = state[state.length - 1];
+                        expectReadable(type, strict);
+
+                        byte returnType = merge(function.returnType, type);
+
+                        if(strict && returnType != function.returnType)
+                            throw new UnsupportedCodeException("Return type changes");
+
+                        function.returnType = returnType;
+                    }
+
+                    fallsThrough = false;
+                }
+
+                case halt ->
+                {
+                    if(function.entry != 0)
+                        throw new UnsupportedCodeException("halt inside a function");
+
+                    fallsThrough = false;
+                }
+
+                default -> throw new UnsupportedCodeException("Unsupported instruction " + instruction);
+            }
+
+            maxDepth = Math.max(maxDepth, state.length);
+
+            if(fallsThrough)
+                flow(states, worklist, position + 1, state);
+
+            if(jumpTarget >= 0)
+                flow(states, worklist, jumpTarget, state);
+        }
+
+        function.states = states;
+        function.maxDepth = maxDepth;
+        function.maxCallArguments = maxCallArguments;
+    }
+
+    private void flow(byte[][] states, ArrayDeque<Integer> worklist, int target, byte[] state) throws UnsupportedCodeException
+    {
+        if(target < 0 || target >= states.length)
+            throw new UnsupportedCodeException("Jump outside the code");
+
+        byte[] current = states[target];
+
+        if(current == null)
+        {
+            states[target] = state;
+            worklist.push(target);
+            return;
+        }
+
+        //A break out of a nested scope jumps over the pop of its locals, the slots above the shorter stack are
+        //leftovers that are never read again
+        byte[] merged = Arrays.copyOf(current, Math.min(current.length, state.length));
+        boolean changed = merged.length != current.length;
+
+        for(int i = 0; i < merged.length; i++)
+        {
+            merged[i] = merge(current[i], state[i]);
+            changed |= merged[i] != current[i];
+        }
+
+        if(changed)
+        {
+            states[target] = merged;
+            worklist.push(target);
+        }
+    }
+
+    private static String constantName(int index)
+    {
+        return "K" + index;
+    }
+
+    private static String globalName(int address)
+    {
+        return "g" + address;
+    }
+
+    //true while the global holds NIL, strings are null instead
+    private static String globalNilName(int address)
+    {
+        return "g" + address + "Nil";
+    }
+
+    private void writeFields(ClassFileWriter writer)
+    {
+        ClassFileWriter.Code code = new ClassFileWriter.Code();
+
+        for(int i = 0; i < this.constPool.size(); i++)
+        {
+            if(this.constPool.get(i).getInstruction() == OpCode.dconst)
+            {
+                writer.addField(ClassFileWriter.ACC_STATIC | ClassFileWriter.ACC_FINAL, constantName(i), "D");
+                code.op(LDC2_W, writer.doubleConstant(this.doubleConstants[i]));
+                code.op(PUTSTATIC, writer.fieldConstant(this.className, constantName(i), "D"));
+            }
+            else
+            {
+                writer.addField(ClassFileWriter.ACC_STATIC | ClassFileWriter.ACC_FINAL, constantName(i), "Ljava/lang/String;");
+                code.op(LDC_W, writer.stringConstant(this.stringConstants[i]));
+                code.op(PUTSTATIC, writer.fieldConstant(this.className, constantName(i), "Ljava/lang/String;"));
+            }
+        }
+
+        code.op(RETURN);
+        code.setMaxs(2, 0);
+        writer.addMethod(ClassFileWriter.ACC_STATIC, "<clinit>", "()V", code);
+
+        for(int i = 0; i < this.globalTypes.length; i++)
+        {
+            byte type = this.globalTypes[i];
+
+            if(type == NIL)
+                continue;
+
+            writer.addField(ClassFileWriter.ACC_STATIC, globalName(i), typeDescriptor(type));
+
+            if(base(type) != STRING)
+                writer.addField(ClassFileWriter.ACC_STATIC, globalNilName(i), "Z");
+        }
+
+        writer.addField(ClassFileWriter.ACC_STATIC, RETURNED_NIL, "Z");
+    }
+
+    private void writeConstructor(ClassFileWriter writer)
+    {
+        ClassFileWriter.Code code = new ClassFileWriter.Code();
+
+        code.local(ALOAD, 0);
+        code.op(INVOKESPECIAL, writer.methodConstant("java/lang/Object", "<init>", "()V"));
+        code.op(RETURN);
+        code.setMaxs(1, 1);
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "()V", code);
+    }
+
+    //main hands an instance to AotRuntime.run, which calls run() and with it the top-level code on a thread of its own
+    private void writeEntryPoints(ClassFileWriter writer)
+    {
+        ClassFileWriter.Code run = new ClassFileWriter.Code();
+
+        run.op(INVOKESTATIC, writer.methodConstant(this.className, "program", "()V"));
+        run.op(RETURN);
+        run.setMaxs(0, 1);
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "run", "()V", run);
+
+        ClassFileWriter.Code main = new ClassFileWriter.Code();
+
+        main.op(NEW, writer.classConstant(this.className));
+        main.op(DUP);
+        main.op(INVOKESPECIAL, writer.methodConstant(this.className, "<init>", "()V"));
+        main.local(ALOAD, 0);
+        main.op(INVOKESTATIC, writer.methodConstant(RUNTIME_CLASS, "run", "(Ljava/lang/Runnable;[Ljava/lang/String;)V"));
+        main.op(RETURN);
+        main.setMaxs(3, 1);
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_STATIC, "main", "([Ljava/lang/String;)V", main);
+    }
+
+    //Writes the method of one function, it keeps the JVM locals every slot uses and the slots that need a NIL flag
+    private class FunctionWriter
+    {
+        private final ClassFileWriter writer;
+        private final FunctionInfo function;
+        private final ClassFileWriter.Code code;
+        private final int slotBase;
+
+        private final boolean[] ints;
+        private final boolean[] doubles;
+        private final boolean[] references;
+        private final boolean[] flags;
+
+        FunctionWriter(ClassFileWriter writer, FunctionInfo function)
+        {
+            this.writer = writer;
+            this.function = function;
+            this.code = new ClassFileWriter.Code();
+            this.slotBase = function.parameterSize();
+
+            int depth = function.maxDepth;
+            this.ints = new boolean[depth];
+            this.doubles = new boolean[depth];
+            this.references = new boolean[depth];
+            this.flags = new boolean[depth];
+
+            //A slot only needs the locals of the types it has somewhere, and a flag if it can be NIL or not
+            for(byte[] state : function.states)
+            {
+                if(state == null)
+                    continue;
+
+                for(int i = 0; i < state.length; i++)
+                {
+                    switch (base(state[i]))
+                    {
+                        case INT, BOOLEAN -> this.ints[i] = true;
+                        case DOUBLE -> this.doubles[i] = true;
+                        case STRING -> this.references[i] = true;
+                    }
+
+                    if(maybeNil(state[i]) && base(state[i]) != STRING)
+                        this.flags[i] = true;
+                }
+            }
+        }
+
+        private int local(int slot, int kind)
+        {
+            return this.slotBase + LOCALS_PER_SLOT * slot + kind;
+        }
+
+        private void load(int slot, byte type)
+        {
+            switch (base(type))
+            {
+                case DOUBLE -> this.code.local(DLOAD, local(slot, DOUBLE_LOCAL));
+                case STRING -> this.code.local(ALOAD, local(slot, REFERENCE_LOCAL));
+                default -> this.code.local(ILOAD, local(slot, INT_LOCAL));
+            }
+        }
+
+        //Stores the value on the JVM stack without touching the flag
+        private void storeValue(int slot, byte type)
+        {
+            switch (base(type))
+            {
+                case DOUBLE -> this.code.local(DSTORE, local(slot, DOUBLE_LOCAL));
+                case STRING -> this.code.local(ASTORE, local(slot, REFERENCE_LOCAL));
+                default -> this.code.local(ISTORE, local(slot, INT_LOCAL));
+            }
+        }
+
+        //Stores a value that isn't NIL
+        private void store(int slot, byte type)
+        {
+            storeValue(slot, type);
+
+            if(this.flags[slot] && base(type) != STRING)
+            {
+                this.code.op(ICONST_0);
+                this.code.local(ISTORE, local(slot, FLAG_LOCAL));
+            }
+        }
+
+        private void storeNil(int slot)
+        {
+            if(this.flags[slot])
+            {
+                this.code.op(ICONST_0 + 1);
+                this.code.local(ISTORE, local(slot, FLAG_LOCAL));
+            }
+
+            if(this.references[slot])
+            {
+                this.code.op(ACONST_NULL);
+                this.code.local(ASTORE, local(slot, REFERENCE_LOCAL));
+            }
+        }
+
+        private void copy(int from, int to, byte type)
+        {
+            if(type == NIL)
+            {
+                storeNil(to);
+                return;
+            }
+
+            load(from, type);
+            storeValue(to, type);
+
+            if(this.flags[to] && base(type) != STRING)
+            {
+                if(maybeNil(type))
+                    this.code.local(ILOAD, local(from, FLAG_LOCAL));
+                else
+                    this.code.op(ICONST_0);
+
+                this.code.local(ISTORE, local(to, FLAG_LOCAL));
+            }
+        }
+
+        private void fault(String message)
+        {
+            this.code.op(LDC_W, this.writer.stringConstant(message));
+            this.code.op(INVOKESTATIC, this.writer.methodConstant(RUNTIME_CLASS, "fault", "(Ljava/lang/String;)LtVM/VMFault;"));
+            this.code.op(ATHROW);
+        }
+
+        //Faults if one of the top count slots is NIL, returns true if one of them always is and the code after it is dead
+        private boolean checkNil(byte[] state, int count, String message)
+        {
+            for(int i = state.length - count; i < state.length; i++)
+            {
+                if(state[i] == NIL)
+                {
+                    fault(message);
+                    return true;
+                }
+            }
+
+            for(int i = state.length - count; i < state.length; i++)
+            {
+                if(!maybeNil(state[i]))
+                    continue;
+
+                int isValue = this.code.newLabel();
+
+                if(base(state[i]) == STRING)
+                {
+                    this.code.local(ALOAD, local(i, REFERENCE_LOCAL));
+                    this.code.branch(IFNONNULL, isValue);
+                }
+                else
+                {
+                    this.code.local(ILOAD, local(i, FLAG_LOCAL));
+                    this.code.branch(IFEQ, isValue);
+                }
+
+                fault(message);
+                this.code.bind(isValue);
+            }
+
+            return false;
+        }
+
+        //Nil check of the operands and then, from the top down, a check of their types like the pops of the tVM do
+        private boolean checkOperands(byte[] state, int count, byte type, String message)
+        {
+            if(checkNil(state, count, message))
+                return true;
+
+            for(int i = state.length - 1; i >= state.length - count; i--)
+            {
+                if(base(state[i]) != type)
+                {
+                    fault(castError(type));
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void prologue()
+        {
+            for(int i = 0; i < this.ints.length; i++)
+            {
+                if(this.ints[i])
+                {
+                    this.code.op(ICONST_0);
+                    this.code.local(ISTORE, local(i, INT_LOCAL));
+                }
+
+                if(this.doubles[i])
+                {
+                    this.code.op(DCONST_0);
+                    this.code.local(DSTORE, local(i, DOUBLE_LOCAL));
+                }
+
+                if(this.references[i])
+                {
+                    this.code.op(ACONST_NULL);
+                    this.code.local(ASTORE, local(i, REFERENCE_LOCAL));
+                }
+
+                if(this.flags[i])
+                {
+                    this.code.op(ICONST_0);
+                    this.code.local(ISTORE, local(i, FLAG_LOCAL));
+                }
+            }
+
+            //The parameters are moved to the locals of their slots
+            int parameter = 0;
+            byte[] types = this.function.argumentTypes;
+
+            for(int i = 0; i < types.length; i++)
+            {
+                byte type = types[i];
+
+                if(type == NIL)
+                {
+                    storeNil(i);
+                    continue;
+                }
+
+                switch (base(type))
+                {
+                    case DOUBLE -> this.code.local(DLOAD, parameter);
+                    case STRING -> this.code.local(ALOAD, parameter);
+                    default -> this.code.local(ILOAD, parameter);
+                }
+
+                storeValue(i, type);
+                parameter += base(type) == DOUBLE ? 2 : 1;
+
+                if(maybeNil(type) && base(type) != STRING)
+                {
+                    this.code.local(ILOAD, parameter++);
+                    this.code.local(ISTORE, local(i, FLAG_LOCAL));
+                }
+            }
+        }
+
+        private void pushArgument(int slot, byte type)
+        {
+            if(type == NIL)
+                return;
+
+            load(slot, type);
+
+            if(maybeNil(type) && base(type) != STRING)
+                this.code.local(ILOAD, local(slot, FLAG_LOCAL));
+        }
+
+        private void call(byte[] state, int entry, boolean tailCall, int loopHead) throws UnsupportedCodeException
+        {
+            MethodJit.FunctionShape shape = jit.getShape(entry);
+            int first = state.length - shape.numberOfArgs();
+            FunctionInfo callee = getFunction(entry, Arrays.copyOfRange(state, first, state.length));
+
+            //A tail call of the function to itself becomes a jump back to its start, so it runs in constant space
+            if(tailCall && callee == this.function)
+            {
+                for(int i = 0; i < shape.numberOfArgs(); i++)
+                    copy(first + i, i, state[first + i]);
+
+                this.code.branch(GOTO, loopHead);
+                return;
+            }
+
+            for(int i = first; i < state.length; i++)
+                pushArgument(i, state[i]);
+
+            this.code.op(INVOKESTATIC, this.writer.methodConstant(className, callee.methodName, callee.descriptor()));
+
+            if(!callee.returnsValue)
+                return;
+
+            byte returnType = callee.returnType;
+
+            if(returnType == NIL)
+            {
+                storeNil(first);
+                return;
+            }
+
+            storeValue(first, returnType);
+
+            if(this.flags[first] && base(returnType) != STRING)
+            {
+                if(maybeNil(returnType))
+                    this.code.op(GETSTATIC, this.writer.fieldConstant(className, RETURNED_NIL, "Z"));
+                else
+                    this.code.op(ICONST_0);
+
+                this.code.local(ISTORE, local(first, FLAG_LOCAL));
+            }
+        }
+
+        private void returnValue(int top, byte type)
+        {
+            byte returnType = this.function.returnType;
+
+            if(returnType == NIL)
+            {
+                this.code.op(RETURN);
+                return;
+            }
+
+            byte base = base(returnType);
+
+            if(maybeNil(returnType) && base != STRING)
+            {
+                if(type == NIL)
+                    this.code.op(ICONST_0 + 1);
+                else if(maybeNil(type))
+                    this.code.local(ILOAD, local(top, FLAG_LOCAL));
+                else
+                    this.code.op(ICONST_0);
+
+                this.code.op(PUTSTATIC, this.writer.fieldConstant(className, RETURNED_NIL, "Z"));
+            }
+
+            if(type == NIL)
+                this.code.op(base == DOUBLE ? DCONST_0 : base == STRING ? ACONST_NULL : ICONST_0);
+            else
+                load(top, type);
+
+            this.code.op(base == DOUBLE ? DRETURN : base == STRING ? ARETURN : IRETURN);
+        }
+
+        void write() throws UnsupportedCodeException
+        {
+            byte[] instructions = AotTranslator.this.code;
+            int[] labels = new int[instructions.length];
+            byte[][] states = this.function.states;
+
+            for(int i = 0; i < labels.length; i++)
+                labels[i] = states[i] != null ? this.code.newLabel() : -1;
+
+            prologue();
+
+            int loopHead = this.code.newLabel();
+            this.code.bind(loopHead);
+            this.code.branch(GOTO, labels[this.function.entry]);
+
+            for(int position = 0; position < instructions.length; position++)
+            {
+                byte[] state = states[position];
+
+                if(state == null)
+                    continue;
+
+                this.code.bind(labels[position]);
+
+                OpCode instruction = OPCODES[instructions[position]];
+                int argument = arguments[position];
+                int top = state.length - 1;
+
+                switch (instruction)
+                {
+                    case iconst ->
+                    {
+                        this.code.pushInt(this.writer, argument);
+                        store(top + 1, INT);
+                    }
+
+                    case dconst ->
+                    {
+                        this.code.op(GETSTATIC, this.writer.fieldConstant(className, constantName(argument), "D"));
+                        store(top + 1, DOUBLE);
+                    }
+
+                    case sconst ->
+                    {
+                        this.code.op(GETSTATIC, this.writer.fieldConstant(className, constantName(argument), "Ljava/lang/String;"));
+                        store(top + 1, STRING);
+                    }
+
+                    case tconst, fconst ->
+                    {
+                        this.code.op(instruction == OpCode.tconst ? ICONST_0 + 1 : ICONST_0);
+                        store(top + 1, BOOLEAN);
+                    }
+
+                    case lload ->
+                    {
+                        int index = slotIndex(this.function, argument, state.length);
+                        copy(index, top + 1, state[index]);
+                    }
+
+                    case lstore -> copy(top, slotIndex(this.function, argument, top), state[top]);
+
+                    case lalloc ->
+                    {
+                        for(int i = 1; i <= argument; i++)
+                            storeNil(top + i);
+                    }
+
+                    case pop -> { }
+
+                    case galloc ->
+                    {
+                        for(int i = globalBase[position]; i < globalBase[position] + argument; i++)
+                        {
+                            byte type = globalTypes[i];
+
+                            if(type == NIL)
+                                continue;
+
+                            if(base(type) == STRING)
+                            {
+                                this.code.op(ACONST_NULL);
+                                this.code.op(PUTSTATIC, this.writer.fieldConstant(className, globalName(i), TEXT));
+                            }
+                            else
+                            {
+                                this.code.op(ICONST_0 + 1);
+                                this.code.op(PUTSTATIC, this.writer.fieldConstant(className, globalNilName(i), "Z"));
+                            }
+                        }
+                    }
+
+                    case gload ->
+                    {
+                        byte type = globalTypes[argument];
+
+                        if(type == NIL)
+                        {
+                            storeNil(top + 1);
+                            break;
+                        }
+
+                        this.code.op(GETSTATIC, this.writer.fieldConstant(className, globalName(argument), typeDescriptor(type)));
+                        storeValue(top + 1, type);
+
+                        if(this.flags[top + 1] && base(type) != STRING)
+                        {
+                            this.code.op(GETSTATIC, this.writer.fieldConstant(className, globalNilName(argument), "Z"));
+                            this.code.local(ISTORE, local(top + 1, FLAG_LOCAL));
+                        }
+                    }
+
+                    case gstore ->
+                    {
+                        byte globalType = globalTypes[argument];
+                        byte type = state[top];
+
+                        if(globalType == NIL)
+                            break;
+
+                        boolean isString = base(globalType) == STRING;
+
+                        if(type == NIL)
+                        {
+                            this.code.op(isString ? ACONST_NULL : ICONST_0 + 1);
+                        }
+                        else
+                        {
+                            load(top, type);
+                            this.code.op(PUTSTATIC, this.writer.fieldConstant(className, globalName(argument), typeDescriptor(globalType)));
+
+                            if(isString)
+                                break;
+
+                            if(maybeNil(type))
+                                this.code.local(ILOAD, local(top, FLAG_LOCAL));
+                            else
+                                this.code.op(ICONST_0);
+                        }
+
+                        this.code.op(PUTSTATIC, isString
+                                ? this.writer.fieldConstant(className, globalName(argument), TEXT)
+                                : this.writer.fieldConstant(className, globalNilName(argument), "Z"));
+                    }
+
+                    case iadd, isub, imult, idiv, imod, dadd, dsub, dmult, ddiv ->
+                    {
+                        String message = switch (instruction)
+                        {
+                            case iadd, dadd -> ADDITION_NIL_ERROR;
+                            case isub, dsub -> SUBTRACTION_NIL_ERROR;
+                            case imult, dmult -> MULTIPLICATION_NIL_ERROR;
+                            case idiv, ddiv -> DIVISION_NIL_ERROR;
+                            default -> MOD_NIL_ERROR;
+                        };
+
+                        boolean isDouble = instruction == OpCode.dadd || instruction == OpCode.dsub
+                                || instruction == OpCode.dmult || instruction == OpCode.ddiv;
+
+                        if(checkOperands(state, 2, isDouble ? DOUBLE : INT, message))
+                            break;
+
+                        if(instruction == OpCode.idiv || instruction == OpCode.imod || instruction == OpCode.ddiv)
+                        {
+                            load(top, state[top]);
+                            this.code.op(INVOKESTATIC, this.writer.methodConstant("tVM/JitRuntime", "checkDivisor", isDouble ? "(D)V" : "(I)V"));
+                        }
+
+                        load(top - 1, state[top - 1]);
+                        load(top, state[top]);
+
+                        this.code.op(switch (instruction)
+                        {
+                            case iadd -> IADD;
+                            case isub -> ISUB;
+                            case imult -> IMUL;
+                            case idiv -> IDIV;
+                            case imod -> IREM;
+                            case dadd -> DADD;
+                            case dsub -> DSUB;
+                            case dmult -> DMUL;
+                            default -> DDIV;
+                        });
+
+                        store(top - 1, isDouble ? DOUBLE : INT);
+                    }
+
+                    case iuminus, duminus ->
+                    {
+                        if(checkOperands(state, 1, instruction == OpCode.iuminus ? INT : DOUBLE, UNARY_NIL_ERROR))
+                            break;
+
+                        load(top, state[top]);
+                        this.code.op(instruction == OpCode.iuminus ? INEG : DNEG);
+                        store(top, instruction == OpCode.iuminus ? INT : DOUBLE);
+                    }
+
+                    case not ->
+                    {
+                        if(checkOperands(state, 1, BOOLEAN, UNARY_NIL_ERROR))
+                            break;
+
+                        load(top, state[top]);
+                        this.code.op(ICONST_0 + 1);
+                        this.code.op(IXOR);
+                        store(top, BOOLEAN);
+                    }
+
+                    case itod ->
+                    {
+                        if(checkOperands(state, 1, INT, CAST_NIL_ERROR))
+                            break;
+
+                        load(top, state[top]);
+                        this.code.op(I2D);
+                        store(top, DOUBLE);
+                    }
+
+                    case itos, dtos, btos ->
+                    {
+                        byte type = instruction == OpCode.itos ? INT : instruction == OpCode.dtos ? DOUBLE : BOOLEAN;
+
+                        if(checkOperands(state, 1, type, CAST_NIL_ERROR))
+                            break;
+
+                        load(top, state[top]);
+                        this.code.op(INVOKESTATIC, this.writer.methodConstant("java/lang/String", "valueOf", switch (instruction)
+                        {
+                            case itos -> "(I)Ljava/lang/String;";
+                            case dtos -> "(D)Ljava/lang/String;";
+                            default -> "(Z)Ljava/lang/String;";
+                        }));
+                        store(top, STRING);
+                    }
+
+                    case ieq, ineq, ilt, ileq, beq, bneq ->
+                    {
+                        boolean isBoolean = instruction == OpCode.beq || instruction == OpCode.bneq;
+
+                        if(checkOperands(state, 2, isBoolean ? BOOLEAN : INT, COMPARE_NIL_ERROR))
+                            break;
+
+                        load(top - 1, state[top - 1]);
+                        load(top, state[top]);
+
+                        JitTranslator.booleanResult(this.code, switch (instruction)
+                        {
+                            case ieq, beq -> IF_ICMPNE;
+                            case ineq, bneq -> IF_ICMPEQ;
+                            case ilt -> IF_ICMPGE;
+                            default -> IF_ICMPGT;
+                        });
+
+                        store(top - 1, BOOLEAN);
+                    }
+
+                    case deq, dneq, dlt, dleq ->
+                    {
+                        if(checkOperands(state, 2, DOUBLE, COMPARE_NIL_ERROR))
+                            break;
+
+                        load(top - 1, state[top - 1]);
+                        load(top, state[top]);
+
+                        //dcmpg makes NaN compare as greater so < and <= are false for it, like in Java
+                        this.code.op(instruction == OpCode.deq || instruction == OpCode.dneq ? DCMPL : DCMPG);
+
+                        JitTranslator.booleanResult(this.code, switch (instruction)
+                        {
+                            case deq -> IFNE;
+                            case dneq -> IFEQ;
+                            case dlt -> IFGE;
+                            default -> IFGT;
+                        });
+
+                        store(top - 1, BOOLEAN);
+                    }
+
+                    case and, or ->
+                    {
+                        if(checkOperands(state, 2, BOOLEAN, COMPARE_NIL_ERROR))
+                            break;
+
+                        load(top - 1, state[top - 1]);
+                        load(top, state[top]);
+                        this.code.op(instruction == OpCode.and ? IAND : IOR);
+                        store(top - 1, BOOLEAN);
+                    }
+
+                    case sadd ->
+                    {
+                        if(checkOperands(state, 2, STRING, ADDITION_NIL_ERROR))
+                            break;
+
+                        load(top - 1, state[top - 1]);
+                        load(top, state[top]);
+                        this.code.op(INVOKESTATIC, this.writer.methodConstant("tVM/ConcatString", "concat", "(" + TEXT + TEXT + ")" + TEXT));
+                        store(top - 1, STRING);
+                    }
+
+                    case seq, sneq ->
+                    {
+                        if(checkOperands(state, 2, STRING, COMPARE_NIL_ERROR))
+                            break;
+
+                        load(top - 1, state[top - 1]);
+                        load(top, state[top]);
+                        this.code.op(INVOKESTATIC, this.writer.methodConstant("tVM/ConcatString", "contentEquals", "(" + TEXT + TEXT + ")Z"));
+
+                        if(instruction == OpCode.sneq)
+                        {
+                            this.code.op(ICONST_0 + 1);
+                            this.code.op(IXOR);
+                        }
+
+                        store(top - 1, BOOLEAN);
+                    }
+
+                    case iprint, dprint, sprint, bprint ->
+                    {
+                        byte type = switch (instruction)
+                        {
+                            case iprint -> INT;
+                            case dprint -> DOUBLE;
+                            case sprint -> STRING;
+                            default -> BOOLEAN;
+                        };
+
+                        //dprint of the tVM reports a NIL value as a comparison
+                        if(checkOperands(state, 1, type, instruction == OpCode.dprint ? COMPARE_NIL_ERROR : PRINT_NIL_ERROR))
+                            break;
+
+                        load(top, state[top]);
+                        this.code.op(INVOKESTATIC, this.writer.methodConstant(RUNTIME_CLASS, switch (instruction)
+                        {
+                            case iprint -> "printInt";
+                            case dprint -> "printDouble";
+                            case sprint -> "printString";
+                            default -> "printBoolean";
+                        }, switch (instruction)
+                        {
+                            case iprint -> "(I)V";
+                            case dprint -> "(D)V";
+                            case sprint -> "(" + TEXT + ")V";
+                            default -> "(Z)V";
+                        }));
+                    }
+
+                    case jump -> this.code.branch(GOTO, labels[argument]);
+
+                    case jumpt, jumpf ->
+                    {
+                        //jumps don't check for NIL first, a NIL condition is a failed cast to Boolean
+                        if(checkOperands(state, 1, BOOLEAN, castError(BOOLEAN)))
+                            break;
+
+                        load(top, state[top]);
+                        this.code.branch(instruction == OpCode.jumpt ? IFNE : IFEQ, labels[argument]);
+                    }
+
+                    case call, tcall -> call(state, argument, instruction == OpCode.tcall, loopHead);
+
+                    case ret, halt -> this.code.op(RETURN);
+
+                    case retval -> returnValue(top, state[top]);
+
+                    default -> throw new UnsupportedCodeException("Unsupported instruction " + instruction);
+                }
+            }
+
+            this.code.setMaxs(8 + 3 * this.function.maxCallArguments, local(this.function.maxDepth, 0));
+
+            if(this.code.length() > 65535)
+                throw new UnsupportedCodeException("Function " + this.function.methodName + " is too large");
+
+            this.writer.addMethod(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_STATIC, this.function.methodName, this.function.descriptor(), this.code);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package tVM;
+
+import ErrorHandler.ErrorLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Runs many Sol programs at once inside one JVM, one virtual thread per run. Each program is loaded once and its
+//Program is shared by all of its runs, every run gets its own tVM and ExecutionContext and its output is captured.
+public class BatchRunner
+{
+    public record RunResult(String file, int run, long latencyNanos, String output, String fault) {}
+
+    private final VMOptions options;
+
+    public BatchRunner(VMOptions options)
+    {
+        if(options.listener() != null)
+            throw new IllegalArgumentException("Execution listeners can't be shared by concurrent runs.");
+
+        this.options = options;
+    }
+
+    //Runs every program runsPerProgram times, the results are in submission order
+    public List<RunResult> run(LinkedHashMap<String, Program> programs, int runsPerProgram) throws Exception
+    {
+        ArrayList<Future<RunResult>> futures = new ArrayList<>();
+
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for(var entry : programs.entrySet())
+                for(int run = 0; run < runsPerProgram; run++)
+                {
+                    String file = entry.getKey();
+                    Program program = entry.getValue();
+                    int runNumber = run;
+
+                    futures.add(executor.submit(() -> runOnce(file, runNumber, program)));
+                }
+        }
+
+        ArrayList<RunResult> results = new ArrayList<>(futures.size());
+        for(Future<RunResult> future : futures)
+            results.add(future.get());
+
+        return results;
+    }
+
+    private RunResult runOnce(String file, int run, Program program)
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExecutionContext context = new ExecutionContext(new OutputBuffer(output, StandardCharsets.UTF_8));
+        String fault = null;
+
+        long start = System.nanoTime();
+        try
+        {
+            new tVM(this.options).run(program, context);
+        }
+        catch(VMFault e)
+        {
+            fault = e.getMessage();
+        }
+        long latency = System.nanoTime() - start;
+
+        return new RunResult(file, run, latency, output.toString(StandardCharsets.UTF_8), fault);
+    }
+
+    private static String milliseconds(long nanos)
+    {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double fraction)
+    {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public static void report(List<RunResult> results, long wallNanos, PrintStream output)
+    {
+        LinkedHashMap<String, ArrayList<RunResult>> byFile = new LinkedHashMap<>();
+
+        for(RunResult result : results)
+            byFile.computeIfAbsent(result.file(), file -> new ArrayList<>()).add(result);
+
+        for(var entry : byFile.entrySet())
+        {
+            List<RunResult> runs = entry.getValue();
+            long[] latencies = new long[runs.size()];
+            int faults = 0;
+
+            for(int i = 0; i < latencies.length; i++)
+            {
+                latencies[i] = runs.get(i).latencyNanos();
+
+                if(runs.get(i).fault() != null)
+                    faults++;
+            }
+
+            Arrays.sort(latencies);
+
+            output.println(entry.getKey() + ": " + runs.size() + " runs, " + faults + " faults, latency min "
+                    + milliseconds(latencies[0]) + ", p50 " + milliseconds(percentile(latencies, 0.5))
+                    + ", p99 " + milliseconds(percentile(latencies, 0.99)) + ", max " + milliseconds(latencies[latencies.length - 1]));
+        }
+
+        double seconds = wallNanos / 1_000_000_000.0;
+        output.println("Total: " + results.size() + " runs in " + milliseconds(wallNanos) + ", "
+                + String.format("%.1f", results.size() / seconds) + " runs/s");
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        VMOptions options = VMOptions.defaults();
+        int runsPerProgram = 1;
+        boolean showOutput = false;
+        ArrayList<String> inputFiles = new ArrayList<>();
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("-runs="))
+                runsPerProgram = Integer.parseInt(arg.substring("-runs=".length()));
+            else if (arg.equals("-threaded"))
+                options = options.withThreaded(true);
+            else if (arg.equals("-no-superinstructions"))
+                options = options.withSuperinstructions(Superinstructions.none());
+            else if (arg.equals("-jit"))
+                options = options.withJitThreshold(MethodJit.DEFAULT_THRESHOLD);
+            else if (arg.equals("-show-output"))
+                showOutput = true;
+            else
+                inputFiles.add(arg);
+        }
+
+        if (inputFiles.isEmpty() || runsPerProgram < 1)
+            ErrorLog.fatalError("Wrong arguments. tVM.BatchRunner [-runs=N] [-threaded] [-no-superinstructions] [-jit] [-show-output] [FILE]...");
+
+        LinkedHashMap<String, Program> programs = new LinkedHashMap<>();
+
+        for (String inputFile : inputFiles)
+        {
+            if (!new File(inputFile).exists())
+                ErrorLog.fatalError("File " + inputFile + " does not exist.");
+
+            try
+            {
+                programs.put(inputFile, Program.load(Path.of(inputFile)));
+            }
+            catch (InvalidProgramException | IOException e)
+            {
+                ErrorLog.fatalError(inputFile + ": " + e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        List<RunResult> results = new BatchRunner(options).run(programs, runsPerProgram);
+        long wallNanos = System.nanoTime() - start;
+
+        if (showOutput)
+        {
+            for (RunResult result : results)
+            {
+                System.out.println("== " + result.file() + " #" + result.run());
+                System.out.print(result.output());
+
+                if (result.fault() != null)
+                    System.out.println("Fatal Error: " + result.fault());
+            }
+        }
+
+        report(results, wallNanos, System.out);
+    }
+}
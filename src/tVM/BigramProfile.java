@@ -0,0 +1,91 @@
+package tVM;
+
+import ErrorHandler.ErrorLog;
+
+import java.io.*;
+
+import solUtils.OpCode;
+
+//Counts how many times each pair of consecutive opcodes was executed
+public class BigramProfile implements ExecutionListener
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+    private static final int SIZE = OpCode.tcall.ordinal() + 1;
+
+    private final long[] counts;
+    private long total;
+    private int previous;
+
+    public BigramProfile()
+    {
+        this.counts = new long[SIZE * SIZE];
+        this.total = 0;
+        this.previous = OpCode.halt.ordinal();
+    }
+
+    @Override
+    public void beforeInstruction(int position, OpCode instruction, int argument, OperandStack stack, OperandStack globals, int framePointer)
+    {
+        record(this.previous, instruction.ordinal());
+        this.previous = instruction.ordinal();
+    }
+
+    public void record(int previous, int current)
+    {
+        this.counts[previous * SIZE + current]++;
+        this.total++;
+    }
+
+    public long getCount(OpCode previous, OpCode current)
+    {
+        return this.counts[previous.ordinal() * SIZE + current.ordinal()];
+    }
+
+    public long getTotal()
+    {
+        return this.total;
+    }
+
+    //Writes one "previous current count" line per bigram that was executed
+    public void write(String outputFile) throws IOException
+    {
+        try(PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(outputFile))))
+        {
+            for(int i = 0; i < this.counts.length; i++)
+                if(this.counts[i] > 0)
+                    writer.println(OPCODES[i / SIZE].name() + " " + OPCODES[i % SIZE].name() + " " + this.counts[i]);
+        }
+    }
+
+    public static BigramProfile read(String inputFile) throws IOException
+    {
+        BigramProfile profile = new BigramProfile();
+
+        try(BufferedReader reader = new BufferedReader(new FileReader(inputFile)))
+        {
+            String line;
+            while((line = reader.readLine()) != null)
+            {
+                String[] fields = line.trim().split("\\s+");
+
+                if(fields.length != 3)
+                    continue;
+
+                try
+                {
+                    int index = OpCode.valueOf(fields[0]).ordinal() * SIZE + OpCode.valueOf(fields[1]).ordinal();
+                    long count = Long.parseLong(fields[2]);
+
+                    profile.counts[index] += count;
+                    profile.total += count;
+                }
+                catch(IllegalArgumentException | ArrayIndexOutOfBoundsException e)
+                {
+                    ErrorLog.fatalError("Invalid bigram profile line: " + line);
+                }
+            }
+        }
+
+        return profile;
+    }
+}
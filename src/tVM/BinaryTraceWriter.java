@@ -0,0 +1,129 @@
+package tVM;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import solUtils.OpCode;
+
+//Records a fixed size entry per executed instruction. Without a ring capacity every entry is streamed to the file,
+//with one only the last entries are kept in memory and written when the writer is closed.
+//
+//File layout: magic, version, number of executed instructions, number of records, then the records, each one is
+//position (int), opcode (byte), tag of the top of the stack (byte), stack size (int), argument (int) and the top
+//of the stack (long, raw double bits for reals and the length for strings)
+public class BinaryTraceWriter implements ExecutionListener, Closeable
+{
+    public static final int MAGIC = 0x54564D54;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 4 + 2 + 8 + 8;
+    public static final int RECORD_SIZE = 4 + 1 + 1 + 4 + 4 + 8;
+
+    private static final int STREAM_BUFFER_RECORDS = 8192;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean ring;
+
+    private long executed;
+    private boolean closed;
+
+    public BinaryTraceWriter(String outputFile, int ringCapacity) throws IOException
+    {
+        this.channel = FileChannel.open(Path.of(outputFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.ring = ringCapacity > 0;
+        this.buffer = ByteBuffer.allocate(RECORD_SIZE * (this.ring ? ringCapacity : STREAM_BUFFER_RECORDS));
+        this.executed = 0;
+        this.closed = false;
+
+        //The header is written again with the final counts on close
+        this.channel.write(header(0, 0));
+    }
+
+    public BinaryTraceWriter(String outputFile) throws IOException
+    {
+        this(outputFile, 0);
+    }
+
+    private static ByteBuffer header(long executed, long records)
+    {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).putLong(executed).putLong(records).flip();
+    }
+
+    @Override
+    public void beforeInstruction(int position, OpCode instruction, int argument, OperandStack stack, OperandStack globals, int framePointer) throws IOException
+    {
+        if(!this.buffer.hasRemaining())
+        {
+            if(this.ring)
+                this.buffer.clear();
+            else
+                flush();
+        }
+
+        int size = stack.size();
+        byte tag = size > 0 ? stack.tagAt(size - 1) : OperandStack.NIL;
+        long top = switch (tag)
+        {
+            case OperandStack.INT -> stack.intAt(size - 1);
+            case OperandStack.DOUBLE -> Double.doubleToRawLongBits(stack.doubleAt(size - 1));
+            case OperandStack.BOOLEAN -> stack.booleanAt(size - 1) ? 1 : 0;
+            case OperandStack.STRING -> stack.textAt(size - 1).length();
+            default -> 0;
+        };
+
+        this.buffer.putInt(position)
+                .put((byte) instruction.ordinal())
+                .put(tag)
+                .putInt(size)
+                .putInt(argument)
+                .putLong(top);
+
+        this.executed++;
+    }
+
+    private void flush() throws IOException
+    {
+        this.buffer.flip();
+
+        while(this.buffer.hasRemaining())
+            this.channel.write(this.buffer);
+
+        this.buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if(this.closed)
+            return;
+
+        this.closed = true;
+        long records;
+
+        if(this.ring)
+        {
+            //After wrapping around the oldest record is the one the next write would overwrite
+            long capacity = this.buffer.capacity() / RECORD_SIZE;
+            records = Math.min(this.executed, capacity);
+
+            ByteBuffer newest = this.buffer.duplicate().flip();
+            if(this.executed > capacity)
+                this.channel.write(this.buffer.duplicate().position(this.buffer.position()).limit(this.buffer.capacity()));
+
+            while(newest.hasRemaining())
+                this.channel.write(newest);
+        }
+        else
+        {
+            records = this.executed;
+            flush();
+        }
+
+        this.channel.write(header(this.executed, records), 0);
+        this.channel.close();
+    }
+}
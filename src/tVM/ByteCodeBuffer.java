@@ -1,54 +1,138 @@
 package tVM;
 
-import ErrorHandler.ErrorLog;
-
 import java.io.*;
-
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Reads the big-endian values DataOutputStream wrote to a bytecode file straight out of a ByteBuffer,
+//a file is mapped into memory instead of being read through a stream. The varints and UTF-8 strings are
+//the ones of version 2 files, see ByteCodeFormat.
 public class ByteCodeBuffer
 {
-    private final DataInputStream byteBuffer;
+    private final ByteBuffer byteBuffer;
 
     public ByteCodeBuffer(String byteCodeFile) throws IOException
     {
-        this.byteBuffer = new DataInputStream(new FileInputStream(byteCodeFile));
+        this(map(Path.of(byteCodeFile)));
+    }
+
+    public ByteCodeBuffer(byte[] byteCode)
+    {
+        this(ByteBuffer.wrap(byteCode));
+    }
+
+    public ByteCodeBuffer(ByteBuffer byteCode)
+    {
+        this.byteBuffer = byteCode.slice();
+    }
+
+    //The mapping stays valid after the channel is closed, until the buffer is garbage collected
+    public static ByteBuffer map(Path byteCodeFile) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(byteCodeFile, StandardOpenOption.READ))
+        {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void require(int bytes) throws EOFException
+    {
+        if(this.byteBuffer.remaining() < bytes)
+            throw new EOFException("Out of file.");
     }
 
     public byte getByte() throws IOException
     {
-        if(!isAvailable())
-            ErrorLog.fatalError("Out of file.");
+        require(Byte.BYTES);
+        return this.byteBuffer.get();
+    }
 
-        return this.byteBuffer.readByte();
+    public int getUnsignedShort() throws IOException
+    {
+        require(Short.BYTES);
+        return Short.toUnsignedInt(this.byteBuffer.getShort());
     }
 
     public int getInt() throws IOException
     {
-        if(!isAvailable())
-            ErrorLog.fatalError("Out of file.");
-        return this.byteBuffer.readInt();
+        require(Integer.BYTES);
+        return this.byteBuffer.getInt();
+    }
+
+    //Seven bits a byte, the lowest first, every byte but the last has its top bit set
+    public int getVarInt() throws IOException
+    {
+        //Most operands fit in one byte
+        if(this.byteBuffer.hasRemaining() && this.byteBuffer.get(this.byteBuffer.position()) >= 0)
+            return this.byteBuffer.get();
+
+        int value = 0;
+
+        for(int shift = 0; shift < Integer.SIZE; shift += 7)
+        {
+            byte next = getByte();
+            value |= (next & 0x7F) << shift;
+
+            if(next >= 0)
+                return value;
+        }
+
+        throw new IOException("Invalid varint.");
     }
 
     public char getChar() throws IOException
     {
-        return byteBuffer.readChar();
+        require(Character.BYTES);
+        return this.byteBuffer.getChar();
     }
 
+    //Strings are a length followed by that many chars, they are copied out in one go
     public String getString() throws IOException
     {
-        StringBuilder result = new StringBuilder();
         int length = getInt();
 
-        for(int i = 0; i < length; i++)
+        if(length < 0)
+            throw new IOException("Invalid string length " + length + ".");
+
+        char[] characters = new char[length];
+
+        try
+        {
+            this.byteBuffer.asCharBuffer().get(characters);
+        }
+        catch(BufferUnderflowException e)
         {
-            result.append(getChar());
+            throw new EOFException("Out of file.");
         }
 
-        return result.toString();
+        this.byteBuffer.position(this.byteBuffer.position() + length * Character.BYTES);
+
+        return new String(characters);
+    }
+
+    public String getUtf8String() throws IOException
+    {
+        int length = getVarInt();
+
+        if(length < 0)
+            throw new IOException("Invalid string length " + length + ".");
+
+        require(length);
+
+        byte[] characters = new byte[length];
+        this.byteBuffer.get(characters);
+
+        return new String(characters, StandardCharsets.UTF_8);
     }
 
-    public Double getDouble() throws IOException
+    public double getDouble() throws IOException
     {
-        return this.byteBuffer.readDouble();
+        require(Double.BYTES);
+        return this.byteBuffer.getDouble();
     }
 
     public boolean getBoolean() throws IOException
@@ -56,14 +140,25 @@ public class ByteCodeBuffer
         return getByte() == 1;
     }
 
+    //Checks the next int without reading it
+    public boolean startsWith(int value)
+    {
+        return this.byteBuffer.remaining() >= Integer.BYTES && this.byteBuffer.getInt(this.byteBuffer.position()) == value;
+    }
+
+    public int position()
+    {
+        return this.byteBuffer.position();
+    }
 
-    public boolean isAvailable() throws IOException
+    public boolean isAvailable()
     {
-        return this.byteBuffer.available() > 0;
+        return this.byteBuffer.hasRemaining();
     }
 
-    public void close() throws IOException
+    //Bytes left to read, an upper bound for the number of instructions still in the file
+    public int remaining()
     {
-        this.byteBuffer.close();
+        return this.byteBuffer.remaining();
     }
 }
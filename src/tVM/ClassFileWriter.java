@@ -0,0 +1,492 @@
+package tVM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+//Minimal writer for the class files produced by the method JIT and solaot. It emits version 49 class files,
+//which are checked by the type inferencing verifier and so don't need StackMapTable attributes.
+public final class ClassFileWriter
+{
+    private static final int CLASS_FILE_VERSION = 49;
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream constantBytes;
+    private final DataOutputStream constants;
+    private final HashMap<String, Integer> constantCache;
+    private int constantCount;
+
+    private final ByteArrayOutputStream fieldBytes;
+    private final DataOutputStream fields;
+    private int fieldCount;
+
+    private final ByteArrayOutputStream methodBytes;
+    private final DataOutputStream methods;
+    private int methodCount;
+
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+
+    public ClassFileWriter(String className, String superName, String... interfaceNames)
+    {
+        this.constantBytes = new ByteArrayOutputStream();
+        this.constants = new DataOutputStream(this.constantBytes);
+        this.constantCache = new HashMap<>();
+        this.constantCount = 1;
+
+        this.fieldBytes = new ByteArrayOutputStream();
+        this.fields = new DataOutputStream(this.fieldBytes);
+        this.fieldCount = 0;
+
+        this.methodBytes = new ByteArrayOutputStream();
+        this.methods = new DataOutputStream(this.methodBytes);
+        this.methodCount = 0;
+
+        this.thisClass = classConstant(className);
+        this.superClass = classConstant(superName);
+        this.interfaces = new int[interfaceNames.length];
+
+        for(int i = 0; i < interfaceNames.length; i++)
+            this.interfaces[i] = classConstant(interfaceNames[i]);
+    }
+
+    private int addConstant(String key, int size, ConstantWriter writer)
+    {
+        Integer cached = this.constantCache.get(key);
+
+        if(cached != null)
+            return cached;
+
+        try
+        {
+            writer.write(this.constants);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        int index = this.constantCount;
+        this.constantCount += size;
+        this.constantCache.put(key, index);
+
+        return index;
+    }
+
+    private interface ConstantWriter
+    {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    public int utf8Constant(String value)
+    {
+        return addConstant("U" + value, 1, output ->
+        {
+            output.writeByte(CONSTANT_UTF8);
+            output.writeUTF(value);
+        });
+    }
+
+    public int classConstant(String internalName)
+    {
+        int name = utf8Constant(internalName);
+
+        return addConstant("C" + internalName, 1, output ->
+        {
+            output.writeByte(CONSTANT_CLASS);
+            output.writeShort(name);
+        });
+    }
+
+    public int stringConstant(String value)
+    {
+        int utf8 = utf8Constant(value);
+
+        return addConstant("S" + value, 1, output ->
+        {
+            output.writeByte(CONSTANT_STRING);
+            output.writeShort(utf8);
+        });
+    }
+
+    public int integerConstant(int value)
+    {
+        return addConstant("I" + value, 1, output ->
+        {
+            output.writeByte(CONSTANT_INTEGER);
+            output.writeInt(value);
+        });
+    }
+
+    //Doubles take two constant pool entries
+    public int doubleConstant(double value)
+    {
+        return addConstant("D" + Double.doubleToRawLongBits(value), 2, output ->
+        {
+            output.writeByte(CONSTANT_DOUBLE);
+            output.writeDouble(value);
+        });
+    }
+
+    private int nameAndTypeConstant(String name, String descriptor)
+    {
+        int memberName = utf8Constant(name);
+        int memberDescriptor = utf8Constant(descriptor);
+
+        return addConstant("N" + name + descriptor, 1, output ->
+        {
+            output.writeByte(CONSTANT_NAME_AND_TYPE);
+            output.writeShort(memberName);
+            output.writeShort(memberDescriptor);
+        });
+    }
+
+    public int methodConstant(String owner, String name, String descriptor)
+    {
+        int ownerClass = classConstant(owner);
+        int nameAndType = nameAndTypeConstant(name, descriptor);
+
+        return addConstant("M" + owner + "." + name + descriptor, 1, output ->
+        {
+            output.writeByte(CONSTANT_METHODREF);
+            output.writeShort(ownerClass);
+            output.writeShort(nameAndType);
+        });
+    }
+
+    public int fieldConstant(String owner, String name, String descriptor)
+    {
+        int ownerClass = classConstant(owner);
+        int nameAndType = nameAndTypeConstant(name, descriptor);
+
+        return addConstant("F" + owner + "." + name + descriptor, 1, output ->
+        {
+            output.writeByte(CONSTANT_FIELDREF);
+            output.writeShort(ownerClass);
+            output.writeShort(nameAndType);
+        });
+    }
+
+    public int getThisClass()
+    {
+        return this.thisClass;
+    }
+
+    public void addField(int access, String name, String descriptor)
+    {
+        int fieldName = utf8Constant(name);
+        int fieldDescriptor = utf8Constant(descriptor);
+
+        try
+        {
+            this.fields.writeShort(access);
+            this.fields.writeShort(fieldName);
+            this.fields.writeShort(fieldDescriptor);
+            this.fields.writeShort(0);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        this.fieldCount++;
+    }
+
+    public void addMethod(int access, String name, String descriptor, Code code)
+    {
+        int methodName = utf8Constant(name);
+        int methodDescriptor = utf8Constant(descriptor);
+        int codeAttribute = utf8Constant("Code");
+        byte[] bytecode = code.toByteArray();
+
+        try
+        {
+            this.methods.writeShort(access);
+            this.methods.writeShort(methodName);
+            this.methods.writeShort(methodDescriptor);
+            this.methods.writeShort(1);
+
+            this.methods.writeShort(codeAttribute);
+            this.methods.writeInt(12 + bytecode.length + 8 * code.handlers.size());
+            this.methods.writeShort(code.maxStack);
+            this.methods.writeShort(code.maxLocals);
+            this.methods.writeInt(bytecode.length);
+            this.methods.write(bytecode);
+
+            this.methods.writeShort(code.handlers.size());
+            for(int[] handler : code.handlers)
+            {
+                this.methods.writeShort(code.labelOffset(handler[0]));
+                this.methods.writeShort(code.labelOffset(handler[1]));
+                this.methods.writeShort(code.labelOffset(handler[2]));
+                this.methods.writeShort(handler[3]);
+            }
+
+            this.methods.writeShort(0);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        this.methodCount++;
+    }
+
+    public byte[] toByteArray()
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(result);
+
+        try
+        {
+            output.writeInt(0xCAFEBABE);
+            output.writeShort(0);
+            output.writeShort(CLASS_FILE_VERSION);
+
+            output.writeShort(this.constantCount);
+            output.write(this.constantBytes.toByteArray());
+
+            output.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            output.writeShort(this.thisClass);
+            output.writeShort(this.superClass);
+
+            output.writeShort(this.interfaces.length);
+            for(int anInterface : this.interfaces)
+                output.writeShort(anInterface);
+
+            output.writeShort(this.fieldCount);
+            output.write(this.fieldBytes.toByteArray());
+
+            output.writeShort(this.methodCount);
+            output.write(this.methodBytes.toByteArray());
+
+            output.writeShort(0);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        return result.toByteArray();
+    }
+
+    //Bytecode of one method, branches refer to labels that are resolved when the code is finished
+    public static class Code
+    {
+        public static final int ACONST_NULL = 1;
+        public static final int ICONST_0 = 3;
+        public static final int DCONST_0 = 14;
+        public static final int BIPUSH = 16;
+        public static final int SIPUSH = 17;
+        public static final int LDC_W = 19;
+        public static final int LDC2_W = 20;
+        public static final int ILOAD = 21;
+        public static final int DLOAD = 24;
+        public static final int ALOAD = 25;
+        public static final int ISTORE = 54;
+        public static final int DSTORE = 57;
+        public static final int ASTORE = 58;
+        public static final int POP = 87;
+        public static final int DUP = 89;
+        public static final int IADD = 96;
+        public static final int DADD = 99;
+        public static final int ISUB = 100;
+        public static final int DSUB = 103;
+        public static final int IMUL = 104;
+        public static final int DMUL = 107;
+        public static final int IDIV = 108;
+        public static final int DDIV = 111;
+        public static final int IREM = 112;
+        public static final int INEG = 116;
+        public static final int DNEG = 119;
+        public static final int IAND = 126;
+        public static final int IOR = 128;
+        public static final int IXOR = 130;
+        public static final int I2D = 135;
+        public static final int DCMPL = 151;
+        public static final int DCMPG = 152;
+        public static final int IFEQ = 153;
+        public static final int IFNE = 154;
+        public static final int IFLT = 155;
+        public static final int IFGE = 156;
+        public static final int IFGT = 157;
+        public static final int IFLE = 158;
+        public static final int IF_ICMPEQ = 159;
+        public static final int IF_ICMPNE = 160;
+        public static final int IF_ICMPLT = 161;
+        public static final int IF_ICMPGE = 162;
+        public static final int IF_ICMPGT = 163;
+        public static final int IF_ICMPLE = 164;
+        public static final int GOTO = 167;
+        public static final int IRETURN = 172;
+        public static final int DRETURN = 175;
+        public static final int ARETURN = 176;
+        public static final int RETURN = 177;
+        public static final int GETSTATIC = 178;
+        public static final int PUTSTATIC = 179;
+        public static final int INVOKEVIRTUAL = 182;
+        public static final int INVOKESPECIAL = 183;
+        public static final int INVOKESTATIC = 184;
+        public static final int NEW = 187;
+        public static final int ATHROW = 191;
+        public static final int WIDE = 196;
+        public static final int IFNONNULL = 199;
+
+        private byte[] bytes;
+        private int length;
+        private int[] labels;
+        private int labelCount;
+        private final ArrayList<int[]> branches;
+        private final ArrayList<int[]> handlers;
+
+        private int maxStack;
+        private int maxLocals;
+
+        public Code()
+        {
+            this.bytes = new byte[256];
+            this.length = 0;
+            this.labels = new int[16];
+            this.labelCount = 0;
+            this.branches = new ArrayList<>();
+            this.handlers = new ArrayList<>();
+        }
+
+        public void setMaxs(int maxStack, int maxLocals)
+        {
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        public int length()
+        {
+            return this.length;
+        }
+
+        public void u1(int value)
+        {
+            if(this.length == this.bytes.length)
+                this.bytes = Arrays.copyOf(this.bytes, this.length * 2);
+
+            this.bytes[this.length++] = (byte) value;
+        }
+
+        public void u2(int value)
+        {
+            u1(value >> 8);
+            u1(value);
+        }
+
+        public void op(int opcode)
+        {
+            u1(opcode);
+        }
+
+        public void op(int opcode, int index)
+        {
+            u1(opcode);
+            u2(index);
+        }
+
+        public int newLabel()
+        {
+            if(this.labelCount == this.labels.length)
+                this.labels = Arrays.copyOf(this.labels, this.labelCount * 2);
+
+            this.labels[this.labelCount] = -1;
+            return this.labelCount++;
+        }
+
+        public void bind(int label)
+        {
+            this.labels[label] = this.length;
+        }
+
+        private int labelOffset(int label)
+        {
+            if(this.labels[label] < 0)
+                throw new IllegalStateException("Unbound label " + label);
+
+            return this.labels[label];
+        }
+
+        public void branch(int opcode, int label)
+        {
+            this.branches.add(new int[]{this.length, label});
+            u1(opcode);
+            u2(0);
+        }
+
+        public void tryCatch(int start, int end, int handler, int catchType)
+        {
+            this.handlers.add(new int[]{start, end, handler, catchType});
+        }
+
+        public void pushInt(ClassFileWriter writer, int value)
+        {
+            if(value >= -1 && value <= 5)
+                u1(ICONST_0 + value);
+            else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+            {
+                u1(BIPUSH);
+                u1(value);
+            }
+            else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+            {
+                u1(SIPUSH);
+                u2(value);
+            }
+            else
+                op(LDC_W, writer.integerConstant(value));
+        }
+
+        //Loads and stores switch to the wide form when the local doesn't fit in a byte
+        public void local(int opcode, int index)
+        {
+            if(index > 255)
+            {
+                u1(WIDE);
+                u1(opcode);
+                u2(index);
+            }
+            else
+            {
+                u1(opcode);
+                u1(index);
+            }
+        }
+
+        public byte[] toByteArray()
+        {
+            for(int[] branch : this.branches)
+            {
+                int offset = labelOffset(branch[1]) - branch[0];
+
+                if(offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+                    throw new IllegalStateException("Branch offset out of range");
+
+                this.bytes[branch[0] + 1] = (byte) (offset >> 8);
+                this.bytes[branch[0] + 2] = (byte) offset;
+            }
+
+            return Arrays.copyOf(this.bytes, this.length);
+        }
+    }
+}
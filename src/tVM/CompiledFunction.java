@@ -0,0 +1,9 @@
+package tVM;
+
+//A Sol function translated to JVM bytecode by the method JIT
+public interface CompiledFunction
+{
+    //Takes the arguments from the top of the stack and replaces them with the returned value,
+    //returns false without touching the stack if the interpreter has to run the call instead
+    boolean invoke(OperandStack stack);
+}
@@ -0,0 +1,87 @@
+package tVM;
+
+//Result of a string concatenation. All the results of a chain of sadds share one StringBuilder and each is just the
+//prefix of its own length, so adding to the newest result appends in place and building a string in a loop is linear.
+//Adding to an older result, whose builder has already grown past it, starts a new builder.
+public final class ConcatString implements CharSequence
+{
+    //Shorter results are plain Strings, copying them costs less than a builder
+    private static final int MINIMUM_LENGTH = 64;
+
+    private final StringBuilder builder;
+    private final int length;
+    private String flat;
+
+    private ConcatString(StringBuilder builder)
+    {
+        this.builder = builder;
+        this.length = builder.length();
+    }
+
+    public static CharSequence concat(CharSequence left, CharSequence right)
+    {
+        if(left instanceof ConcatString rope && rope.builder.length() == rope.length)
+        {
+            append(rope.builder, right);
+            return new ConcatString(rope.builder);
+        }
+
+        int length = left.length() + right.length();
+
+        if(length < MINIMUM_LENGTH)
+            return left.toString().concat(right.toString());
+
+        StringBuilder builder = new StringBuilder(length * 2);
+        append(builder, left);
+        append(builder, right);
+
+        return new ConcatString(builder);
+    }
+
+    private static void append(StringBuilder builder, CharSequence value)
+    {
+        if(value instanceof ConcatString rope)
+            builder.append(rope.builder, 0, rope.length);
+        else
+            builder.append((String) value);
+    }
+
+    public static boolean contentEquals(CharSequence left, CharSequence right)
+    {
+        if(left instanceof String leftString && right instanceof String rightString)
+            return leftString.equals(rightString);
+
+        return left.length() == right.length() && CharSequence.compare(left, right) == 0;
+    }
+
+    @Override
+    public int length()
+    {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        if(index >= this.length)
+            throw new IndexOutOfBoundsException(index);
+
+        return this.builder.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end)
+    {
+        return toString().subSequence(start, end);
+    }
+
+    //The flat String is made once, the first time something needs it
+    @Override
+    public String toString()
+    {
+        if(this.flat == null)
+            this.flat = this.builder.substring(0, this.length);
+
+        return this.flat;
+    }
+}
@@ -0,0 +1,54 @@
+package tVM;
+
+import java.io.PrintStream;
+
+//Everything a single run of a program owns: its stack, its global memory and where its output goes.
+//A context can only be used by one run, so programs never see what another program left behind.
+public class ExecutionContext
+{
+    private final OperandStack stack;
+    private final OperandStack globalMemory;
+    private final OutputBuffer output;
+    private boolean used;
+
+    public ExecutionContext(OutputBuffer output)
+    {
+        this.stack = new OperandStack();
+        this.globalMemory = new OperandStack();
+        this.output = output;
+        this.used = false;
+    }
+
+    public ExecutionContext(PrintStream output)
+    {
+        this(new OutputBuffer(output, output.charset()));
+    }
+
+    public ExecutionContext()
+    {
+        this(System.out);
+    }
+
+    public OperandStack getStack()
+    {
+        return this.stack;
+    }
+
+    public OperandStack getGlobalMemory()
+    {
+        return this.globalMemory;
+    }
+
+    public OutputBuffer getOutput()
+    {
+        return this.output;
+    }
+
+    synchronized void claim()
+    {
+        if(this.used)
+            throw new IllegalStateException("An ExecutionContext can only be used for one run.");
+
+        this.used = true;
+    }
+}
@@ -0,0 +1,28 @@
+package tVM;
+
+import java.util.List;
+
+import solUtils.OpCode;
+
+//Observes every instruction the tVM executes. The interpreter only takes the listening loop when a
+//listener is attached, so runs without one pay nothing for it.
+@FunctionalInterface
+public interface ExecutionListener
+{
+    //Called before the instruction at position runs, the stacks must not be changed by the listener
+    void beforeInstruction(int position, OpCode instruction, int argument, OperandStack stack, OperandStack globals, int framePointer) throws Exception;
+
+    static ExecutionListener all(List<ExecutionListener> listeners)
+    {
+        if(listeners.size() == 1)
+            return listeners.get(0);
+
+        ExecutionListener[] array = listeners.toArray(new ExecutionListener[0]);
+
+        return (position, instruction, argument, stack, globals, framePointer) ->
+        {
+            for(ExecutionListener listener : array)
+                listener.beforeInstruction(position, instruction, argument, stack, globals, framePointer);
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package tVM;
+
+import java.util.Arrays;
+
+//Call frames of the tVM, kept apart from the operand stack. Each frame is the return address and the frame pointer
+//of the caller, stored in two parallel int arrays so calls and returns never touch the operand stack.
+public class FrameStack
+{
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int[] returnAddresses;
+    private int[] framePointers;
+    private int depth;
+
+    public FrameStack()
+    {
+        this.returnAddresses = new int[INITIAL_CAPACITY];
+        this.framePointers = new int[INITIAL_CAPACITY];
+        this.depth = 0;
+    }
+
+    public int depth()
+    {
+        return this.depth;
+    }
+
+    public void push(int returnAddress, int framePointer)
+    {
+        if(this.depth == this.returnAddresses.length)
+        {
+            this.returnAddresses = Arrays.copyOf(this.returnAddresses, this.depth * 2);
+            this.framePointers = Arrays.copyOf(this.framePointers, this.depth * 2);
+        }
+
+        this.returnAddresses[this.depth] = returnAddress;
+        this.framePointers[this.depth++] = framePointer;
+    }
+
+    public int returnAddress()
+    {
+        return this.returnAddresses[this.depth - 1];
+    }
+
+    public int framePointer()
+    {
+        return this.framePointers[this.depth - 1];
+    }
+
+    public void pop()
+    {
+        this.depth--;
+    }
+}
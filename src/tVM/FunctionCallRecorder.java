@@ -0,0 +1,62 @@
+package tVM;
+
+import java.util.Arrays;
+
+//Times Sol function calls as tVM.FunctionCall events. The engines report their calls and returns to it while a recording
+//has the event enabled, calls made inside a function the JIT compiled are timed as part of the call that entered it.
+class FunctionCallRecorder
+{
+    //Open calls, the innermost last
+    private VMEvents.FunctionCall[] frames;
+    private int depth;
+
+    FunctionCallRecorder()
+    {
+        this.frames = new VMEvents.FunctionCall[64];
+        this.depth = 0;
+    }
+
+    void call(int position, int entry)
+    {
+        enter(position, entry, false);
+    }
+
+    //The callee takes over the frame, so the call of the caller ends here
+    void tailCall(int position, int entry)
+    {
+        exit();
+        enter(position, entry, true);
+    }
+
+    void ret()
+    {
+        exit();
+    }
+
+    private void enter(int position, int entry, boolean tailCall)
+    {
+        if(this.depth == this.frames.length)
+            this.frames = Arrays.copyOf(this.frames, this.depth * 2);
+
+        VMEvents.FunctionCall event = new VMEvents.FunctionCall();
+        event.begin();
+        event.function = Program.functionName(entry);
+        event.pc = position;
+        event.tailCall = tailCall;
+
+        this.frames[this.depth++] = event;
+    }
+
+    private void exit()
+    {
+        if(this.depth == 0)
+            return;
+
+        VMEvents.FunctionCall event = this.frames[--this.depth];
+        this.frames[this.depth] = null;
+
+        event.end();
+        if(event.shouldCommit())
+            event.commit();
+    }
+}
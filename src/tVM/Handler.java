@@ -0,0 +1,8 @@
+package tVM;
+
+//An instruction bound to its operands when the program is loaded, executing it returns the next instruction pointer
+@FunctionalInterface
+public interface Handler
+{
+    int execute() throws Exception;
+}
@@ -0,0 +1,12 @@
+package tVM;
+
+//Thrown when a bytecode file can't be loaded into a Program
+public class InvalidProgramException extends Exception
+{
+    private static final long serialVersionUID = 1L;
+
+    public InvalidProgramException(String message)
+    {
+        super(message);
+    }
+}
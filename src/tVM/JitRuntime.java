@@ -0,0 +1,17 @@
+package tVM;
+
+//Runtime checks called from the code generated by the method JIT
+public class JitRuntime
+{
+    public static void checkDivisor(int divisor)
+    {
+        if(divisor == 0)
+            throw new VMFault("Divisor mustn't be 0");
+    }
+
+    public static void checkDivisor(double divisor)
+    {
+        if(divisor == 0)
+            throw new VMFault("Divisor mustn't be 0");
+    }
+}
@@ -0,0 +1,783 @@
+package tVM;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import solUtils.Instruction;
+import solUtils.OpCode;
+
+import static tVM.ClassFileWriter.Code.*;
+
+//Translates a hot Sol function, and every function it calls, from tVM bytecode to JVM bytecode.
+//A type dataflow over the function gives every stack slot a fixed JVM type, each slot becomes a typed JVM
+//local, so the generated methods work on unboxed ints, doubles and booleans only. Functions that use
+//globals, strings, prints or NIL values are rejected and keep running in the interpreter.
+public class JitTranslator
+{
+    public static class UnsupportedCodeException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        public UnsupportedCodeException(String message)
+        {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    private static final byte NIL = OperandStack.NIL;
+    private static final byte INT = OperandStack.INT;
+    private static final byte DOUBLE = OperandStack.DOUBLE;
+    private static final byte BOOLEAN = OperandStack.BOOLEAN;
+    private static final byte STRING = OperandStack.STRING;
+    //Return type of a function that hasn't been analysed yet
+    private static final byte UNKNOWN = 5;
+    //Slot that holds different types depending on the path taken
+    private static final byte CONFLICT = 6;
+
+    private static final int MAX_ROUNDS = 8;
+
+    private static final String CLASS_NAME = "tVM/CompiledSolFunction";
+    private static final String STACK_CLASS = "tVM/OperandStack";
+
+    private class FunctionInfo
+    {
+        final MethodJit.FunctionShape shape;
+        final byte[] argumentTypes;
+        final String methodName;
+        byte returnType;
+        byte[][] states;
+        int maxDepth;
+        int maxCallArguments;
+
+        FunctionInfo(MethodJit.FunctionShape shape, byte[] argumentTypes, int index)
+        {
+            this.shape = shape;
+            this.argumentTypes = argumentTypes;
+            this.methodName = "f" + shape.entry() + "_" + index;
+            this.returnType = shape.returnsValue() ? UNKNOWN : NIL;
+        }
+
+        String descriptor()
+        {
+            StringBuilder result = new StringBuilder("(");
+
+            for(byte type : this.argumentTypes)
+                result.append(typeDescriptor(type));
+
+            return result.append(')').append(this.shape.returnsValue() ? typeDescriptor(this.returnType) : "V").toString();
+        }
+    }
+
+    private final MethodJit jit;
+    private final byte[] code;
+    private final int[] arguments;
+    private final List<Instruction> constPool;
+
+    private final HashMap<String, FunctionInfo> functionCache;
+    private final ArrayList<FunctionInfo> functions;
+
+    public JitTranslator(MethodJit jit, byte[] code, int[] arguments, List<Instruction> constPool)
+    {
+        this.jit = jit;
+        this.code = code;
+        this.arguments = arguments;
+        this.constPool = constPool;
+        this.functionCache = new HashMap<>();
+        this.functions = new ArrayList<>();
+    }
+
+    private static String typeDescriptor(byte type)
+    {
+        return switch (type)
+        {
+            case INT -> "I";
+            case DOUBLE -> "D";
+            case BOOLEAN -> "Z";
+            default -> throw new IllegalStateException("No JVM type for " + type);
+        };
+    }
+
+    private static boolean isConcrete(byte type)
+    {
+        return type == INT || type == DOUBLE || type == BOOLEAN;
+    }
+
+    private FunctionInfo getFunction(int entry, byte[] argumentTypes) throws UnsupportedCodeException
+    {
+        String key = entry + Arrays.toString(argumentTypes);
+        FunctionInfo function = this.functionCache.get(key);
+
+        if(function != null)
+            return function;
+
+        MethodJit.FunctionShape shape = this.jit.getShape(entry);
+
+        if(shape == null || shape.numberOfArgs() != argumentTypes.length)
+            throw new UnsupportedCodeException("Call target " + entry + " is not a function");
+
+        for(byte type : argumentTypes)
+            if(!isConcrete(type))
+                throw new UnsupportedCodeException("Unsupported argument type");
+
+        function = new FunctionInfo(shape, argumentTypes, this.functions.size());
+        this.functionCache.put(key, function);
+        this.functions.add(function);
+
+        return function;
+    }
+
+    public byte[] translate(int entry, byte[] argumentTypes) throws UnsupportedCodeException
+    {
+        FunctionInfo root = getFunction(entry, argumentTypes);
+
+        //Return types of (mutually) recursive functions are only known after their returns were seen,
+        //so the functions are analysed until no return type changes before the final strict pass
+        boolean changed = true;
+        for(int round = 0; changed && round < MAX_ROUNDS; round++)
+        {
+            changed = false;
+            int known = this.functions.size();
+
+            for(int i = 0; i < this.functions.size(); i++)
+            {
+                FunctionInfo function = this.functions.get(i);
+                byte returnType = function.returnType;
+
+                analyse(function, false);
+                changed |= returnType != function.returnType;
+            }
+
+            changed |= known != this.functions.size();
+        }
+
+        for(int i = 0; i < this.functions.size(); i++)
+            analyse(this.functions.get(i), true);
+
+        ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, "java/lang/Object", "tVM/CompiledFunction");
+
+        writeConstructor(writer);
+        writeBridge(writer, root);
+
+        for(FunctionInfo function : this.functions)
+            writeFunction(writer, function);
+
+        return writer.toByteArray();
+    }
+
+    //Index in the state of the slot an lload or lstore refers to, the arguments come first and the locals follow them
+    private int slotIndex(FunctionInfo function, int offset, int stateLength) throws UnsupportedCodeException
+    {
+        int index = function.argumentTypes.length + offset;
+
+        if(index < 0)
+            throw new UnsupportedCodeException("Access below the arguments");
+
+        if(index >= stateLength)
+            throw new UnsupportedCodeException("Access outside the frame");
+
+        return index;
+    }
+
+    private static byte[] push(byte[] state, byte type)
+    {
+        byte[] result = Arrays.copyOf(state, state.length + 1);
+        result[state.length] = type;
+
+        return result;
+    }
+
+    private static byte[] pop(byte[] state, int count) throws UnsupportedCodeException
+    {
+        if(count > state.length)
+            throw new UnsupportedCodeException("Stack underflow");
+
+        return Arrays.copyOf(state, state.length - count);
+    }
+
+    //Checks the types of the top count slots, UNKNOWN values are accepted until the strict pass
+    private static void expect(byte[] state, int count, byte type, boolean strict) throws UnsupportedCodeException
+    {
+        if(count > state.length)
+            throw new UnsupportedCodeException("Stack underflow");
+
+        for(int i = state.length - count; i < state.length; i++)
+            if(state[i] != type && (strict || state[i] != UNKNOWN))
+                throw new UnsupportedCodeException("Unexpected operand type");
+    }
+
+    private static byte merge(byte left, byte right)
+    {
+        if(left == right || right == UNKNOWN)
+            return left;
+        if(left == UNKNOWN)
+            return right;
+
+        return CONFLICT;
+    }
+
+    private void analyse(FunctionInfo function, boolean strict) throws UnsupportedCodeException
+    {
+        byte[][] states = new byte[this.code.length][];
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        int entry = function.shape.entry();
+        int maxDepth = function.argumentTypes.length;
+        int maxCallArguments = 0;
+
+        states[entry] = function.argumentTypes.clone();
+        worklist.push(entry);
+
+        while(!worklist.isEmpty())
+        {
+            int position = worklist.pop();
+            byte[] state = states[position];
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+            int jumpTarget = -1;
+            boolean fallsThrough = true;
+
+            switch (instruction)
+            {
+                case iconst -> state = push(state, INT);
+
+                case dconst -> state = push(state, DOUBLE);
+
+                case tconst, fconst -> state = push(state, BOOLEAN);
+
+                case lload ->
+                {
+                    byte type = state[slotIndex(function, argument, state.length)];
+
+                    if(!isConcrete(type) && (strict || type != UNKNOWN))
+                        throw new UnsupportedCodeException("Load of a value without a fixed type");
+
+                    state = push(state, type);
+                }
+
+                case lstore ->
+                {
+                    int index = slotIndex(function, argument, state.length - 1);
+                    byte type = state[state.length - 1];
+
+                    if(index < function.argumentTypes.length && type != function.argumentTypes[index] && (strict || type != UNKNOWN))
+                        throw new UnsupportedCodeException("Argument changes type");
+
+                    state = pop(state, 1);
+                    state[index] = type;
+                }
+
+                case lalloc ->
+                {
+                    state = Arrays.copyOf(state, state.length + argument);
+                    Arrays.fill(state, state.length - argument, state.length, NIL);
+                }
+
+                case pop ->
+                {
+                    if(state.length - argument < function.argumentTypes.length)
+                        throw new UnsupportedCodeException("Pop of the arguments");
+
+                    state = pop(state, argument);
+                }
+
+                case iadd, isub, imult, idiv, imod ->
+                {
+                    expect(state, 2, INT, strict);
+                    state = push(pop(state, 2), INT);
+                }
+
+                case ieq, ineq, ilt, ileq ->
+                {
+                    expect(state, 2, INT, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case iuminus -> expect(state, 1, INT, strict);
+
+                case itod ->
+                {
+                    expect(state, 1, INT, strict);
+                    state = push(pop(state, 1), DOUBLE);
+                }
+
+                case dadd, dsub, dmult, ddiv ->
+                {
+                    expect(state, 2, DOUBLE, strict);
+                    state = push(pop(state, 2), DOUBLE);
+                }
+
+                case deq, dneq, dlt, dleq ->
+                {
+                    expect(state, 2, DOUBLE, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case duminus -> expect(state, 1, DOUBLE, strict);
+
+                case beq, bneq, and, or ->
+                {
+                    expect(state, 2, BOOLEAN, strict);
+                    state = push(pop(state, 2), BOOLEAN);
+                }
+
+                case not -> expect(state, 1, BOOLEAN, strict);
+
+                case jump ->
+                {
+                    jumpTarget = argument;
+                    fallsThrough = false;
+                }
+
+                case jumpt, jumpf ->
+                {
+                    expect(state, 1, BOOLEAN, strict);
+                    state = pop(state, 1);
+                    jumpTarget = argument;
+                }
+
+                case call, tcall ->
+                {
+                    MethodJit.FunctionShape callee = this.jit.getShape(argument);
+
+                    if(callee == null || callee.numberOfArgs() > state.length)
+                        throw new UnsupportedCodeException("Call to something that is not a function");
+
+                    byte[] calleeArguments = Arrays.copyOfRange(state, state.length - callee.numberOfArgs(), state.length);
+                    byte returnType = UNKNOWN;
+
+                    boolean argumentsKnown = true;
+                    for(byte type : calleeArguments)
+                        argumentsKnown &= type != UNKNOWN;
+
+                    if(argumentsKnown || strict)
+                        returnType = getFunction(argument, calleeArguments).returnType;
+
+                    maxCallArguments = Math.max(maxCallArguments, calleeArguments.length);
+                    state = pop(state, callee.numberOfArgs());
+
+                    if(callee.returnsValue())
+                        state = push(state, returnType);
+                }
+
+                case ret -> fallsThrough = false;
+
+                case retval ->
+                {
+                    byte type = state[state.length - 1];
+
+                    if(type != UNKNOWN || strict)
+                    {
+                        if(!isConcrete(type))
+                            throw new UnsupportedCodeException("Returns a value without a fixed type");
+
+                        if(function.returnType == UNKNOWN && !strict)
+                            function.returnType = type;
+                        else if(function.returnType != type)
+                            throw new UnsupportedCodeException("Returns different types");
+                    }
+
+                    fallsThrough = false;
+                }
+
+                default -> throw new UnsupportedCodeException("Unsupported instruction " + instruction);
+            }
+
+            maxDepth = Math.max(maxDepth, state.length);
+
+            if(fallsThrough)
+                flow(states, worklist, position + 1, state);
+
+            if(jumpTarget >= 0)
+                flow(states, worklist, jumpTarget, state);
+        }
+
+        if(strict && function.shape.returnsValue() && !isConcrete(function.returnType))
+            throw new UnsupportedCodeException("Unknown return type");
+
+        function.states = states;
+        function.maxDepth = maxDepth;
+        function.maxCallArguments = maxCallArguments;
+    }
+
+    private void flow(byte[][] states, ArrayDeque<Integer> worklist, int target, byte[] state) throws UnsupportedCodeException
+    {
+        if(target < 0 || target >= states.length)
+            throw new UnsupportedCodeException("Jump outside the code");
+
+        byte[] current = states[target];
+
+        if(current == null)
+        {
+            states[target] = state;
+            worklist.push(target);
+            return;
+        }
+
+        if(current.length != state.length)
+            throw new UnsupportedCodeException("Stack depth differs between paths");
+
+        byte[] merged = current.clone();
+        boolean changed = false;
+
+        for(int i = 0; i < merged.length; i++)
+        {
+            merged[i] = merge(current[i], state[i]);
+            changed |= merged[i] != current[i];
+        }
+
+        if(changed)
+        {
+            states[target] = merged;
+            worklist.push(target);
+        }
+    }
+
+    private void writeConstructor(ClassFileWriter writer)
+    {
+        ClassFileWriter.Code code = new ClassFileWriter.Code();
+
+        code.local(ALOAD, 0);
+        code.op(INVOKESPECIAL, writer.methodConstant("java/lang/Object", "<init>", "()V"));
+        code.op(RETURN);
+        code.setMaxs(1, 1);
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "()V", code);
+    }
+
+    //invoke(OperandStack) reads the arguments from the operand stack, calls the compiled function and pushes
+    //the result, a StackOverflowError gives the call back to the interpreter which has a much larger stack
+    private void writeBridge(ClassFileWriter writer, FunctionInfo root)
+    {
+        ClassFileWriter.Code code = new ClassFileWriter.Code();
+        byte[] types = root.argumentTypes;
+        int giveBack = code.newLabel();
+        int tryStart = code.newLabel();
+        int tryEnd = code.newLabel();
+        int handler = code.newLabel();
+
+        //local 2 holds the index of the first argument
+        code.local(ALOAD, 1);
+        code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "size", "()I"));
+        code.pushInt(writer, types.length);
+        code.op(ISUB);
+        code.local(ISTORE, 2);
+
+        for(int i = 0; i < types.length; i++)
+        {
+            code.local(ALOAD, 1);
+            code.local(ILOAD, 2);
+            code.pushInt(writer, i);
+            code.op(IADD);
+            code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "tagAt", "(I)B"));
+            code.pushInt(writer, types[i]);
+            code.branch(IF_ICMPNE, giveBack);
+        }
+
+        for(int i = 0; i < types.length; i++)
+        {
+            code.local(ALOAD, 1);
+            code.local(ILOAD, 2);
+            code.pushInt(writer, i);
+            code.op(IADD);
+
+            switch (types[i])
+            {
+                case INT -> code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "intAt", "(I)I"));
+                case DOUBLE -> code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "doubleAt", "(I)D"));
+                default -> code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "booleanAt", "(I)Z"));
+            }
+        }
+
+        code.bind(tryStart);
+        code.op(INVOKESTATIC, writer.methodConstant(CLASS_NAME, root.methodName, root.descriptor()));
+        code.bind(tryEnd);
+
+        boolean returnsValue = root.shape.returnsValue();
+
+        if(returnsValue)
+            code.local(root.returnType == DOUBLE ? DSTORE : ISTORE, 3);
+
+        code.local(ALOAD, 1);
+        code.local(ILOAD, 2);
+        code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "truncate", "(I)V"));
+
+        if(returnsValue)
+        {
+            code.local(ALOAD, 1);
+
+            switch (root.returnType)
+            {
+                case INT ->
+                {
+                    code.local(ILOAD, 3);
+                    code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "pushInt", "(I)V"));
+                }
+                case DOUBLE ->
+                {
+                    code.local(DLOAD, 3);
+                    code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "pushDouble", "(D)V"));
+                }
+                default ->
+                {
+                    code.local(ILOAD, 3);
+                    code.op(INVOKEVIRTUAL, writer.methodConstant(STACK_CLASS, "pushBoolean", "(Z)V"));
+                }
+            }
+        }
+
+        code.pushInt(writer, 1);
+        code.op(IRETURN);
+
+        code.bind(handler);
+        code.op(POP);
+        code.bind(giveBack);
+        code.pushInt(writer, 0);
+        code.op(IRETURN);
+
+        code.tryCatch(tryStart, tryEnd, handler, writer.classConstant("java/lang/StackOverflowError"));
+        code.setMaxs(4 + 2 * types.length, 5);
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "invoke", "(L" + STACK_CLASS + ";)Z", code);
+    }
+
+    private static int size(byte type)
+    {
+        return type == DOUBLE ? 2 : 1;
+    }
+
+    //Arguments keep the locals the JVM gives to the parameters, every other slot gets two locals so it can hold any type
+    private static int local(FunctionInfo function, int index)
+    {
+        int result = 0;
+
+        for(int i = 0; i < Math.min(index, function.argumentTypes.length); i++)
+            result += size(function.argumentTypes[i]);
+
+        if(index >= function.argumentTypes.length)
+            result += 2 * (index - function.argumentTypes.length);
+
+        return result;
+    }
+
+    private static void load(ClassFileWriter.Code code, FunctionInfo function, byte[] state, int index)
+    {
+        code.local(state[index] == DOUBLE ? DLOAD : ILOAD, local(function, index));
+    }
+
+    private static void store(ClassFileWriter.Code code, FunctionInfo function, byte type, int index)
+    {
+        code.local(type == DOUBLE ? DSTORE : ISTORE, local(function, index));
+    }
+
+    //Turns the outcome of a conditional branch that jumps when the comparison is false into 0 or 1
+    static void booleanResult(ClassFileWriter.Code code, int opcode)
+    {
+        int isFalse = code.newLabel();
+        int end = code.newLabel();
+
+        code.branch(opcode, isFalse);
+        code.op(ICONST_0 + 1);
+        code.branch(GOTO, end);
+        code.bind(isFalse);
+        code.op(ICONST_0);
+        code.bind(end);
+    }
+
+    private void writeFunction(ClassFileWriter writer, FunctionInfo function) throws UnsupportedCodeException
+    {
+        ClassFileWriter.Code code = new ClassFileWriter.Code();
+        int[] labels = new int[this.code.length];
+
+        for(int i = 0; i < labels.length; i++)
+            labels[i] = function.states[i] != null ? code.newLabel() : -1;
+
+        for(int position = 0; position < this.code.length; position++)
+        {
+            byte[] state = function.states[position];
+
+            if(state == null)
+                continue;
+
+            code.bind(labels[position]);
+
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+            int top = state.length - 1;
+
+            switch (instruction)
+            {
+                case iconst ->
+                {
+                    code.pushInt(writer, argument);
+                    store(code, function, INT, top + 1);
+                }
+
+                case dconst ->
+                {
+                    code.op(LDC2_W, writer.doubleConstant(this.constPool.get(argument).getArgument().getDouble()));
+                    store(code, function, DOUBLE, top + 1);
+                }
+
+                case tconst, fconst ->
+                {
+                    code.pushInt(writer, instruction == OpCode.tconst ? 1 : 0);
+                    store(code, function, BOOLEAN, top + 1);
+                }
+
+                case lload ->
+                {
+                    int index = slotIndex(function, argument, state.length);
+
+                    load(code, function, state, index);
+                    store(code, function, state[index], top + 1);
+                }
+
+                case lstore ->
+                {
+                    load(code, function, state, top);
+                    store(code, function, state[top], slotIndex(function, argument, top));
+                }
+
+                case lalloc, pop -> { }
+
+                case iadd, isub, imult, idiv, imod, dadd, dsub, dmult, ddiv ->
+                {
+                    boolean isDouble = state[top] == DOUBLE;
+
+                    if(instruction == OpCode.idiv || instruction == OpCode.imod || instruction == OpCode.ddiv)
+                    {
+                        load(code, function, state, top);
+                        code.op(INVOKESTATIC, writer.methodConstant("tVM/JitRuntime", "checkDivisor", isDouble ? "(D)V" : "(I)V"));
+                    }
+
+                    load(code, function, state, top - 1);
+                    load(code, function, state, top);
+
+                    code.op(switch (instruction)
+                    {
+                        case iadd -> IADD;
+                        case isub -> ISUB;
+                        case imult -> IMUL;
+                        case idiv -> IDIV;
+                        case imod -> IREM;
+                        case dadd -> DADD;
+                        case dsub -> DSUB;
+                        case dmult -> DMUL;
+                        default -> DDIV;
+                    });
+
+                    store(code, function, isDouble ? DOUBLE : INT, top - 1);
+                }
+
+                case iuminus, duminus ->
+                {
+                    load(code, function, state, top);
+                    code.op(instruction == OpCode.iuminus ? INEG : DNEG);
+                    store(code, function, state[top], top);
+                }
+
+                case itod ->
+                {
+                    load(code, function, state, top);
+                    code.op(I2D);
+                    store(code, function, DOUBLE, top);
+                }
+
+                case ieq, ineq, ilt, ileq, beq, bneq ->
+                {
+                    load(code, function, state, top - 1);
+                    load(code, function, state, top);
+
+                    booleanResult(code, switch (instruction)
+                    {
+                        case ieq, beq -> IF_ICMPNE;
+                        case ineq, bneq -> IF_ICMPEQ;
+                        case ilt -> IF_ICMPGE;
+                        default -> IF_ICMPGT;
+                    });
+
+                    store(code, function, BOOLEAN, top - 1);
+                }
+
+                case deq, dneq, dlt, dleq ->
+                {
+                    load(code, function, state, top - 1);
+                    load(code, function, state, top);
+
+                    //dcmpg makes NaN compare as greater so < and <= are false for it, like in Java
+                    code.op(instruction == OpCode.deq || instruction == OpCode.dneq ? DCMPL : DCMPG);
+
+                    booleanResult(code, switch (instruction)
+                    {
+                        case deq -> IFNE;
+                        case dneq -> IFEQ;
+                        case dlt -> IFGE;
+                        default -> IFGT;
+                    });
+
+                    store(code, function, BOOLEAN, top - 1);
+                }
+
+                case and, or ->
+                {
+                    load(code, function, state, top - 1);
+                    load(code, function, state, top);
+                    code.op(instruction == OpCode.and ? IAND : IOR);
+                    store(code, function, BOOLEAN, top - 1);
+                }
+
+                case not ->
+                {
+                    load(code, function, state, top);
+                    code.op(ICONST_0 + 1);
+                    code.op(IXOR);
+                    store(code, function, BOOLEAN, top);
+                }
+
+                case jump -> code.branch(GOTO, labels[argument]);
+
+                case jumpt, jumpf ->
+                {
+                    load(code, function, state, top);
+                    code.branch(instruction == OpCode.jumpt ? IFNE : IFEQ, labels[argument]);
+                }
+
+                case call, tcall ->
+                {
+                    MethodJit.FunctionShape calleeShape = this.jit.getShape(argument);
+                    int first = state.length - calleeShape.numberOfArgs();
+                    FunctionInfo callee = getFunction(argument, Arrays.copyOfRange(state, first, state.length));
+
+                    for(int i = first; i < state.length; i++)
+                        load(code, function, state, i);
+
+                    code.op(INVOKESTATIC, writer.methodConstant(CLASS_NAME, callee.methodName, callee.descriptor()));
+
+                    if(calleeShape.returnsValue())
+                        store(code, function, callee.returnType, first);
+                }
+
+                case ret -> code.op(RETURN);
+
+                case retval ->
+                {
+                    load(code, function, state, top);
+                    code.op(state[top] == DOUBLE ? DRETURN : IRETURN);
+                }
+
+                default -> throw new UnsupportedCodeException("Unsupported instruction " + instruction);
+            }
+        }
+
+        code.setMaxs(4 + 2 * function.maxCallArguments, local(function, function.maxDepth) + 2);
+
+        if(code.length() > 65535)
+            throw new UnsupportedCodeException("Function too large");
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_STATIC, function.methodName, function.descriptor(), code);
+    }
+}
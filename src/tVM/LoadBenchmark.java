@@ -0,0 +1,76 @@
+package tVM;
+
+import ErrorHandler.ErrorLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+//Measures how long Program.load takes for each bytecode file. The first loads only warm the JVM up,
+//the rest are timed and reported as the fastest, the median and the throughput of the median load.
+public class LoadBenchmark
+{
+    private static final int WARMUP_LOADS = 5;
+
+    private static String milliseconds(long nanos)
+    {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+
+    private static long[] time(String inputFile, int loads) throws IOException, InvalidProgramException
+    {
+        for(int i = 0; i < WARMUP_LOADS; i++)
+            Program.load(Path.of(inputFile));
+
+        long[] times = new long[loads];
+
+        for(int i = 0; i < loads; i++)
+        {
+            long start = System.nanoTime();
+            Program.load(Path.of(inputFile));
+            times[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(times);
+        return times;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int loads = 20;
+        ArrayList<String> inputFiles = new ArrayList<>();
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("-loads="))
+                loads = Integer.parseInt(arg.substring("-loads=".length()));
+            else
+                inputFiles.add(arg);
+        }
+
+        if (inputFiles.isEmpty() || loads < 1)
+            ErrorLog.fatalError("Wrong arguments. tVM.LoadBenchmark [-loads=N] [FILE]...");
+
+        for (String inputFile : inputFiles)
+        {
+            if (!new File(inputFile).exists())
+                ErrorLog.fatalError("File " + inputFile + " does not exist.");
+
+            try
+            {
+                long[] times = time(inputFile, loads);
+                long size = new File(inputFile).length();
+                long median = times[times.length / 2];
+
+                System.out.println(inputFile + ": " + size + " bytes, " + loads + " loads, min " + milliseconds(times[0])
+                        + ", median " + milliseconds(median) + ", " + String.format("%.1f", size / (median / 1_000_000_000.0) / (1024 * 1024)) + " MB/s");
+            }
+            catch (InvalidProgramException | IOException e)
+            {
+                ErrorLog.fatalError(inputFile + ": " + e.getMessage());
+            }
+        }
+    }
+}
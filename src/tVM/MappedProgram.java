@@ -0,0 +1,372 @@
+package tVM;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import solUtils.ByteCodeFormat;
+import solUtils.OpCode;
+import solUtils.Value;
+
+//A version 2 bytecode file that is run in place, straight from its memory mapping. Nothing is decoded up front:
+//loading is a scan over the code section that checks it and puts the byte offset of every jump and call target in a
+//table indexed by instruction, so a taken branch is one array read. Constants are decoded the first time they are pushed. The mapping is read-only and only read with absolute
+//gets, so any number of tVMs can run it at once and processes running the same file share its pages.
+public final class MappedProgram
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    private final ByteBuffer code;
+    private final int instructions;
+
+    private final ByteBuffer constantSection;
+    private final int[] constantOffsets;
+    private final Value[] constants;
+
+    //Byte offset each jump and call target starts at, indexed by instruction number and -1 for the other instructions
+    private final int[] targetOffsets;
+
+    //Number of arguments the target of each tcall takes, found the first time the tcall runs
+    private final ConcurrentHashMap<Integer, Integer> tailCallArities;
+
+    //Instruction decoded by the last scan, kept in fields so scanning allocates nothing
+    private OpCode scannedInstruction;
+    private int scannedArgument;
+
+    private MappedProgram(ByteBuffer byteCode) throws IOException, InvalidProgramException
+    {
+        ByteCodeBuffer header = new ByteCodeBuffer(byteCode);
+
+        if(!header.startsWith(ByteCodeFormat.MAGIC))
+            throw new InvalidProgramException("Only version 2 bytecode files can run in place.");
+
+        header.getInt();
+
+        int version = header.getUnsignedShort();
+        if(version != ByteCodeFormat.VERSION)
+            throw new InvalidProgramException("Unsupported bytecode version " + version + ".");
+
+        int constantCount = header.getInt();
+        int constantBytes = header.getInt();
+        this.instructions = header.getInt();
+        int codeBytes = header.getInt();
+
+        if(constantCount < 0 || constantBytes < 0 || this.instructions < 0 || codeBytes < 0 || this.instructions > codeBytes)
+            throw new InvalidProgramException("Invalid section table.");
+
+        if((long) constantBytes + codeBytes != header.remaining())
+            throw new InvalidProgramException("Section sizes don't match the file size.");
+
+        int constantStart = byteCode.position() + ByteCodeFormat.HEADER_SIZE;
+        this.constantSection = byteCode.slice(constantStart, constantBytes);
+        this.code = byteCode.slice(constantStart + constantBytes, codeBytes);
+
+        this.constantOffsets = findConstants(constantCount);
+        this.constants = new Value[constantCount];
+
+        this.targetOffsets = findTargetOffsets(findTargets());
+
+        this.tailCallArities = new ConcurrentHashMap<>();
+    }
+
+    public static MappedProgram map(Path byteCodeFile) throws IOException, InvalidProgramException
+    {
+        return new MappedProgram(ByteCodeBuffer.map(byteCodeFile));
+    }
+
+    public static MappedProgram of(ByteBuffer byteCode) throws InvalidProgramException
+    {
+        try
+        {
+            return new MappedProgram(byteCode);
+        }
+        catch(IOException e)
+        {
+            throw new InvalidProgramException("Out of file.");
+        }
+    }
+
+    private int[] findConstants(int constantCount) throws InvalidProgramException
+    {
+        int[] offsets = new int[constantCount];
+        int offset = 0;
+
+        try
+        {
+            for(int i = 0; i < constantCount; i++)
+            {
+                offsets[i] = offset;
+                byte tag = this.constantSection.get(offset++);
+
+                if(tag == OpCode.dconst.ordinal())
+                    offset += Double.BYTES;
+                else if(tag == OpCode.sconst.ordinal())
+                {
+                    int length = 0;
+                    for(int shift = 0; ; shift += 7)
+                    {
+                        byte next = this.constantSection.get(offset++);
+                        length |= (next & 0x7F) << shift;
+
+                        if(next >= 0)
+                            break;
+                    }
+
+                    offset += length;
+                }
+                else
+                    throw new InvalidProgramException("Invalid constant pool entry " + tag + ".");
+            }
+        }
+        catch(IndexOutOfBoundsException e)
+        {
+            throw new InvalidProgramException("Out of file.");
+        }
+
+        if(offset != this.constantSection.limit())
+            throw new InvalidProgramException("Constant section size doesn't match its constants.");
+
+        return offsets;
+    }
+
+    private int scan(int offset) throws InvalidProgramException
+    {
+        int opCode = this.code.get(offset++) & 0xFF;
+
+        if(opCode >= ByteCodeFormat.SHORT_FORM_BASE)
+        {
+            int shortForm = opCode - ByteCodeFormat.SHORT_FORM_BASE;
+
+            if(shortForm >= ByteCodeFormat.shortFormCount())
+                throw new InvalidProgramException("Invalid short form instruction " + opCode + ".");
+
+            this.scannedInstruction = ByteCodeFormat.shortFormOpCode(shortForm);
+            this.scannedArgument = ByteCodeFormat.shortFormOperand(shortForm);
+            return offset;
+        }
+
+        if(opCode > OpCode.tcall.ordinal())
+            throw new InvalidProgramException("Invalid instruction " + opCode + ".");
+
+        this.scannedInstruction = OPCODES[opCode];
+        this.scannedArgument = 0;
+
+        if(!tVM.opCodeHasArgument(this.scannedInstruction))
+            return offset;
+
+        int value = 0;
+        for(int shift = 0; ; shift += 7)
+        {
+            if(shift >= Integer.SIZE)
+                throw new InvalidProgramException("Invalid varint at " + offset + ".");
+
+            byte next = this.code.get(offset++);
+            value |= (next & 0x7F) << shift;
+
+            if(next >= 0)
+                break;
+        }
+
+        this.scannedArgument = ByteCodeFormat.unzigzag(value);
+        return offset;
+    }
+
+    //Checks every instruction and marks the instructions control can be transferred to
+    private boolean[] findTargets() throws InvalidProgramException
+    {
+        boolean[] targets = new boolean[this.instructions + 1];
+        boolean halts = false;
+        int offset = 0;
+
+        try
+        {
+            for(int i = 0; i < this.instructions; i++)
+            {
+                offset = scan(offset);
+                OpCode instruction = this.scannedInstruction;
+                int argument = this.scannedArgument;
+
+                switch (instruction)
+                {
+                    case jump, jumpt, jumpf, call, tcall ->
+                    {
+                        //Like in Program, a jump to the end of the code stops the program
+                        int limit = instruction == OpCode.call || instruction == OpCode.tcall ? this.instructions - 1 : this.instructions;
+                        if(argument < 0 || argument > limit)
+                            throw new InvalidProgramException(instruction + " at " + i + " to " + argument + " is outside the code.");
+
+                        targets[argument] = true;
+                    }
+                    case lload, lstore ->
+                    {
+                        if(argument == 0 || argument == 1)
+                            throw new InvalidProgramException("Local address " + argument + " points into the frame header.");
+                    }
+                    case halt -> halts = true;
+                    default -> { }
+                }
+            }
+        }
+        catch(IndexOutOfBoundsException e)
+        {
+            throw new InvalidProgramException("Out of file.");
+        }
+
+        if(offset != this.code.limit())
+            throw new InvalidProgramException("Code section size doesn't match its instructions.");
+
+        if(!halts)
+            throw new InvalidProgramException("Code doesn't halt.");
+
+        return targets;
+    }
+
+    private int[] findTargetOffsets(boolean[] targets) throws InvalidProgramException
+    {
+        int[] offsets = new int[targets.length];
+        int offset = 0;
+
+        Arrays.fill(offsets, -1);
+
+        for(int i = 0; i <= this.instructions; i++)
+        {
+            if(targets[i])
+                offsets[i] = offset;
+
+            if(i < this.instructions)
+                offset = scan(offset);
+        }
+
+        return offsets;
+    }
+
+    ByteBuffer getCode()
+    {
+        return this.code;
+    }
+
+    public int size()
+    {
+        return this.instructions;
+    }
+
+    //Byte offset of a jump or call target
+    int offsetOf(int instruction)
+    {
+        return this.targetOffsets[instruction];
+    }
+
+    Value constant(int index, OpCode kind)
+    {
+        if(index < 0 || index >= this.constants.length)
+            throw new VMFault(kind + " doesn't point to a constant.");
+
+        Value value = this.constants[index];
+
+        //Two runs decoding the same constant at once both store an equal value
+        if(value == null)
+        {
+            value = decodeConstant(index, kind);
+            this.constants[index] = value;
+        }
+
+        return value;
+    }
+
+    private Value decodeConstant(int index, OpCode kind)
+    {
+        int offset = this.constantOffsets[index];
+
+        if(this.constantSection.get(offset) != kind.ordinal())
+            throw new VMFault(kind + " doesn't point to a " + kind + " constant.");
+
+        if(kind == OpCode.dconst)
+            return Value.of(this.constantSection.getDouble(offset + 1));
+
+        offset++;
+        int length = 0;
+        for(int shift = 0; ; shift += 7)
+        {
+            byte next = this.constantSection.get(offset++);
+            length |= (next & 0x7F) << shift;
+
+            if(next >= 0)
+                break;
+        }
+
+        byte[] characters = new byte[length];
+        this.constantSection.get(offset, characters);
+
+        return Value.of(new String(characters, StandardCharsets.UTF_8));
+    }
+
+    //A call doesn't say how many arguments it passes, the returns of the called function do.
+    //Same check as Program.findArity, every return of the function has to agree.
+    int tailCallArity(int target)
+    {
+        return this.tailCallArities.computeIfAbsent(target, this::findArity);
+    }
+
+    private synchronized int findArity(int entry)
+    {
+        boolean[] visited = new boolean[this.code.limit()];
+        int[] pending = new int[16];
+        int count = 0;
+        int arity = -1;
+
+        pending[count++] = offsetOf(entry);
+
+        try
+        {
+            while(count > 0)
+            {
+                int offset = pending[--count];
+
+                if(offset >= this.code.limit() || visited[offset])
+                    continue;
+
+                visited[offset] = true;
+
+                int next = scan(offset);
+                OpCode instruction = this.scannedInstruction;
+                int argument = this.scannedArgument;
+
+                if(instruction == OpCode.ret || instruction == OpCode.retval)
+                {
+                    if(arity >= 0 && arity != argument)
+                        throw new VMFault("Function at " + entry + " returns with different numbers of arguments.");
+
+                    arity = argument;
+                    continue;
+                }
+
+                if(count + 2 > pending.length)
+                    pending = Arrays.copyOf(pending, pending.length * 2);
+
+                switch (instruction)
+                {
+                    case halt -> { }
+                    case jump -> pending[count++] = offsetOf(argument);
+                    case jumpt, jumpf ->
+                    {
+                        pending[count++] = offsetOf(argument);
+                        pending[count++] = next;
+                    }
+                    default -> pending[count++] = next;
+                }
+            }
+        }
+        catch(InvalidProgramException e)
+        {
+            throw new VMFault(e.getMessage());
+        }
+
+        if(arity < 0)
+            throw new VMFault("Target " + entry + " of a tcall never returns.");
+
+        return arity;
+    }
+}
@@ -0,0 +1,207 @@
+package tVM;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+import solUtils.Instruction;
+import solUtils.OpCode;
+
+//Tiered execution for tVM: counts calls and backward jumps per function and once a function gets hot
+//translates it to a JVM hidden class, later calls to it run the compiled method instead of the interpreter.
+public final class MethodJit
+{
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    //Marks functions that couldn't be compiled so they are never tried again
+    private static final CompiledFunction NOT_COMPILABLE = stack -> false;
+
+    //Structural information about a function, independent of the types it is called with
+    public record FunctionShape(int entry, int numberOfArgs, boolean returnsValue, boolean[] reachable) {}
+
+    private final byte[] code;
+    private final int[] arguments;
+    private final List<Instruction> constPool;
+    private final int threshold;
+
+    private final int[] counters;
+    private final CompiledFunction[] compiled;
+    private final FunctionShape[] shapes;
+    private final int[] functionOf;
+
+    private int compiledFunctions;
+
+    public MethodJit(byte[] code, int[] arguments, List<Instruction> constPool, int threshold)
+    {
+        this.code = code;
+        this.arguments = arguments;
+        this.constPool = constPool;
+        this.threshold = threshold;
+
+        this.counters = new int[code.length];
+        this.compiled = new CompiledFunction[code.length];
+        this.shapes = new FunctionShape[code.length];
+        this.functionOf = new int[code.length];
+        this.compiledFunctions = 0;
+
+        Arrays.fill(this.functionOf, -1);
+
+        //Maps every instruction to the function it belongs to so backward jumps can be counted per function
+        boolean[] mapped = new boolean[code.length];
+        for(int i = 0; i < code.length; i++)
+        {
+            if((OPCODES[code[i]] != OpCode.call && OPCODES[code[i]] != OpCode.tcall) || arguments[i] < 0 || arguments[i] >= code.length || mapped[arguments[i]])
+                continue;
+
+            mapped[arguments[i]] = true;
+            FunctionShape shape = getShape(arguments[i]);
+
+            if(shape == null)
+                continue;
+
+            for(int j = 0; j < code.length; j++)
+                if(shape.reachable()[j] && this.functionOf[j] < 0)
+                    this.functionOf[j] = shape.entry();
+        }
+    }
+
+    public int getCompiledFunctions()
+    {
+        return this.compiledFunctions;
+    }
+
+    //Follows the control flow from the entry of a function until its returns,
+    //returns null for targets that don't look like a function
+    public FunctionShape getShape(int entry)
+    {
+        if(entry < 0 || entry >= this.code.length)
+            return null;
+
+        if(this.shapes[entry] != null)
+            return this.shapes[entry];
+
+        boolean[] reachable = new boolean[this.code.length];
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        int numberOfArgs = -1;
+        int returns = 0;
+        int valueReturns = 0;
+
+        reachable[entry] = true;
+        worklist.push(entry);
+
+        while(!worklist.isEmpty())
+        {
+            int position = worklist.pop();
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+
+            int[] successors = switch (instruction)
+            {
+                case ret, retval -> new int[0];
+                case halt -> null;
+                case jump -> new int[]{argument};
+                case jumpt, jumpf -> new int[]{argument, position + 1};
+                default -> new int[]{position + 1};
+            };
+
+            if(successors == null)
+                return null;
+
+            if(instruction == OpCode.ret || instruction == OpCode.retval)
+            {
+                if(numberOfArgs >= 0 && numberOfArgs != argument)
+                    return null;
+
+                numberOfArgs = argument;
+                returns++;
+
+                if(instruction == OpCode.retval)
+                    valueReturns++;
+            }
+
+            for(int successor : successors)
+            {
+                if(successor < 0 || successor >= this.code.length)
+                    return null;
+
+                if(!reachable[successor])
+                {
+                    reachable[successor] = true;
+                    worklist.push(successor);
+                }
+            }
+        }
+
+        //Functions that never return or mix ret and retval are left to the interpreter
+        if(returns == 0 || (valueReturns != 0 && valueReturns != returns))
+            return null;
+
+        this.shapes[entry] = new FunctionShape(entry, numberOfArgs, valueReturns > 0, reachable);
+        return this.shapes[entry];
+    }
+
+    //Called by the interpreter on every backward jump
+    public void backEdge(int target)
+    {
+        int function = this.functionOf[target];
+
+        if(function >= 0 && this.counters[function] < this.threshold)
+            this.counters[function]++;
+    }
+
+    //Called by the interpreter on every call, returns true if the call already ran compiled
+    public boolean invoke(int entry, OperandStack stack)
+    {
+        CompiledFunction function = this.compiled[entry];
+
+        if(function == null)
+        {
+            if(++this.counters[entry] < this.threshold)
+                return false;
+
+            function = compile(entry, stack);
+            this.compiled[entry] = function;
+        }
+
+        if(function.invoke(stack))
+            return true;
+
+        //The compiled code gave the call back (deep recursion or an unexpected argument), stop using it
+        this.compiled[entry] = NOT_COMPILABLE;
+        return false;
+    }
+
+    private CompiledFunction compile(int entry, OperandStack stack)
+    {
+        FunctionShape shape = getShape(entry);
+
+        if(shape == null || shape.numberOfArgs() > stack.size())
+            return NOT_COMPILABLE;
+
+        //Sol is statically typed so the arguments of the first hot call give the types of the function
+        byte[] argumentTypes = new byte[shape.numberOfArgs()];
+        for(int i = 0; i < argumentTypes.length; i++)
+            argumentTypes[i] = stack.tagAt(stack.size() - argumentTypes.length + i);
+
+        try
+        {
+            JitTranslator translator = new JitTranslator(this, this.code, this.arguments, this.constPool);
+            byte[] classFile = translator.translate(entry, argumentTypes);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            CompiledFunction function = (CompiledFunction) lookup.lookupClass().getDeclaredConstructor().newInstance();
+
+            this.compiledFunctions++;
+            return function;
+        }
+        //Functions the translator rejects, or whose class the JVM refuses to define, keep running in the interpreter.
+        //Anything else is a bug of the translator and ends the run.
+        catch(JitTranslator.UnsupportedCodeException | LinkageError | ReflectiveOperationException e)
+        {
+            return NOT_COMPILABLE;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package tVM;
+
+import java.util.Arrays;
+
+import solUtils.StringLiteral;
+import solUtils.Value;
+
+//Stack of tagged slots, the payload of ints, doubles and booleans lives in a long[] and
+//strings in a parallel Object[], so pushing and popping primitives never allocates.
+//Only STRING slots below size hold a reference, the others are null so dropped strings can be collected.
+public class OperandStack
+{
+    public static final byte NIL = 0;
+    public static final byte INT = 1;
+    public static final byte DOUBLE = 2;
+    public static final byte BOOLEAN = 3;
+    public static final byte STRING = 4;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] values;
+    private byte[] tags;
+    private Object[] references;
+    private int size;
+
+    public OperandStack(int capacity)
+    {
+        this.values = new long[capacity];
+        this.tags = new byte[capacity];
+        this.references = new Object[capacity];
+        this.size = 0;
+    }
+
+    public OperandStack()
+    {
+        this(INITIAL_CAPACITY);
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(this.references, 0, this.size, null);
+        this.size = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if(capacity <= this.values.length)
+            return;
+
+        int newCapacity = Math.max(capacity, this.values.length * 2);
+
+        this.values = Arrays.copyOf(this.values, newCapacity);
+        this.tags = Arrays.copyOf(this.tags, newCapacity);
+        this.references = Arrays.copyOf(this.references, newCapacity);
+    }
+
+    //Grows the stack once so the next count pushes don't have to
+    public void reserve(int count)
+    {
+        ensureCapacity(this.size + count);
+    }
+
+    public byte tagAt(int index)
+    {
+        return this.tags[index];
+    }
+
+    public byte peekTag()
+    {
+        return this.tags[this.size - 1];
+    }
+
+    //Checks if any of the top count slots is NIL
+    public boolean hasNil(int count)
+    {
+        for(int i = this.size - count; i < this.size; i++)
+            if(this.tags[i] == NIL)
+                return true;
+
+        return false;
+    }
+
+    public void pushNil(int count)
+    {
+        ensureCapacity(this.size + count);
+
+        Arrays.fill(this.tags, this.size, this.size + count, NIL);
+        this.size += count;
+    }
+
+    public void pushInt(int value)
+    {
+        if(this.size == this.values.length)
+            ensureCapacity(this.size + 1);
+
+        this.values[this.size] = value;
+        this.tags[this.size++] = INT;
+    }
+
+    //Drops the reference of a STRING slot that is about to hold something else
+    private void release(int index)
+    {
+        if(this.tags[index] == STRING)
+            this.references[index] = null;
+    }
+
+    public void setInt(int index, int value)
+    {
+        release(index);
+        this.values[index] = value;
+        this.tags[index] = INT;
+    }
+
+    public void setDouble(int index, double value)
+    {
+        release(index);
+        this.values[index] = Double.doubleToRawLongBits(value);
+        this.tags[index] = DOUBLE;
+    }
+
+    public void setBoolean(int index, boolean value)
+    {
+        release(index);
+        this.values[index] = value ? 1 : 0;
+        this.tags[index] = BOOLEAN;
+    }
+
+    public void setString(int index, CharSequence value)
+    {
+        this.references[index] = value;
+        this.tags[index] = STRING;
+    }
+
+    public void setNil(int index, int count)
+    {
+        Arrays.fill(this.references, index, index + count, null);
+        Arrays.fill(this.tags, index, index + count, NIL);
+    }
+
+    //Grows the stack with NIL slots or drops the slots above newSize, the register interpreter keeps whole frames this way
+    public void resize(int newSize)
+    {
+        if(newSize > this.size)
+            pushNil(newSize - this.size);
+        else
+            truncate(newSize);
+    }
+
+    public void pushDouble(double value)
+    {
+        if(this.size == this.values.length)
+            ensureCapacity(this.size + 1);
+
+        this.values[this.size] = Double.doubleToRawLongBits(value);
+        this.tags[this.size++] = DOUBLE;
+    }
+
+    public void pushBoolean(boolean value)
+    {
+        if(this.size == this.values.length)
+            ensureCapacity(this.size + 1);
+
+        this.values[this.size] = value ? 1 : 0;
+        this.tags[this.size++] = BOOLEAN;
+    }
+
+    //Strings are Strings or, for concatenation results, ConcatStrings
+    public void pushString(CharSequence value)
+    {
+        if(this.size == this.values.length)
+            ensureCapacity(this.size + 1);
+
+        this.references[this.size] = value;
+        this.tags[this.size++] = STRING;
+    }
+
+    public void push(Value value)
+    {
+        if(value.isNull())
+            pushNil(1);
+        else if(value.isType(Integer.class))
+            pushInt(value.getInteger());
+        else if(value.isType(Double.class))
+            pushDouble(value.getDouble());
+        else if(value.isType(Boolean.class))
+            pushBoolean(value.getBoolean());
+        else
+            pushString(value.getString());
+    }
+
+    private void checkTag(int index, byte tag, String typeName)
+    {
+        if(this.tags[index] != tag)
+            throw new VMFault("Couldn't cast to " + typeName + ", because the value is not an instance of " + typeName);
+    }
+
+    public int intAt(int index)
+    {
+        checkTag(index, INT, "Integer");
+        return (int) this.values[index];
+    }
+
+    public double doubleAt(int index)
+    {
+        checkTag(index, DOUBLE, "Double");
+        return Double.longBitsToDouble(this.values[index]);
+    }
+
+    public boolean booleanAt(int index)
+    {
+        checkTag(index, BOOLEAN, "Boolean");
+        return this.values[index] != 0;
+    }
+
+    //Flattens a ConcatString in its slot, so it is only copied once
+    public String stringAt(int index)
+    {
+        checkTag(index, STRING, "String");
+
+        if(this.references[index] instanceof String string)
+            return string;
+
+        String flat = this.references[index].toString();
+        this.references[index] = flat;
+
+        return flat;
+    }
+
+    public CharSequence textAt(int index)
+    {
+        checkTag(index, STRING, "String");
+        return (CharSequence) this.references[index];
+    }
+
+    public int popInt()
+    {
+        return intAt(--this.size);
+    }
+
+    public double popDouble()
+    {
+        return doubleAt(--this.size);
+    }
+
+    public boolean popBoolean()
+    {
+        return booleanAt(--this.size);
+    }
+
+    public String popString()
+    {
+        String value = stringAt(--this.size);
+        this.references[this.size] = null;
+
+        return value;
+    }
+
+    public CharSequence popText()
+    {
+        CharSequence value = textAt(--this.size);
+        this.references[this.size] = null;
+
+        return value;
+    }
+
+    //Unchecked pops for operands the verifier proved to have the right type
+    public int popIntUnchecked()
+    {
+        return (int) this.values[--this.size];
+    }
+
+    public double popDoubleUnchecked()
+    {
+        return Double.longBitsToDouble(this.values[--this.size]);
+    }
+
+    public boolean popBooleanUnchecked()
+    {
+        return this.values[--this.size] != 0;
+    }
+
+    //Unchecked reads for slots whose tag was already checked
+    public int intAtUnchecked(int index)
+    {
+        return (int) this.values[index];
+    }
+
+    public double doubleAtUnchecked(int index)
+    {
+        return Double.longBitsToDouble(this.values[index]);
+    }
+
+    public boolean booleanAtUnchecked(int index)
+    {
+        return this.values[index] != 0;
+    }
+
+    //Drops every slot above newSize in one step
+    public void truncate(int newSize)
+    {
+        Arrays.fill(this.references, newSize, this.size, null);
+        this.size = newSize;
+    }
+
+    public void pop(int count)
+    {
+        truncate(this.size - count);
+    }
+
+    //Copies the slot at from into the slot at to
+    public void copy(int from, int to)
+    {
+        this.values[to] = this.values[from];
+        this.tags[to] = this.tags[from];
+        this.references[to] = this.references[from];
+    }
+
+    //Copies the slot at from of the source stack into the slot at to
+    public void copyFrom(OperandStack source, int from, int to)
+    {
+        this.values[to] = source.values[from];
+        this.tags[to] = source.tags[from];
+        this.references[to] = source.references[from];
+    }
+
+    //Pushes a copy of the slot at index of the source stack
+    public void load(OperandStack source, int index)
+    {
+        if(this.size == this.values.length)
+            ensureCapacity(this.size + 1);
+
+        this.values[this.size] = source.values[index];
+        this.tags[this.size] = source.tags[index];
+        this.references[this.size++] = source.references[index];
+    }
+
+    //Pops the top slot into the slot at index of the target stack
+    public void store(OperandStack target, int index)
+    {
+        this.size--;
+
+        target.values[index] = this.values[this.size];
+        target.tags[index] = this.tags[this.size];
+        target.references[index] = this.references[this.size];
+        this.references[this.size] = null;
+    }
+
+    public String slotToString(int index)
+    {
+        return switch (this.tags[index])
+        {
+            case INT -> String.valueOf((int) this.values[index]);
+            case DOUBLE -> String.valueOf(Double.longBitsToDouble(this.values[index]));
+            case BOOLEAN -> String.valueOf(this.values[index] != 0);
+            case STRING -> StringLiteral.quote(this.references[index].toString());
+            default -> "NIL";
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder("[");
+
+        for(int i = 0; i < this.size; i++)
+        {
+            if(i > 0)
+                result.append(", ");
+
+            result.append(slotToString(i));
+        }
+
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,176 @@
+package tVM;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+//Output of the print instructions. Values are encoded straight into one reusable byte buffer that is written to the
+//underlying stream in batches: when it reaches the threshold, when the program ends, or after every print if asked to.
+public class OutputBuffer
+{
+    public enum FlushPolicy
+    {
+        //Flush when the buffer is full and when the program ends, for batch runs
+        THRESHOLD,
+        //Flush after every print, for interactive use and for traces that mix with the output
+        EVERY_PRINT
+    }
+
+    public static final int DEFAULT_THRESHOLD = 64 * 1024;
+
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final OutputStream output;
+    private final Charset charset;
+    private final boolean asciiCompatible;
+    private final byte[] lineSeparator;
+    private final int threshold;
+    private final FlushPolicy flushPolicy;
+
+    private byte[] buffer;
+    private int size;
+
+    public OutputBuffer(OutputStream output, Charset charset, int threshold, FlushPolicy flushPolicy)
+    {
+        this.output = output;
+        this.charset = charset;
+        this.asciiCompatible = charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) || charset.equals(StandardCharsets.ISO_8859_1);
+        this.lineSeparator = System.lineSeparator().getBytes(charset);
+        this.threshold = Math.max(threshold, 64);
+        this.flushPolicy = flushPolicy;
+        this.buffer = new byte[this.threshold];
+        this.size = 0;
+    }
+
+    public OutputBuffer(OutputStream output, Charset charset)
+    {
+        this(output, charset, DEFAULT_THRESHOLD, FlushPolicy.THRESHOLD);
+    }
+
+    //Makes room for count more bytes, values bigger than the whole buffer get a buffer of their own size
+    private void reserve(int count)
+    {
+        if(this.size + count <= this.buffer.length)
+            return;
+
+        flush();
+
+        if(count > this.buffer.length)
+            this.buffer = new byte[count];
+    }
+
+    private void endLine()
+    {
+        reserve(this.lineSeparator.length);
+
+        System.arraycopy(this.lineSeparator, 0, this.buffer, this.size, this.lineSeparator.length);
+        this.size += this.lineSeparator.length;
+
+        if(this.flushPolicy == FlushPolicy.EVERY_PRINT || this.size >= this.threshold)
+            flush();
+    }
+
+    private void putAscii(byte[] value)
+    {
+        reserve(value.length);
+
+        System.arraycopy(value, 0, this.buffer, this.size, value.length);
+        this.size += value.length;
+    }
+
+    public void printInt(int value)
+    {
+        //Digits are written from the end, a long keeps Integer.MIN_VALUE positive
+        reserve(11);
+
+        long remaining = value;
+        if(remaining < 0)
+        {
+            this.buffer[this.size++] = '-';
+            remaining = -remaining;
+        }
+
+        int digits = 1;
+        for(long i = remaining; i >= 10; i /= 10)
+            digits++;
+
+        for(int i = this.size + digits - 1; i >= this.size; i--)
+        {
+            this.buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+
+        this.size += digits;
+        endLine();
+    }
+
+    public void printDouble(double value)
+    {
+        String text = Double.toString(value);
+        reserve(text.length());
+
+        for(int i = 0; i < text.length(); i++)
+            this.buffer[this.size++] = (byte) text.charAt(i);
+
+        endLine();
+    }
+
+    public void printBoolean(boolean value)
+    {
+        putAscii(value ? TRUE : FALSE);
+        endLine();
+    }
+
+    public void printString(CharSequence value)
+    {
+        int length = value.length();
+        reserve(length);
+
+        int start = this.size;
+        for(int i = 0; i < length; i++)
+        {
+            char character = value.charAt(i);
+
+            if(character >= 0x80 || !this.asciiCompatible)
+            {
+                this.size = start;
+                putEncoded(value);
+                return;
+            }
+
+            this.buffer[this.size++] = (byte) character;
+        }
+
+        endLine();
+    }
+
+    private void putEncoded(CharSequence value)
+    {
+        byte[] encoded = value.toString().getBytes(this.charset);
+
+        reserve(encoded.length);
+        System.arraycopy(encoded, 0, this.buffer, this.size, encoded.length);
+        this.size += encoded.length;
+
+        endLine();
+    }
+
+    public void flush()
+    {
+        try
+        {
+            this.output.write(this.buffer, 0, this.size);
+            this.output.flush();
+        }
+        catch(IOException e)
+        {
+            throw new VMFault("Couldn't write the output: " + e.getMessage(), e);
+        }
+        finally
+        {
+            this.size = 0;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package tVM;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import solUtils.OpCode;
+
+//Profile of one run, collected as an execution listener. It counts the executed instructions per opcode, times every
+//Sol function (named by its entry address, like the L tags of the tasm files), counts the taken backward jumps and
+//keeps a call tree that is written as collapsed stacks for flame graph tools.
+public class Profiler implements ExecutionListener
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+    private static final int BACK_EDGES_SHOWN = 10;
+
+    private static class FunctionStats
+    {
+        final int entry;
+        long calls;
+        long inclusiveNanos;
+        long exclusiveNanos;
+        //Recursive calls only add to the inclusive time of the outermost one
+        int active;
+
+        FunctionStats(int entry)
+        {
+            this.entry = entry;
+        }
+    }
+
+    private static class CallNode
+    {
+        final CallNode parent;
+        final String name;
+        final HashMap<Integer, CallNode> children;
+        long instructions;
+
+        CallNode(CallNode parent, String name)
+        {
+            this.parent = parent;
+            this.name = name;
+            this.children = new HashMap<>();
+        }
+
+        CallNode child(int entry)
+        {
+            return this.children.computeIfAbsent(entry, key -> new CallNode(this, functionName(key)));
+        }
+    }
+
+    private final long[] opcodeCounts;
+    private final HashMap<Integer, FunctionStats> functions;
+
+    //Open calls, the innermost last
+    private FunctionStats[] frameFunctions;
+    private long[] frameStarts;
+    private long[] frameChildNanos;
+    private int depth;
+
+    private final CallNode root;
+    private CallNode current;
+
+    //Taken backward jumps, indexed by the position of the jump
+    private long[] backEdgeCounts;
+    private int[] backEdgeTargets;
+
+    private int previousPosition;
+    private OpCode previousInstruction;
+
+    public Profiler()
+    {
+        this.opcodeCounts = new long[OPCODES.length];
+        this.functions = new HashMap<>();
+
+        this.frameFunctions = new FunctionStats[64];
+        this.frameStarts = new long[64];
+        this.frameChildNanos = new long[64];
+        this.depth = 0;
+
+        this.root = new CallNode(null, "program");
+        this.current = this.root;
+
+        this.backEdgeCounts = new long[0];
+        this.backEdgeTargets = new int[0];
+
+        this.previousPosition = -1;
+        this.previousInstruction = OpCode.halt;
+    }
+
+    private static String functionName(int entry)
+    {
+        return "L" + entry;
+    }
+
+    @Override
+    public void beforeInstruction(int position, OpCode instruction, int argument, OperandStack stack, OperandStack globals, int framePointer)
+    {
+        this.opcodeCounts[instruction.ordinal()]++;
+        this.current.instructions++;
+
+        if(position <= this.previousPosition && !transfersControl(this.previousInstruction))
+            recordBackEdge(this.previousPosition, position);
+
+        this.previousPosition = position;
+        this.previousInstruction = instruction;
+
+        switch (instruction)
+        {
+            case call -> enter(argument);
+            case ret, retval -> exit();
+            case tcall ->
+            {
+                exit();
+                enter(argument);
+            }
+            default -> { }
+        }
+    }
+
+    private static boolean transfersControl(OpCode instruction)
+    {
+        return instruction == OpCode.call || instruction == OpCode.tcall || instruction == OpCode.ret || instruction == OpCode.retval;
+    }
+
+    private void recordBackEdge(int source, int target)
+    {
+        if(source >= this.backEdgeCounts.length)
+        {
+            int capacity = Math.max(source + 1, this.backEdgeCounts.length * 2);
+
+            this.backEdgeCounts = Arrays.copyOf(this.backEdgeCounts, capacity);
+            this.backEdgeTargets = Arrays.copyOf(this.backEdgeTargets, capacity);
+        }
+
+        this.backEdgeCounts[source]++;
+        this.backEdgeTargets[source] = target;
+    }
+
+    private void enter(int entry)
+    {
+        if(this.depth == this.frameFunctions.length)
+        {
+            this.frameFunctions = Arrays.copyOf(this.frameFunctions, this.depth * 2);
+            this.frameStarts = Arrays.copyOf(this.frameStarts, this.depth * 2);
+            this.frameChildNanos = Arrays.copyOf(this.frameChildNanos, this.depth * 2);
+        }
+
+        FunctionStats function = this.functions.computeIfAbsent(entry, FunctionStats::new);
+        function.calls++;
+        function.active++;
+
+        this.frameFunctions[this.depth] = function;
+        this.frameStarts[this.depth] = System.nanoTime();
+        this.frameChildNanos[this.depth] = 0;
+        this.depth++;
+
+        this.current = this.current.child(entry);
+    }
+
+    private void exit()
+    {
+        if(this.depth == 0)
+            return;
+
+        this.depth--;
+
+        FunctionStats function = this.frameFunctions[this.depth];
+        long elapsed = System.nanoTime() - this.frameStarts[this.depth];
+
+        function.exclusiveNanos += elapsed - this.frameChildNanos[this.depth];
+
+        if(--function.active == 0)
+            function.inclusiveNanos += elapsed;
+
+        if(this.depth > 0)
+            this.frameChildNanos[this.depth - 1] += elapsed;
+
+        this.frameFunctions[this.depth] = null;
+        this.current = this.current.parent;
+    }
+
+    //Closes the calls that were still open, a run that faults never returns from them
+    public void finish()
+    {
+        while(this.depth > 0)
+            exit();
+    }
+
+    private static String milliseconds(long nanos)
+    {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    public void report(PrintStream output)
+    {
+        finish();
+
+        long total = 0;
+        for(long count : this.opcodeCounts)
+            total += count;
+
+        output.println("== Instructions: " + total);
+
+        Integer[] opcodes = new Integer[this.opcodeCounts.length];
+        for(int i = 0; i < opcodes.length; i++)
+            opcodes[i] = i;
+
+        Arrays.sort(opcodes, Comparator.comparingLong((Integer opcode) -> this.opcodeCounts[opcode]).reversed());
+
+        for(int opcode : opcodes)
+            if(this.opcodeCounts[opcode] > 0)
+                output.println(String.format("%-12s %14d %6.2f%%", OPCODES[opcode].name(), this.opcodeCounts[opcode], 100.0 * this.opcodeCounts[opcode] / total));
+
+        output.println("== Functions (ms)");
+        output.println(String.format("%-12s %12s %14s %14s", "function", "calls", "inclusive", "exclusive"));
+
+        ArrayList<FunctionStats> functions = new ArrayList<>(this.functions.values());
+        functions.sort(Comparator.comparingLong((FunctionStats function) -> function.exclusiveNanos).reversed());
+
+        for(FunctionStats function : functions)
+            output.println(String.format("%-12s %12d %14s %14s", functionName(function.entry), function.calls,
+                    milliseconds(function.inclusiveNanos), milliseconds(function.exclusiveNanos)));
+
+        output.println("== Hottest back-edges");
+
+        Integer[] sources = new Integer[this.backEdgeCounts.length];
+        for(int i = 0; i < sources.length; i++)
+            sources[i] = i;
+
+        Arrays.sort(sources, Comparator.comparingLong((Integer source) -> this.backEdgeCounts[source]).reversed());
+
+        for(int i = 0; i < Math.min(BACK_EDGES_SHOWN, sources.length) && this.backEdgeCounts[sources[i]] > 0; i++)
+            output.println(String.format("L%-11s %14d", sources[i] + " -> L" + this.backEdgeTargets[sources[i]], this.backEdgeCounts[sources[i]]));
+    }
+
+    //One "program;L9;L22 count" line per call path, weighted by the instructions executed in its innermost function
+    public void writeCollapsedStacks(String outputFile) throws IOException
+    {
+        finish();
+
+        try(PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(outputFile))))
+        {
+            //Depth first walk, each level remembers where its part of the path starts
+            StringBuilder path = new StringBuilder(this.root.name);
+            ArrayList<Iterator<CallNode>> levels = new ArrayList<>();
+            ArrayList<Integer> pathLengths = new ArrayList<>();
+
+            if(this.root.instructions > 0)
+                writer.println(path + " " + this.root.instructions);
+
+            levels.add(this.root.children.values().iterator());
+            pathLengths.add(path.length());
+
+            while(!levels.isEmpty())
+            {
+                Iterator<CallNode> children = levels.getLast();
+
+                if(!children.hasNext())
+                {
+                    levels.removeLast();
+                    pathLengths.removeLast();
+                    continue;
+                }
+
+                CallNode child = children.next();
+
+                path.setLength(pathLengths.getLast());
+                path.append(';').append(child.name);
+
+                if(child.instructions > 0)
+                    writer.append(path).append(' ').println(child.instructions);
+
+                levels.add(child.children.values().iterator());
+                pathLengths.add(path.length());
+            }
+        }
+    }
+}
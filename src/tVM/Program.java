@@ -0,0 +1,455 @@
+package tVM;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import solUtils.ByteCodeFormat;
+import solUtils.Instruction;
+import solUtils.OpCode;
+import solUtils.StringLiteral;
+import solUtils.Value;
+
+//A loaded bytecode file. It is never changed after loading, so one Program can be run any number of times,
+//by any number of tVMs at once.
+public final class Program
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    private final byte[] code;
+    private final int[] arguments;
+    private final List<Instruction> constPool;
+
+    //The constant pool resolved by index, dconst and sconst push straight from these without going through a Value
+    private final double[] doubleConstants;
+    private final String[] stringConstants;
+
+    //Number of arguments the target of each tcall takes, 0 for every other instruction
+    private final int[] tailCallArities;
+
+    //Sorted entry addresses of the functions, the targets of every call and tcall
+    private final int[] functionEntries;
+
+    //Results of the verifier, the instructions that can run unchecked and the stack each function needs
+    private final boolean[] unchecked;
+    private final int[] maxStack;
+    private final int[] depths;
+
+    //Register form of the code, only translated once a run asks for it
+    private RegisterCode registerCode;
+    private boolean registerCodeTranslated;
+
+    private Program(byte[] code, int[] arguments, List<Instruction> constPool) throws InvalidProgramException
+    {
+        this.code = code;
+        this.arguments = arguments;
+        this.constPool = constPool;
+        this.tailCallArities = new int[code.length];
+
+        this.doubleConstants = new double[constPool.size()];
+        this.stringConstants = new String[constPool.size()];
+
+        for(int i = 0; i < constPool.size(); i++)
+        {
+            Value constant = constPool.get(i).getArgument();
+
+            if(constPool.get(i).getInstruction() == OpCode.dconst)
+                this.doubleConstants[i] = constant.getDouble();
+            else
+                this.stringConstants[i] = constant.getString();
+        }
+
+        Verifier verifier = Verifier.verify(code, arguments, constPool);
+        this.unchecked = verifier.getUnchecked();
+        this.maxStack = verifier.getMaxStack();
+        this.depths = verifier.getDepths();
+
+        HashMap<Integer, Integer> arities = new HashMap<>();
+
+        for(int i = 0; i < code.length; i++)
+        {
+            if(code[i] != OpCode.tcall.ordinal())
+                continue;
+
+            if(i + 1 == code.length || (code[i + 1] != OpCode.ret.ordinal() && code[i + 1] != OpCode.retval.ordinal()))
+                throw new InvalidProgramException("tcall at " + i + " isn't followed by a return.");
+
+            Integer arity = arities.get(arguments[i]);
+            if(arity == null)
+            {
+                arity = findArity(arguments[i]);
+                arities.put(arguments[i], arity);
+            }
+
+            this.tailCallArities[i] = arity;
+        }
+
+        this.functionEntries = findFunctionEntries(code, arguments);
+    }
+
+    private static int[] findFunctionEntries(byte[] code, int[] arguments)
+    {
+        boolean[] isEntry = new boolean[code.length];
+        int count = 0;
+
+        for(int i = 0; i < code.length; i++)
+            if((code[i] == OpCode.call.ordinal() || code[i] == OpCode.tcall.ordinal())
+                    && arguments[i] >= 0 && arguments[i] < code.length && !isEntry[arguments[i]])
+            {
+                isEntry[arguments[i]] = true;
+                count++;
+            }
+
+        int[] entries = new int[count];
+        for(int i = 0, j = 0; i < code.length; i++)
+            if(isEntry[i])
+                entries[j++] = i;
+
+        return entries;
+    }
+
+    //A call doesn't say how many arguments it passes, the returns of the called function do
+    private int findArity(int entry) throws InvalidProgramException
+    {
+        boolean[] visited = new boolean[this.code.length];
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        int arity = -1;
+
+        if(entry >= 0 && entry < this.code.length)
+        {
+            visited[entry] = true;
+            worklist.push(entry);
+        }
+
+        while(!worklist.isEmpty())
+        {
+            int position = worklist.pop();
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+
+            int[] successors = switch (instruction)
+            {
+                case ret, retval, halt -> new int[0];
+                case jump -> new int[]{argument};
+                case jumpt, jumpf -> new int[]{argument, position + 1};
+                default -> new int[]{position + 1};
+            };
+
+            if(instruction == OpCode.ret || instruction == OpCode.retval)
+            {
+                if(arity >= 0 && arity != argument)
+                    throw new InvalidProgramException("Function at " + entry + " returns with different numbers of arguments.");
+
+                arity = argument;
+            }
+
+            for(int successor : successors)
+                if(successor >= 0 && successor < this.code.length && !visited[successor])
+                {
+                    visited[successor] = true;
+                    worklist.push(successor);
+                }
+        }
+
+        if(arity < 0)
+            throw new InvalidProgramException("Target " + entry + " of a tcall never returns.");
+
+        return arity;
+    }
+
+    public static Program load(Path byteCodeFile) throws IOException, InvalidProgramException
+    {
+        return load(ByteCodeBuffer.map(byteCodeFile));
+    }
+
+    public static Program load(byte[] byteCode) throws InvalidProgramException
+    {
+        return load(ByteBuffer.wrap(byteCode));
+    }
+
+    public static Program load(ByteBuffer byteCode) throws InvalidProgramException
+    {
+        if(!VMEvents.recorderStarted())
+            return decode(byteCode);
+
+        VMEvents.ProgramLoad event = new VMEvents.ProgramLoad();
+        event.begin();
+
+        Program program = decode(byteCode);
+
+        event.end();
+        if(event.shouldCommit())
+        {
+            event.bytecodeSize = byteCode.remaining();
+            event.instructions = program.code.length;
+            event.constantPoolSize = program.constPool.size();
+            event.commit();
+        }
+
+        return program;
+    }
+
+    private static Program decode(ByteBuffer byteCode) throws InvalidProgramException
+    {
+        ByteCodeBuffer byteCodeBuffer = new ByteCodeBuffer(byteCode);
+
+        try
+        {
+            Program program = byteCodeBuffer.startsWith(ByteCodeFormat.MAGIC) ? decodeSections(byteCodeBuffer) : decodeVersion1(byteCodeBuffer);
+
+            if(!program.hasHalt())
+                throw new InvalidProgramException("Code doesn't halt.");
+
+            return program;
+        }
+        catch(EOFException e)
+        {
+            throw new InvalidProgramException("Out of file.");
+        }
+        catch(IOException e)
+        {
+            throw new InvalidProgramException(e.getMessage());
+        }
+    }
+
+    //Version 1 files are the constant pool and then instructions up to the end of the file, every operand takes 4 bytes.
+    //Their strings still have the quotes of the literal, version 2 files are only ever written with plain strings.
+    private static Program decodeVersion1(ByteCodeBuffer byteCodeBuffer) throws IOException, InvalidProgramException
+    {
+        List<Instruction> constPool = readVersion1ConstPool(byteCodeBuffer);
+
+        //Decodes the instructions from the bytecode file into the flat code arrays
+        //Most instructions take 5 bytes, so this is rarely grown
+        int capacity = Math.max(64, byteCodeBuffer.remaining() / 4);
+        byte[] code = new byte[capacity];
+        int[] arguments = new int[capacity];
+        int size = 0;
+
+        while(byteCodeBuffer.isAvailable())
+        {
+            byte opCode = byteCodeBuffer.getByte();
+
+            if(opCode < 0 || opCode > OpCode.tcall.ordinal())
+                throw new InvalidProgramException("Invalid instruction " + opCode + ".");
+
+            if(size == code.length)
+            {
+                code = Arrays.copyOf(code, size * 2);
+                arguments = Arrays.copyOf(arguments, size * 2);
+            }
+
+            code[size] = opCode;
+            arguments[size] = tVM.opCodeHasArgument(OPCODES[opCode]) ? byteCodeBuffer.getInt() : 0;
+
+            if(opCode == OpCode.lload.ordinal() || opCode == OpCode.lstore.ordinal())
+                arguments[size] = relocateLocal(arguments[size]);
+
+            size++;
+        }
+
+        return new Program(Arrays.copyOf(code, size), Arrays.copyOf(arguments, size), constPool);
+    }
+
+    //Version 2 files say up front how many constants and instructions there are and how many bytes they take
+    private static Program decodeSections(ByteCodeBuffer byteCodeBuffer) throws IOException, InvalidProgramException
+    {
+        byteCodeBuffer.getInt();
+
+        int version = byteCodeBuffer.getUnsignedShort();
+        if(version != ByteCodeFormat.VERSION)
+            throw new InvalidProgramException("Unsupported bytecode version " + version + ".");
+
+        int constants = byteCodeBuffer.getInt();
+        int constantBytes = byteCodeBuffer.getInt();
+        int instructions = byteCodeBuffer.getInt();
+        int codeBytes = byteCodeBuffer.getInt();
+
+        if(constants < 0 || constantBytes < 0 || instructions < 0 || codeBytes < 0 || instructions > codeBytes)
+            throw new InvalidProgramException("Invalid section table.");
+
+        if((long) constantBytes + codeBytes != byteCodeBuffer.remaining())
+            throw new InvalidProgramException("Section sizes don't match the file size.");
+
+        ArrayList<Instruction> constPool = new ArrayList<>(constants);
+        int codeStart = byteCodeBuffer.position() + constantBytes;
+
+        for(int i = 0; i < constants; i++)
+        {
+            byte opCode = byteCodeBuffer.getByte();
+
+            if(opCode == OpCode.dconst.ordinal())
+                constPool.add(new Instruction(OpCode.dconst, Value.of(byteCodeBuffer.getDouble())));
+            else if(opCode == OpCode.sconst.ordinal())
+                constPool.add(new Instruction(OpCode.sconst, Value.of(byteCodeBuffer.getUtf8String())));
+            else
+                throw new InvalidProgramException("Invalid constant pool entry " + opCode + ".");
+        }
+
+        if(byteCodeBuffer.position() != codeStart)
+            throw new InvalidProgramException("Constant section size doesn't match its constants.");
+
+        byte[] code = new byte[instructions];
+        int[] arguments = new int[instructions];
+
+        for(int i = 0; i < instructions; i++)
+        {
+            int opCode = byteCodeBuffer.getByte() & 0xFF;
+
+            if(opCode >= ByteCodeFormat.SHORT_FORM_BASE)
+            {
+                int shortForm = opCode - ByteCodeFormat.SHORT_FORM_BASE;
+
+                if(shortForm >= ByteCodeFormat.shortFormCount())
+                    throw new InvalidProgramException("Invalid short form instruction " + opCode + ".");
+
+                code[i] = (byte) ByteCodeFormat.shortFormOpCode(shortForm).ordinal();
+                arguments[i] = ByteCodeFormat.shortFormOperand(shortForm);
+            }
+            else if(opCode > OpCode.tcall.ordinal())
+                throw new InvalidProgramException("Invalid instruction " + opCode + ".");
+            else
+            {
+                code[i] = (byte) opCode;
+                arguments[i] = tVM.opCodeHasArgument(OPCODES[opCode]) ? ByteCodeFormat.unzigzag(byteCodeBuffer.getVarInt()) : 0;
+            }
+
+            if(code[i] == OpCode.lload.ordinal() || code[i] == OpCode.lstore.ordinal())
+                arguments[i] = relocateLocal(arguments[i]);
+        }
+
+        if(byteCodeBuffer.isAvailable())
+            throw new InvalidProgramException("Code section size doesn't match its instructions.");
+
+        return new Program(code, arguments, List.copyOf(constPool));
+    }
+
+    //In the bytecode the locals start after the two slots where calls used to save the frame pointer and the
+    //return address, those now live on the tVM frame stack so the locals start right at the frame pointer
+    private static int relocateLocal(int address) throws InvalidProgramException
+    {
+        if(address == 0 || address == 1)
+            throw new InvalidProgramException("Local address " + address + " points into the frame header.");
+
+        return address > 0 ? address - 2 : address;
+    }
+
+    //Older compilers and assemblers saved strings with the quotes and escapes of their literal
+    private static String unquoteLegacyString(String literal) throws InvalidProgramException
+    {
+        if(literal.length() < 2 || literal.charAt(0) != '"' || literal.charAt(literal.length() - 1) != '"')
+            throw new InvalidProgramException("Invalid string constant " + literal + ".");
+
+        return StringLiteral.unquote(literal);
+    }
+
+    private static List<Instruction> readVersion1ConstPool(ByteCodeBuffer byteCodeBuffer) throws IOException, InvalidProgramException
+    {
+        int constantPoolSize = byteCodeBuffer.getInt();
+        ArrayList<Instruction> constPool = new ArrayList<>();
+
+        while (constantPoolSize-- > 0)
+        {
+            byte opCode = byteCodeBuffer.getByte();
+
+            if(opCode == OpCode.dconst.ordinal())
+                constPool.add(new Instruction(OpCode.dconst, Value.of(byteCodeBuffer.getDouble())));
+            else if(opCode == OpCode.sconst.ordinal())
+                constPool.add(new Instruction(OpCode.sconst, Value.of(unquoteLegacyString(byteCodeBuffer.getString()))));
+            else
+                throw new InvalidProgramException("Invalid constant pool entry " + opCode + ".");
+        }
+
+        return List.copyOf(constPool);
+    }
+
+    private boolean hasHalt()
+    {
+        for(byte instruction : this.code)
+            if(instruction == OpCode.halt.ordinal())
+                return true;
+
+        return false;
+    }
+
+    public int size()
+    {
+        return this.code.length;
+    }
+
+    static String functionName(int entry)
+    {
+        return "L" + entry;
+    }
+
+    //Name of the function the instruction at a position belongs to, the code of a function starts at its entry
+    //and goes on until the next one, anything before the first function is the main program
+    String functionAt(int position)
+    {
+        int index = Arrays.binarySearch(this.functionEntries, position);
+
+        if(index < 0)
+            index = -index - 2;
+
+        return index < 0 ? "program" : functionName(this.functionEntries[index]);
+    }
+
+    //The arrays are shared with every run and must not be written to
+    byte[] getCode()
+    {
+        return this.code;
+    }
+
+    int[] getArguments()
+    {
+        return this.arguments;
+    }
+
+    List<Instruction> getConstPool()
+    {
+        return this.constPool;
+    }
+
+    double[] getDoubleConstants()
+    {
+        return this.doubleConstants;
+    }
+
+    String[] getStringConstants()
+    {
+        return this.stringConstants;
+    }
+
+    int[] getTailCallArities()
+    {
+        return this.tailCallArities;
+    }
+
+    boolean[] getUnchecked()
+    {
+        return this.unchecked;
+    }
+
+    //null if the verifier couldn't follow the stack through the whole program
+    synchronized RegisterCode getRegisterCode()
+    {
+        if(!this.registerCodeTranslated)
+        {
+            this.registerCode = RegisterCode.translate(this.code, this.arguments, this.depths, this.maxStack, this.tailCallArities);
+            this.registerCodeTranslated = true;
+        }
+
+        return this.registerCode;
+    }
+
+    //Operand slots the function at entry uses above its frame pointer, 0 is the main program
+    int getMaxStack(int entry)
+    {
+        return this.maxStack[entry];
+    }
+}
@@ -0,0 +1,92 @@
+package tVM;
+
+import ErrorHandler.ErrorLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+//Runs each bytecode file on the stack interpreter and on its register form and reports the median run of both.
+//The output of the programs is thrown away, the first runs only warm the JVM up.
+public class RegisterBenchmark
+{
+    private static final int WARMUP_RUNS = 3;
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private static String milliseconds(long nanos)
+    {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+
+    private static void run(Program program, boolean registers) throws Exception
+    {
+        new tVM(VMOptions.defaults().withRegisters(registers)).run(program, new ExecutionContext(DISCARD));
+    }
+
+    private static long median(Program program, boolean registers, int runs) throws Exception
+    {
+        for(int i = 0; i < WARMUP_RUNS; i++)
+            run(program, registers);
+
+        long[] times = new long[runs];
+
+        for(int i = 0; i < runs; i++)
+        {
+            long start = System.nanoTime();
+            run(program, registers);
+            times[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(times);
+        return times[times.length / 2];
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int runs = 10;
+        ArrayList<String> inputFiles = new ArrayList<>();
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("-runs="))
+                runs = Integer.parseInt(arg.substring("-runs=".length()));
+            else
+                inputFiles.add(arg);
+        }
+
+        if (inputFiles.isEmpty() || runs < 1)
+            ErrorLog.fatalError("Wrong arguments. tVM.RegisterBenchmark [-runs=N] [FILE]...");
+
+        for (String inputFile : inputFiles)
+        {
+            if (!new File(inputFile).exists())
+                ErrorLog.fatalError("File " + inputFile + " does not exist.");
+
+            try
+            {
+                Program program = Program.load(Path.of(inputFile));
+
+                if (program.getRegisterCode() == null)
+                {
+                    System.out.println(inputFile + ": no register form");
+                    continue;
+                }
+
+                long stack = median(program, false, runs);
+                long registers = median(program, true, runs);
+
+                System.out.println(inputFile + ": " + runs + " runs, stack " + milliseconds(stack) + ", registers "
+                        + milliseconds(registers) + ", " + String.format("%.2fx", (double) stack / registers));
+            }
+            catch (InvalidProgramException | IOException e)
+            {
+                ErrorLog.fatalError(inputFile + ": " + e.getMessage());
+            }
+        }
+    }
+}
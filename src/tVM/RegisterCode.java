@@ -0,0 +1,596 @@
+package tVM;
+
+import java.util.Arrays;
+
+import solUtils.OpCode;
+
+//Register form of a program, made from its stack code when a tVM runs with -registers. A register is a frame slot,
+//numbered from the frame pointer like lload and lstore addresses, so every instruction names where its operands are
+//and where its result goes: "lload 2, lload 3, iadd, lstore 4" becomes the single "iadd 4 2 3". The stack slot an
+//operand would have been pushed to is its register, so at every jump, call and return the frame holds exactly what
+//the stack interpreter would have in it and the same calling convention works for both.
+//Translation needs the stack depth of every instruction, so a program the verifier couldn't analyse has no register form.
+final class RegisterCode
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    //Operands are in a, b and c, d is a destination register, r a source register and L a jump target
+    enum Op
+    {
+        iconst,     // d, value
+        dconst,     // d, constant
+        sconst,     // d, constant
+        tconst,     // d
+        fconst,     // d
+        move,       // d, r
+        gload,      // d, address
+        gstore,     // address, r
+        galloc,     // size
+        lalloc,     // d, size, sets size registers from d on to NIL
+
+        iadd, isub, imult, idiv, imod, ieq, ineq, ilt, ileq,
+        iaddk, isubk,                   // d, r, value
+        dadd, dsub, dmult, ddiv, deq, dneq, dlt, dleq,
+        sadd, seq, sneq,
+        beq, bneq, and, or,             // d, r, r
+
+        iuminus, itod, itos, duminus, dtos, btos, not,  // d, r
+
+        iprint, dprint, sprint, bprint, // r
+
+        jump,       // L
+        jumpt,      // r, L
+        jumpf,      // r, L
+        iltjumpf, ileqjumpf, ieqjumpf, ineqjumpf,   // r, r, L
+        iltjumpfk, ileqjumpfk, ieqjumpfk, ineqjumpfk,   // r, value, L
+
+        call,       // L, depth of the stack at the call, frame size of the caller to restore when it returns
+        tcall,      // L, depth of the stack at the call, number of arguments of the callee
+        ret,        // number of arguments
+        retval,     // number of arguments, r
+        halt
+    }
+
+    //Marks a stack slot that holds its own value, any other slot is still in the local it was loaded from
+    //or, for CONSTANT, is an iconst that wasn't needed in a register yet
+    private static final int MATERIALIZED = Integer.MIN_VALUE;
+    private static final int CONSTANT = Integer.MIN_VALUE + 1;
+
+    private final Op[] ops;
+    private final int[] a;
+    private final int[] b;
+    private final int[] c;
+
+    //Registers each function needs and its entry in the stack code, both set at function entries, and the stack
+    //instruction each register one came from
+    private final int[] frameSizes;
+    private final int[] entries;
+    private final int[] sources;
+    private final int mainFrameSize;
+
+    private RegisterCode(Op[] ops, int[] a, int[] b, int[] c, int[] frameSizes, int[] entries, int[] sources, int mainFrameSize)
+    {
+        this.ops = ops;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.frameSizes = frameSizes;
+        this.entries = entries;
+        this.sources = sources;
+        this.mainFrameSize = mainFrameSize;
+    }
+
+    Op[] getOps()
+    {
+        return this.ops;
+    }
+
+    int[] getA()
+    {
+        return this.a;
+    }
+
+    int[] getB()
+    {
+        return this.b;
+    }
+
+    int[] getC()
+    {
+        return this.c;
+    }
+
+    int[] getFrameSizes()
+    {
+        return this.frameSizes;
+    }
+
+    int getMainFrameSize()
+    {
+        return this.mainFrameSize;
+    }
+
+    //Stack instruction a register instruction was made from, for fault reports
+    int sourceOf(int position)
+    {
+        return this.sources[position];
+    }
+
+    //Entry in the stack code of the function that starts at a register instruction, it names the function in events
+    int entryOf(int position)
+    {
+        return this.entries[position];
+    }
+
+    public int size()
+    {
+        return this.ops.length;
+    }
+
+    //null when the program has no register form
+    static RegisterCode translate(byte[] code, int[] arguments, int[] depths, int[] maxStack, int[] tailCallArities)
+    {
+        if(code.length == 0 || depths[0] < 0)
+            return null;
+
+        return new Translator(code, arguments, depths, maxStack, tailCallArities).translate();
+    }
+
+    private static class Translator
+    {
+        private final byte[] code;
+        private final int[] arguments;
+        private final int[] depths;
+        private final int[] maxStack;
+        private final int[] tailCallArities;
+        private final boolean[] leaders;
+        private final boolean[] entries;
+
+        //Register position of each stack instruction, one more for the end of the code
+        private final int[] positions;
+
+        private Op[] ops;
+        private int[] a;
+        private int[] b;
+        private int[] c;
+        private int[] sources;
+        private int size;
+        private int source;
+        //Entry of the function being translated, 0 for the main program
+        private int function;
+
+        //Symbolic stack, each slot is MATERIALIZED, CONSTANT with its value in constants or the register of the local
+        //that holds its value
+        private int[] slots;
+        private int[] constants;
+        private int depth;
+
+        Translator(byte[] code, int[] arguments, int[] depths, int[] maxStack, int[] tailCallArities)
+        {
+            this.code = code;
+            this.arguments = arguments;
+            this.depths = depths;
+            this.maxStack = maxStack;
+            this.tailCallArities = tailCallArities;
+            this.leaders = new boolean[code.length + 1];
+            this.entries = new boolean[code.length];
+            this.positions = new int[code.length + 1];
+
+            this.ops = new Op[code.length + 1];
+            this.a = new int[code.length + 1];
+            this.b = new int[code.length + 1];
+            this.c = new int[code.length + 1];
+            this.sources = new int[code.length + 1];
+            this.size = 0;
+
+            this.slots = new int[16];
+            this.constants = new int[16];
+            this.depth = 0;
+
+            for(int i = 0; i < code.length; i++)
+            {
+                OpCode instruction = OPCODES[code[i]];
+
+                switch (instruction)
+                {
+                    case jump, jumpt, jumpf -> this.leaders[arguments[i]] = true;
+                    case call, tcall ->
+                    {
+                        this.leaders[arguments[i]] = true;
+                        this.entries[arguments[i]] = true;
+                    }
+                    default -> { }
+                }
+
+                if(instruction == OpCode.jumpt || instruction == OpCode.jumpf)
+                    this.leaders[i + 1] = true;
+            }
+        }
+
+        private int frameSize(int entry)
+        {
+            //The verifier measures the depth before each instruction, the last push of a function can go one past it
+            return this.maxStack[entry] + 1;
+        }
+
+        RegisterCode translate()
+        {
+            for(int i = 0; i < this.code.length; i++)
+            {
+                this.positions[i] = this.size;
+                this.source = i;
+
+                if(this.entries[i])
+                    this.function = i;
+
+                if(this.depths[i] < 0)
+                    continue;
+
+                //A block is entered with every slot in its register
+                if(this.leaders[i])
+                    enterBlock(this.depths[i]);
+
+                int last = translate(i);
+
+                //An instruction folded into the one before it is never a jump target
+                for(i++; i <= last; i++)
+                    this.positions[i] = this.positions[i - 1];
+                i = last;
+
+                if(i + 1 < this.code.length && this.leaders[i + 1] && fallsThrough(OPCODES[this.code[i]]))
+                    flush(this.depth);
+            }
+
+            this.positions[this.code.length] = this.size;
+            emit(Op.halt, 0, 0, 0);
+
+            int[] frameSizes = new int[this.size];
+            int[] entries = new int[this.size];
+
+            for(int i = 0; i < this.size; i++)
+            {
+                switch (this.ops[i])
+                {
+                    case jump, call, tcall -> this.a[i] = this.positions[this.a[i]];
+                    case jumpt, jumpf -> this.b[i] = this.positions[this.b[i]];
+                    case iltjumpf, ileqjumpf, ieqjumpf, ineqjumpf, iltjumpfk, ileqjumpfk, ieqjumpfk, ineqjumpfk ->
+                            this.c[i] = this.positions[this.c[i]];
+                    default -> { }
+                }
+            }
+
+            for(int i = 0; i < this.code.length; i++)
+                if(this.entries[i])
+                {
+                    frameSizes[this.positions[i]] = frameSize(i);
+                    entries[this.positions[i]] = i;
+                }
+
+            return new RegisterCode(Arrays.copyOf(this.ops, this.size), Arrays.copyOf(this.a, this.size), Arrays.copyOf(this.b, this.size),
+                    Arrays.copyOf(this.c, this.size), frameSizes, entries, Arrays.copyOf(this.sources, this.size), frameSize(0));
+        }
+
+        private void emit(Op op, int first, int second, int third)
+        {
+            if(this.size == this.ops.length)
+            {
+                int capacity = this.size * 2;
+                this.ops = Arrays.copyOf(this.ops, capacity);
+                this.a = Arrays.copyOf(this.a, capacity);
+                this.b = Arrays.copyOf(this.b, capacity);
+                this.c = Arrays.copyOf(this.c, capacity);
+                this.sources = Arrays.copyOf(this.sources, capacity);
+            }
+
+            this.ops[this.size] = op;
+            this.a[this.size] = first;
+            this.b[this.size] = second;
+            this.c[this.size] = third;
+            this.sources[this.size] = this.source;
+            this.size++;
+        }
+
+        private void push(int slot, int constant)
+        {
+            if(this.depth == this.slots.length)
+            {
+                this.slots = Arrays.copyOf(this.slots, this.depth * 2);
+                this.constants = Arrays.copyOf(this.constants, this.depth * 2);
+            }
+
+            this.slots[this.depth] = slot;
+            this.constants[this.depth++] = constant;
+        }
+
+        private void push(int slot)
+        {
+            push(slot, 0);
+        }
+
+        private boolean isConstant(int position)
+        {
+            return this.slots[position] == CONSTANT;
+        }
+
+        //Register that holds the value of a stack slot
+        private int register(int position)
+        {
+            materializeConstant(position);
+            return this.slots[position] == MATERIALIZED ? position : this.slots[position];
+        }
+
+        private int pop()
+        {
+            this.depth--;
+            return register(this.depth);
+        }
+
+        private int popConstant()
+        {
+            return this.constants[--this.depth];
+        }
+
+        //Copies every slot below limit that is still in a local into its own register
+        private void flush(int limit)
+        {
+            for(int i = 0; i < limit; i++)
+                materialize(i);
+        }
+
+        private void materialize(int position)
+        {
+            if(this.slots[position] == MATERIALIZED || materializeConstant(position))
+                return;
+
+            emit(Op.move, position, this.slots[position], 0);
+            this.slots[position] = MATERIALIZED;
+        }
+
+        private boolean materializeConstant(int position)
+        {
+            if(this.slots[position] != CONSTANT)
+                return false;
+
+            emit(Op.iconst, position, this.constants[position], 0);
+            this.slots[position] = MATERIALIZED;
+            return true;
+        }
+
+        //A local is about to be written, the slots still reading it need their own copy first
+        private void writing(int register)
+        {
+            for(int i = 0; i < this.depth; i++)
+                if(this.slots[i] == register)
+                    materialize(i);
+
+            if(register >= 0 && register < this.depth)
+                this.slots[register] = MATERIALIZED;
+        }
+
+        private static boolean fallsThrough(OpCode instruction)
+        {
+            return instruction != OpCode.jump && instruction != OpCode.ret && instruction != OpCode.retval && instruction != OpCode.halt;
+        }
+
+        private boolean fusesWith(int position, OpCode next)
+        {
+            return position + 1 < this.code.length && !this.leaders[position + 1] && this.code[position + 1] == next.ordinal();
+        }
+
+        //Where the result of the instruction at position goes. An lstore right after it is folded in, the result is
+        //then written straight to the local and the lstore is skipped.
+        private int destination(int position)
+        {
+            if(fusesWith(position, OpCode.lstore))
+            {
+                int local = this.arguments[position + 1];
+                writing(local);
+                return local;
+            }
+
+            push(MATERIALIZED);
+            return this.depth - 1;
+        }
+
+        //Position of the last stack instruction used
+        private int store(int position)
+        {
+            return fusesWith(position, OpCode.lstore) ? position + 1 : position;
+        }
+
+        private int translate(int position)
+        {
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+
+            switch (instruction)
+            {
+                case iconst ->
+                {
+                    if(fusesWith(position, OpCode.lstore))
+                    {
+                        emit(Op.iconst, destination(position), argument, 0);
+                        return position + 1;
+                    }
+
+                    //Kept out of the registers, so it can become the immediate operand of what uses it
+                    push(CONSTANT, argument);
+                    return position;
+                }
+                case dconst, sconst, tconst, fconst, gload ->
+                {
+                    Op op = switch (instruction)
+                    {
+                        case dconst -> Op.dconst;
+                        case sconst -> Op.sconst;
+                        case tconst -> Op.tconst;
+                        case fconst -> Op.fconst;
+                        default -> Op.gload;
+                    };
+
+                    int last = store(position);
+                    emit(op, destination(position), argument, 0);
+                    return last;
+                }
+                case lload ->
+                {
+                    //Locals are read where they are, they are only copied if the local is written while still on the stack
+                    if(argument >= 0 && this.slots[argument] != MATERIALIZED)
+                        push(this.slots[argument], this.constants[argument]);
+                    else
+                        push(argument);
+
+                    return position;
+                }
+                case lstore ->
+                {
+                    int value = pop();
+                    writing(argument);
+
+                    if(value != argument)
+                        emit(Op.move, argument, value, 0);
+
+                    return position;
+                }
+                case gstore ->
+                {
+                    emit(Op.gstore, argument, pop(), 0);
+                    return position;
+                }
+                case galloc ->
+                {
+                    emit(Op.galloc, argument, 0, 0);
+                    return position;
+                }
+                case lalloc ->
+                {
+                    emit(Op.lalloc, this.depth, argument, 0);
+
+                    for(int i = 0; i < argument; i++)
+                        push(MATERIALIZED);
+
+                    return position;
+                }
+                case pop ->
+                {
+                    this.depth -= argument;
+                    return position;
+                }
+                case ilt, ileq, ieq, ineq ->
+                {
+                    if(!fusesWith(position, OpCode.jumpf))
+                        return binary(position, instruction);
+
+                    boolean immediate = isConstant(this.depth - 1);
+                    int right = immediate ? popConstant() : pop();
+                    int left = pop();
+                    flush(this.depth);
+
+                    Op op = switch (instruction)
+                    {
+                        case ilt -> immediate ? Op.iltjumpfk : Op.iltjumpf;
+                        case ileq -> immediate ? Op.ileqjumpfk : Op.ileqjumpf;
+                        case ieq -> immediate ? Op.ieqjumpfk : Op.ieqjumpf;
+                        default -> immediate ? Op.ineqjumpfk : Op.ineqjumpf;
+                    };
+
+                    emit(op, left, right, this.arguments[position + 1]);
+                    return position + 1;
+                }
+                case iadd, isub ->
+                {
+                    if(!isConstant(this.depth - 1))
+                        return binary(position, instruction);
+
+                    int value = popConstant();
+                    int left = pop();
+                    int last = store(position);
+
+                    emit(instruction == OpCode.iadd ? Op.iaddk : Op.isubk, destination(position), left, value);
+                    return last;
+                }
+                case imult, idiv, imod, dadd, dsub, dmult, ddiv, deq, dneq, dlt, dleq,
+                     sadd, seq, sneq, beq, bneq, and, or -> { return binary(position, instruction); }
+                case iuminus, itod, itos, duminus, dtos, btos, not ->
+                {
+                    int operand = pop();
+                    int last = store(position);
+                    emit(Op.valueOf(instruction.name()), destination(position), operand, 0);
+                    return last;
+                }
+                case iprint, dprint, sprint, bprint ->
+                {
+                    emit(Op.valueOf(instruction.name()), pop(), 0, 0);
+                    return position;
+                }
+                case jump ->
+                {
+                    flush(this.depth);
+                    emit(Op.jump, argument, 0, 0);
+                    return position;
+                }
+                case jumpt, jumpf ->
+                {
+                    int condition = pop();
+                    flush(this.depth);
+                    emit(instruction == OpCode.jumpt ? Op.jumpt : Op.jumpf, condition, argument, 0);
+                    return position;
+                }
+                case call ->
+                {
+                    flush(this.depth);
+                    emit(Op.call, argument, this.depth, frameSize(this.function));
+                    returned(position);
+                    return position;
+                }
+                case tcall ->
+                {
+                    flush(this.depth);
+                    emit(Op.tcall, argument, this.depth, this.tailCallArities[position]);
+                    returned(position);
+                    return position;
+                }
+                case ret ->
+                {
+                    emit(Op.ret, argument, 0, 0);
+                    return position;
+                }
+                case retval ->
+                {
+                    emit(Op.retval, argument, pop(), 0);
+                    return position;
+                }
+                case halt ->
+                {
+                    emit(Op.halt, 0, 0, 0);
+                    return position;
+                }
+                default -> throw new IllegalStateException("No register form for " + instruction + ".");
+            }
+        }
+
+        private int binary(int position, OpCode instruction)
+        {
+            int right = pop();
+            int left = pop();
+            int last = store(position);
+
+            emit(Op.valueOf(instruction.name()), destination(position), left, right);
+            return last;
+        }
+
+        //Everything a call leaves is in its register, the depth after it is the one the verifier found
+        private void returned(int position)
+        {
+            enterBlock(position + 1 < this.code.length ? Math.max(this.depths[position + 1], 0) : 0);
+        }
+
+        private void enterBlock(int depth)
+        {
+            this.depth = 0;
+
+            for(int i = 0; i < depth; i++)
+                push(MATERIALIZED);
+        }
+    }
+}
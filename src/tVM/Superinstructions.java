@@ -0,0 +1,129 @@
+package tVM;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import solUtils.OpCode;
+
+//Rewrites common instruction sequences into fused superinstructions when a program is loaded.
+//Only the first instruction of a sequence is replaced, the rest stays in place so jump targets
+//inside the sequence keep working and the fused handler just skips over it.
+public class Superinstructions
+{
+    private interface ArgumentCondition
+    {
+        boolean matches(int[] arguments, int position);
+    }
+
+    private record Pattern(OpCode fused, OpCode[] sequence, ArgumentCondition condition)
+    {
+        Pattern(OpCode fused, OpCode... sequence)
+        {
+            this(fused, sequence, (arguments, position) -> true);
+        }
+    }
+
+    //Patterns taken from the code solCompiler emits for the for step, loop tests and if conditions
+    private static final List<Pattern> BUILT_IN = List.of(
+            new Pattern(OpCode.linc, new OpCode[]{OpCode.iconst, OpCode.lload, OpCode.iadd, OpCode.lstore},
+                    (arguments, position) -> arguments[position + 1] == arguments[position + 3]),
+            new Pattern(OpCode.ginc, new OpCode[]{OpCode.iconst, OpCode.gload, OpCode.iadd, OpCode.gstore},
+                    (arguments, position) -> arguments[position + 1] == arguments[position + 3]),
+            new Pattern(OpCode.ileqjumpf, OpCode.ileq, OpCode.jumpf),
+            new Pattern(OpCode.iltjumpf, OpCode.ilt, OpCode.jumpf),
+            new Pattern(OpCode.ieqjumpf, OpCode.ieq, OpCode.jumpf),
+            new Pattern(OpCode.ineqjumpf, OpCode.ineq, OpCode.jumpf)
+    );
+
+    //Share of the executed bigrams a pattern needs in a profile to be worth fusing
+    private static final double MINIMUM_PROFILE_SHARE = 0.001;
+
+    private final List<Pattern> patterns;
+
+    private Superinstructions(List<Pattern> patterns)
+    {
+        this.patterns = patterns;
+    }
+
+    public static Superinstructions builtIn()
+    {
+        return new Superinstructions(BUILT_IN);
+    }
+
+    public static Superinstructions none()
+    {
+        return new Superinstructions(List.of());
+    }
+
+    //Keeps only the built-in patterns that were hot in a previous run, hottest first
+    public static Superinstructions fromProfile(BigramProfile profile)
+    {
+        double minimumCount = Math.max(1, profile.getTotal() * MINIMUM_PROFILE_SHARE);
+        List<Pattern> selected = new ArrayList<>();
+
+        for(Pattern pattern : BUILT_IN)
+            if(score(pattern, profile) >= minimumCount)
+                selected.add(pattern);
+
+        selected.sort(Comparator.comparingLong((Pattern pattern) -> score(pattern, profile)).reversed());
+
+        return new Superinstructions(selected);
+    }
+
+    //A sequence can't run more often than its rarest bigram
+    private static long score(Pattern pattern, BigramProfile profile)
+    {
+        long result = Long.MAX_VALUE;
+
+        for(int i = 1; i < pattern.sequence().length; i++)
+            result = Math.min(result, profile.getCount(pattern.sequence()[i - 1], pattern.sequence()[i]));
+
+        return result;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.patterns.isEmpty();
+    }
+
+    private static boolean matches(Pattern pattern, byte[] code, int[] arguments, int position)
+    {
+        OpCode[] sequence = pattern.sequence();
+
+        if(position + sequence.length > code.length)
+            return false;
+
+        for(int i = 0; i < sequence.length; i++)
+            if(code[position + i] != sequence[i].ordinal())
+                return false;
+
+        return pattern.condition().matches(arguments, position);
+    }
+
+    public byte[] rewrite(byte[] code, int[] arguments)
+    {
+        byte[] result = Arrays.copyOf(code, code.length);
+
+        int position = 0;
+        while(position < code.length)
+        {
+            int length = 1;
+
+            for(Pattern pattern : this.patterns)
+            {
+                if(matches(pattern, code, arguments, position))
+                {
+                    result[position] = (byte) pattern.fused().ordinal();
+                    length = pattern.sequence().length;
+                    break;
+                }
+            }
+
+            position += length;
+        }
+
+        return result;
+    }
+}
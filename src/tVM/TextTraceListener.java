@@ -0,0 +1,36 @@
+package tVM;
+
+import java.io.PrintStream;
+
+import solUtils.OpCode;
+
+//Prints the globals, the stack and the frame pointer before each instruction, this is what -trace shows
+public class TextTraceListener implements ExecutionListener
+{
+    private static final String INDENT = "                ";
+
+    private final PrintStream output;
+
+    public TextTraceListener(PrintStream output)
+    {
+        this.output = output;
+    }
+
+    public TextTraceListener()
+    {
+        this(System.out);
+    }
+
+    @Override
+    public void beforeInstruction(int position, OpCode instruction, int argument, OperandStack stack, OperandStack globals, int framePointer)
+    {
+        this.output.println(INDENT + "Globals: " + globals);
+        this.output.println(INDENT + "Stack: " + stack);
+        this.output.println(INDENT + "FramePointer: " + framePointer);
+
+        if(tVM.opCodeHasArgument(instruction))
+            this.output.println(position + ": " + instruction.name() + " " + argument);
+        else
+            this.output.println(position + ": " + instruction.name());
+    }
+}
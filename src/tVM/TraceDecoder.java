@@ -0,0 +1,88 @@
+package tVM;
+
+import ErrorHandler.ErrorLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import solUtils.OpCode;
+
+//Prints a trace written by BinaryTraceWriter, one line per executed instruction
+public class TraceDecoder
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    private static String topToString(byte tag, long top)
+    {
+        return switch (tag)
+        {
+            case OperandStack.INT -> String.valueOf((int) top);
+            case OperandStack.DOUBLE -> String.valueOf(Double.longBitsToDouble(top));
+            case OperandStack.BOOLEAN -> String.valueOf(top != 0);
+            case OperandStack.STRING -> "<string of length " + top + ">";
+            default -> "NIL";
+        };
+    }
+
+    public static void decode(String inputFile, PrintStream output) throws IOException
+    {
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(inputFile))))
+        {
+            if(input.readInt() != BinaryTraceWriter.MAGIC)
+                ErrorLog.fatalError("File " + inputFile + " is not a tVM trace.");
+
+            short version = input.readShort();
+            if(version != BinaryTraceWriter.VERSION)
+                ErrorLog.fatalError("Unsupported trace version " + version + ".");
+
+            long executed = input.readLong();
+            long records = input.readLong();
+
+            output.println("Executed instructions: " + executed);
+            output.println("Recorded instructions: " + records);
+
+            for(long i = 0; i < records; i++)
+            {
+                int position = input.readInt();
+                int opCode = input.readUnsignedByte();
+                byte tag = input.readByte();
+                int stackSize = input.readInt();
+                int argument = input.readInt();
+                long top = input.readLong();
+
+                if(opCode >= OPCODES.length)
+                    ErrorLog.fatalError("Invalid instruction " + opCode + " in trace.");
+
+                OpCode instruction = OPCODES[opCode];
+                String text = tVM.opCodeHasArgument(instruction) ? instruction.name() + " " + argument : instruction.name();
+
+                output.println(position + ": " + text + "    stack size " + stackSize + ", top " + topToString(tag, top));
+            }
+        }
+        catch(EOFException e)
+        {
+            ErrorLog.fatalError("Trace file " + inputFile + " is truncated.");
+        }
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length != 1)
+            ErrorLog.fatalError("Wrong number of arguments. tVM.TraceDecoder [TRACE FILE]");
+
+        if(!new File(args[0]).exists())
+            ErrorLog.fatalError("File " + args[0] + " does not exist.");
+
+        PrintStream output = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false);
+        decode(args[0], output);
+        output.flush();
+    }
+}
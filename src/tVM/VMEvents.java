@@ -0,0 +1,104 @@
+package tVM;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+//Flight Recorder events of tVM. They only show up in a recording that enables them, an event that isn't enabled costs
+//one check where it would be emitted. Positions are instruction indexes and functions are named by their entry address,
+//like the L tags of the tasm files.
+public final class VMEvents
+{
+    private VMEvents() {}
+
+    //Loading the first event class sets up the whole recorder, so the events aren't touched until a recording has started
+    static boolean recorderStarted()
+    {
+        return FlightRecorder.isInitialized();
+    }
+
+    //Calls are only timed while a recording has tVM.FunctionCall enabled
+    static boolean functionCallsRecorded()
+    {
+        return recorderStarted() && new FunctionCall().isEnabled();
+    }
+
+    @Name("tVM.ProgramLoad")
+    @Label("Program Load")
+    @Category({"Sol", "tVM"})
+    @Description("A bytecode file was decoded into a Program")
+    @StackTrace(false)
+    public static final class ProgramLoad extends Event
+    {
+        @Label("Bytecode Size")
+        @DataAmount
+        public int bytecodeSize;
+
+        @Label("Instructions")
+        public int instructions;
+
+        @Label("Constant Pool Size")
+        public int constantPoolSize;
+    }
+
+    @Name("tVM.FunctionCall")
+    @Label("Sol Function Call")
+    @Category({"Sol", "tVM"})
+    @Description("A Sol function call that took longer than the threshold, from the call until its return")
+    @Threshold("10 ms")
+    @StackTrace(false)
+    public static final class FunctionCall extends Event
+    {
+        @Label("Function")
+        public String function;
+
+        @Label("Call Position")
+        public int pc;
+
+        @Label("Tail Call")
+        public boolean tailCall;
+    }
+
+    @Name("tVM.MemoryPressure")
+    @Label("Memory Pressure")
+    @Category({"Sol", "tVM"})
+    @Description("The stacks and globals of a run grew past a fraction of the memory limit")
+    @StackTrace(false)
+    public static final class MemoryPressure extends Event
+    {
+        @Label("Function")
+        public String function;
+
+        @Label("Position")
+        public int pc;
+
+        @Label("Used Slots")
+        public long usedSlots;
+
+        @Label("Slot Limit")
+        public long slotLimit;
+    }
+
+    @Name("tVM.Fault")
+    @Label("Runtime Fault")
+    @Category({"Sol", "tVM"})
+    @Description("A run stopped with a runtime fault, like a NIL value or a division by zero")
+    @StackTrace(false)
+    public static final class Fault extends Event
+    {
+        @Label("Function")
+        public String function;
+
+        @Label("Position")
+        public int pc;
+
+        @Label("Message")
+        public String message;
+    }
+}
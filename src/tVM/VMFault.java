@@ -0,0 +1,17 @@
+package tVM;
+
+//Runtime error of a Sol program. The tVM stops the program and hands the error to the caller instead of exiting the JVM.
+public class VMFault extends RuntimeException
+{
+    private static final long serialVersionUID = 1L;
+
+    public VMFault(String message)
+    {
+        super(message);
+    }
+
+    public VMFault(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+}
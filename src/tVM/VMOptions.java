@@ -0,0 +1,43 @@
+package tVM;
+
+//How a tVM runs programs. listener is null when no instruction is observed and a jitThreshold of 0 keeps the method JIT off.
+//registers runs the register form of a program instead of its stack code, when it has one, and quicken runs the
+//instructions the verifier proved safe in their unchecked forms.
+public record VMOptions(ExecutionListener listener, boolean threaded, Superinstructions superinstructions, int jitThreshold, boolean registers,
+                        boolean quicken)
+{
+    public static VMOptions defaults()
+    {
+        return new VMOptions(null, false, Superinstructions.builtIn(), 0, false, true);
+    }
+
+    public VMOptions withListener(ExecutionListener listener)
+    {
+        return new VMOptions(listener, this.threaded, this.superinstructions, this.jitThreshold, this.registers, this.quicken);
+    }
+
+    public VMOptions withThreaded(boolean threaded)
+    {
+        return new VMOptions(this.listener, threaded, this.superinstructions, this.jitThreshold, this.registers, this.quicken);
+    }
+
+    public VMOptions withSuperinstructions(Superinstructions superinstructions)
+    {
+        return new VMOptions(this.listener, this.threaded, superinstructions, this.jitThreshold, this.registers, this.quicken);
+    }
+
+    public VMOptions withJitThreshold(int jitThreshold)
+    {
+        return new VMOptions(this.listener, this.threaded, this.superinstructions, jitThreshold, this.registers, this.quicken);
+    }
+
+    public VMOptions withRegisters(boolean registers)
+    {
+        return new VMOptions(this.listener, this.threaded, this.superinstructions, this.jitThreshold, registers, this.quicken);
+    }
+
+    public VMOptions withQuicken(boolean quicken)
+    {
+        return new VMOptions(this.listener, this.threaded, this.superinstructions, this.jitThreshold, this.registers, quicken);
+    }
+}
@@ -0,0 +1,740 @@
+package tVM;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import solUtils.Instruction;
+import solUtils.OpCode;
+
+//Runs once when a program is loaded. It first checks that every jump, call and constant points somewhere valid, then
+//follows the types and the depth of the operand stack through every function. Instructions whose operands can't be
+//NIL or of the wrong type, and loads whose address is always inside the memory, are marked to run unchecked.
+//A function the analysis can't follow, like one with a break that leaves slots of a scope behind, just runs with
+//every check. The analysis then starts over and treats it as a function that takes, stores and returns anything.
+final class Verifier
+{
+    private static final OpCode[] OPCODES = OpCode.values();
+
+    //Sets of the types a slot can hold
+    private static final int NIL = 1;
+    private static final int INT = 2;
+    private static final int DOUBLE = 4;
+    private static final int BOOLEAN = 8;
+    private static final int STRING = 16;
+    private static final int ANY = NIL | INT | DOUBLE | BOOLEAN | STRING;
+
+    private static final int[] NO_OPERANDS = {};
+    private static final int[] INT_OPERAND = {INT};
+    private static final int[] INT_OPERANDS = {INT, INT};
+    private static final int[] DOUBLE_OPERAND = {DOUBLE};
+    private static final int[] DOUBLE_OPERANDS = {DOUBLE, DOUBLE};
+    private static final int[] STRING_OPERAND = {STRING};
+    private static final int[] STRING_OPERANDS = {STRING, STRING};
+    private static final int[] BOOLEAN_OPERAND = {BOOLEAN};
+    private static final int[] BOOLEAN_OPERANDS = {BOOLEAN, BOOLEAN};
+
+    //Owner of the main program code, functions are owned by their entry
+    private static final int MAIN = -1;
+    private static final int UNREACHED = -2;
+
+    //Says which function, or MAIN, couldn't be followed
+    private static class AnalysisFailure extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        final int owner;
+
+        AnalysisFailure(String message, int owner)
+        {
+            super(message, null, false, false);
+            this.owner = owner;
+        }
+    }
+
+    //Types of the arguments and of the frame slots above the frame pointer, and how many globals are allocated for sure
+    private record State(int[] arguments, int[] slots, int globals)
+    {
+        int depth()
+        {
+            return this.slots.length;
+        }
+    }
+
+    private static class Function
+    {
+        final int entry;
+        final int numberOfArgs;
+        final boolean returnsValue;
+        int returnType;
+        State entryState;
+        //Blocks with a call to the function, they see its return type
+        final LinkedHashSet<Integer> callers;
+
+        Function(int entry, int numberOfArgs, boolean returnsValue)
+        {
+            this.entry = entry;
+            this.numberOfArgs = numberOfArgs;
+            this.returnsValue = returnsValue;
+            this.returnType = 0;
+            this.callers = new LinkedHashSet<>();
+        }
+    }
+
+    private final byte[] code;
+    private final int[] arguments;
+    private final List<Instruction> constPool;
+
+    //Functions that couldn't be followed in an earlier round, their code is only claimed and summed up
+    private final Set<Integer> failed;
+    private final HashSet<Integer> summarized;
+
+    //The analysis works on blocks, a leader is the first instruction of one and only leaders keep a state
+    private final boolean[] leaders;
+    private final State[] states;
+    private final int[] owners;
+    private final HashMap<Integer, Function> functions;
+    private final ArrayDeque<Integer> worklist;
+
+    private final int[] globalTypes;
+    //Blocks with a gload of each global, they are walked again when the global gets a new type
+    private final HashMap<Integer, LinkedHashSet<Integer>> globalLoads;
+
+    private final boolean[] unchecked;
+    private final int[] maxStack;
+    //Stack depth above the frame pointer before each instruction, -1 where it isn't known
+    private final int[] depths;
+
+    private Verifier(byte[] code, int[] arguments, List<Instruction> constPool, Set<Integer> failed)
+    {
+        this.code = code;
+        this.arguments = arguments;
+        this.constPool = constPool;
+        this.failed = failed;
+        this.summarized = new HashSet<>();
+
+        this.leaders = new boolean[code.length];
+        this.states = new State[code.length];
+        this.owners = new int[code.length];
+        this.functions = new HashMap<>();
+        this.worklist = new ArrayDeque<>();
+        this.globalLoads = new HashMap<>();
+
+        this.unchecked = new boolean[code.length];
+        this.maxStack = new int[code.length];
+        this.depths = new int[code.length];
+
+        //Every global starts as NIL, any address past all of the galloc sizes together is never allocated
+        int globals = 0;
+        for(int i = 0; i < code.length; i++)
+            if(code[i] == OpCode.galloc.ordinal())
+                globals += arguments[i];
+
+        this.globalTypes = new int[globals];
+        Arrays.fill(this.globalTypes, NIL);
+        Arrays.fill(this.owners, UNREACHED);
+        Arrays.fill(this.depths, -1);
+    }
+
+    //Throws for code that could never run correctly. A function that only couldn't be analysed gets no unchecked
+    //instructions and the analysis runs again without it, each round gives up on one more function. Only if a
+    //function fails again after that, like two functions sharing code, the whole program runs with every check.
+    static Verifier verify(byte[] code, int[] arguments, List<Instruction> constPool) throws InvalidProgramException
+    {
+        HashSet<Integer> failed = new HashSet<>();
+
+        while(true)
+        {
+            Verifier verifier = new Verifier(code, arguments, constPool, failed);
+
+            verifier.checkStructure();
+
+            if(code.length == 0)
+                return verifier;
+
+            try
+            {
+                verifier.analyse();
+
+                //The register form needs the depth of every instruction that runs
+                if(!failed.isEmpty())
+                    Arrays.fill(verifier.depths, -1);
+
+                return verifier;
+            }
+            catch(AnalysisFailure e)
+            {
+                if(!failed.add(e.owner))
+                {
+                    Arrays.fill(verifier.unchecked, false);
+                    Arrays.fill(verifier.maxStack, 0);
+                    Arrays.fill(verifier.depths, -1);
+
+                    return verifier;
+                }
+            }
+        }
+    }
+
+    //Swaps every instruction that was proven safe and is still in the code for its unchecked form
+    static byte[] quicken(byte[] code, boolean[] unchecked)
+    {
+        byte[] result = Arrays.copyOf(code, code.length);
+
+        for(int i = 0; i < code.length; i++)
+        {
+            if(!unchecked[i])
+                continue;
+
+            OpCode quick = switch (OPCODES[code[i]])
+            {
+                case iadd -> OpCode.uiadd;
+                case isub -> OpCode.uisub;
+                case imult -> OpCode.uimult;
+                case idiv -> OpCode.uidiv;
+                case imod -> OpCode.uimod;
+                case ieq -> OpCode.uieq;
+                case ineq -> OpCode.uineq;
+                case ilt -> OpCode.uilt;
+                case ileq -> OpCode.uileq;
+                case dadd -> OpCode.udadd;
+                case dsub -> OpCode.udsub;
+                case dmult -> OpCode.udmult;
+                case ddiv -> OpCode.uddiv;
+                case deq -> OpCode.udeq;
+                case dneq -> OpCode.udneq;
+                case dlt -> OpCode.udlt;
+                case dleq -> OpCode.udleq;
+                case jumpt -> OpCode.ujumpt;
+                case jumpf -> OpCode.ujumpf;
+                case gload -> OpCode.ugload;
+                case lload -> OpCode.ulload;
+                default -> null;
+            };
+
+            if(quick != null)
+                result[i] = (byte) quick.ordinal();
+        }
+
+        return result;
+    }
+
+    boolean[] getUnchecked()
+    {
+        return this.unchecked;
+    }
+
+    //Deepest the operand stack gets above the frame pointer, indexed by function entry, 0 is the main program
+    int[] getMaxStack()
+    {
+        return this.maxStack;
+    }
+
+    //Only known when every function could be analysed
+    int[] getDepths()
+    {
+        return this.depths;
+    }
+
+    private void checkStructure() throws InvalidProgramException
+    {
+        this.leaders[0] = this.code.length > 0;
+
+        for(int i = 0; i < this.code.length; i++)
+        {
+            OpCode instruction = OPCODES[this.code[i]];
+            int argument = this.arguments[i];
+
+            switch (instruction)
+            {
+                //A jump to the end of the code stops the program like halt
+                case jump, jumpt, jumpf ->
+                {
+                    if(argument < 0 || argument > this.code.length)
+                        throw new InvalidProgramException("Jump at " + i + " to " + argument + " is outside the code.");
+
+                    markLeader(argument);
+
+                    if(instruction != OpCode.jump)
+                        markLeader(i + 1);
+                }
+                case call, tcall ->
+                {
+                    if(argument < 0 || argument >= this.code.length)
+                        throw new InvalidProgramException("Call at " + i + " to " + argument + " is outside the code.");
+
+                    markLeader(argument);
+                }
+                case dconst, sconst ->
+                {
+                    if(argument < 0 || argument >= this.constPool.size() || this.constPool.get(argument).getInstruction() != instruction)
+                        throw new InvalidProgramException(instruction + " at " + i + " doesn't point to a " + instruction + " constant.");
+                }
+                case galloc, gload, gstore, lalloc, pop, ret, retval ->
+                {
+                    if(argument < 0)
+                        throw new InvalidProgramException(instruction + " at " + i + " has the negative argument " + argument + ".");
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private void markLeader(int position)
+    {
+        if(position < this.code.length)
+            this.leaders[position] = true;
+    }
+
+    //Walks blocks until no state changes, then walks every reached block once more to mark the unchecked instructions
+    private void analyse() throws AnalysisFailure
+    {
+        if(this.failed.contains(MAIN))
+            summarize(MAIN);
+        else
+            merge(0, MAIN, new State(new int[0], new int[0], 0));
+
+        while(!this.worklist.isEmpty())
+            walk(this.worklist.pop(), false);
+
+        for(int leader = 0; leader < this.code.length; leader++)
+            if(this.leaders[leader] && this.states[leader] != null)
+                walk(leader, true);
+    }
+
+    private Function function(int entry, int caller) throws AnalysisFailure
+    {
+        Function function = this.functions.get(entry);
+
+        if(function == null)
+        {
+            function = findShape(entry, caller);
+            this.functions.put(entry, function);
+        }
+
+        return function;
+    }
+
+    //The number of arguments and the kind of return come from the returns reachable from the entry.
+    //Without them the caller can't be followed past the call, so it is the one that fails.
+    private Function findShape(int entry, int caller) throws AnalysisFailure
+    {
+        boolean[] visited = new boolean[this.code.length];
+        ArrayDeque<Integer> pending = new ArrayDeque<>();
+        int numberOfArgs = -1;
+        int returns = 0;
+        int valueReturns = 0;
+
+        visited[entry] = true;
+        pending.push(entry);
+
+        while(!pending.isEmpty())
+        {
+            int position = pending.pop();
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+
+            int[] successors = switch (instruction)
+            {
+                case ret, retval, halt -> new int[0];
+                case jump -> new int[]{argument};
+                case jumpt, jumpf -> new int[]{argument, position + 1};
+                default -> new int[]{position + 1};
+            };
+
+            if(instruction == OpCode.ret || instruction == OpCode.retval)
+            {
+                if(numberOfArgs >= 0 && numberOfArgs != argument)
+                    throw new AnalysisFailure("Function at " + entry + " returns with different numbers of arguments.", caller);
+
+                numberOfArgs = argument;
+                returns++;
+
+                if(instruction == OpCode.retval)
+                    valueReturns++;
+            }
+
+            for(int successor : successors)
+                if(successor < this.code.length && !visited[successor])
+                {
+                    visited[successor] = true;
+                    pending.push(successor);
+                }
+        }
+
+        if(returns == 0 || (valueReturns != 0 && valueReturns != returns))
+            throw new AnalysisFailure("Function at " + entry + " has no single kind of return.", caller);
+
+        return new Function(entry, numberOfArgs, valueReturns > 0);
+    }
+
+    private void claim(int position, int owner) throws AnalysisFailure
+    {
+        if(this.owners[position] == UNREACHED)
+            this.owners[position] = owner;
+        else if(this.owners[position] != owner)
+            throw new AnalysisFailure("Code at " + position + " is shared by two functions.", owner);
+    }
+
+    private void merge(int leader, int owner, State state) throws AnalysisFailure
+    {
+        claim(leader, owner);
+
+        State current = this.states[leader];
+
+        if(current == null)
+        {
+            this.states[leader] = state;
+            this.worklist.push(leader);
+            return;
+        }
+
+        if(current.depth() != state.depth())
+            throw new AnalysisFailure("Stack depths differ at " + leader + ".", owner);
+
+        State joined = join(current, state);
+
+        if(joined != current)
+        {
+            this.states[leader] = joined;
+            this.worklist.push(leader);
+        }
+    }
+
+    private static State join(State first, State second)
+    {
+        int[] arguments = first.arguments().clone();
+        for(int i = 0; i < arguments.length; i++)
+            arguments[i] |= second.arguments()[i];
+
+        int[] slots = first.slots().clone();
+        for(int i = 0; i < slots.length; i++)
+            slots[i] |= second.slots()[i];
+
+        int globals = Math.min(first.globals(), second.globals());
+
+        //An unchanged join gives back the first state, so callers can tell by reference
+        if(Arrays.equals(arguments, first.arguments()) && Arrays.equals(slots, first.slots()) && globals == first.globals())
+            return first;
+
+        return new State(arguments, slots, globals);
+    }
+
+    //Runs the block from its leader state up to its last instruction, the stack is a growing array and depth its size.
+    //With mark set nothing changes any more and the instructions that can run unchecked are marked on the way.
+    private void walk(int leader, boolean mark) throws AnalysisFailure
+    {
+        int owner = this.owners[leader];
+        State state = this.states[leader];
+
+        int[] arguments = state.arguments().clone();
+        int[] slots = Arrays.copyOf(state.slots(), Math.max(16, state.depth() * 2));
+        int depth = state.depth();
+        int globals = state.globals();
+
+        for(int position = leader; ; position++)
+        {
+            claim(position, owner);
+
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+
+            if(mark)
+            {
+                int function = owner == MAIN ? 0 : owner;
+                this.maxStack[function] = Math.max(this.maxStack[function], depth);
+                this.depths[position] = depth;
+                this.unchecked[position] = switch (instruction)
+                {
+                    case gload -> argument < globals;
+                    case lload -> true;
+                    default -> hasOperandTypes(instruction, slots, depth);
+                };
+            }
+
+            //Every instruction pushes at most this much
+            int pushed = instruction == OpCode.lalloc ? argument : 1;
+            if(depth + pushed > slots.length)
+                slots = Arrays.copyOf(slots, Math.max(slots.length * 2, depth + pushed));
+
+            switch (instruction)
+            {
+                case galloc -> globals += argument;
+                case gload ->
+                {
+                    this.globalLoads.computeIfAbsent(argument, key -> new LinkedHashSet<>()).add(leader);
+                    slots[depth++] = argument < this.globalTypes.length ? this.globalTypes[argument] : ANY;
+                }
+                case gstore ->
+                {
+                    requireDepth(depth, 1, position, owner);
+                    int type = slots[--depth];
+
+                    if(argument < this.globalTypes.length && (this.globalTypes[argument] | type) != this.globalTypes[argument])
+                    {
+                        this.globalTypes[argument] |= type;
+                        this.worklist.addAll(this.globalLoads.getOrDefault(argument, new LinkedHashSet<>()));
+                    }
+                }
+                case lalloc ->
+                {
+                    Arrays.fill(slots, depth, depth + argument, NIL);
+                    depth += argument;
+                }
+                case lload ->
+                {
+                    checkLocal(position, argument, arguments, depth, owner);
+                    slots[depth] = argument < 0 ? arguments[arguments.length + argument] : slots[argument];
+                    depth++;
+                }
+                case lstore ->
+                {
+                    requireDepth(depth, 1, position, owner);
+                    int type = slots[--depth];
+                    checkLocal(position, argument, arguments, depth, owner);
+
+                    if(argument < 0)
+                        arguments[arguments.length + argument] = type;
+                    else
+                        slots[argument] = type;
+                }
+                case pop ->
+                {
+                    requireDepth(depth, argument, position, owner);
+                    depth -= argument;
+                }
+                case call, tcall ->
+                {
+                    Function function = function(argument, owner);
+
+                    if(depth < function.numberOfArgs)
+                        throw new AnalysisFailure("Not enough arguments for the call at " + position + ".", owner);
+
+                    function.callers.add(leader);
+
+                    int[] passed = Arrays.copyOfRange(slots, depth - function.numberOfArgs, depth);
+                    enter(function, new State(passed, new int[0], globals));
+
+                    depth -= function.numberOfArgs;
+                    if(function.returnsValue)
+                        slots[depth++] = function.returnType;
+                }
+                case ret, retval ->
+                {
+                    if(owner == MAIN || this.functions.get(owner).numberOfArgs != argument)
+                        throw new AnalysisFailure("Return at " + position + " doesn't match its function.", owner);
+
+                    if(instruction == OpCode.retval)
+                    {
+                        requireDepth(depth, 1, position, owner);
+                        returnValue(this.functions.get(owner), slots[depth - 1]);
+                    }
+                }
+                default ->
+                {
+                    int operands = operandTypes(instruction).length;
+                    requireDepth(depth, operands, position, owner);
+                    depth -= operands;
+
+                    int result = resultType(instruction);
+                    if(result != 0)
+                        slots[depth++] = result;
+                }
+            }
+
+            int next = position + 1;
+            boolean endsBlock = switch (instruction)
+            {
+                case jump, jumpt, jumpf, ret, retval, halt -> true;
+                default -> next == this.code.length || this.leaders[next];
+            };
+
+            if(!endsBlock)
+                continue;
+
+            if(!mark)
+            {
+                State exit = new State(arguments, Arrays.copyOf(slots, depth), globals);
+
+                if((instruction == OpCode.jump || instruction == OpCode.jumpt || instruction == OpCode.jumpf) && argument < this.code.length)
+                    merge(argument, owner, exit);
+
+                boolean fallsThrough = switch (instruction)
+                {
+                    case jump, ret, retval, halt -> false;
+                    default -> next < this.code.length;
+                };
+
+                if(fallsThrough)
+                    merge(next, owner, exit);
+            }
+
+            return;
+        }
+    }
+
+    private void enter(Function function, State state) throws AnalysisFailure
+    {
+        if(this.failed.contains(function.entry))
+        {
+            summarize(function.entry);
+            return;
+        }
+
+        State joined = function.entryState == null ? state
+                : join(function.entryState, new State(state.arguments(), function.entryState.slots(), state.globals()));
+
+        if(joined != function.entryState)
+        {
+            function.entryState = joined;
+            merge(function.entry, function.entry, joined);
+        }
+    }
+
+    //Stands in for walking a function that failed: its code is claimed so no other function can share it, it returns
+    //anything, it may store anything in the globals it writes and the functions it calls get arguments of any type
+    private void summarize(int owner) throws AnalysisFailure
+    {
+        if(!this.summarized.add(owner))
+            return;
+
+        int entry = owner == MAIN ? 0 : owner;
+
+        if(owner != MAIN)
+            this.functions.get(owner).returnType = ANY;
+
+        boolean[] visited = new boolean[this.code.length];
+        ArrayDeque<Integer> pending = new ArrayDeque<>();
+
+        visited[entry] = true;
+        pending.push(entry);
+
+        while(!pending.isEmpty())
+        {
+            int position = pending.pop();
+            OpCode instruction = OPCODES[this.code[position]];
+            int argument = this.arguments[position];
+
+            if(this.owners[position] != UNREACHED && this.owners[position] != owner)
+                throw new AnalysisFailure("Code at " + position + " is shared by two functions.", this.owners[position]);
+
+            this.owners[position] = owner;
+
+            if(instruction == OpCode.gstore && argument < this.globalTypes.length && this.globalTypes[argument] != ANY)
+            {
+                this.globalTypes[argument] = ANY;
+                this.worklist.addAll(this.globalLoads.getOrDefault(argument, new LinkedHashSet<>()));
+            }
+
+            if(instruction == OpCode.call || instruction == OpCode.tcall)
+            {
+                Function callee = this.functions.get(argument);
+
+                //A target without a shape is never entered, its code keeps every check
+                if(callee == null)
+                {
+                    try
+                    {
+                        callee = function(argument, owner);
+                    }
+                    catch(AnalysisFailure e)
+                    {
+                        callee = null;
+                    }
+                }
+
+                if(callee != null)
+                {
+                    int[] passed = new int[callee.numberOfArgs];
+                    Arrays.fill(passed, ANY);
+                    enter(callee, new State(passed, new int[0], 0));
+                }
+            }
+
+            int[] successors = switch (instruction)
+            {
+                case ret, retval, halt -> new int[0];
+                case jump -> new int[]{argument};
+                case jumpt, jumpf -> new int[]{argument, position + 1};
+                default -> new int[]{position + 1};
+            };
+
+            for(int successor : successors)
+                if(successor < this.code.length && !visited[successor])
+                {
+                    visited[successor] = true;
+                    pending.push(successor);
+                }
+        }
+    }
+
+    private void returnValue(Function function, int type)
+    {
+        if((function.returnType | type) == function.returnType)
+            return;
+
+        function.returnType |= type;
+        this.worklist.addAll(function.callers);
+    }
+
+    private static void requireDepth(int depth, int count, int position, int owner) throws AnalysisFailure
+    {
+        if(depth < count)
+            throw new AnalysisFailure("Stack underflow at " + position + ".", owner);
+    }
+
+    //Locals of a function can only reach its own arguments and the slots above its frame pointer
+    private static void checkLocal(int position, int address, int[] arguments, int depth, int owner) throws AnalysisFailure
+    {
+        if(address < -arguments.length || address >= depth)
+            throw new AnalysisFailure("Local address " + address + " at " + position + " is outside the frame.", owner);
+    }
+
+    //Types the instruction takes from the stack, the top one last
+    private static int[] operandTypes(OpCode instruction)
+    {
+        return switch (instruction)
+        {
+            case iadd, isub, imult, idiv, imod, ieq, ineq, ilt, ileq -> INT_OPERANDS;
+            case iuminus, itod, itos, iprint -> INT_OPERAND;
+            case dadd, dsub, dmult, ddiv, deq, dneq, dlt, dleq -> DOUBLE_OPERANDS;
+            case duminus, dtos, dprint -> DOUBLE_OPERAND;
+            case sadd, seq, sneq -> STRING_OPERANDS;
+            case sprint -> STRING_OPERAND;
+            case beq, bneq, or, and -> BOOLEAN_OPERANDS;
+            case bprint, btos, not, jumpt, jumpf -> BOOLEAN_OPERAND;
+            default -> NO_OPERANDS;
+        };
+    }
+
+    //Type the instruction pushes, 0 if it pushes nothing
+    private static int resultType(OpCode instruction)
+    {
+        return switch (instruction)
+        {
+            case iconst, iadd, isub, imult, idiv, imod, iuminus -> INT;
+            case dconst, itod, dadd, dsub, dmult, ddiv, duminus -> DOUBLE;
+            case ieq, ineq, ilt, ileq, deq, dneq, dlt, dleq, seq, sneq, beq, bneq, or, and, not, tconst, fconst -> BOOLEAN;
+            case sconst, itos, dtos, sadd, btos -> STRING;
+            default -> 0;
+        };
+    }
+
+    private static boolean hasOperandTypes(OpCode instruction, int[] slots, int depth)
+    {
+        int[] operands = operandTypes(instruction);
+
+        if(operands.length == 0 || depth < operands.length)
+            return false;
+
+        for(int i = 0; i < operands.length; i++)
+            if(slots[depth - operands.length + i] != operands[i])
+                return false;
+
+        return true;
+    }
+}
@@ -3,12 +3,16 @@ package tVM;
 import ErrorHandler.ErrorLog;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
 
 import solUtils.*;
 public class tVM
 {
     private static final long  MEMORY_LIMIT = 83_000_000;
+    //Past this many slots every further percent of the limit is reported as a tVM.MemoryPressure event
+    private static final long  MEMORY_PRESSURE = MEMORY_LIMIT / 10 * 8;
 
 
     private static final String PRINT_NIL_ERROR = "Can't print a NIL value";
@@ -22,32 +26,63 @@ public class tVM
     private static final String COMPARE_NIL_ERROR = "Can't compare a NIL value";
 
 
-    private static final Value NIL = new Value(null);
+    private static final OpCode[] OPCODES = OpCode.values();
 
-    private final Stack<Value> stack;
-    private Value[] globalMemory;
-    private ByteCodeBuffer byteCodeBuffer;
-    private final LinkedList<Instruction> instructions;
-    private final LinkedList<Instruction> constPool;
+    //Program, memory and output of the run in progress, the last three belong to its ExecutionContext
+    private Program program;
+    //Set instead of program while a mapped file runs in place, the instruction pointer is then a byte offset
+    private MappedProgram mappedProgram;
+    private OperandStack stack;
+    private OperandStack globalMemory;
+    private OutputBuffer output;
+    private List<Instruction> constPool;
+    private double[] doubleConstants;
+    private String[] stringConstants;
 
-    private final boolean trace;
+    //Decoded code section, code[i] holds the opcode ordinal and arguments[i] its argument (0 if it has none)
+    private byte[] code;
+    private int[] arguments;
+    private int[] tailCallArities;
 
+    //Pre-bound handlers used by the threaded dispatch mode
+    private Handler[] handlers;
+
+    //Tracing, bigram recording or any other observer of the executed instructions, null if there is none
+    private final ExecutionListener listener;
+    private final boolean threaded;
+    private final Superinstructions superinstructions;
+    private final boolean registers;
+    private final boolean quicken;
+
+    //Calls and backward jumps are counted to find hot functions, 0 keeps the method JIT off
+    private final int jitThreshold;
+    private MethodJit jit;
+
+    //Set while a Flight Recorder recording times Sol calls, every engine reports its calls and returns to it
+    private FunctionCallRecorder callRecorder;
+
+    private FrameStack frames;
     private int instructionPointer;
     private int framePointer;
 
-    public tVM(boolean trace)
-    {
-        this.byteCodeBuffer = null;
-        this.stack = new Stack<>();
-        this.trace = trace;
-        this.constPool = new LinkedList<>();
+    //Memory use that makes checkMemoryLimit take its slow path, it never goes above MEMORY_LIMIT
+    private long memoryMark;
 
-        this.globalMemory = new Value[0];
+    public tVM(VMOptions options)
+    {
+        this.listener = options.listener();
+        this.threaded = options.threaded();
+        this.superinstructions = options.superinstructions();
+        this.registers = options.registers();
+        this.quicken = options.quicken();
+        this.jitThreshold = options.jitThreshold();
 
-        this.instructions = new LinkedList<>();
-        this.instructionPointer = 0;
-        this.framePointer = 0;
+        reset();
+    }
 
+    public tVM(boolean trace)
+    {
+        this(trace ? VMOptions.defaults().withListener(new TextTraceListener()) : VMOptions.defaults());
     }
 
     public tVM()
@@ -55,24 +90,15 @@ public class tVM
         this(false);
     }
 
-    private void doInstruction(Instruction instruction) throws Exception
+    private void doInstruction(OpCode instructionOpCode, int argument) throws Exception
     {
-        if(this.trace)
-        {
-            System.out.println("                " + "Globals: " + Arrays.toString(this.globalMemory));
-            System.out.println("                " +  "Stack: " + this.stack);
-            System.out.println("                " +  "FramePointer: " + this.framePointer);
-            System.out.println(this.instructionPointer + ": " + this.instructions.get(instructionPointer));
-        }
-
-        if(this.stack.size() + this.globalMemory.length > MEMORY_LIMIT)
-            ErrorLog.fatalError("Virtual machine memory limit exceeded");
-
         this.instructionPointer++;
+        execute(instructionOpCode, argument);
+    }
 
-        OpCode instructionOpCode = instruction.getInstruction();
-        Integer argument = instruction.hasArgument() ? instruction.getArgument().getInteger() : null;
-
+    //Runs an instruction whose instruction pointer was already moved past it
+    private void execute(OpCode instructionOpCode, int argument) throws Exception
+    {
         switch (instructionOpCode)
         {
             case OpCode.iconst -> iconst(argument);
@@ -101,6 +127,8 @@ public class tVM
 
             case OpCode.call -> call(argument);
 
+            case OpCode.tcall -> tcall(argument);
+
             case OpCode.ret -> ret(argument);
 
             case OpCode.retval -> retval(argument);
@@ -182,652 +210,1798 @@ public class tVM
             case OpCode.not -> not();
 
             case OpCode.halt -> halt();
+
+            case OpCode.linc -> linc(argument);
+
+            case OpCode.ginc -> ginc(argument);
+
+            case OpCode.iltjumpf -> iltjumpf();
+
+            case OpCode.ileqjumpf -> ileqjumpf();
+
+            case OpCode.ieqjumpf -> ieqjumpf();
+
+            case OpCode.ineqjumpf -> ineqjumpf();
+
+            case OpCode.uiadd -> uiadd();
+
+            case OpCode.uisub -> uisub();
+
+            case OpCode.uimult -> uimult();
+
+            case OpCode.uidiv -> uidiv();
+
+            case OpCode.uimod -> uimod();
+
+            case OpCode.uieq -> uieq();
+
+            case OpCode.uineq -> uineq();
+
+            case OpCode.uilt -> uilt();
+
+            case OpCode.uileq -> uileq();
+
+            case OpCode.udadd -> udadd();
+
+            case OpCode.udsub -> udsub();
+
+            case OpCode.udmult -> udmult();
+
+            case OpCode.uddiv -> uddiv();
+
+            case OpCode.udeq -> udeq();
+
+            case OpCode.udneq -> udneq();
+
+            case OpCode.udlt -> udlt();
+
+            case OpCode.udleq -> udleq();
+
+            case OpCode.ujumpt -> ujumpt(argument);
+
+            case OpCode.ujumpf -> ujumpf(argument);
+
+            case OpCode.ugload -> ugload(argument);
+
+            case OpCode.ulload -> ulload(argument);
         }
 
     }
 
     public void execute(String byteCodeFile) throws Exception
     {
-        this.byteCodeBuffer = new ByteCodeBuffer(byteCodeFile);
-        this.generateInstructions();
+        run(Program.load(Path.of(byteCodeFile)), new ExecutionContext());
+    }
+
+    //Runs the program until it halts, a runtime error of the program is thrown as a VMFault
+    public void run(Program program, ExecutionContext context)
+    {
+        context.claim();
+
+        this.program = program;
+        this.stack = context.getStack();
+        this.globalMemory = context.getGlobalMemory();
+        this.output = context.getOutput();
+        this.constPool = program.getConstPool();
+        this.doubleConstants = program.getDoubleConstants();
+        this.stringConstants = program.getStringConstants();
+        this.code = program.getCode();
+        this.arguments = program.getArguments();
+        this.tailCallArities = program.getTailCallArities();
+
+        //Sol calls are only timed for Flight Recorder while a recording asks for them
+        if(VMEvents.functionCallsRecorded())
+            this.callRecorder = new FunctionCallRecorder();
+
+        ExecutionListener listener = this.listener;
+
+        //The register form replaces every other way of running the stack code
+        RegisterCode registerCode = this.registers && listener == null ? program.getRegisterCode() : null;
+
+        //The JIT translates the plain instructions, so it gets the code before any superinstruction is fused
+        if(this.jitThreshold > 0 && listener == null && registerCode == null)
+            this.jit = new MethodJit(this.code, this.arguments, this.constPool, this.jitThreshold);
+
+        if(!this.superinstructions.isEmpty())
+            this.code = this.superinstructions.rewrite(this.code, this.arguments);
 
-        if(!this.instructions.contains(new Instruction(OpCode.halt)))
-            ErrorLog.fatalError("Code doesn't halt.");
+        //Listeners are shown the instructions of the bytecode file, so they get the checked forms
+        if(listener == null && this.quicken)
+            this.code = Verifier.quicken(this.code, program.getUnchecked());
 
-        while(this.instructionPointer < this.instructions.size())
+        this.stack.reserve(program.getMaxStack(0));
+
+        try
+        {
+            //Listeners need to see every instruction so they always use the switch interpreter
+            if(listener != null)
+                runListening(listener);
+            else if(registerCode != null)
+                runRegisters(registerCode);
+            else if(this.threaded)
+            {
+                bindHandlers();
+                runThreaded();
+            }
+            else
+                run();
+        }
+        catch(VMFault e)
+        {
+            recordFault(e);
+            throw e;
+        }
+        catch(Exception e)
         {
-            Instruction instruction = this.instructions.get(this.instructionPointer);
+            VMFault fault = new VMFault(e.toString(), e);
+            recordFault(fault);
+            throw fault;
+        }
+        finally
+        {
+            this.output.flush();
+            reset();
+        }
+    }
 
-            if(instruction.getInstruction() == OpCode.halt)
+    private void run() throws Exception
+    {
+        final byte[] code = this.code;
+        final int[] arguments = this.arguments;
+
+        while(this.instructionPointer < code.length)
+        {
+            OpCode instruction = OPCODES[code[this.instructionPointer]];
+
+            if(instruction == OpCode.halt)
                 break;
 
-            doInstruction(instruction);
+            doInstruction(instruction, arguments[this.instructionPointer]);
         }
+    }
 
-        reset();
+    //Same as run but reports each instruction to the listener first, kept apart so run has no listener checks
+    private void runListening(final ExecutionListener listener) throws Exception
+    {
+        final byte[] code = this.code;
+        final int[] arguments = this.arguments;
+
+        while(this.instructionPointer < code.length)
+        {
+            int position = this.instructionPointer;
+            OpCode instruction = OPCODES[code[position]];
+
+            listener.beforeInstruction(position, instruction, arguments[position], this.stack, this.globalMemory, this.framePointer);
+
+            if(instruction == OpCode.halt)
+                break;
+
+            doInstruction(instruction, arguments[position]);
+        }
     }
 
-    private void reset()
+    //Runs a program straight from its mapped file, nothing is decoded before it starts
+    public void run(MappedProgram program, ExecutionContext context)
     {
-        this.globalMemory = new Value[0];
-        this.stack.clear();
-        this.constPool.clear();
+        context.claim();
 
-        this.instructions.clear();
-        this.instructionPointer = 0;
+        this.mappedProgram = program;
+        this.stack = context.getStack();
+        this.globalMemory = context.getGlobalMemory();
+        this.output = context.getOutput();
 
+        try
+        {
+            runInPlace(program.getCode());
+        }
+        catch(VMFault e)
+        {
+            recordFault(e);
+            throw e;
+        }
+        catch(Exception e)
+        {
+            VMFault fault = new VMFault(e.toString(), e);
+            recordFault(fault);
+            throw fault;
+        }
+        finally
+        {
+            this.output.flush();
+            reset();
+        }
     }
 
-    private boolean isNIL(Value value)
+    //Decodes each instruction where it is in the mapping, the instruction pointer is the offset of the next byte to read.
+    //Jump and call arguments are instruction numbers and get turned into byte offsets, locals are relocated like Program does.
+    private void runInPlace(final ByteBuffer code) throws Exception
     {
-        return value.equals(NIL);
+        final MappedProgram program = this.mappedProgram;
+        final int end = code.limit();
+
+        while(this.instructionPointer < end)
+        {
+            int opCode = code.get(this.instructionPointer++) & 0xFF;
+            OpCode instruction;
+            int argument;
+
+            if(opCode >= ByteCodeFormat.SHORT_FORM_BASE)
+            {
+                instruction = ByteCodeFormat.shortFormOpCode(opCode - ByteCodeFormat.SHORT_FORM_BASE);
+                argument = ByteCodeFormat.shortFormOperand(opCode - ByteCodeFormat.SHORT_FORM_BASE);
+            }
+            else
+            {
+                instruction = OPCODES[opCode];
+                argument = opCodeHasArgument(instruction) ? readOperand(code) : 0;
+            }
+
+            switch (instruction)
+            {
+                case OpCode.halt -> { return; }
+
+                case OpCode.jump -> jump(program.offsetOf(argument));
+
+                case OpCode.jumpt ->
+                {
+                    if(this.stack.popBoolean())
+                        jump(program.offsetOf(argument));
+                }
+
+                case OpCode.jumpf ->
+                {
+                    if(!this.stack.popBoolean())
+                        jump(program.offsetOf(argument));
+                }
+
+                case OpCode.call -> call(program.offsetOf(argument));
+
+                case OpCode.tcall -> tailCallInPlace(code, program, argument);
+
+                case OpCode.dconst, OpCode.sconst -> this.stack.push(program.constant(argument, instruction));
+
+                case OpCode.lload -> lload(argument > 0 ? argument - 2 : argument);
+
+                case OpCode.lstore -> lstore(argument > 0 ? argument - 2 : argument);
+
+                default -> execute(instruction, argument);
+            }
+        }
     }
 
-    private void iconst(Integer number)
+    private int readOperand(ByteBuffer code)
     {
-        this.stack.push(new Value(number));
+        int value = 0;
+
+        for(int shift = 0; ; shift += 7)
+        {
+            byte next = code.get(this.instructionPointer++);
+            value |= (next & 0x7F) << shift;
+
+            if(next >= 0)
+                return ByteCodeFormat.unzigzag(value);
+        }
     }
 
-    private void dconst(Integer constantPoolPosition)
+    //The return after the tcall says how many arguments the calling function has
+    private void tailCallInPlace(ByteBuffer code, MappedProgram program, int line)
     {
-        this.stack.push(this.constPool.get(constantPoolPosition).getArgument());
+        int returnAt = this.instructionPointer;
+        int opCode = code.get(this.instructionPointer++) & 0xFF;
+        boolean shortForm = opCode >= ByteCodeFormat.SHORT_FORM_BASE;
+        OpCode instruction = shortForm ? ByteCodeFormat.shortFormOpCode(opCode - ByteCodeFormat.SHORT_FORM_BASE) : OPCODES[opCode];
+
+        if(instruction != OpCode.ret && instruction != OpCode.retval)
+            throw new VMFault("tcall isn't followed by a return.");
+
+        int callerArgs = shortForm ? ByteCodeFormat.shortFormOperand(opCode - ByteCodeFormat.SHORT_FORM_BASE) : readOperand(code);
+        this.instructionPointer = returnAt;
+
+        tailCall(program.offsetOf(line), program.tailCallArity(line), callerArgs);
     }
 
-    private void sconst(Integer constantPoolPosition)
+    //Memory only grows through calls, allocations and loops, so the limit is checked there instead of on every instruction
+    private void checkMemoryLimit()
     {
-        this.stack.push(this.constPool.get(constantPoolPosition).getArgument());
+        long used = (long) this.stack.size() + this.globalMemory.size() + this.frames.depth();
+
+        if(used > this.memoryMark)
+            memoryPressure(used);
     }
 
-    private void tconst()
+    private void memoryPressure(long used)
     {
-        this.stack.push(new Value(true));
+        if(used > MEMORY_LIMIT)
+            throw new VMFault("Virtual machine memory limit exceeded");
+
+        this.memoryMark = Math.min(used + MEMORY_LIMIT / 100, MEMORY_LIMIT);
+
+        if(!VMEvents.recorderStarted())
+            return;
+
+        VMEvents.MemoryPressure event = new VMEvents.MemoryPressure();
+        if(event.shouldCommit())
+        {
+            int position = Math.max(this.instructionPointer - 1, 0);
+
+            event.function = functionAt(position);
+            event.pc = position;
+            event.usedSlots = used;
+            event.slotLimit = MEMORY_LIMIT;
+            event.commit();
+        }
     }
 
-    private void fconst()
+    private String functionAt(int position)
     {
-        this.stack.push(new Value(false));
+        return this.program == null ? "program" : this.program.functionAt(position);
     }
 
-    private void jump(Integer line)
+    //The instruction pointer is always one past the instruction that faulted
+    private void recordFault(VMFault fault)
     {
-        this.instructionPointer = line;
+        if(!VMEvents.recorderStarted())
+            return;
+
+        VMEvents.Fault event = new VMEvents.Fault();
+        if(event.shouldCommit())
+        {
+            int position = Math.max(this.instructionPointer - 1, 0);
+
+            event.function = functionAt(position);
+            event.pc = position;
+            event.message = fault.getMessage();
+            event.commit();
+        }
     }
 
-    private void jumpt(Integer line)
+    private void backwardJump(int line)
     {
-        boolean bool = this.stack.pop().getBoolean();
+        checkMemoryLimit();
 
-        if(bool)
-            this.instructionPointer = line;
+        if(this.jit != null)
+            this.jit.backEdge(line);
     }
 
-    private void jumpf(Integer line)
+    //Instructions that change the instruction pointer go through the same methods as the switch interpreter
+    private Handler bindControlHandler(OpCode instruction, int argument, int position)
     {
-        boolean bool = this.stack.pop().getBoolean();
+        return () ->
+        {
+            this.instructionPointer = position;
+            doInstruction(instruction, argument);
+            return this.instructionPointer;
+        };
+    }
 
-        if(!bool)
-            this.instructionPointer = line;
+    //Literals are resolved when binding, the handler pushes its value like an immediate operand
+    private Handler bindDconst(double value, int next)
+    {
+        return () -> { this.stack.pushDouble(value); return next; };
     }
 
-    private void galloc(Integer size)
+    private Handler bindSconst(String value, int next)
     {
-        int newGlobalSize = this.globalMemory.length + size;
-        Value[] newGlobal = new Value[newGlobalSize];
+        return () -> { this.stack.pushString(value); return next; };
+    }
 
-        System.arraycopy(this.globalMemory, 0, newGlobal, 0, this.globalMemory.length);
+    private Handler bindHandler(int position)
+    {
+        OpCode instruction = OPCODES[this.code[position]];
+        int argument = this.arguments[position];
+        int next = position + 1;
 
-        for(int i = this.globalMemory.length; i < newGlobalSize; i++)
-            newGlobal[i] = NIL;
+        return switch (instruction)
+        {
+            case OpCode.iconst -> () -> { this.stack.pushInt(argument); return next; };
+            case OpCode.dconst -> bindDconst(this.doubleConstants[argument], next);
+            case OpCode.sconst -> bindSconst(this.stringConstants[argument], next);
+            case OpCode.tconst -> () -> { this.stack.pushBoolean(true); return next; };
+            case OpCode.fconst -> () -> { this.stack.pushBoolean(false); return next; };
+
+            case OpCode.jump -> argument < position
+                    ? () -> { backwardJump(argument); return argument; }
+                    : () -> argument;
+            case OpCode.jumpt -> argument < position
+                    ? () -> { if(!this.stack.popBoolean()) return next; backwardJump(argument); return argument; }
+                    : () -> this.stack.popBoolean() ? argument : next;
+            case OpCode.jumpf -> argument < position
+                    ? () -> { if(this.stack.popBoolean()) return next; backwardJump(argument); return argument; }
+                    : () -> this.stack.popBoolean() ? next : argument;
+
+            case OpCode.galloc -> () -> { galloc(argument); return next; };
+            case OpCode.gload -> () -> { gload(argument); return next; };
+            case OpCode.gstore -> () -> { gstore(argument); return next; };
+            case OpCode.lalloc -> () -> { lalloc(argument); return next; };
+            case OpCode.lload -> () -> { lload(argument); return next; };
+            case OpCode.lstore -> () -> { lstore(argument); return next; };
+            case OpCode.pop -> () -> { this.stack.pop(argument); return next; };
+
+            case OpCode.call -> () ->
+            {
+                this.instructionPointer = next;
+                call(argument);
+                return this.instructionPointer;
+            };
+
+            case OpCode.iprint -> () -> { iprint(); return next; };
+            case OpCode.iuminus -> () -> { iuminus(); return next; };
+            case OpCode.iadd -> () -> { iadd(); return next; };
+            case OpCode.isub -> () -> { isub(); return next; };
+            case OpCode.imult -> () -> { imult(); return next; };
+            case OpCode.idiv -> () -> { idiv(); return next; };
+            case OpCode.imod -> () -> { imod(); return next; };
+            case OpCode.ieq -> () -> { ieq(); return next; };
+            case OpCode.ineq -> () -> { ineq(); return next; };
+            case OpCode.ilt -> () -> { ilt(); return next; };
+            case OpCode.ileq -> () -> { ileq(); return next; };
+            case OpCode.itod -> () -> { itod(); return next; };
+            case OpCode.itos -> () -> { itos(); return next; };
+
+            case OpCode.dprint -> () -> { dprint(); return next; };
+            case OpCode.duminus -> () -> { duminus(); return next; };
+            case OpCode.dadd -> () -> { dadd(); return next; };
+            case OpCode.dsub -> () -> { dsub(); return next; };
+            case OpCode.dmult -> () -> { dmult(); return next; };
+            case OpCode.ddiv -> () -> { ddiv(); return next; };
+            case OpCode.deq -> () -> { deq(); return next; };
+            case OpCode.dneq -> () -> { dneq(); return next; };
+            case OpCode.dlt -> () -> { dlt(); return next; };
+            case OpCode.dleq -> () -> { dleq(); return next; };
+            case OpCode.dtos -> () -> { dtos(); return next; };
+
+            case OpCode.sprint -> () -> { sprint(); return next; };
+            case OpCode.sadd -> () -> { sadd(); return next; };
+            case OpCode.seq -> () -> { seq(); return next; };
+            case OpCode.sneq -> () -> { sneq(); return next; };
+
+            case OpCode.bprint -> () -> { bprint(); return next; };
+            case OpCode.beq -> () -> { beq(); return next; };
+            case OpCode.bneq -> () -> { bneq(); return next; };
+            case OpCode.btos -> () -> { btos(); return next; };
+            case OpCode.or -> () -> { or(); return next; };
+            case OpCode.and -> () -> { and(); return next; };
+            case OpCode.not -> () -> { not(); return next; };
+
+            case OpCode.halt -> () -> -1;
+
+            case OpCode.uiadd -> () -> { uiadd(); return next; };
+            case OpCode.uisub -> () -> { uisub(); return next; };
+            case OpCode.uimult -> () -> { uimult(); return next; };
+            case OpCode.uidiv -> () -> { uidiv(); return next; };
+            case OpCode.uimod -> () -> { uimod(); return next; };
+            case OpCode.uieq -> () -> { uieq(); return next; };
+            case OpCode.uineq -> () -> { uineq(); return next; };
+            case OpCode.uilt -> () -> { uilt(); return next; };
+            case OpCode.uileq -> () -> { uileq(); return next; };
+            case OpCode.udadd -> () -> { udadd(); return next; };
+            case OpCode.udsub -> () -> { udsub(); return next; };
+            case OpCode.udmult -> () -> { udmult(); return next; };
+            case OpCode.uddiv -> () -> { uddiv(); return next; };
+            case OpCode.udeq -> () -> { udeq(); return next; };
+            case OpCode.udneq -> () -> { udneq(); return next; };
+            case OpCode.udlt -> () -> { udlt(); return next; };
+            case OpCode.udleq -> () -> { udleq(); return next; };
+            case OpCode.ugload -> () -> { this.stack.load(this.globalMemory, argument); return next; };
+            case OpCode.ulload -> () -> { this.stack.load(this.stack, this.framePointer + argument); return next; };
+            case OpCode.ujumpt -> argument < position
+                    ? () -> { if(!this.stack.popBooleanUnchecked()) return next; backwardJump(argument); return argument; }
+                    : () -> this.stack.popBooleanUnchecked() ? argument : next;
+            case OpCode.ujumpf -> argument < position
+                    ? () -> { if(this.stack.popBooleanUnchecked()) return next; backwardJump(argument); return argument; }
+                    : () -> this.stack.popBooleanUnchecked() ? next : argument;
+
+            case OpCode.tcall, OpCode.ret, OpCode.retval, OpCode.linc, OpCode.ginc,
+                 OpCode.iltjumpf, OpCode.ileqjumpf, OpCode.ieqjumpf, OpCode.ineqjumpf ->
+                    bindControlHandler(instruction, argument, position);
+        };
+    }
+
+    //Resolves every instruction to its handler, the extra handler stops the program when it runs off the end of the code
+    private void bindHandlers()
+    {
+        this.handlers = new Handler[this.code.length + 1];
+
+        for(int i = 0; i < this.code.length; i++)
+            this.handlers[i] = bindHandler(i);
+
+        this.handlers[this.code.length] = () -> -1;
+    }
+
+    private void runThreaded() throws Exception
+    {
+        final Handler[] handlers = this.handlers;
+        int next = this.instructionPointer;
+        int position = next;
+
+        //Handlers don't keep the instruction pointer up to date, a fault has to say where it happened
+        try
+        {
+            while(next >= 0)
+            {
+                position = next;
+                next = handlers[position].execute();
+            }
+        }
+        catch(Exception e)
+        {
+            this.instructionPointer = position + 1;
+            throw e;
+        }
+    }
+
+    //Runs the register form, the frame of the running function always spans its whole register file above the frame
+    //pointer. Calls cut the stack back to the depth at the call, so the callee finds its arguments right below its frame.
+    private void runRegisters(RegisterCode registerCode) throws Exception
+    {
+        final RegisterCode.Op[] ops = registerCode.getOps();
+        final int[] a = registerCode.getA();
+        final int[] b = registerCode.getB();
+        final int[] c = registerCode.getC();
+        final int[] frameSizes = registerCode.getFrameSizes();
+        final OperandStack stack = this.stack;
+
+        int ip = 0;
+        int fp = 0;
+
+        stack.resize(registerCode.getMainFrameSize());
+
+        try
+        {
+            while(true)
+            {
+                switch (ops[ip])
+                {
+                    case iconst -> stack.setInt(fp + a[ip], b[ip]);
+                    case dconst -> stack.setDouble(fp + a[ip], this.doubleConstants[b[ip]]);
+                    case sconst -> stack.setString(fp + a[ip], this.stringConstants[b[ip]]);
+                    case tconst -> stack.setBoolean(fp + a[ip], true);
+                    case fconst -> stack.setBoolean(fp + a[ip], false);
+                    case move -> stack.copy(fp + b[ip], fp + a[ip]);
+
+                    case gload ->
+                    {
+                        if(b[ip] >= this.globalMemory.size())
+                            throw new VMFault("Index out of bounds.");
+
+                        stack.copyFrom(this.globalMemory, b[ip], fp + a[ip]);
+                    }
+                    case gstore ->
+                    {
+                        if(a[ip] >= this.globalMemory.size())
+                            throw new VMFault("Index out of bounds.");
+
+                        this.globalMemory.copyFrom(stack, fp + b[ip], a[ip]);
+                    }
+                    case galloc ->
+                    {
+                        this.globalMemory.pushNil(a[ip]);
+                        checkMemoryLimit();
+                    }
+                    case lalloc ->
+                    {
+                        stack.setNil(fp + a[ip], b[ip]);
+                        checkMemoryLimit();
+                    }
+
+                    case iadd ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, ADDITION_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setInt(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) + right);
+                    }
+                    case isub ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, SUBTRACTION_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setInt(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) - right);
+                    }
+                    case imult ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, MULTIPLICATION_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setInt(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) * right);
+                    }
+                    case idiv ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, DIVISION_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        int left = stack.intAtUnchecked(fp + b[ip]);
+
+                        if(right == 0)
+                            throw new VMFault("Divisor mustn't be 0");
+
+                        stack.setInt(fp + a[ip], left / right);
+                    }
+                    case imod ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, MOD_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        int left = stack.intAtUnchecked(fp + b[ip]);
+
+                        if(right == 0)
+                            throw new VMFault("Divisor mustn't be 0");
+
+                        stack.setInt(fp + a[ip], left % right);
+                    }
+                    case ieq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, COMPARE_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) == right);
+                    }
+                    case ineq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, COMPARE_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) != right);
+                    }
+                    case ilt ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, COMPARE_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) < right);
+                    }
+                    case ileq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.INT, COMPARE_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) <= right);
+                    }
+                    case iaddk ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.INT, ADDITION_NIL_ERROR);
+                        stack.setInt(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) + c[ip]);
+                    }
+                    case isubk ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.INT, SUBTRACTION_NIL_ERROR);
+                        stack.setInt(fp + a[ip], stack.intAtUnchecked(fp + b[ip]) - c[ip]);
+                    }
+
+                    case dadd ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, ADDITION_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setDouble(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) + right);
+                    }
+                    case dsub ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, SUBTRACTION_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setDouble(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) - right);
+                    }
+                    case dmult ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, MULTIPLICATION_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setDouble(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) * right);
+                    }
+                    case ddiv ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, DIVISION_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        double left = stack.doubleAtUnchecked(fp + b[ip]);
+
+                        if(right == 0)
+                            throw new VMFault("Divisor mustn't be 0");
+
+                        stack.setDouble(fp + a[ip], left / right);
+                    }
+                    case deq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, COMPARE_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) == right);
+                    }
+                    case dneq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, COMPARE_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) != right);
+                    }
+                    case dlt ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, COMPARE_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) < right);
+                    }
+                    case dleq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.DOUBLE, COMPARE_NIL_ERROR);
+                        double right = stack.doubleAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.doubleAtUnchecked(fp + b[ip]) <= right);
+                    }
+
+                    case sadd ->
+                    {
+                        checkNilAt(fp + b[ip], fp + c[ip], ADDITION_NIL_ERROR);
+                        CharSequence right = stack.textAt(fp + c[ip]);
+                        stack.setString(fp + a[ip], ConcatString.concat(stack.textAt(fp + b[ip]), right));
+                    }
+                    case seq ->
+                    {
+                        checkNilAt(fp + b[ip], fp + c[ip], COMPARE_NIL_ERROR);
+                        CharSequence right = stack.textAt(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], ConcatString.contentEquals(stack.textAt(fp + b[ip]), right));
+                    }
+                    case sneq ->
+                    {
+                        checkNilAt(fp + b[ip], fp + c[ip], COMPARE_NIL_ERROR);
+                        CharSequence right = stack.textAt(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], !ConcatString.contentEquals(stack.textAt(fp + b[ip]), right));
+                    }
+
+                    case beq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.BOOLEAN, COMPARE_NIL_ERROR);
+                        boolean right = stack.booleanAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.booleanAtUnchecked(fp + b[ip]) == right);
+                    }
+                    case bneq ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.BOOLEAN, COMPARE_NIL_ERROR);
+                        boolean right = stack.booleanAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.booleanAtUnchecked(fp + b[ip]) != right);
+                    }
+                    case and ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.BOOLEAN, COMPARE_NIL_ERROR);
+                        boolean right = stack.booleanAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.booleanAtUnchecked(fp + b[ip]) && right);
+                    }
+                    case or ->
+                    {
+                        requireTags(fp + b[ip], fp + c[ip], OperandStack.BOOLEAN, COMPARE_NIL_ERROR);
+                        boolean right = stack.booleanAtUnchecked(fp + c[ip]);
+                        stack.setBoolean(fp + a[ip], stack.booleanAtUnchecked(fp + b[ip]) || right);
+                    }
+
+                    case iuminus ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.INT, UNARY_NIL_ERROR);
+                        stack.setInt(fp + a[ip], -stack.intAtUnchecked(fp + b[ip]));
+                    }
+                    case itod ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.INT, CAST_NIL_ERROR);
+                        stack.setDouble(fp + a[ip], stack.intAtUnchecked(fp + b[ip]));
+                    }
+                    case itos ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.INT, CAST_NIL_ERROR);
+                        stack.setString(fp + a[ip], String.valueOf(stack.intAtUnchecked(fp + b[ip])));
+                    }
+                    case duminus ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.DOUBLE, UNARY_NIL_ERROR);
+                        stack.setDouble(fp + a[ip], -stack.doubleAtUnchecked(fp + b[ip]));
+                    }
+                    case dtos ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.DOUBLE, CAST_NIL_ERROR);
+                        stack.setString(fp + a[ip], String.valueOf(stack.doubleAtUnchecked(fp + b[ip])));
+                    }
+                    case btos ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.BOOLEAN, CAST_NIL_ERROR);
+                        stack.setString(fp + a[ip], stack.booleanAtUnchecked(fp + b[ip]) ? "true" : "false");
+                    }
+                    case not ->
+                    {
+                        requireTag(fp + b[ip], OperandStack.BOOLEAN, UNARY_NIL_ERROR);
+                        stack.setBoolean(fp + a[ip], !stack.booleanAtUnchecked(fp + b[ip]));
+                    }
+
+                    case iprint ->
+                    {
+                        requireTag(fp + a[ip], OperandStack.INT, PRINT_NIL_ERROR);
+                        this.output.printInt(stack.intAtUnchecked(fp + a[ip]));
+                    }
+                    case dprint ->
+                    {
+                        requireTag(fp + a[ip], OperandStack.DOUBLE, COMPARE_NIL_ERROR);
+                        this.output.printDouble(stack.doubleAtUnchecked(fp + a[ip]));
+                    }
+                    case sprint ->
+                    {
+                        checkNilAt(fp + a[ip], PRINT_NIL_ERROR);
+                        this.output.printString(stack.textAt(fp + a[ip]));
+                    }
+                    case bprint ->
+                    {
+                        requireTag(fp + a[ip], OperandStack.BOOLEAN, PRINT_NIL_ERROR);
+                        this.output.printBoolean(stack.booleanAtUnchecked(fp + a[ip]));
+                    }
+
+                    case jump ->
+                    {
+                        ip = registerJump(ip, a[ip]);
+                        continue;
+                    }
+                    case jumpt ->
+                    {
+                        if(stack.booleanAt(fp + a[ip]))
+                        {
+                            ip = registerJump(ip, b[ip]);
+                            continue;
+                        }
+                    }
+                    case jumpf ->
+                    {
+                        if(!stack.booleanAt(fp + a[ip]))
+                        {
+                            ip = registerJump(ip, b[ip]);
+                            continue;
+                        }
+                    }
+                    case iltjumpf, ileqjumpf, ieqjumpf, ineqjumpf ->
+                    {
+                        requireTags(fp + a[ip], fp + b[ip], OperandStack.INT, COMPARE_NIL_ERROR);
+                        int right = stack.intAtUnchecked(fp + b[ip]);
+                        int left = stack.intAtUnchecked(fp + a[ip]);
+
+                        boolean condition = switch (ops[ip])
+                        {
+                            case iltjumpf -> left < right;
+                            case ileqjumpf -> left <= right;
+                            case ieqjumpf -> left == right;
+                            default -> left != right;
+                        };
+
+                        if(!condition)
+                        {
+                            ip = registerJump(ip, c[ip]);
+                            continue;
+                        }
+                    }
+                    case iltjumpfk, ileqjumpfk, ieqjumpfk, ineqjumpfk ->
+                    {
+                        requireTag(fp + a[ip], OperandStack.INT, COMPARE_NIL_ERROR);
+                        int left = stack.intAtUnchecked(fp + a[ip]);
+
+                        boolean condition = switch (ops[ip])
+                        {
+                            case iltjumpfk -> left < b[ip];
+                            case ileqjumpfk -> left <= b[ip];
+                            case ieqjumpfk -> left == b[ip];
+                            default -> left != b[ip];
+                        };
+
+                        if(!condition)
+                        {
+                            ip = registerJump(ip, c[ip]);
+                            continue;
+                        }
+                    }
+
+                    case call ->
+                    {
+                        checkMemoryLimit();
+
+                        int target = a[ip];
+
+                        if(this.callRecorder != null)
+                            this.callRecorder.call(registerCode.sourceOf(ip), registerCode.entryOf(target));
+
+                        stack.truncate(fp + b[ip]);
+                        this.frames.push(ip + 1, fp);
+
+                        fp += b[ip];
+                        stack.resize(fp + frameSizes[target]);
+                        ip = target;
+                        continue;
+                    }
+                    case tcall ->
+                    {
+                        //Same frame shuffle as the stack interpreter, the return after the tcall has the caller's arguments
+                        int target = a[ip];
+                        int numberOfArgs = c[ip];
+                        int frameBase = fp - a[ip + 1];
+                        int first = fp + b[ip] - numberOfArgs;
+
+                        if(this.callRecorder != null)
+                            this.callRecorder.tailCall(registerCode.sourceOf(ip), registerCode.entryOf(target));
+
+                        for(int i = 0; i < numberOfArgs; i++)
+                            stack.copy(first + i, frameBase + i);
+
+                        fp = frameBase + numberOfArgs;
+                        stack.truncate(fp);
+                        stack.resize(fp + frameSizes[target]);
+                        ip = target;
+                        continue;
+                    }
+                    case ret, retval ->
+                    {
+                        int frameBase = fp - a[ip];
+
+                        if(this.frames.depth() == 0)
+                            throw new VMFault("Return outside of a function");
+
+                        if(this.callRecorder != null)
+                            this.callRecorder.ret();
+
+                        if(ops[ip] == RegisterCode.Op.retval)
+                            stack.copy(fp + b[ip], frameBase++);
+
+                        ip = this.frames.returnAddress();
+                        fp = this.frames.framePointer();
+                        this.frames.pop();
+
+                        //The call says how big the frame it returns to is
+                        stack.truncate(frameBase);
+                        stack.resize(fp + c[ip - 1]);
+                        continue;
+                    }
+                    case halt ->
+                    {
+                        return;
+                    }
+                }
+
+                ip++;
+            }
+        }
+        catch(Exception e)
+        {
+            //Faults are reported at the stack instruction the register one was made from
+            this.instructionPointer = registerCode.sourceOf(ip) + 1;
+            throw e;
+        }
+    }
 
-        this.globalMemory = newGlobal;
+    private int registerJump(int position, int target)
+    {
+        if(target <= position)
+            checkMemoryLimit();
+
+        return target;
     }
 
-    private void gload(Integer address)
+    private void reset()
     {
-        if(address >= this.globalMemory.length)
-           ErrorLog.fatalError("Index out of bounds.");
+        this.program = null;
+        this.mappedProgram = null;
+        this.stack = null;
+        this.globalMemory = null;
+        this.output = null;
+        this.constPool = List.of();
+        this.doubleConstants = new double[0];
+        this.stringConstants = new String[0];
+
+        this.code = new byte[0];
+        this.arguments = new int[0];
+        this.tailCallArities = new int[0];
+        this.handlers = new Handler[0];
+        this.jit = null;
+        this.callRecorder = null;
+        this.frames = new FrameStack();
+        this.instructionPointer = 0;
+        this.framePointer = 0;
+        this.memoryMark = MEMORY_PRESSURE;
+    }
 
-        this.stack.push(this.globalMemory[address]);
+    private void checkNil(int count, String message)
+    {
+        if(this.stack.hasNil(count))
+            throw new VMFault(message);
     }
 
-    private void gstore(Integer address)
+    //Same checks for the operands of a register instruction, given by their stack slots
+    private void checkNilAt(int slot, String message)
     {
-        if(address >= this.globalMemory.length)
-            ErrorLog.fatalError("Index out of bounds.");
+        if(this.stack.tagAt(slot) == OperandStack.NIL)
+            throw new VMFault(message);
+    }
 
-        this.globalMemory[address] = this.stack.pop();
+    private void checkNilAt(int left, int right, String message)
+    {
+        if(this.stack.tagAt(left) == OperandStack.NIL || this.stack.tagAt(right) == OperandStack.NIL)
+            throw new VMFault(message);
     }
 
-    private void lalloc(Integer size)
+    //Fast path of the register instructions, both operands are checked with one compare each and read unchecked.
+    //Anything else fails with the same fault as the stack instruction, nil first and then the right operand's type.
+    private void requireTags(int left, int right, byte tag, String message)
     {
-        while(size-- > 0)
-            this.stack.push(NIL);
+        if(this.stack.tagAt(left) == tag && this.stack.tagAt(right) == tag)
+            return;
+
+        checkNilAt(left, right, message);
+        requireType(right, tag);
+        requireType(left, tag);
     }
 
-    private void lload(Integer address)
+    private void requireTag(int slot, byte tag, String message)
+    {
+        if(this.stack.tagAt(slot) == tag)
+            return;
+
+        checkNilAt(slot, message);
+        requireType(slot, tag);
+    }
+
+    private void requireType(int slot, byte tag)
+    {
+        switch (tag)
+        {
+            case OperandStack.INT -> this.stack.intAt(slot);
+            case OperandStack.DOUBLE -> this.stack.doubleAt(slot);
+            default -> this.stack.booleanAt(slot);
+        }
+    }
+
+    private void iconst(int number)
+    {
+        this.stack.pushInt(number);
+    }
+
+    private void dconst(int constantPoolPosition)
+    {
+        this.stack.pushDouble(this.doubleConstants[constantPoolPosition]);
+    }
+
+    private void sconst(int constantPoolPosition)
+    {
+        this.stack.pushString(this.stringConstants[constantPoolPosition]);
+    }
+
+    private void tconst()
+    {
+        this.stack.pushBoolean(true);
+    }
+
+    private void fconst()
+    {
+        this.stack.pushBoolean(false);
+    }
+
+    //instructionPointer already points past the jump, so any target before it is a backward jump
+    private void jump(int line)
+    {
+        if(line < this.instructionPointer)
+            backwardJump(line);
+
+        this.instructionPointer = line;
+    }
+
+    private void jumpt(int line)
+    {
+        if(this.stack.popBoolean())
+            jump(line);
+    }
+
+    private void jumpf(int line)
+    {
+        if(!this.stack.popBoolean())
+            jump(line);
+    }
+
+    private void galloc(int size)
+    {
+        this.globalMemory.pushNil(size);
+        checkMemoryLimit();
+    }
+
+    private void gload(int address)
+    {
+        if(address >= this.globalMemory.size())
+           throw new VMFault("Index out of bounds.");
+
+        this.stack.load(this.globalMemory, address);
+    }
+
+    private void gstore(int address)
+    {
+        if(address >= this.globalMemory.size())
+            throw new VMFault("Index out of bounds.");
+
+        this.stack.store(this.globalMemory, address);
+    }
+
+    private void lalloc(int size)
+    {
+        this.stack.pushNil(size);
+        checkMemoryLimit();
+    }
+
+    private void lload(int address)
     {
         int position = this.framePointer + address;
 
-        if(position < 0 || position > this.stack.size())
-            ErrorLog.fatalError("Accessing memory out of bounds");
+        if(position < 0 || position >= this.stack.size())
+            throw new VMFault("Accessing memory out of bounds");
 
-        this.stack.push(this.stack.get(this.framePointer + address));
+        this.stack.load(this.stack, position);
     }
 
-    private void lstore(Integer address)
+    private void lstore(int address)
     {
-        this.stack.set(this.framePointer + address, this.stack.pop());
+        this.stack.store(this.stack, this.framePointer + address);
     }
 
-    private void call(Integer line)
+    private void call(int line)
     {
-        this.stack.push(new Value(this.framePointer));
-        this.framePointer = this.stack.size() - 1;
+        checkMemoryLimit();
+
+        if(this.callRecorder != null)
+            this.callRecorder.call(this.instructionPointer - 1, line);
+
+        if(this.jit != null && this.jit.invoke(line, this.stack))
+        {
+            if(this.callRecorder != null)
+                this.callRecorder.ret();
+
+            return;
+        }
 
-        this.stack.push(new Value(this.instructionPointer));
+        this.frames.push(this.instructionPointer, this.framePointer);
+
+        this.framePointer = this.stack.size();
         this.instructionPointer = line;
     }
 
+    //The callee takes over the frame of the calling function: its arguments replace the ones of the caller and the
+    //saved return address stays, so tail recursion runs in constant space
+    private void tcall(int line)
+    {
+        if(this.callRecorder != null)
+            this.callRecorder.tailCall(this.instructionPointer - 1, line);
+
+        //A compiled callee leaves its result on the stack and the return that follows ends the caller as usual
+        if(this.jit != null && this.jit.invoke(line, this.stack))
+            return;
+
+        tailCall(line, this.tailCallArities[this.instructionPointer - 1], this.arguments[this.instructionPointer]);
+    }
 
-    private void ret(Integer numberOfArgs)
+    //callerArgs is the number of arguments of the calling function, the argument of the return after the tcall
+    private void tailCall(int line, int numberOfArgs, int callerArgs)
     {
-        while(stack.size() > this.framePointer + 2)
-            this.stack.pop();
+        int frameBase = this.framePointer - callerArgs;
+        int first = this.stack.size() - numberOfArgs;
+
+        for(int i = 0; i < numberOfArgs; i++)
+            this.stack.copy(first + i, frameBase + i);
 
-        this.instructionPointer = this.stack.pop().getInteger();
-        this.framePointer = this.stack.pop().getInteger();
+        this.stack.truncate(frameBase + numberOfArgs);
 
-        this.pop(numberOfArgs);
+        this.framePointer = frameBase + numberOfArgs;
+        this.instructionPointer = line;
     }
 
-    private void retval(Integer numberOfArgs)
+    private void popFrame()
     {
-        Value returnedValue = this.stack.pop();
+        if(this.frames.depth() == 0)
+            throw new VMFault("Return outside of a function");
+
+        if(this.callRecorder != null)
+            this.callRecorder.ret();
 
-        while(stack.size() > this.framePointer + 2)
-            this.stack.pop();
+        this.instructionPointer = this.frames.returnAddress();
+        this.framePointer = this.frames.framePointer();
+        this.frames.pop();
+    }
+
+    //The arguments sit right below the frame pointer, so dropping the frame is a single truncate
+    private void ret(int numberOfArgs)
+    {
+        int frameBase = this.framePointer - numberOfArgs;
+
+        popFrame();
+        this.stack.truncate(frameBase);
+    }
+
+    private void retval(int numberOfArgs)
+    {
+        int frameBase = this.framePointer - numberOfArgs;
 
-        this.instructionPointer = this.stack.pop().getInteger();
-        this.framePointer = this.stack.pop().getInteger();
+        popFrame();
 
-        this.pop(numberOfArgs);
-        this.stack.push(returnedValue);
+        //Moves the returned value to where the arguments started
+        this.stack.copy(this.stack.size() - 1, frameBase);
+        this.stack.truncate(frameBase + 1);
     }
 
-    private void pop(Integer size)
+    private void pop(int size)
     {
-        while(size-- > 0)
-            this.stack.pop();
+        this.stack.pop(size);
     }
 
     private void iprint()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(PRINT_NIL_ERROR);
+        checkNil(1, PRINT_NIL_ERROR);
 
-        System.out.println(stack.pop().getInteger());
+        this.output.printInt(this.stack.popInt());
     }
 
     private void iuminus()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(UNARY_NIL_ERROR);
+        checkNil(1, UNARY_NIL_ERROR);
 
-        stack.push(new Value(-this.stack.pop().getInteger()));
+        this.stack.pushInt(-this.stack.popInt());
     }
 
     private void iadd()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(ADDITION_NIL_ERROR);
+        checkNil(2, ADDITION_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
-        stack.push(new Value(left + right));
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
+
+        this.stack.pushInt(left + right);
     }
 
     private void isub()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(SUBTRACTION_NIL_ERROR);
+        checkNil(2, SUBTRACTION_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
-        stack.push(new Value(left - right));
+        this.stack.pushInt(left - right);
     }
 
     private void imult()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(MULTIPLICATION_NIL_ERROR);
+        checkNil(2, MULTIPLICATION_NIL_ERROR);
+
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
-        this.stack.push(new Value(left * right));
+        this.stack.pushInt(left * right);
     }
 
     private void idiv()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(DIVISION_NIL_ERROR);
+        checkNil(2, DIVISION_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
         if(right == 0)
-            ErrorLog.fatalError("Divisor mustn't be 0");
+            throw new VMFault("Divisor mustn't be 0");
 
-        this.stack.push(new Value(left / right));
+        this.stack.pushInt(left / right);
     }
 
     private void imod()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(MOD_NIL_ERROR);
+        checkNil(2, MOD_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
         if(right == 0)
-            ErrorLog.fatalError("Divisor mustn't be 0");
+            throw new VMFault("Divisor mustn't be 0");
 
-        this.stack.push(new Value(left % right));
+        this.stack.pushInt(left % right);
     }
 
     private void ieq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
-        if (left == right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left == right);
     }
 
     private void ineq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
-
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
-        if (left != right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left != right);
     }
 
     private void ilt()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
-
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
-        if (left < right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left < right);
     }
 
     private void ileq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        int right = this.stack.pop().getInteger();
-        int left = this.stack.pop().getInteger();
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
 
-        if (left <= right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left <= right);
     }
 
     private void itod()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(CAST_NIL_ERROR);
+        checkNil(1, CAST_NIL_ERROR);
 
-        Double real = Double.valueOf(stack.pop().getInteger());
-        stack.push(new Value(real));
+        this.stack.pushDouble(this.stack.popInt());
     }
 
     private void itos()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(CAST_NIL_ERROR);
+        checkNil(1, CAST_NIL_ERROR);
 
-        int integer = stack.pop().getInteger();
-        stack.push(new Value('"' + String.valueOf(integer) + '"'));
+        int integer = this.stack.popInt();
+        this.stack.pushString(String.valueOf(integer));
     }
 
     private void dprint()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(1, COMPARE_NIL_ERROR);
 
-        System.out.println(this.stack.pop().getDouble());
+        this.output.printDouble(this.stack.popDouble());
     }
 
     private void duminus()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(UNARY_NIL_ERROR);
+        checkNil(1, UNARY_NIL_ERROR);
 
-        stack.push(new Value(-this.stack.pop().getDouble()));
+        this.stack.pushDouble(-this.stack.popDouble());
     }
 
     private void dadd()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(ADDITION_NIL_ERROR);
+        checkNil(2, ADDITION_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        stack.push(new Value(left + right));
+        this.stack.pushDouble(left + right);
     }
 
     private void dsub()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(SUBTRACTION_NIL_ERROR);
+        checkNil(2, SUBTRACTION_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        stack.push(new Value(left - right));
+        this.stack.pushDouble(left - right);
     }
 
     private void dmult()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(MULTIPLICATION_NIL_ERROR);
+        checkNil(2, MULTIPLICATION_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        stack.push(new Value(left * right));
+        this.stack.pushDouble(left * right);
     }
 
     private void ddiv()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(DIVISION_NIL_ERROR);
+        checkNil(2, DIVISION_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
         if(right == 0)
-            ErrorLog.fatalError("Divisor mustn't be 0");
+            throw new VMFault("Divisor mustn't be 0");
 
-        this.stack.push(new Value(left / right));
+        this.stack.pushDouble(left / right);
     }
 
     private void deq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        if (left == right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
-        ;
+        this.stack.pushBoolean(left == right);
     }
 
     private void dneq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        if (left != right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left != right);
     }
 
     private void dlt()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        if (left < right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left < right);
     }
 
     private void dleq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        double right = stack.pop().getDouble();
-        double left = stack.pop().getDouble();
+        double right = this.stack.popDouble();
+        double left = this.stack.popDouble();
 
-        if (left <= right)
-            this.stack.push(new Value(true));
-        else
-            this.stack.push(new Value(false));
+        this.stack.pushBoolean(left <= right);
     }
 
     private void dtos()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(CAST_NIL_ERROR);
+        checkNil(1, CAST_NIL_ERROR);
 
-        Double real = this.stack.pop().getDouble();
-        this.stack.push(new Value('"' + String.valueOf(real) + '"'));
+        double real = this.stack.popDouble();
+        this.stack.pushString(String.valueOf(real));
     }
 
 
     private void sprint()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(PRINT_NIL_ERROR);
+        checkNil(1, PRINT_NIL_ERROR);
 
-        System.out.println(this.stack.pop().getString().replaceAll("\"", ""));
+        this.output.printString(this.stack.popText());
     }
 
     private void sadd()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(ADDITION_NIL_ERROR);
-
-        String right = stack.pop().getString();
-        String left = stack.pop().getString();
+        checkNil(2, ADDITION_NIL_ERROR);
 
-        left = left.substring(0, left.length()-1);
-        right = right.substring(1);
+        CharSequence right = this.stack.popText();
+        CharSequence left = this.stack.popText();
 
-        this.stack.push(new Value(left.concat(right)));
+        this.stack.pushString(ConcatString.concat(left, right));
     }
 
     private void seq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        String right = stack.pop().getString();
-        String left = stack.pop().getString();
+        CharSequence right = this.stack.popText();
+        CharSequence left = this.stack.popText();
 
-        if (left.equals(right))
-            this.stack.push(new Value(true));
-        else
-            this.stack.push(new Value(false));
+        this.stack.pushBoolean(ConcatString.contentEquals(left, right));
     }
 
     private void sneq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        String right = stack.pop().getString();
-        String left = stack.pop().getString();
+        CharSequence right = this.stack.popText();
+        CharSequence left = this.stack.popText();
 
-        if (!left.equals(right))
-            this.stack.push(new Value(true));
-        else
-            this.stack.push(new Value(false));
+        this.stack.pushBoolean(!ConcatString.contentEquals(left, right));
     }
 
     private void bprint()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(PRINT_NIL_ERROR);
+        checkNil(1, PRINT_NIL_ERROR);
 
-        System.out.println(this.stack.pop().getBoolean());
+        this.output.printBoolean(this.stack.popBoolean());
     }
 
     private void beq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        boolean right = this.stack.pop().getBoolean();
-        boolean left = this.stack.pop().getBoolean();
+        boolean right = this.stack.popBoolean();
+        boolean left = this.stack.popBoolean();
 
-        if (left == right)
-            stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left == right);
     }
 
     private void bneq()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        boolean right = this.stack.pop().getBoolean();
-        boolean left = this.stack.pop().getBoolean();
+        boolean right = this.stack.popBoolean();
+        boolean left = this.stack.popBoolean();
 
-        if (left != right)
-            this.stack.push(new Value(true));
-        else
-            stack.push(new Value(false));
+        this.stack.pushBoolean(left != right);
     }
 
     private void btos()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(CAST_NIL_ERROR);
-
-
-        if (this.stack.pop().getBoolean())
-            this.stack.push(new Value("\"true\""));
-
-        else
-            this.stack.push(new Value("\"false\""));
+        checkNil(1, CAST_NIL_ERROR);
 
+        this.stack.pushString(this.stack.popBoolean() ? "true" : "false");
     }
 
     private void and()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        boolean right = this.stack.pop().getBoolean();
-        boolean left = this.stack.pop().getBoolean();
+        boolean right = this.stack.popBoolean();
+        boolean left = this.stack.popBoolean();
 
-        this.stack.push(new Value(left && right));
+        this.stack.pushBoolean(left && right);
     }
 
     private void or()
     {
-        if(isNIL(stack.peek()) || isNIL(stack.get(stack.size() - 2)))
-            ErrorLog.fatalError(COMPARE_NIL_ERROR);
+        checkNil(2, COMPARE_NIL_ERROR);
 
-        boolean right = this.stack.pop().getBoolean();
-        boolean left = this.stack.pop().getBoolean();
+        boolean right = this.stack.popBoolean();
+        boolean left = this.stack.popBoolean();
 
-        this.stack.push(new Value(left || right));
+        this.stack.pushBoolean(left || right);
     }
 
     private void not()
     {
-        if(isNIL(stack.peek()))
-            ErrorLog.fatalError(UNARY_NIL_ERROR);
+        checkNil(1, UNARY_NIL_ERROR);
 
-        boolean bool = this.stack.pop().getBoolean();
+        this.stack.pushBoolean(!this.stack.popBoolean());
+    }
 
-        this.stack.push(new Value(!bool));
+    //Unchecked forms of the instructions above, the verifier proved their operands are there with the right type
+    private void ujumpt(int line)
+    {
+        if(this.stack.popBooleanUnchecked())
+            jump(line);
     }
 
-    private void halt()
+    private void ujumpf(int line)
     {
-        System.exit(0);
+        if(!this.stack.popBooleanUnchecked())
+            jump(line);
     }
 
-    private boolean opCodeHasArgument(OpCode instruction)
+    private void ugload(int address)
     {
-        return instruction == OpCode.iconst || instruction == OpCode.dconst || instruction == OpCode.sconst ||
-                instruction == OpCode.galloc || instruction == OpCode.gload || instruction == OpCode.gstore ||
-                instruction == OpCode.lalloc || instruction == OpCode.lload || instruction == OpCode.lstore ||
-                instruction == OpCode.call || instruction == OpCode.retval || instruction == OpCode.ret ||
-                instruction == OpCode.jump || instruction == OpCode.jumpf || instruction == OpCode.jumpt ||
-                instruction == OpCode.pop
-                ;
+        this.stack.load(this.globalMemory, address);
     }
 
+    private void ulload(int address)
+    {
+        this.stack.load(this.stack, this.framePointer + address);
+    }
 
-    private void generateInstructions() throws IOException
+    private void uiadd()
     {
-        //Generates the constant pool from the bytecode file
-        int constantPoolSize = this.byteCodeBuffer.getInt();
-        while (constantPoolSize-- > 0)
-        {
-            OpCode instruction = OpCode.values()[this.byteCodeBuffer.getByte()];
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
 
-            if(instruction == OpCode.dconst)
-            {
-                this.constPool.add(new Instruction(OpCode.dconst, new Value(this.byteCodeBuffer.getDouble())));
-            }
+        this.stack.pushInt(left + right);
+    }
 
-            else if(instruction == OpCode.sconst)
-            {
-                this.constPool.add(new Instruction(OpCode.sconst, new Value(this.byteCodeBuffer.getString())));
-            }
-        }
+    private void uisub()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
 
-        //Generates the instructions from the bytecode file
-        while(this.byteCodeBuffer.isAvailable())
-        {
+        this.stack.pushInt(left - right);
+    }
 
-            OpCode instruction = OpCode.values()[this.byteCodeBuffer.getByte()];
+    private void uimult()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
 
-            if(this.opCodeHasArgument(instruction))
-            {
-                this.instructions.add(new Instruction(instruction, new Value(this.byteCodeBuffer.getInt())));
-            }
-            else
-            {
-                this.instructions.add(new Instruction(instruction));
-            }
-        }
+        this.stack.pushInt(left * right);
+    }
 
-        this.byteCodeBuffer.close();
+    private void uidiv()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
+
+        if(right == 0)
+            throw new VMFault("Divisor mustn't be 0");
+
+        this.stack.pushInt(left / right);
     }
 
+    private void uimod()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
+
+        if(right == 0)
+            throw new VMFault("Divisor mustn't be 0");
+
+        this.stack.pushInt(left % right);
+    }
+
+    private void uieq()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
+
+        this.stack.pushBoolean(left == right);
+    }
+
+    private void uineq()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
+
+        this.stack.pushBoolean(left != right);
+    }
+
+    private void uilt()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
+
+        this.stack.pushBoolean(left < right);
+    }
+
+    private void uileq()
+    {
+        int right = this.stack.popIntUnchecked();
+        int left = this.stack.popIntUnchecked();
+
+        this.stack.pushBoolean(left <= right);
+    }
+
+    private void udadd()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushDouble(left + right);
+    }
+
+    private void udsub()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushDouble(left - right);
+    }
+
+    private void udmult()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushDouble(left * right);
+    }
+
+    private void uddiv()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        if(right == 0)
+            throw new VMFault("Divisor mustn't be 0");
+
+        this.stack.pushDouble(left / right);
+    }
+
+    private void udeq()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushBoolean(left == right);
+    }
+
+    private void udneq()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushBoolean(left != right);
+    }
+
+    private void udlt()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushBoolean(left < right);
+    }
+
+    private void udleq()
+    {
+        double right = this.stack.popDoubleUnchecked();
+        double left = this.stack.popDoubleUnchecked();
+
+        this.stack.pushBoolean(left <= right);
+    }
+
+    //iconst constant; lload n; iadd; lstore n
+    private void linc(int constant)
+    {
+        int position = this.framePointer + this.arguments[this.instructionPointer];
+
+        if(position < 0 || position >= this.stack.size())
+            throw new VMFault("Accessing memory out of bounds");
+
+        if(this.stack.tagAt(position) == OperandStack.NIL)
+            throw new VMFault(ADDITION_NIL_ERROR);
+
+        this.stack.setInt(position, constant + this.stack.intAt(position));
+        this.instructionPointer += 3;
+    }
+
+    //iconst constant; gload n; iadd; gstore n
+    private void ginc(int constant)
+    {
+        int address = this.arguments[this.instructionPointer];
+
+        if(address >= this.globalMemory.size())
+            throw new VMFault("Index out of bounds.");
+
+        if(this.globalMemory.tagAt(address) == OperandStack.NIL)
+            throw new VMFault(ADDITION_NIL_ERROR);
+
+        this.globalMemory.setInt(address, constant + this.globalMemory.intAt(address));
+        this.instructionPointer += 3;
+    }
+
+    //Fused compare and jumpf, the jumpf that follows holds the jump target
+    private void compareJumpf(boolean condition)
+    {
+        if(condition)
+            this.instructionPointer++;
+        else
+            jump(this.arguments[this.instructionPointer]);
+    }
+
+    private void iltjumpf()
+    {
+        checkNil(2, COMPARE_NIL_ERROR);
+
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
+
+        compareJumpf(left < right);
+    }
+
+    private void ileqjumpf()
+    {
+        checkNil(2, COMPARE_NIL_ERROR);
+
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
+
+        compareJumpf(left <= right);
+    }
+
+    private void ieqjumpf()
+    {
+        checkNil(2, COMPARE_NIL_ERROR);
+
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
+
+        compareJumpf(left == right);
+    }
+
+    private void ineqjumpf()
+    {
+        checkNil(2, COMPARE_NIL_ERROR);
+
+        int right = this.stack.popInt();
+        int left = this.stack.popInt();
+
+        compareJumpf(left != right);
+    }
+
+    private void halt()
+    {
+        this.instructionPointer = this.code.length;
+    }
+
+    static boolean opCodeHasArgument(OpCode instruction)
+    {
+        return instruction == OpCode.iconst || instruction == OpCode.dconst || instruction == OpCode.sconst ||
+                instruction == OpCode.galloc || instruction == OpCode.gload || instruction == OpCode.gstore ||
+                instruction == OpCode.lalloc || instruction == OpCode.lload || instruction == OpCode.lstore ||
+                instruction == OpCode.call || instruction == OpCode.tcall || instruction == OpCode.retval || instruction == OpCode.ret ||
+                instruction == OpCode.jump || instruction == OpCode.jumpf || instruction == OpCode.jumpt ||
+                instruction == OpCode.pop
+                ;
+    }
+
+
     private static String readInput()
     {
         String result = "";
@@ -844,21 +2018,64 @@ public class tVM
     public static void main(String[] args) throws Exception
     {
 
-        if(args.length > 2)
-        {
-            ErrorLog.fatalError("Too many Program arguments. tVM.tVM [OPTION] [FILE]");
-        }
-
         String inputFile = null;
         boolean trace = false;
+        boolean threaded = false;
+        boolean inPlace = false;
+        boolean registers = false;
+        boolean quicken = true;
+        Superinstructions superinstructions = Superinstructions.builtIn();
+        String bigramOutputFile = null;
+        String binaryTraceFile = null;
+        int traceRingCapacity = 0;
+        int jitThreshold = 0;
+        boolean profile = false;
+        String collapsedStacksFile = null;
+        int outputThreshold = OutputBuffer.DEFAULT_THRESHOLD;
+        OutputBuffer.FlushPolicy flushPolicy = OutputBuffer.FlushPolicy.THRESHOLD;
 
         for (String arg : args)
         {
 
             if (arg.equals("-trace") || arg.equals("-t"))
                 trace = true;
-            else
+            else if (arg.equals("-threaded"))
+                threaded = true;
+            else if (arg.equals("-in-place"))
+                inPlace = true;
+            else if (arg.equals("-registers"))
+                registers = true;
+            else if (arg.equals("-no-quicken"))
+                quicken = false;
+            else if (arg.equals("-no-superinstructions"))
+                superinstructions = Superinstructions.none();
+            else if (arg.startsWith("-superinstructions="))
+                superinstructions = Superinstructions.fromProfile(BigramProfile.read(arg.substring("-superinstructions=".length())));
+            else if (arg.startsWith("-record-bigrams="))
+                bigramOutputFile = arg.substring("-record-bigrams=".length());
+            else if (arg.startsWith("-trace-binary="))
+                binaryTraceFile = arg.substring("-trace-binary=".length());
+            else if (arg.startsWith("-trace-ring="))
+                traceRingCapacity = Integer.parseInt(arg.substring("-trace-ring=".length()));
+            else if (arg.startsWith("-output-buffer="))
+                outputThreshold = Integer.parseInt(arg.substring("-output-buffer=".length()));
+            else if (arg.equals("-flush-every-print"))
+                flushPolicy = OutputBuffer.FlushPolicy.EVERY_PRINT;
+            else if (arg.equals("-profile"))
+                profile = true;
+            else if (arg.startsWith("-profile-stacks="))
+            {
+                profile = true;
+                collapsedStacksFile = arg.substring("-profile-stacks=".length());
+            }
+            else if (arg.equals("-jit"))
+                jitThreshold = MethodJit.DEFAULT_THRESHOLD;
+            else if (arg.startsWith("-jit-threshold="))
+                jitThreshold = Integer.parseInt(arg.substring("-jit-threshold=".length()));
+            else if (inputFile == null)
                 inputFile = arg;
+            else
+                ErrorLog.fatalError("Too many Program arguments. tVM.tVM [OPTION]... [FILE]");
         }
 
         if (inputFile == null)
@@ -880,7 +2097,116 @@ public class tVM
             ErrorLog.fatalError("Invalid file extension, File must have the extension tbc.");
         }
 
-        tVM virtualMachine = new tVM(trace);
-        virtualMachine.execute(inputFile);
+        ArrayList<ExecutionListener> listeners = new ArrayList<>();
+
+        if (trace)
+            listeners.add(new TextTraceListener());
+
+        if (binaryTraceFile != null)
+        {
+            BinaryTraceWriter traceWriter = new BinaryTraceWriter(binaryTraceFile, traceRingCapacity);
+            listeners.add(traceWriter);
+
+            //Fatal errors exit the JVM, the hook still writes the trace that leads up to them
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+            {
+                try
+                {
+                    traceWriter.close();
+                }
+                catch (IOException e)
+                {
+                    System.err.println("Couldn't write the trace: " + e.getMessage());
+                }
+            }));
+        }
+
+        Profiler profiler = null;
+        if (profile)
+        {
+            profiler = new Profiler();
+            listeners.add(profiler);
+        }
+
+        BigramProfile bigramProfile = null;
+        if (bigramOutputFile != null)
+        {
+            //Superinstructions are left out while recording so the profile reflects the compiled code
+            bigramProfile = new BigramProfile();
+            superinstructions = Superinstructions.none();
+            listeners.add(bigramProfile);
+        }
+
+        ExecutionListener listener = listeners.isEmpty() ? null : ExecutionListener.all(listeners);
+
+        //Running in place skips the decoding every other mode needs
+        if (inPlace && (listener != null || threaded || jitThreshold > 0))
+            ErrorLog.fatalError("-in-place can't be combined with tracing, profiling, -threaded or the JIT.");
+
+        if (inPlace)
+        {
+            MappedProgram mappedProgram = null;
+            try
+            {
+                mappedProgram = MappedProgram.map(Path.of(inputFile));
+            }
+            catch (InvalidProgramException e)
+            {
+                ErrorLog.fatalError(e.getMessage());
+            }
+
+            try
+            {
+                OutputBuffer output = new OutputBuffer(System.out, System.out.charset(), outputThreshold, flushPolicy);
+                new tVM(VMOptions.defaults()).run(mappedProgram, new ExecutionContext(output));
+            }
+            catch (VMFault e)
+            {
+                ErrorLog.fatalError(e.getMessage());
+            }
+
+            return;
+        }
+
+        Program program = null;
+        try
+        {
+            program = Program.load(Path.of(inputFile));
+        }
+        catch (InvalidProgramException e)
+        {
+            ErrorLog.fatalError(e.getMessage());
+        }
+
+        tVM virtualMachine = new tVM(new VMOptions(listener, threaded, superinstructions, jitThreshold, registers, quicken));
+
+        //A text trace is printed as the program runs, so the program output can't wait in the buffer
+        if (trace)
+            flushPolicy = OutputBuffer.FlushPolicy.EVERY_PRINT;
+
+        try
+        {
+            OutputBuffer output = new OutputBuffer(System.out, System.out.charset(), outputThreshold, flushPolicy);
+            virtualMachine.run(program, new ExecutionContext(output));
+        }
+        catch (VMFault e)
+        {
+            //The profile of a run that failed still shows where it spent its time
+            if (profiler != null)
+                profiler.report(System.err);
+
+            ErrorLog.fatalError(e.getMessage());
+        }
+
+        if (profiler != null)
+        {
+            profiler.report(System.err);
+
+            if (collapsedStacksFile != null)
+                profiler.writeCollapsedStacks(collapsedStacksFile);
+        }
+
+        if(bigramProfile != null)
+            bigramProfile.write(bigramOutputFile);
     }
 }
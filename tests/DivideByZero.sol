@@ -0,0 +1,15 @@
+int divide(int a, int b)
+begin
+    return a / b;
+end
+
+void main()
+begin
+    int i = 3;
+    while i >= 0 do
+    begin
+        print divide(12, i);
+        i = i - 1;
+    end
+    print "never";
+end
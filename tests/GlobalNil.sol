@@ -0,0 +1,11 @@
+int total = 0;
+int count;
+
+void main()
+begin
+    int i;
+    for i = 1 to 5 do total = total + i;
+    print total;
+    print count + 1;
+    print "never";
+end
@@ -0,0 +1,12 @@
+int depth(int n)
+begin
+    if n == 0 then return 0;
+    return 1 + depth(n - 1);
+end
+
+void main()
+begin
+    print depth(10);
+    print depth(1000000);
+    print depth(20);
+end
@@ -0,0 +1,83 @@
+int calls = 0;
+
+string classify(int n)
+begin
+    calls = calls + 1;
+    if n < 0 then return "negative";
+    else if n == 0 then return "zero";
+    else if n < 10 then return "small";
+    else if n <= 100 then return "medium";
+    return "large";
+    print "unreachable";
+end
+
+int firstDivisor(int n)
+begin
+    int d = 2;
+    while d * d <= n do
+    begin
+        int rest = n % d;
+        if rest == 0 then
+        begin
+            int found = d;
+            break;
+        end
+        d = d + 1;
+    end
+    if d * d > n then return n;
+    return d;
+end
+
+int nested(int limit)
+begin
+    int i, j, total = 0;
+    for i = 1 to limit do
+    begin
+        int row = 0;
+        for j = 1 to limit do
+        begin
+            int cell = i * j;
+            if cell > 12 then break;
+            if not (cell != 6) then
+            begin
+                int skipped = cell;
+                row = row + 100;
+            end
+            else row = row + cell;
+        end
+        if row > 120 then
+        begin
+            string note = "stop at " + i;
+            print note;
+            break;
+        end
+        total = total + row;
+    end
+    return total;
+end
+
+void main()
+begin
+    int k, x = 5;
+    real r = 3;
+    x = x;
+    print classify(-3); print classify(0); print classify(7);
+    print classify(42); print classify(1000);
+    print calls;
+    for k = 12 to 16 do print firstDivisor(k);
+    print nested(5);
+    print nested(2);
+    print -r;
+    print r / 2;
+    print not (x < 3 or x >= 5) and true;
+    while x > 0 do
+    begin
+        if x == 2 then
+        begin
+            x = x - 1;
+        end
+        else if x == 4 then x = x - 2;
+        else x = x - 1;
+        print x;
+    end
+end
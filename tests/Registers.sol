@@ -0,0 +1,73 @@
+int counter = 0;
+real scale = 0.5;
+string log = "";
+bool seen;
+
+int gcd(int a, int b)
+begin
+    if b == 0 then return a;
+    return gcd(b, a % b);
+end
+
+real power(real base, int exponent)
+begin
+    real result = 1;
+    while exponent > 0 do
+    begin
+        result = result * base;
+        exponent = exponent - 1;
+    end
+    return result;
+end
+
+string repeat(string text, int times)
+begin
+    string result = "";
+    int i;
+    for i = 1 to times do result = result + text;
+    return result;
+end
+
+void record(string entry)
+begin
+    counter = counter + 1;
+    log = log + entry + ";";
+end
+
+bool between(int value, int low, int high)
+begin
+    return value >= low and value <= high;
+end
+
+void main()
+begin
+    int i, sum = 0;
+    real average;
+    print gcd(84, 36);
+    print gcd(17, 5);
+    print power(2, 10);
+    print power(1.5, 3) * scale;
+    print repeat("ab", 3);
+    for i = 1 to 10 do
+    begin
+        int square = i * i;
+        if between(square, 10, 50) then
+        begin
+            record("sq" + square);
+            sum = sum + square;
+        end
+        else if i % 2 == 0 then sum = sum - i;
+    end
+    print sum;
+    print counter;
+    print log;
+    average = sum / counter;
+    print average;
+    print -average + 1 < 0;
+    print "x" == "x" and not (1 != 1);
+    seen = counter > 3;
+    print seen;
+    print 7 / 2 * 2.0 - 0.5;
+    print 10 % 3 - -2;
+    print "done " + seen + " " + average;
+end
@@ -0,0 +1,25 @@
+int firstOver(int limit)
+begin
+    int i, found;
+    for i = 0 to 10 do
+    begin
+        int square = i * i;
+        if square > limit then
+        begin
+            found = i;
+            break;
+        end
+    end
+    return found * 2;
+end
+
+void main()
+begin
+    int k, n = 0;
+    for k = 1 to 4 do n = n + k;
+    print n;
+    print firstOver(20);
+    print firstOver(50);
+    print firstOver(200);
+    print "never";
+end